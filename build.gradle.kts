@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "za.co.wethinkcode"
@@ -19,5 +20,25 @@ dependencies {
 }
 
 tasks.test {
-    useJUnitPlatform()
-}
\ No newline at end of file
+    useJUnitPlatform {
+        excludeTags("soak")
+    }
+}
+
+// Long running soak tests, run with ./gradlew soakTest
+tasks.register<Test>("soakTest") {
+    description = "Runs the tests tagged soak."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("soak")
+    }
+}
+
+// Benchmarks live in src/jmh/java and run with ./gradlew jmh
+jmh {
+    jmhVersion.set("1.37")
+    // Report allocation per operation alongside the timings
+    profilers.add("gc")
+}
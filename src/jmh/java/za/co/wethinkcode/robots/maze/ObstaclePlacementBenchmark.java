@@ -0,0 +1,39 @@
+package za.co.wethinkcode.robots.maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times generating a map of 100,000 random obstacles as the map gets smaller and so denser. On the smallest
+ * map they do not all fit, and the time is how long the placer takes to give up. The number placed and the
+ * candidates tried are printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObstaclePlacementBenchmark {
+    private static final int OBSTACLES = 100_000;
+
+    @Param({"10000", "4000", "2500"})
+    public int size;
+
+    private final Random random = new Random(42);
+    private ObstaclePlacer.Placement last;
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("Placed %d of %d obstacles on a %dx%d map after %d attempts%n",
+                last.obstacles().size(), OBSTACLES, size, size, last.attempts());
+    }
+
+    @Benchmark
+    public ObstaclePlacer.Placement place() {
+        last = new ObstaclePlacer(size, size, random).place(OBSTACLES);
+        return last;
+    }
+}
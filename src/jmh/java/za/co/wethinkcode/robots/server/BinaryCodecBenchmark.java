@@ -0,0 +1,107 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link BinaryCodec} with the JSON protocol for a forward request and a look response,
+ * the pair a busy bot sends and receives most. The encoded sizes of both are printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryCodecBenchmark {
+    private static final String REQUEST = "{\"robot\":\"HAL\",\"command\":\"forward\",\"arguments\":[10]}";
+
+    private byte[] binaryRequest;
+    private JsonObject response;
+    private String jsonResponse;
+    private byte[] binaryResponse;
+    private ByteArrayOutputStream bytes;
+    private JsonGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryCodec.writeRequest(JsonParser.parseString(REQUEST).getAsJsonObject(), payload);
+        binaryRequest = payload.toByteArray();
+
+        response = new JsonObject();
+        response.addProperty("result", "OK");
+        JsonObject data = new JsonObject();
+        JsonArray objects = new JsonArray();
+        String[] directions = {"NORTH", "EAST", "SOUTH", "WEST"};
+        for (int i = 0; i < 4; i++) {
+            JsonObject object = new JsonObject();
+            object.addProperty("direction", directions[i]);
+            object.addProperty("type", i % 2 == 0 ? "MOUNTAIN" : "EDGE");
+            object.addProperty("distance", i + 2);
+            objects.add(object);
+        }
+        data.add("objects", objects);
+        response.add("data", data);
+        response.add("state", new Robot("HAL", "sniper").state());
+
+        jsonResponse = response.toString();
+        payload.reset();
+        BinaryCodec.writeResponse(response, payload);
+        binaryResponse = payload.toByteArray();
+        bytes = new ByteArrayOutputStream(512);
+        generator = JsonCodec.responseGenerator(bytes);
+
+        System.out.printf("%nrequest: json %d bytes, binary %d bytes; look response: json %d bytes, binary %d bytes%n",
+                REQUEST.length() + 1, binaryRequest.length + 1,
+                jsonResponse.getBytes(StandardCharsets.UTF_8).length + 1, binaryResponse.length + 1);
+    }
+
+    @Benchmark
+    public Request decodeJsonRequest() {
+        return JsonCodec.decodeRequest(REQUEST);
+    }
+
+    @Benchmark
+    public Request decodeBinaryRequest() {
+        return BinaryCodec.readRequest(binaryRequest, "HAL");
+    }
+
+    @Benchmark
+    public int encodeJsonResponse() throws IOException {
+        bytes.reset();
+        JsonCodec.writeLine(response, generator);
+        generator.flush();
+        return bytes.size();
+    }
+
+    @Benchmark
+    public int encodeBinaryResponse() {
+        bytes.reset();
+        BinaryCodec.writeResponse(response, bytes);
+        return bytes.size();
+    }
+
+    /**
+     * The client's side of a response: the JSON tree parsed back from a line.
+     */
+    @Benchmark
+    public JsonElement decodeJsonResponse() {
+        return JsonParser.parseString(jsonResponse);
+    }
+
+    @Benchmark
+    public JsonElement decodeBinaryResponse() {
+        return BinaryCodec.readResponse(binaryResponse);
+    }
+}
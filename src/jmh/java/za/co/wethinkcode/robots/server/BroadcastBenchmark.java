@@ -0,0 +1,122 @@
+package za.co.wethinkcode.robots.server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times broadcasting one message to every subscriber, from the call until it is queued on all of them.
+ * The broadcaster encodes the message once and queues the same bytes on each connection; the old loop
+ * encoded it again for every connection. The blocking engine's path copies the shared bytes into each
+ * connection's {@link OutboundBuffer}, whose writers drain to a null stream.
+ * The broadcaster's fan-out figures are printed when the trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+    private static final String MESSAGE = "{\"result\":\"OK\",\"data\":{\"message\":\"World reset\"}}";
+
+    @Param({"1000", "10000"})
+    public int subscribers;
+
+    private Broadcaster shared;
+    private Broadcaster buffered;
+    private List<QueueConnection> connections;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shared = new Broadcaster();
+        buffered = new Broadcaster();
+        connections = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            QueueConnection connection = new QueueConnection();
+            connections.add(connection);
+            shared.subscribe(connection);
+            buffered.subscribe(new BufferedConnection());
+        }
+        shared.start();
+        buffered.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println("shared:   " + shared.getStats());
+        System.out.println("buffered: " + buffered.getStats());
+        shared.shutdown();
+        buffered.shutdown();
+    }
+
+    @Benchmark
+    public int broadcastShared() {
+        return shared.broadcast(MESSAGE).join();
+    }
+
+    @Benchmark
+    public int broadcastToOutboundBuffers() {
+        return buffered.broadcast(MESSAGE).join();
+    }
+
+    @Benchmark
+    public int encodePerConnection() {
+        for (QueueConnection connection : connections) connection.send(MESSAGE);
+        return connections.size();
+    }
+
+    /**
+     * Stands in for a selector connection: queuing is keeping a view of the bytes.
+     */
+    private static class QueueConnection implements ClientConnection {
+        private ByteBuffer last;
+
+        @Override
+        public void send(String line) {
+            last = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean send(SharedMessage message) {
+            last = message.jsonLine().duplicate();
+            return true;
+        }
+
+        @Override
+        public void useBinaryFrames() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "bench";
+        }
+    }
+
+    /**
+     * Stands in for a blocking connection: queuing copies into its outbound buffer.
+     */
+    private static class BufferedConnection extends QueueConnection {
+        private final OutboundBuffer buffer = new OutboundBuffer(OutputStream.nullOutputStream(), 256 * 1024, 5000, () -> { });
+
+        @Override
+        public boolean send(SharedMessage message) {
+            return buffer.offer(message.jsonLine());
+        }
+    }
+}
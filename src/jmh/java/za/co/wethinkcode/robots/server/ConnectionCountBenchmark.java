@@ -0,0 +1,71 @@
+package za.co.wethinkcode.robots.server;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.world.World;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the threaded and NIO engines while a growing number of clients stay connected.
+ * Every invocation sends one request on every open connection and waits for all the replies,
+ * so the score is the cost of serving one round of requests across N live connections.
+ * An unknown command is used as the probe, which exercises request parsing and the reply path
+ * without needing a launched robot (the 20x20 world cannot hold thousands of robots).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionCountBenchmark {
+    private static final String PROBE = "{\"robot\":\"bench\",\"command\":\"ping\",\"arguments\":[]}";
+
+    @Param({"THREADED", "NIO"})
+    public String engine;
+
+    @Param({"100", "1000", "4000"})
+    public int connections;
+
+    private MultiServerEngine server;
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<PrintStream> outs = new ArrayList<>();
+    private final List<BufferedReader> ins = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Config.loadConfig("config.properties");
+        server = new MultiServerEngine(new World(false), EngineMode.valueOf(engine));
+        server.start(0);
+        for (int i = 0; i < connections; i++) {
+            Socket socket = new Socket("localhost", server.getPort());
+            sockets.add(socket);
+            outs.add(new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false));
+            ins.add(new BufferedReader(new InputStreamReader(socket.getInputStream())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) socket.close();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public int roundTripOnEveryConnection() throws IOException {
+        for (PrintStream out : outs) {
+            out.println(PROBE);
+            out.flush();
+        }
+        int replies = 0;
+        for (BufferedReader in : ins) {
+            if (in.readLine() != null) replies++;
+        }
+        return replies;
+    }
+}
@@ -0,0 +1,74 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link JsonCodec} with the tree based path requests and responses took before it:
+ * JsonParser.parseString for a request line, and toString() then getBytes() for a typical response with the robot's state.
+ * Run with the gc profiler the build configures to compare the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+    private static final String REQUEST = "{\"robot\":\"HAL\",\"command\":\"forward\",\"arguments\":[\"10\"]}";
+
+    private JsonObject response;
+    private ByteArrayOutputStream bytes;
+    private JsonGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        response = new JsonObject();
+        response.addProperty("result", "OK");
+        JsonObject data = new JsonObject();
+        data.addProperty("message", "Done");
+        response.add("data", data);
+        response.add("state", new Robot("HAL", "sniper").state());
+        bytes = new ByteArrayOutputStream(256);
+        generator = JsonCodec.responseGenerator(bytes);
+    }
+
+    @Benchmark
+    public Request decodeStreaming() {
+        return JsonCodec.decodeRequest(REQUEST);
+    }
+
+    @Benchmark
+    public JsonArray decodeTree() {
+        JsonObject request = JsonParser.parseString(REQUEST).getAsJsonObject();
+        request.get("robot").getAsString();
+        request.get("command").getAsString();
+        return request.get("arguments").getAsJsonArray();
+    }
+
+    /**
+     * Writes the response the way NioConnection does: as UTF-8 into a reused buffer, then copied into its own.
+     */
+    @Benchmark
+    public ByteBuffer encodeStreaming() throws IOException {
+        bytes.reset();
+        JsonCodec.writeLine(response, generator);
+        generator.flush();
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    @Benchmark
+    public ByteBuffer encodeTree() {
+        return ByteBuffer.wrap((response.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
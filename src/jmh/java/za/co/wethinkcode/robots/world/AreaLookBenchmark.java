@@ -0,0 +1,96 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.look.AreaLookCommand;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the radius and cone looks from 1,024 robots in a 10000x10000 world with 100,000 robots and
+ * 100,000 obstacles, at the default visibility and at a much longer one. {@code scanAllRobots} finds the
+ * robots in the same square by going over every robot, for comparison with the area index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AreaLookBenchmark {
+    private static final int SIZE = 10_000;
+    private static final int ROBOTS = 100_000;
+    private static final int OBSTACLES = 100_000;
+    private static final int QUERIES = 1024;
+
+    @Param({"15", "100"})
+    public int visibility;
+
+    private World world;
+    private Robot[] lookers;
+    private final AreaLookCommand radius = new AreaLookCommand(AreaLookCommand.Shape.RADIUS, 0);
+    private final AreaLookCommand cone = new AreaLookCommand(AreaLookCommand.Shape.CONE, 90);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Config.VISIBILITY = visibility;
+        Random random = new Random(42);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < OBSTACLES; i++) {
+            int x = random.nextInt(SIZE - 5);
+            int y = random.nextInt(SIZE - 5);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(5), y + random.nextInt(5),
+                    ObstacleType.values()[random.nextInt(ObstacleType.values().length)]));
+        }
+        world = new World(false, new Maze(obstacles, SIZE, SIZE));
+        for (int i = 0; i < ROBOTS; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            robot.setPosition(new Position(random.nextInt(SIZE), random.nextInt(SIZE)));
+        }
+
+        List<Robot> robots = world.getRobots();
+        lookers = new Robot[QUERIES];
+        for (int i = 0; i < QUERIES; i++) lookers[i] = robots.get(random.nextInt(robots.size()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public JsonObject radius() {
+        return radius.execute(world, lookers[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public JsonObject cone() {
+        return cone.execute(world, lookers[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public int scanAllRobots() {
+        Position from = lookers[next++ & (QUERIES - 1)].getPosition();
+        int found = 0;
+        for (Robot robot : world.getRobots()) {
+            Position position = robot.getPosition();
+            if (Math.abs(position.getX() - from.getX()) <= visibility
+                    && Math.abs(position.getY() - from.getY()) <= visibility) found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,134 @@
+package za.co.wethinkcode.robots.world;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static za.co.wethinkcode.robots.Direction.*;
+
+/**
+ * Compares the occupancy grid collision check with the scan World used before it,
+ * which walked every robot and every obstacle for each move.
+ * The world is 1000x1000 with 200 obstacles, and each query is a robot trying to move five steps
+ * in the direction it faces. The score is the cost of one check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionCheckBenchmark {
+    private static final int SIZE = 1000;
+    private static final int OBSTACLES = 200;
+    private static final int QUERIES = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int robotCount;
+
+    private World world;
+    private List<Robot> robots;
+    private List<Obstacle> obstacles;
+    private Robot[] movers;
+    private Position[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Random random = new Random(42);
+
+        obstacles = new ArrayList<>();
+        ObstacleType[] types = ObstacleType.values();
+        for (int i = 0; i < OBSTACLES; i++) {
+            int x = random.nextInt(SIZE - 5);
+            int y = random.nextInt(SIZE - 5);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(5), y + random.nextInt(5), types[i % types.length]));
+        }
+        world = new World(false, new Maze(obstacles));
+
+        for (int i = 0; i < robotCount; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            Position position;
+            do {
+                position = new Position(random.nextInt(SIZE), random.nextInt(SIZE));
+            } while (!world.isLaunchAllowed(robot, position));
+            robot.setPosition(position);
+            for (int turns = random.nextInt(4); turns > 0; turns--) robot.updateDirection(true);
+        }
+        robots = world.getRobots();
+
+        movers = new Robot[QUERIES];
+        targets = new Position[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Robot mover = robots.get(random.nextInt(robots.size()));
+            movers[i] = mover;
+            targets[i] = mover.getPosition().newPos(mover.getCurrentDirection(), 5);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public boolean occupancyGrid() {
+        int i = next++ & (QUERIES - 1);
+        return world.isNewPositionAllowed(movers[i], targets[i]);
+    }
+
+    @Benchmark
+    public boolean legacyScan() {
+        int i = next++ & (QUERIES - 1);
+        return legacyIsNewPositionAllowed(movers[i], targets[i]);
+    }
+
+    /**
+     * World.isNewPositionAllowed as it was before the occupancy grid, kept here as the baseline.
+     */
+    private boolean legacyIsNewPositionAllowed(Robot currentRobot, Position newPosition) {
+        for (Robot robot : robots) {
+            if (robot.getName().equals(currentRobot.getName())) continue;
+
+            boolean robotDoesNotBlock = true;
+            if (robot.getPosition().equals(newPosition)) robotDoesNotBlock = false;
+
+            if (robot.getPosition().getY() == currentRobot.getPosition().getY()) {
+                if (currentRobot.getPosition().getX() > robot.getPosition().getX()) {
+                    if (currentRobot.getCurrentDirection() == WEST)
+                        robotDoesNotBlock = newPosition.getX() > robot.getPosition().getX();
+                }
+                else if (currentRobot.getCurrentDirection() == EAST)
+                    robotDoesNotBlock = newPosition.getX() < robot.getPosition().getX();
+            } else if (robot.getPosition().getX() == currentRobot.getPosition().getX()) {
+                if (currentRobot.getPosition().getY() > robot.getPosition().getY()) {
+                    if (currentRobot.getCurrentDirection() == NORTH)
+                        robotDoesNotBlock = newPosition.getY() > robot.getPosition().getY();
+                } else {
+                    robotDoesNotBlock = newPosition.getY() < robot.getPosition().getY();
+                }
+            }
+            if (!robotDoesNotBlock) return false;
+        }
+
+        for (Obstacle obstacle : obstacles) {
+            if ((newPosition.isIn(obstacle.getTopLeft(), obstacle.getBottomRight())
+                    || obstacle.blocksPath(currentRobot.getPosition(), newPosition))
+                    && obstacle.getType() != ObstacleType.BOTTOMLESS_PIT) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package za.co.wethinkcode.robots.world;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the robots in a line of sight through the world's row and column index
+ * with the scan over every robot that fire and look used before it.
+ * The world is 1000x1000 and each query looks VISIBILITY cells in one direction from a random robot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineOfSightBenchmark {
+    private static final int SIZE = 1000;
+    private static final int QUERIES = 1024;
+    private static final int RANGE = 10;
+
+    @Param({"500", "5000", "50000"})
+    public int robotCount;
+
+    private World world;
+    private Position[] origins;
+    private Direction[] directions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Random random = new Random(42);
+        world = new World(false, new Maze(new ArrayList<>()));
+        for (int i = 0; i < robotCount; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            robot.setPosition(new Position(random.nextInt(SIZE), random.nextInt(SIZE)));
+        }
+
+        List<Robot> robots = world.getRobots();
+        origins = new Position[QUERIES];
+        directions = new Direction[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            origins[i] = robots.get(random.nextInt(robots.size())).getPosition();
+            directions[i] = Direction.values()[random.nextInt(4)];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public int lineIndex() {
+        int i = next++ & (QUERIES - 1);
+        return world.robotsInLine(origins[i], directions[i], RANGE).size();
+    }
+
+    @Benchmark
+    public int scanAllRobots() {
+        int i = next++ & (QUERIES - 1);
+        Position from = origins[i];
+        Direction direction = directions[i];
+        int found = 0;
+        for (Robot robot : world.getRobots()) {
+            Position position = robot.getPosition();
+            boolean inLine = switch (direction) {
+                case NORTH -> position.getX() == from.getX() && position.getY() < from.getY();
+                case SOUTH -> position.getX() == from.getX() && position.getY() > from.getY();
+                case WEST -> position.getY() == from.getY() && position.getX() < from.getX();
+                case EAST -> position.getY() == from.getY() && position.getX() > from.getX();
+            };
+            if (inLine && from.distanceFrom(position, direction) <= RANGE) found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,82 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonArray;
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.look.DetectedObjectDetails;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the look command from 1,024 robots in a 1000x1000 world with 5,000 robots, as the number of obstacles grows.
+ * The obstacles only come from the world's visibility table, so a look should cost the same however many there are.
+ * Each look is worked out in full rather than answered from the look cache, which {@link LookCacheBenchmark} times.
+ * {@code sightlines} times the table lookup on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookBenchmark {
+    private static final int SIZE = 1000;
+    private static final int ROBOTS = 5000;
+    private static final int QUERIES = 1024;
+
+    @Param({"0", "1000", "50000"})
+    public int obstacleCount;
+
+    private World world;
+    private Robot[] lookers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Random random = new Random(42);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < obstacleCount; i++) {
+            int x = random.nextInt(SIZE - 5);
+            int y = random.nextInt(SIZE - 5);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(5), y + random.nextInt(5),
+                    ObstacleType.values()[random.nextInt(ObstacleType.values().length)]));
+        }
+        world = new World(false, new Maze(obstacles, SIZE, SIZE));
+        for (int i = 0; i < ROBOTS; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            robot.setPosition(new Position(random.nextInt(SIZE), random.nextInt(SIZE)));
+        }
+
+        List<Robot> robots = world.getRobots();
+        lookers = new Robot[QUERIES];
+        for (int i = 0; i < QUERIES; i++) lookers[i] = robots.get(random.nextInt(robots.size()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public JsonArray look() {
+        return new DetectedObjectDetails(lookers[next++ & (QUERIES - 1)].getPosition(), world).getSeenObjectDetails();
+    }
+
+    @Benchmark
+    public int[] sightlines() {
+        Position from = lookers[next++ & (QUERIES - 1)].getPosition();
+        return world.getVisibility().sightlines(from.getX(), from.getY());
+    }
+}
@@ -0,0 +1,112 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.look.DetectedObjectDetails;
+import za.co.wethinkcode.robots.command.look.LookCommand;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times looks answered from the look cache by 1,024 robots in a 1000x1000 world with 5,000 robots and
+ * 1,000 obstacles. {@code unchanged} looks again in a world where nothing moves, {@code whileMoving} moves one
+ * robot a cell for every {@code looksPerMove} looks, and {@code changes} sends a look as the changes since the
+ * last one. {@code uncached} works every look out in full. The cache's hit rate is printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookCacheBenchmark {
+    private static final int SIZE = 1000;
+    private static final int ROBOTS = 5000;
+    private static final int OBSTACLES = 1000;
+    private static final int QUERIES = 1024;
+
+    @Param({"1", "16"})
+    public int looksPerMove;
+
+    private World world;
+    private Robot[] lookers;
+    private Robot[] movers;
+    private int next;
+    private int moved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Random random = new Random(42);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < OBSTACLES; i++) {
+            int x = random.nextInt(SIZE - 5);
+            int y = random.nextInt(SIZE - 5);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(5), y + random.nextInt(5),
+                    ObstacleType.values()[random.nextInt(ObstacleType.values().length)]));
+        }
+        world = new World(false, new Maze(obstacles, SIZE, SIZE));
+        for (int i = 0; i < ROBOTS; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            robot.setPosition(new Position(8 + random.nextInt(SIZE - 16), random.nextInt(SIZE)));
+        }
+
+        List<Robot> robots = world.getRobots();
+        lookers = new Robot[QUERIES];
+        movers = new Robot[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            lookers[i] = robots.get(random.nextInt(robots.size()));
+            movers[i] = robots.get(random.nextInt(robots.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(world.getLookCache().getStats());
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public JsonObject unchanged() {
+        return LookCommand.getInstance().execute(world, lookers[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public JsonObject whileMoving() {
+        if (next % looksPerMove == 0) step();
+        return LookCommand.getInstance().execute(world, lookers[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public JsonObject changes() {
+        if (next % looksPerMove == 0) step();
+        return LookCommand.getChangesInstance().execute(world, lookers[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public Object uncached() {
+        return new DetectedObjectDetails(lookers[next++ & (QUERIES - 1)].getPosition(), world).getSeenObjectDetails();
+    }
+
+    /**
+     * Moves the next robot one cell east or back west, so the robots stay where they started.
+     */
+    private void step() {
+        Robot robot = movers[moved & (QUERIES - 1)];
+        int x = robot.getPosition().getX() + ((moved / QUERIES) % 2 == 0 ? 1 : -1);
+        robot.setPosition(new Position(x, robot.getPosition().getY()));
+        moved++;
+    }
+}
@@ -0,0 +1,98 @@
+package za.co.wethinkcode.robots.world;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each kind of query the world traces with its {@link RayCaster}, from random robots in a 1000x1000 world
+ * with 5,000 robots: the robot a shot reaches, a look's line of sight, and a move check.
+ * The obstacle count grows so the cost of walking the terrain shows next to the robot lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RayCastBenchmark {
+    private static final int SIZE = 1000;
+    private static final int ROBOTS = 5000;
+    private static final int QUERIES = 1024;
+    private static final int BULLET_DISTANCE = 5;
+    private static final int MOVE_STEPS = 10;
+
+    @Param({"0", "1000", "50000"})
+    public int obstacleCount;
+
+    private World world;
+    private Robot[] robots;
+    private Direction[] directions;
+    private long[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        Random random = new Random(42);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < obstacleCount; i++) {
+            int x = random.nextInt(SIZE - 5);
+            int y = random.nextInt(SIZE - 5);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(5), y + random.nextInt(5),
+                    ObstacleType.values()[random.nextInt(ObstacleType.values().length)]));
+        }
+        world = new World(false, new Maze(obstacles, SIZE, SIZE));
+        for (int i = 0; i < ROBOTS; i++) {
+            Robot robot = new Robot("Bot" + i, "sniper");
+            world.addRobot(robot);
+            robot.setPosition(new Position(random.nextInt(SIZE), random.nextInt(SIZE)));
+        }
+
+        List<Robot> all = world.getRobots();
+        robots = new Robot[QUERIES];
+        directions = new Direction[QUERIES];
+        targets = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            robots[i] = all.get(random.nextInt(all.size()));
+            directions[i] = Direction.values()[random.nextInt(4)];
+            targets[i] = Coordinates.step(robots[i].getCoordinates(), directions[i], MOVE_STEPS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Benchmark
+    public Robot fire() {
+        int i = next++ & (QUERIES - 1);
+        return world.firstRobotInSight(robots[i].getCoordinates(), directions[i], BULLET_DISTANCE);
+    }
+
+    @Benchmark
+    public RayCaster.Ray look() {
+        int i = next++ & (QUERIES - 1);
+        return world.lineOfSight(robots[i].getCoordinates(), directions[i], Config.VISIBILITY);
+    }
+
+    @Benchmark
+    public boolean move() {
+        int i = next++ & (QUERIES - 1);
+        return world.isNewPositionAllowed(robots[i], targets[i]);
+    }
+}
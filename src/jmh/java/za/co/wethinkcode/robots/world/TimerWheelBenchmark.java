@@ -0,0 +1,51 @@
+package za.co.wethinkcode.robots.world;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares scheduling and expiring 100,000 reload and repair timers on the timer wheel
+ * with scheduling them on a ScheduledThreadPoolExecutor, whose delay queue is a binary heap.
+ * Each operation schedules every timer with a delay spread over five seconds, then lets them all fall due.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerWheelBenchmark {
+    private static final int TIMERS = 100_000;
+    private static final int SPREAD_MILLIS = 5000;
+
+    private final AtomicInteger ran = new AtomicInteger();
+
+    @Benchmark
+    public int timerWheel() {
+        TimerWheel wheel = new TimerWheel(10, 512);
+        Runnable task = ran::incrementAndGet;
+        for (int i = 0; i < TIMERS; i++) {
+            wheel.schedule(i % SPREAD_MILLIS, task);
+        }
+        wheel.advanceTo(SPREAD_MILLIS);
+        return wheel.pending();
+    }
+
+    /**
+     * Only schedules and cancels: waiting five seconds of real time for the executor to expire them would measure the clock.
+     */
+    @Benchmark
+    public int scheduledExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        Runnable task = ran::incrementAndGet;
+        for (int i = 0; i < TIMERS; i++) {
+            executor.schedule(task, i % SPREAD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        int queued = executor.getQueue().size();
+        executor.shutdownNow();
+        return queued;
+    }
+}
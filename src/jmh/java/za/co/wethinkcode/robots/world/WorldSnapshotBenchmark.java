@@ -0,0 +1,74 @@
+package za.co.wethinkcode.robots.world;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares catching a client up with a full snapshot of 50,000 robots against sending only the changes
+ * since the version it holds, as the sync command does. Each score includes writing the JSON a client would be sent,
+ * and the size of both payloads is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldSnapshotBenchmark {
+    private static final int SIZE = 1000;
+    private static final int ROBOTS = 50_000;
+
+    @Param({"10", "1000"})
+    public int changed;
+
+    private World world;
+    private long since;
+    private long obstacleHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = SIZE;
+        Config.HEIGHT = SIZE;
+        world = new World(false, new Maze(new ArrayList<>(), SIZE, SIZE));
+        List<Robot> robots = new ArrayList<>();
+        for (int i = 0; i < ROBOTS; i++) {
+            Robot robot = new Robot("Bot" + i, i % 2 == 0 ? "sniper" : "soldier");
+            world.addRobot(robot);
+            robot.setPosition(new Position(i % SIZE, i / SIZE));
+            robots.add(robot);
+        }
+        since = world.getVersion();
+        obstacleHash = world.getObstacleHash();
+        for (int i = 0; i < changed; i++) {
+            Robot robot = robots.get(i * (ROBOTS / changed));
+            robot.updateDirection(true);
+            world.record(WorldEvent.Type.TURNED, robot);
+        }
+        System.out.println();
+        System.out.println("full snapshot " + fullSnapshot().length() + " chars, changes since "
+                + since + " " + changesSince().length() + " chars");
+    }
+
+    @Benchmark
+    public String fullSnapshot() {
+        return world.snapshot(obstacleHash).toJson().toString();
+    }
+
+    @Benchmark
+    public String changesSince() {
+        return world.changesSince(since, obstacleHash).toJson().toString();
+    }
+
+    @Benchmark
+    public int findChangesOnly() {
+        return world.changesSince(since, obstacleHash).robots().size();
+    }
+}
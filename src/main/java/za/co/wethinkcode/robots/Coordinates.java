@@ -0,0 +1,115 @@
+package za.co.wethinkcode.robots;
+
+/**
+ * The Coordinates class packs an (x, y) pair into a single long, x in the high half and y in the low half.
+ * The simulation core passes coordinates around in this form so that moving, looking and firing
+ * do not create a {@link Position} for every cell they touch. Position stays the type used
+ * at the edges: in commands, JSON and the GUI.
+ */
+public final class Coordinates {
+
+    private Coordinates() {
+    }
+
+    /**
+     * Packs a pair of coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the packed coordinates
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the x coordinate from packed coordinates.
+     *
+     * @param coordinates the packed coordinates
+     * @return the x coordinate
+     */
+    public static int x(long coordinates) {
+        return (int) (coordinates >> 32);
+    }
+
+    /**
+     * Gets the y coordinate from packed coordinates.
+     *
+     * @param coordinates the packed coordinates
+     * @return the y coordinate
+     */
+    public static int y(long coordinates) {
+        return (int) coordinates;
+    }
+
+    /**
+     * Moves packed coordinates a number of steps in a direction, the same way as {@link Position#newPos}.
+     *
+     * @param coordinates the packed coordinates to start from
+     * @param direction the direction to move in
+     * @param nrSteps the number of steps to move
+     * @return the packed coordinates after moving
+     */
+    public static long step(long coordinates, Direction direction, int nrSteps) {
+        return pack(x(coordinates) + dx(direction) * nrSteps, y(coordinates) + dy(direction) * nrSteps);
+    }
+
+    /**
+     * Gets how far one step in a direction moves along the x axis.
+     *
+     * @param direction the direction to step in
+     * @return -1 for WEST, 1 for EAST, otherwise 0
+     */
+    public static int dx(Direction direction) {
+        return switch (direction) {
+            case WEST -> -1;
+            case EAST -> 1;
+            case NORTH, SOUTH -> 0;
+        };
+    }
+
+    /**
+     * Gets how far one step in a direction moves along the y axis. NORTH is towards smaller y.
+     *
+     * @param direction the direction to step in
+     * @return -1 for NORTH, 1 for SOUTH, otherwise 0
+     */
+    public static int dy(Direction direction) {
+        return switch (direction) {
+            case NORTH -> -1;
+            case SOUTH -> 1;
+            case WEST, EAST -> 0;
+        };
+    }
+
+    /**
+     * Checks if packed coordinates lie within a rectangle, edges included.
+     *
+     * @param coordinates the packed coordinates
+     * @param left the smallest x in the rectangle
+     * @param top the smallest y in the rectangle
+     * @param right the largest x in the rectangle
+     * @param bottom the largest y in the rectangle
+     * @return true if the coordinates are in the rectangle
+     */
+    public static boolean isIn(long coordinates, int left, int top, int right, int bottom) {
+        int x = x(coordinates);
+        int y = y(coordinates);
+        return x >= left && x <= right && y >= top && y <= bottom;
+    }
+
+    /**
+     * Calculates the distance between two packed coordinates along a direction, the same way as {@link Position#distanceFrom}.
+     *
+     * @param from the packed coordinates to measure from
+     * @param to the packed coordinates to measure to
+     * @param direction the direction of to from from
+     * @return the distance along the direction
+     */
+    public static int distance(long from, long to, Direction direction) {
+        return switch (direction) {
+            case NORTH, SOUTH -> Math.abs(y(from) - y(to));
+            case EAST, WEST -> Math.abs(x(from) - x(to));
+        };
+    }
+}
@@ -13,6 +13,7 @@ import static za.co.wethinkcode.robots.UpdateResponse.FAILURE_OBSTRUCTED;
 /**
  * The Position class represents a position in a 2D space.
  * It contains x and y coordinates and provides methods to access them.
+ * Positions are used at the edges of the simulation; hot loops work on packed {@link Coordinates} instead.
  */
 public class Position {
     private final int x;
@@ -37,6 +38,25 @@ public class Position {
         return y;
     }
 
+    /**
+     * Creates a position from packed coordinates.
+     *
+     * @param coordinates the packed coordinates
+     * @return the position
+     */
+    public static Position of(long coordinates) {
+        return new Position(Coordinates.x(coordinates), Coordinates.y(coordinates));
+    }
+
+    /**
+     * Packs this position into a long.
+     *
+     * @return the packed coordinates
+     */
+    public long pack() {
+        return Coordinates.pack(x, y);
+    }
+
     /**
      * Checks if the current position is equal to another position.
      *
@@ -60,6 +80,16 @@ public class Position {
      * @return the hash code of the position
      */
     @Override
+    public int hashCode() {
+        return Long.hashCode(pack());
+    }
+
+    /**
+     * Returns a string representation of the position.
+     *
+     * @return the position as (x, y)
+     */
+    @Override
     public String toString(){
         return "(x: "+x+", y: "+y+")";
     }
@@ -72,10 +102,23 @@ public class Position {
      * @return true if the position is within the rectangle, false otherwise
      */
     public boolean isIn(Position topLeft, Position bottomRight) {
-        boolean withinTop = y >= topLeft.getY();
-        boolean withinBottom = y <= bottomRight.getY();
-        boolean withinLeft = x >= topLeft.getX();
-        boolean withinRight = x <= bottomRight.getX();
+        return isIn(topLeft.getX(), topLeft.getY(), bottomRight.getX(), bottomRight.getY());
+    }
+
+    /**
+     * Checks if the current position is within a rectangular area given by its edges.
+     *
+     * @param left the smallest x in the rectangle
+     * @param top the smallest y in the rectangle
+     * @param right the largest x in the rectangle
+     * @param bottom the largest y in the rectangle
+     * @return true if the position is within the rectangle, false otherwise
+     */
+    public boolean isIn(int left, int top, int right, int bottom) {
+        boolean withinTop = y >= top;
+        boolean withinBottom = y <= bottom;
+        boolean withinLeft = x >= left;
+        boolean withinRight = x <= right;
         return withinTop && withinBottom && withinLeft && withinRight;
     }
 
@@ -86,9 +129,20 @@ public class Position {
      * @return The distance between this position and anotherPosition.
      */
     public int distanceFrom(Position anotherPosition, Direction direction) {
+        return distanceFrom(anotherPosition.getX(), anotherPosition.getY(), direction);
+    }
+
+    /**
+     * Calculates the distance between this position and another pair of coordinates
+     * @param otherX The x coordinate to calculate distance from.
+     * @param otherY The y coordinate to calculate distance from.
+     * @param direction direction of the coordinates from this position.
+     * @return The distance between this position and the coordinates.
+     */
+    public int distanceFrom(int otherX, int otherY, Direction direction) {
         return switch (direction) {
-            case NORTH, SOUTH -> Math.abs(y - anotherPosition.getY());
-            case EAST, WEST -> Math.abs((x - anotherPosition.getX()));
+            case NORTH, SOUTH -> Math.abs(y - otherY);
+            case EAST, WEST -> Math.abs((x - otherX));
 
         };
     }
@@ -99,15 +153,18 @@ public class Position {
      * @return The new position after moving.
      */
     public Position newPos(Direction direction , int nrSteps) {
-        int newX = x;
-        int newY = y;
-        switch (direction) {
-            case NORTH -> newY -= nrSteps;
-            case SOUTH -> newY += nrSteps;
-            case WEST -> newX -= nrSteps;
-            case EAST -> newX += nrSteps;
-        }
-
-        return new Position(newX, newY);
+        return of(newPos(pack(), direction, nrSteps));
+    }
+
+    /**
+     * Calculates new packed coordinates from packed coordinates, a direction and the number of steps,
+     * without creating a position.
+     * @param coordinates The packed coordinates to start from.
+     * @param direction The direction to move in.
+     * @param nrSteps The number of steps to move.
+     * @return The packed coordinates after moving.
+     */
+    public static long newPos(long coordinates, Direction direction, int nrSteps) {
+        return Coordinates.step(coordinates, direction, nrSteps);
     }
 }
\ No newline at end of file
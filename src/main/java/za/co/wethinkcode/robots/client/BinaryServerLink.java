@@ -0,0 +1,52 @@
+package za.co.wethinkcode.robots.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.server.BinaryCodec;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.Arrays;
+
+/**
+ * BinaryServerLink is a {@link ServerLink} that speaks the {@link BinaryCodec} protocol.
+ * It sends the handshake when it opens and waits for the server to echo it.
+ */
+public class BinaryServerLink implements ServerLink {
+    private final OutputStream out;
+    private final InputStream in;
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+
+    /**
+     * Constructs a binary link over a connected socket and does the handshake.
+     *
+     * @param socket the connected socket
+     * @throws IOException if the socket's streams cannot be opened or the server does not accept the binary protocol
+     */
+    public BinaryServerLink(Socket socket) throws IOException {
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+        this.in = new BufferedInputStream(socket.getInputStream());
+        out.write(BinaryCodec.HANDSHAKE);
+        out.flush();
+        byte[] answer = in.readNBytes(BinaryCodec.HANDSHAKE.length);
+        if (!Arrays.equals(answer, BinaryCodec.HANDSHAKE)) {
+            throw new IOException("Server does not support the binary protocol");
+        }
+    }
+
+    @Override
+    public void send(JsonObject request) throws IOException {
+        synchronized (out) {
+            payload.reset();
+            BinaryCodec.writeRequest(request, payload);
+            BinaryCodec.writeFrame(payload, out);
+            out.flush();
+        }
+    }
+
+    @Override
+    public JsonElement receive() throws IOException {
+        byte[] frame = BinaryCodec.readFrame(in);
+        return frame == null ? null : BinaryCodec.readResponse(frame);
+    }
+}
@@ -22,17 +22,24 @@ public class Client {
 
         try (
                 Socket socket = new Socket(HOST, PORT);
-                PrintStream out = new PrintStream(socket.getOutputStream());
-                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
                 Scanner scanner = new Scanner(System.in)
         ) {
+            ServerLink link = ServerLink.open(socket, PROTOCOL);
             System.out.println("Connected to the server. Initializing client robot...");
             System.out.println("Launch a robot using the following: launch <robottype> <robotname>");
             System.out.println("Robot types:\n  Sniper\n  Soldier\n  Hitbot<default>" );
-            launchRobot(scanner, out, in);
+            launchRobot(scanner, link);
+
+            // In pipelined mode every command carries an id, and replies are matched to commands by it
+            RequestPipeline pipeline = PIPELINE_DEPTH > 0
+                    ? new RequestPipeline(link, PIPELINE_DEPTH, Client::showServerMessage)
+                    : null;
 
             // Start server listener thread
-            Thread serverListener = new Thread(() -> listenToServer(in));
+            Thread serverListener = new Thread(() -> {
+                if (pipeline == null) listenToServer(link);
+                else listenPipelined(pipeline);
+            });
             serverListener.setDaemon(true);
             serverListener.start();
 
@@ -42,9 +49,12 @@ public class Client {
                 if (userCommand.isEmpty()) continue;
 
                 try {
-                    JsonObject request = buildJsonCommand(userCommand, robotName);
-                    out.println(request);
-                    out.flush();
+                    if (pipeline == null) {
+                        JsonObject request = buildJsonCommand(userCommand, robotName);
+                        link.send(request);
+                    } else {
+                        sendBurst(pipeline, userCommand);
+                    }
 
                 } catch (Exception e) {
                     System.out.println("Invalid command format. " + e.getMessage());
@@ -64,10 +74,9 @@ public class Client {
      * This method prompts the user for the robot type and name, and handles any errors during launch.
      *
      * @param scanner Scanner for user input
-     * @param out    PrintStream for sending commands to the server
-     * @param in     BufferedReader for receiving responses from the server
+     * @param link    The connection to the server
      */
-    private static void launchRobot(Scanner scanner, PrintStream out, BufferedReader in) {
+    private static void launchRobot(Scanner scanner, ServerLink link) {
         while (true) {
             System.out.print("> Enter command: ");
             String commandLine = scanner.nextLine().trim();
@@ -88,12 +97,9 @@ public class Client {
             args.add(robotType);
             launchRequest.add("arguments", args);
 
-            out.println(launchRequest);
-            out.flush();
-
             try {
-                String rawResponse = in.readLine();
-                JsonObject responseJson = JsonParser.parseString(rawResponse).getAsJsonObject();
+                link.send(launchRequest);
+                JsonObject responseJson = link.receive().getAsJsonObject();
                 String result = responseJson.has("result") ? responseJson.get("result").getAsString() : "";
 
                 if ("ERROR".equalsIgnoreCase(result)) {
@@ -113,7 +119,7 @@ public class Client {
                 System.out.print(formatResponse(responseJson));
                 break;
 
-            } catch (IOException | JsonParseException | NullPointerException e) {
+            } catch (IOException | JsonParseException | IllegalStateException | IllegalArgumentException | NullPointerException e) {
                 System.out.println("Failed to receive launch response. Retrying... "  + e.getMessage());
             }
         }
@@ -124,40 +130,83 @@ public class Client {
      * Listens to the server for incoming messages and processes them.
      * This method handles the server's responses and formats them for display.
      *
-     * @param in BufferedReader for receiving responses from the server
+     * @param link The connection to the server
      */
-    private static void listenToServer(BufferedReader in) {
+    private static void listenToServer(ServerLink link) {
         try {
-            String rawResponse;
-            while ((rawResponse = in.readLine()) != null) {
-                if (rawResponse.equalsIgnoreCase("quit")) {
-                    System.out.println("\nServer requested shutdown. Exiting...");
-                    System.exit(0);
-                }
+            JsonElement rawResponse;
+            while ((rawResponse = link.receive()) != null) {
+                showServerMessage(rawResponse);
+            }
+        } catch (IOException | JsonParseException | IllegalArgumentException e) {
+            System.out.println("Disconnected from server. " + e.getMessage());
+        }
+    }
 
-                try {
-                    JsonObject responseJson = JsonParser.parseString(rawResponse).getAsJsonObject();
-                    String formatted = formatResponse(responseJson);
-                    System.out.print("\n" + formatted);
+    /**
+     * Listens to the server in pipelined mode, handing replies to the commands waiting on them
+     * and showing anything else the server sends.
+     *
+     * @param pipeline The pipeline the commands were sent through
+     */
+    private static void listenPipelined(RequestPipeline pipeline) {
+        try {
+            pipeline.listen();
+        } catch (IOException | JsonParseException | IllegalArgumentException e) {
+            System.out.println("Disconnected from server. " + e.getMessage());
+        }
+    }
 
+    /**
+     * Sends every command on a line, split by ';', without waiting for the replies in between.
+     * Each reply is shown as it arrives, labelled with the command it answers.
+     *
+     * @param pipeline The pipeline to send through
+     * @param line The commands typed by the user
+     * @throws IOException if a command cannot be sent
+     */
+    private static void sendBurst(RequestPipeline pipeline, String line) throws IOException {
+        for (String part : line.split(";")) {
+            String command = part.trim();
+            if (command.isEmpty()) continue;
+            JsonObject request = buildJsonCommand(command, robotName);
+            pipeline.submit(request).thenAccept(response -> {
+                System.out.print("\n< " + command);
+                showServerMessage(response);
+            });
+        }
+    }
 
-                    if (formatted.contains("DEAD")) {
-                        System.out.println("Robot destroyed. Exiting...");
-                        System.exit(0);
-                    }
+    /**
+     * Shows one message from the server, and exits if the server asked the client to quit or the robot died.
+     *
+     * @param rawResponse The message
+     */
+    private static void showServerMessage(JsonElement rawResponse) {
+        if (rawResponse.isJsonPrimitive() && rawResponse.getAsString().equalsIgnoreCase("quit")) {
+            System.out.println("\nServer requested shutdown. Exiting...");
+            System.exit(0);
+        }
+
+        try {
+            JsonObject responseJson = rawResponse.getAsJsonObject();
+            String formatted = formatResponse(responseJson);
+            System.out.print("\n" + formatted);
 
-                    if (formatted.contains("QUIT")){
-                        System.out.println("Your robots shields are below 0 and has died from GunFire.");
-                        System.out.println("\nRobot Dead, Terminating connection to Server.");
-                        System.exit(0);}
 
-                } catch (JsonSyntaxException | IllegalStateException | NullPointerException e) {
-                    System.out.println("\n< Malformed server response:");
-                    System.out.println("  Raw: " + rawResponse + e.getMessage());
-                }
+            if (formatted.contains("DEAD")) {
+                System.out.println("Robot destroyed. Exiting...");
+                System.exit(0);
             }
-        } catch (IOException e) {
-            System.out.println("Disconnected from server. " + e.getMessage());
+
+            if (formatted.contains("QUIT")){
+                System.out.println("Your robots shields are below 0 and has died from GunFire.");
+                System.out.println("\nRobot Dead, Terminating connection to Server.");
+                System.exit(0);}
+
+        } catch (JsonSyntaxException | IllegalStateException | NullPointerException e) {
+            System.out.println("\n< Malformed server response:");
+            System.out.println("  Raw: " + rawResponse + e.getMessage());
         }
     }
 
@@ -243,40 +292,56 @@ public class Client {
         }
 
         if (data.has("objects") && data.get("objects").isJsonArray()) {
-            JsonArray objects = data.getAsJsonArray("objects");
             out.append("  Objects Seen:\n");
-
-            if (objects.isEmpty()) {
-                out.append("    - Nothing detected.\n");
+            appendObjects(out, data.getAsJsonArray("objects"));
+        }
+        if (data.has("added") && data.get("added").isJsonArray()) {
+            if (data.has("unchanged") && data.get("unchanged").getAsBoolean()) {
+                out.append("  Nothing has changed since the last look.\n");
             } else {
-                for (JsonElement el : objects) {
-                    JsonObject obj = el.getAsJsonObject();
-                    String type = obj.has("type") ? obj.get("type").getAsString() : "?";
-                    String dir = obj.has("direction") ? obj.get("direction").getAsString() : "?";
-                    int dist = obj.has("distance") ? obj.get("distance").getAsInt() : -1;
-
-                    StringBuilder objectDescription = new StringBuilder();
-                    objectDescription.append(type);
-
-                    if (type.equals("OBSTACLE") && obj.has("obstacle_type")) {
-                        objectDescription.append(" (").append(obj.get("obstacle_type").getAsString()).append(")");
-                    } else if (type.equals("ROBOT") && obj.has("name")) {
-                        objectDescription.append(" (").append(obj.get("name").getAsString()).append(")");
-                    }
+                out.append("  Now Seen:\n");
+                appendObjects(out, data.getAsJsonArray("added"));
+                out.append("  No Longer Seen:\n");
+                appendObjects(out, data.getAsJsonArray("removed"));
+            }
+        }
+        return out.toString();
+    }
 
-                    out.append("    - ").append(objectDescription)
-                            .append(" [Direction: ").append(dir)
-                            .append(", Distance: ");
-                    if (dist == 0) {
-                        out.append(dir).append(" YOU ARE ON THE EDGE BE CAREFUL! ");
-                    } else {
-                        out.append(dist);
-                    }
-                            out.append("]\n");
+    /**
+     * Appends a line for each object in a look's list of objects.
+     */
+    private static void appendObjects(StringBuilder out, JsonArray objects) {
+        if (objects.isEmpty()) {
+            out.append("    - Nothing detected.\n");
+        } else {
+            for (JsonElement el : objects) {
+                JsonObject obj = el.getAsJsonObject();
+                String type = obj.has("type") ? obj.get("type").getAsString() : "?";
+                String dir = obj.has("direction") ? obj.get("direction").getAsString()
+                        : obj.has("offset") ? "offset " + obj.get("offset") : "?";
+                int dist = obj.has("distance") ? obj.get("distance").getAsInt() : -1;
+
+                StringBuilder objectDescription = new StringBuilder();
+                objectDescription.append(type);
+
+                if (type.equals("OBSTACLE") && obj.has("obstacle_type")) {
+                    objectDescription.append(" (").append(obj.get("obstacle_type").getAsString()).append(")");
+                } else if (type.equals("ROBOT") && obj.has("name")) {
+                    objectDescription.append(" (").append(obj.get("name").getAsString()).append(")");
                 }
+
+                out.append("    - ").append(objectDescription)
+                        .append(" [Direction: ").append(dir)
+                        .append(", Distance: ");
+                if (dist == 0) {
+                    out.append(dir).append(" YOU ARE ON THE EDGE BE CAREFUL! ");
+                } else {
+                    out.append(dist);
+                }
+                        out.append("]\n");
             }
         }
-        return out.toString();
     }
 
     /**
@@ -339,6 +404,14 @@ public class Client {
         JsonArray args = new JsonArray();
 
         switch (parts[0]) {
+            case "batch":
+                // batch forward 1, turn right, look
+                JsonArray commands = new JsonArray();
+                for (String step : command.substring("batch".length()).split(",")) {
+                    if (!step.isBlank()) commands.add(step.trim());
+                }
+                args.add(commands);
+                break;
             case "forward":
             case "back":
                 if (parts.length == 2) args.add(Integer.parseInt(parts[1]));
@@ -346,6 +419,16 @@ public class Client {
             case "turn":
                 if (parts.length == 2) args.add(parts[1]);
                 break;
+            case "look":
+                // look changes, look radius, or look cone <degrees>
+                if (parts.length >= 2) args.add(parts[1]);
+                if (parts.length >= 3) args.add(Integer.parseInt(parts[2]));
+                break;
+            case "sync":
+                // sync <version> <obstacle hash>
+                if (parts.length >= 2) args.add(Long.parseLong(parts[1]));
+                if (parts.length >= 3) args.add(parts[2]);
+                break;
             default:
                 break;
         }
@@ -0,0 +1,51 @@
+package za.co.wethinkcode.robots.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JsonServerLink is a {@link ServerLink} that sends and receives one JSON object per line.
+ */
+public class JsonServerLink implements ServerLink {
+    private final PrintStream out;
+    private final BufferedReader in;
+
+    /**
+     * Constructs a JSON link over a connected socket.
+     *
+     * @param socket the connected socket
+     * @throws IOException if the socket's streams cannot be opened
+     */
+    public JsonServerLink(Socket socket) throws IOException {
+        this.out = new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void send(JsonObject request) {
+        synchronized (out) {
+            out.println(request);
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads the next line. Lines that are not JSON objects, like "quit", come back as string primitives.
+     *
+     * @return the response, or null if the server closed the connection
+     * @throws IOException if the connection fails
+     */
+    @Override
+    public JsonElement receive() throws IOException {
+        String line = in.readLine();
+        if (line == null) return null;
+        if (!line.trim().startsWith("{")) return new JsonPrimitive(line);
+        return JsonParser.parseString(line);
+    }
+}
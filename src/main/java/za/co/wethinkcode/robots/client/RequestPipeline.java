@@ -0,0 +1,120 @@
+package za.co.wethinkcode.robots.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * RequestPipeline lets a client send requests without waiting for each reply.
+ * Every request is given an id, and the server echoes that id in its response, so replies are matched to
+ * their requests in whatever order they come back. Messages without an id are things the server sent on
+ * its own, like a finished reload or "quit", and go to the push handler instead.
+ * At most depth requests are in flight at once; sending another waits for a reply.
+ */
+public class RequestPipeline {
+    private final ServerLink link;
+    private final Semaphore window;
+    private final Consumer<JsonElement> pushes;
+    private final Map<Long, CompletableFuture<JsonObject>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Constructs a pipeline over a link to the server.
+     *
+     * @param link the connection to the server
+     * @param depth the most requests to have in flight at once
+     * @param pushes handles messages that are not replies to a request
+     */
+    public RequestPipeline(ServerLink link, int depth, Consumer<JsonElement> pushes) {
+        if (depth < 1) throw new IllegalArgumentException("Pipeline depth must be at least 1");
+        this.link = link;
+        this.window = new Semaphore(depth);
+        this.pushes = pushes;
+    }
+
+    /**
+     * Gives a request the next id and sends it, waiting first if the pipeline is full.
+     * The request object is changed to carry the id.
+     *
+     * @param request the request to send
+     * @return a future completed with the reply, or exceptionally if the connection closes first
+     * @throws IOException if the request cannot be sent
+     */
+    public CompletableFuture<JsonObject> submit(JsonObject request) throws IOException {
+        window.acquireUninterruptibly();
+        long id = nextId.getAndIncrement();
+        CompletableFuture<JsonObject> reply = new CompletableFuture<>();
+        pending.put(id, reply);
+        request.addProperty("id", id);
+        try {
+            link.send(request);
+        } catch (IOException | RuntimeException e) {
+            if (pending.remove(id) != null) window.release();
+            throw e;
+        }
+        return reply;
+    }
+
+    /**
+     * Routes one message from the server: a reply completes the request with its id, anything else is a push.
+     *
+     * @param message the message
+     */
+    public void dispatch(JsonElement message) {
+        CompletableFuture<JsonObject> reply = null;
+        if (message.isJsonObject() && message.getAsJsonObject().has("id")) {
+            try {
+                reply = pending.remove(message.getAsJsonObject().get("id").getAsLong());
+            } catch (NumberFormatException | UnsupportedOperationException | IllegalStateException e) {
+                // Not one of our ids
+            }
+        }
+        if (reply == null) {
+            pushes.accept(message);
+            return;
+        }
+        window.release();
+        reply.complete(message.getAsJsonObject());
+    }
+
+    /**
+     * Reads messages from the server and dispatches them until the connection closes.
+     * Requests still waiting for a reply then fail.
+     *
+     * @throws IOException if reading from the connection fails
+     */
+    public void listen() throws IOException {
+        try {
+            JsonElement message;
+            while ((message = link.receive()) != null) dispatch(message);
+        } finally {
+            failPending(new IOException("Connection to the server closed"));
+        }
+    }
+
+    /**
+     * Gets the number of requests sent and not yet answered.
+     *
+     * @return the in flight count
+     */
+    public int inFlight() {
+        return pending.size();
+    }
+
+    private void failPending(IOException reason) {
+        for (Long id : pending.keySet()) {
+            CompletableFuture<JsonObject> reply = pending.remove(id);
+            if (reply != null) {
+                window.release();
+                reply.completeExceptionally(reason);
+            }
+        }
+    }
+}
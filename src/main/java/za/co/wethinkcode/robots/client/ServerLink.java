@@ -0,0 +1,50 @@
+package za.co.wethinkcode.robots.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * ServerLink is the client's side of a connection to the server.
+ * It hides whether requests and responses travel as JSON lines or as binary frames,
+ * so that {@link Client} deals in the same JSON trees either way.
+ */
+public interface ServerLink {
+
+    /**
+     * Sends a request to the server.
+     *
+     * @param request the request, with robot, command and arguments
+     * @throws IOException if the request cannot be sent
+     */
+    void send(JsonObject request) throws IOException;
+
+    /**
+     * Waits for the next message from the server.
+     *
+     * @return the response object, a string primitive for a plain text message such as "quit", or null if the server closed the connection
+     * @throws IOException if the connection fails
+     */
+    JsonElement receive() throws IOException;
+
+    /**
+     * Opens a link over a connected socket, doing the binary handshake if the binary protocol is asked for.
+     *
+     * @param socket the connected socket
+     * @param protocol JSON or BINARY, ignoring case
+     * @return the link
+     * @throws IOException if the handshake fails
+     * @throws IllegalArgumentException if the protocol is not JSON or BINARY
+     */
+    static ServerLink open(Socket socket, String protocol) throws IOException {
+        if (protocol == null || protocol.isBlank() || protocol.trim().equalsIgnoreCase("JSON")) {
+            return new JsonServerLink(socket);
+        }
+        if (protocol.trim().equalsIgnoreCase("BINARY")) {
+            return new BinaryServerLink(socket);
+        }
+        throw new IllegalArgumentException("Unknown protocol: " + protocol);
+    }
+}
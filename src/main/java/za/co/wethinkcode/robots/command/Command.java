@@ -1,115 +1,30 @@
 package za.co.wethinkcode.robots.command;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 /**
- * Abstract class representing a command to be executed in the game.
- * This class serves as a base for all specific command implementations.
- * It contains common properties and methods that all commands share.
- * All concrete command classes should implement the singleton pattern.
+ * A command to be executed in the game, parsed from a client's request by the {@link CommandRegistry}.
+ * Each command is an immutable value holding the arguments of one request, so commands can be executed
+ * on any thread, and two clients' requests never share or overwrite each other's arguments.
+ * Commands that take no arguments are the same for every request, so one instance of each is shared.
  */
-public abstract class Command {
-    private String name;
-    private String argument;
-    private JsonArray arguments;
-
-    /**
-     * Constructor to create a Command object with a name.
-     * Protected to allow subclasses to use it while preventing direct instantiation.
-     *
-     * @param name the name of the command
-     */
-    protected Command(String name){
-        this.name = name.trim().toLowerCase();
-    }
-
-    /**
-     * Constructor to create a Command object with a name and an argument.
-     * Protected to allow subclasses to use it while preventing direct instantiation.
-     *
-     * @param name the name of the command
-     * @param argument the argument for the command
-     */
-    protected Command(String name, String argument) {
-        this(name);
-        this.argument = argument != null ? argument.trim() : null;
-    }
-
-    /**
-     * Constructor to create a Command object with a name, an argument, and a JsonArray of arguments.
-     * Protected to allow subclasses to use it while preventing direct instantiation.
-     *
-     * @param name the name of the command
-     * @param argument the argument for the command
-     * @param arguments a JsonArray of additional arguments for the command
-     */
-    protected Command(String name, String argument, JsonArray arguments) {
-        this(name, argument);
-        this.arguments = arguments;
-    }
-
-    /**
-     * Sets the argument for the command.
-     *
-     * @param argument the argument to set
-     */
-    public void setArgument(String argument) {
-        this.argument = argument;
-    }
-
-    /**
-     * Sets the arguments for the command.
-     *
-     * @param arguments the JsonArray of arguments to set
-     */
-    public void setArguments(JsonArray arguments) {
-        this.arguments = arguments;
-    }
-
-    /**
-     * Sets the name of the command.
-     *
-     * @param name the name to set
-     */
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    /**
-     * Gets the arguments of the command.
-     * @return the arguments of the command
-     */
-    public JsonArray getArguments() {
-        return arguments;
-    }
+public interface Command {
 
     /**
      * Gets the name of the command.
      *
      * @return the name of the command
      */
-    public String getName() {
-        return name;
-    }
-
-    /**
-     * Gets the argument of the command.
-     *
-     * @return the argument of the command
-     */
-    public String getArgument() {
-        return this.argument;
-    }
+    String getName();
 
     /**
-     * Executes the command in the given world.
-     * This method should be implemented by subclasses to define the specific behavior of the command.
+     * Executes the command in the given world on behalf of the given robot.
      *
      * @param world the world in which the command is executed
+     * @param robot the robot the client is controlling, or null if it has not launched one yet
      * @return a JsonObject containing the result of the command execution
      */
-    public abstract JsonObject execute(World world);
-
+    JsonObject execute(World world, Robot robot);
 }
@@ -0,0 +1,100 @@
+package za.co.wethinkcode.robots.command;
+
+import com.google.gson.JsonArray;
+import za.co.wethinkcode.robots.command.look.AreaLookCommand;
+import za.co.wethinkcode.robots.command.look.LookCommand;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The CommandRegistry turns a request into the command it asks for.
+ * Each command name maps to a parser that reads the request's arguments into a new immutable command,
+ * or hands back the shared instance of a command that takes none. The registry itself is never changed
+ * once it is built, so every connection can parse its requests with it at once without locking.
+ */
+public final class CommandRegistry {
+    private static final CommandRegistry STANDARD = new CommandRegistry(standardParsers());
+
+    private final Map<String, Parser> parsers;
+
+    /**
+     * Constructs a registry for the given commands.
+     *
+     * @param parsers the parser for each command name
+     */
+    public CommandRegistry(Map<String, Parser> parsers) {
+        this.parsers = Map.copyOf(parsers);
+    }
+
+    /**
+     * Gets the registry of the commands a robot can be sent.
+     *
+     * @return the standard registry
+     */
+    public static CommandRegistry getStandard() {
+        return STANDARD;
+    }
+
+    /**
+     * Parses a request into its command.
+     *
+     * @param commandName the name of the command
+     * @param robotName the name of the robot the request is for
+     * @param arguments the request's arguments
+     * @return the command, ready to execute
+     * @throws IllegalArgumentException if there is no such command
+     * @throws RuntimeException if the arguments are not the ones the command takes
+     */
+    public Command parse(String commandName, String robotName, JsonArray arguments) {
+        Parser parser = parsers.get(commandName);
+        if (parser == null) throw new IllegalArgumentException("Unsupported command: " + commandName);
+        return parser.parse(robotName, arguments == null ? new JsonArray() : arguments);
+    }
+
+    /**
+     * Checks whether the registry has a command.
+     *
+     * @param commandName the name of the command
+     * @return true if requests for it can be parsed
+     */
+    public boolean contains(String commandName) {
+        return parsers.containsKey(commandName);
+    }
+
+    private static Map<String, Parser> standardParsers() {
+        Map<String, Parser> parsers = new HashMap<>();
+        parsers.put("launch", (robot, args) -> new LaunchCommand(robot, args.get(0).getAsString()));
+        parsers.put("forward", (robot, args) -> new MoveCommand("forward", args.get(0).getAsInt()));
+        parsers.put("back", (robot, args) -> new MoveCommand("back", args.get(0).getAsInt()));
+        parsers.put("turn", (robot, args) -> new TurnCommand(args.get(0).getAsString()));
+        parsers.put("sync", (robot, args) -> SyncCommand.from(args));
+        parsers.put("state", (robot, args) -> StateCommand.getInstance());
+        parsers.put("look", (robot, args) -> {
+            if (args.isEmpty()) return LookCommand.getInstance();
+            if (args.size() == 1 && "changes".equalsIgnoreCase(args.get(0).getAsString())) return LookCommand.getChangesInstance();
+            return AreaLookCommand.from(args);
+        });
+        parsers.put("help", (robot, args) -> HelpCommand.getInstance());
+        parsers.put("fire", (robot, args) -> FireCommand.getInstance());
+        parsers.put("reload", (robot, args) -> ReloadCommand.getInstance());
+        parsers.put("repair", (robot, args) -> RepairCommand.getInstance());
+        return parsers;
+    }
+
+    /**
+     * Reads a request's arguments into a command.
+     */
+    @FunctionalInterface
+    public interface Parser {
+
+        /**
+         * Builds the command for a request.
+         *
+         * @param robotName the name of the robot the request is for
+         * @param arguments the request's arguments, never null
+         * @return the command
+         */
+        Command parse(String robotName, JsonArray arguments);
+    }
+}
@@ -3,37 +3,31 @@ package za.co.wethinkcode.robots.command;
 import com.google.gson.JsonObject;
 import za.co.wethinkcode.robots.obstacle.Obstacle;
 import za.co.wethinkcode.robots.world.AsciiWorld;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 import java.util.List;
 
 /**
  * The Dump class represents a command to dump the current state of the world.
- * It extends the Command class and implements the execute method to perform the dump action.
+ * It implements the Command interface and its execute method performs the dump action.
 
  */
-public class DumpCommand extends Command {
-    // Singleton instance
-    private static DumpCommand instance;
+public record DumpCommand() implements Command {
+    private static final DumpCommand INSTANCE = new DumpCommand();
 
     /**
-     * Private constructor for DumpCommand.
-     * Sets the command name to "dump".
+     * Gets the shared instance of DumpCommand.
+     *
+     * @return The shared instance of DumpCommand
      */
-    private DumpCommand() {
-        super("dump");
+    public static DumpCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of DumpCommand.
-     *
-     * @return The singleton instance of DumpCommand
-     */
-    public static synchronized DumpCommand getInstance() {
-        if (instance == null) {
-            instance = new DumpCommand();
-        }
-        return instance;
+    @Override
+    public String getName() {
+        return "dump";
     }
 
 
@@ -51,7 +45,7 @@ public class DumpCommand extends Command {
 
 
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         return new JsonObject();
     }
 
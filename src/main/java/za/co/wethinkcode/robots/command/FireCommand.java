@@ -1,37 +1,31 @@
 package za.co.wethinkcode.robots.command;
 
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.Direction;
 import za.co.wethinkcode.robots.Position;
-import za.co.wethinkcode.robots.obstacle.Obstacle;
-import za.co.wethinkcode.robots.obstacle.ObstacleType;
 import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldEvent;
 
 /**
  * The FireCommand class represents a command to fire at another robot in the game.
- * It extends the Command class and implements the execute method to perform the fire action.
+ * It implements the Command interface and its execute method performs the fire action.
  */
-public class FireCommand extends Command{
-
-    // Singleton instance
-    private static FireCommand instance;
+public record FireCommand() implements Command {
+    private static final FireCommand INSTANCE = new FireCommand();
 
     /**
-     * Private constructor for FireCommand.
-     * Sets the command name to "fire".
+     * Gets the shared instance of FireCommand.
+     *
+     * @return The shared instance of FireCommand
      */
-    private FireCommand() {
-        super("fire");
+    public static FireCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of FireCommand.
-     * 
-     * @return The singleton instance of FireCommand
-     */
-    public static synchronized FireCommand getInstance() {
-        if (instance == null) instance = new FireCommand();
-        return instance;
+    @Override
+    public String getName() {
+        return "fire";
     }
 
     /**
@@ -39,14 +33,14 @@ public class FireCommand extends Command{
      * It checks if the current robot can hit another robot and returns the result.
      *
      * @param world the world in which the command is executed
+     * @param currentRobot the robot that fires
      * @return a JsonObject containing the result of the fire command
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot currentRobot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
 
-        Robot currentRobot = world.getCurrentRobot();
         if (currentRobot == null) {
             response.addProperty("result", "ERROR");
             data.addProperty("message", "Cannot perform 'fire': No robot context active.");
@@ -55,53 +49,31 @@ public class FireCommand extends Command{
         }
         response.addProperty("result", "OK");
         String message = "Miss";
-        boolean hitObstacle = false;
-
-        for (Obstacle obstacle : world.getObstacles()) {
-            if (obstacle.getType() == ObstacleType.MOUNTAIN) {
-                int x =1, y=1;
-                for (int i = 1; i < currentRobot.getBulletDistance(); i++) {
-                    switch (currentRobot.getCurrentDirection()) {
-                        case NORTH: {
-                            y *= -1;
-                            break;
-                        }
-                        case WEST: {
-                            x *= -1;
-                            break;
-                        }
-                    }
-                    if (world.isMovementObstructed(new Position(
-                            x*i + currentRobot.getPosition().getX(),
-                            y*i + currentRobot.getPosition().getY()
-                    ))) {
-                        hitObstacle = true;
-                        break;
-                    }
-                }
-            }
-        }
-        if (!hitObstacle) {
-            for (Robot robot : world.getBots()) {
-                if (currentRobot.equals(robot)) continue;
-                if (currentRobot.getShots() > 0) {
-                    if (currentRobot.hit(robot)){
-                        message = "Hit";
-                        data.addProperty("distance", currentRobot.getPosition()
-                                .distanceFrom(robot.getPosition(), currentRobot.getCurrentDirection()));
-                        data.addProperty("robot", robot.getName());
-                        data.add("state",
-                                robot.state());
-                        break;
-                    }
-                }else {
-                    message = "Out of ammo.";
-                }
+        Robot hit = null;
+        Position from = currentRobot.getPosition();
+        Direction direction = currentRobot.getCurrentDirection();
 
+        if (currentRobot.getShots() <= 0) {
+            message = "Out of ammo.";
+        } else {
+            // Only the closest robot in the line of fire can be hit, and not through a mountain
+            Robot target = world.firstRobotInSight(from.pack(), direction, currentRobot.getBulletDistance());
+            if (target != null && currentRobot.hit(target)) {
+                int reach = from.distanceFrom(target.getPosition(), direction);
+                message = "Hit";
+                hit = target;
+                data.addProperty("distance", reach);
+                data.addProperty("robot", target.getName());
+                data.add("state", target.state());
             }
         }
 
+        boolean fired = currentRobot.getShots() > 0;
         currentRobot.decrementShot();
+        if (fired) {
+            world.record(WorldEvent.Type.FIRED, currentRobot, hit);
+            if (hit != null) world.record(WorldEvent.Type.HIT, hit, currentRobot);
+        }
         data.addProperty("message",message);
         response.add("data", data);
         return response;
@@ -1,6 +1,7 @@
 package za.co.wethinkcode.robots.command;
 
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 /**
@@ -8,27 +9,21 @@ import za.co.wethinkcode.robots.world.World;
  * Provides a list of available commands and their basic usage formats
  * back to the client within a JSON response.
  */
-public class HelpCommand extends Command {
-
-    // Singleton instance
-    private static HelpCommand instance;
+public record HelpCommand() implements Command {
+    private static final HelpCommand INSTANCE = new HelpCommand();
 
     /**
-     * Private constructor for HelpCommand.
-     * Sets the command name to "help".
+     * Gets the shared instance of HelpCommand.
+     *
+     * @return The shared instance of HelpCommand
      */
-    private HelpCommand() {
-        super("help");
+    public static HelpCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of HelpCommand.
-     * 
-     * @return The singleton instance of HelpCommand
-     */
-    public static synchronized HelpCommand getInstance() {
-        if (instance == null) instance = new HelpCommand();
-        return instance;
+    @Override
+    public String getName() {
+        return "help";
     }
 
     /**
@@ -36,10 +31,11 @@ public class HelpCommand extends Command {
      * Generates a JSON response containing a list of available commands.
      *
      * @param world The current World object (not directly used by help, but required by the method signature).
+     * @param robot The robot asking for help (not used).
      * @return A JsonObject containing the help message under the "data" field, with a "result" of "OK".
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
 
@@ -52,9 +48,15 @@ public class HelpCommand extends Command {
                   BACK <steps>        - Move the robot backward by <steps>.
                   TURN <left|right>   - Turn the robot left or right.
                   LOOK                - Look around for obstacles and robots.
+                  LOOK CHANGES        - Look around, reporting only what changed since the last look.
+                  LOOK RADIUS         - Look at everything within range in every direction.
+                  LOOK CONE [degrees] - Look at everything within range in front of the robot.
                   REPAIR              - Start repairing the robot's shields (takes time).
                   RELOAD              - Start reloading the robot's weapon (takes time).
                   FIRE                - Fire the robot's weapon (requires aiming/reload).
+                  BATCH <cmd>, <cmd>  - Run several commands in one go, stopping at the first that fails.
+                  SYNC [version]      - Get every robot, or only the robots that changed since a version.
+                  SPECTATE            - Watch every robot's moves, shots and status changes as they happen.
                 """;
 
         data.addProperty("message", helpMessage);
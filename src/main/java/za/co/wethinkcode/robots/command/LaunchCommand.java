@@ -1,89 +1,48 @@
 package za.co.wethinkcode.robots.command;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import za.co.wethinkcode.robots.Position;
 import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldEvent;
 import java.util.Random;
 import static za.co.wethinkcode.robots.config.Config.*;
 import static za.co.wethinkcode.robots.client.Client.formatState;
 
 /**
  * The Launch class represents a command to launch a robot in the world.
- * It extends the Command class and implements the execute method to perform the launch action.
+ * It implements the Command interface and its execute method performs the launch action.
+ *
+ * @param robotName the name of the robot to launch
+ * @param robotType the type of robot to launch
  */
-public class LaunchCommand extends Command {
-    private static LaunchCommand instance;
+public record LaunchCommand(String robotName, String robotType) implements Command {
 
-    /**
-     * Private constructor to create a Launch command with a name and arguments.
-     *
-     * @param argument the robot name
-     * @param arguments the JsonArray containing robot type
-     */
-    private LaunchCommand(String argument, JsonArray arguments) {
-        super("launch", argument, arguments);
+    @Override
+    public String getName() {
+        return "launch";
     }
 
     /**
-     * Gets the singleton instance with the given robot name and arguments.
+     * Executes the launch command, adding the robot to the world at a random open position.
      *
-     * @param robotName the name of the robot to launch
-     * @param arguments the JsonArray containing robot type
-     * @return The singleton instance of LaunchCommand configured with the specified arguments
-     */
-    public static synchronized LaunchCommand getInstance(String robotName, JsonArray arguments) {
-        if (instance == null) {
-            instance = new LaunchCommand(robotName, arguments);
-        } else {
-            setArguments(instance, robotName, arguments);
-        }
-        return instance;
-    }
-
-
-    /**
-     * Helper method to set the arguments for an existing LaunchCommand instance.
-     * 
-     * @param instance the LaunchCommand instance to update
-     * @param robotName the new robot name
-     * @param arguments the new JsonArray of arguments
-     */
-    private static void setArguments(LaunchCommand instance, String robotName, JsonArray arguments) {
-        try {
-            java.lang.reflect.Field argumentField = Command.class.getDeclaredField("argument");
-            java.lang.reflect.Field argumentsField = Command.class.getDeclaredField("arguments");
-
-            argumentField.setAccessible(true);
-            argumentsField.setAccessible(true);
-
-            argumentField.set(instance, robotName);
-            argumentsField.set(instance, arguments);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Constructs a Launch command with the specified name.
-     * The name is set to "launch".
+     * @param world the world to launch the robot into
+     * @param robot the client's robot (not used; the new robot is created here)
+     * @return a JsonObject containing the result of the command execution
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
-        String robotType = getArguments().get(0).getAsString();
-        if (world.getBots().stream().noneMatch(r -> r.getName().equals(getArgument()))) {
-            Robot newRobot = new Robot(getArgument(), robotType);
-            world.setCurrentRobot(newRobot);
-            world.addRobot(newRobot);
+        Robot newRobot = new Robot(robotName, robotType);
+        if (world.addRobot(newRobot)) {
             Position randPos;
             Random rand = new Random();
             while (true){
                 randPos = new Position(rand.nextInt(HEIGHT), rand.nextInt(WIDTH));
-                if (world.isLaunchAllowed(randPos)){
+                if (world.isLaunchAllowed(newRobot, randPos)){
                     newRobot.setPosition(randPos);
+                    world.record(WorldEvent.Type.LAUNCHED, newRobot);
                     break;
                 }
 
@@ -91,7 +50,7 @@ public class LaunchCommand extends Command {
             System.out.println("Robot "+newRobot.getName() +  " launched into random Position: \n" + formatState(newRobot.state()));
 
             response.addProperty("result", "OK");
-            data.addProperty("message", "Robot '" + getArgument() + "' of type '" + robotType + "' launched.");
+            data.addProperty("message", "Robot '" + robotName + "' of type '" + robotType + "' launched.");
         }
         response.add("data", data);
         return response;
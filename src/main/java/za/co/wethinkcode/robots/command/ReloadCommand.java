@@ -1,50 +1,45 @@
 package za.co.wethinkcode.robots.command;
 
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 /**
  * The ReloadCommand class represents a command to reload a robot's shots.
- * It extends the Command class and implements the execute method to perform the reload action.
+ * It implements the Command interface and its execute method performs the reload action.
  */
-public class ReloadCommand extends Command {
-
-    private static ReloadCommand instance;
+public record ReloadCommand() implements Command {
+    private static final ReloadCommand INSTANCE = new ReloadCommand();
 
     /**
-     * Private constructor for ReloadCommand.
-     * Sets the command name to "reload".
+     * Gets the shared instance of ReloadCommand.
+     *
+     * @return The shared instance of ReloadCommand
      */
-    private ReloadCommand() {
-        super("reload");
+    public static ReloadCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of ReloadCommand.
-     *
-     * @return The singleton instance of ReloadCommand
-     */
-    public static synchronized ReloadCommand getInstance() {
-        if (instance == null) {
-            instance = new ReloadCommand();
-        }
-        return instance;
+    @Override
+    public String getName() {
+        return "reload";
     }
 
     /**
      * Executes the reload command in the given world.
-     * It reloads the shots and returns the result.
+     * It starts reloading the shots and returns straight away; the shots are refilled once the reload finishes.
      *
      * @param world the world in which the command is executed
+     * @param robot the robot to reload
      * @return a JsonObject containing the result of the fire command
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
         String result,message;
 
-        if (world.getCurrentRobot().reload()){
+        if (robot.reload()){
             result = "OK";
             message = "Done";
         }else {
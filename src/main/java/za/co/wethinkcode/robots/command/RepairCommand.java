@@ -1,50 +1,45 @@
 package za.co.wethinkcode.robots.command;
 
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 /**
  * The RepairCommand class represents a command to repair a robot's shields.
- * It extends the Command class and implements the execute method to perform the repair action.
+ * It implements the Command interface and its execute method performs the repair action.
  */
-public class RepairCommand extends Command {
-
-    private static RepairCommand instance;
+public record RepairCommand() implements Command {
+    private static final RepairCommand INSTANCE = new RepairCommand();
 
     /**
-     * Private constructor for RepairCommand.
-     * Sets the command name to "repair".
+     * Gets the shared instance of RepairCommand.
+     *
+     * @return The shared instance of RepairCommand
      */
-    private RepairCommand() {
-        super("repair");
+    public static RepairCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of RepairCommand.
-     * 
-     * @return The singleton instance of RepairCommand
-     */
-    public static synchronized RepairCommand getInstance() {
-        if (instance == null) {
-            instance = new RepairCommand();
-        }
-        return instance;
+    @Override
+    public String getName() {
+        return "repair";
     }
 
     /**
      * Executes the repair command in the given world.
-     * It repairs the robot's shields and returns the result.
+     * It starts repairing the robot's shields and returns straight away; the shields are restored once the repair finishes.
      *
      * @param world the world in which the command is executed
+     * @param robot the robot to repair
      * @return a JsonObject containing the result of the repair command
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
         String result,message;
 
-        if (world.getCurrentRobot().repair()){
+        if (robot.repair()){
             result = "OK";
             message = "Done";
         }else {
@@ -8,34 +8,27 @@ import static za.co.wethinkcode.robots.client.Client.formatState;
 
 /**
  * The Robots class represents a command to list the robots in the world.
- * It extends the Command class and implements the execute method to perform the listing action.
+ * It implements the Command interface and its execute method performs the listing action.
  */
-public class RobotsCommand extends Command {
-
-    private static RobotsCommand instance;
+public record RobotsCommand() implements Command {
+    private static final RobotsCommand INSTANCE = new RobotsCommand();
 
     /**
-     * Private constructor for RobotsCommand.
-     * Sets the command name to "robots".
+     * Gets the shared instance of RobotsCommand.
+     *
+     * @return The shared instance of RobotsCommand
      */
-    RobotsCommand() {
-        super("robots");
+    public static RobotsCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of RobotsCommand.
-     * 
-     * @return The singleton instance of RobotsCommand
-     */
-    public static synchronized RobotsCommand getInstance() {
-        if (instance == null) {
-            instance = new RobotsCommand();
-        }
-        return instance;
+    @Override
+    public String getName() {
+        return "robots";
     }
 
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         return null;
     }
 
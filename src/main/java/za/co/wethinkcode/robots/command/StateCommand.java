@@ -10,28 +10,21 @@ import za.co.wethinkcode.robots.robot.Robot; // Import Robot
  * robot's state information should be included in the response.
  * The actual state data is typically added by the calling handler method.
  */
-public class StateCommand extends Command {
-    private static StateCommand instance;
-
+public record StateCommand() implements Command {
+    private static final StateCommand INSTANCE = new StateCommand();
 
     /**
-     * Private constructor for StateCommand.
-     * Sets the command name to "state".
+     * Gets the shared instance of StateCommand.
+     *
+     * @return The shared instance of StateCommand
      */
-    public StateCommand() {
-        super("state");
+    public static StateCommand getInstance() {
+        return INSTANCE;
     }
 
-    /**
-     * Gets the singleton instance of StateCommand.
-     * 
-     * @return The singleton instance of StateCommand
-     */
-    public static synchronized StateCommand getInstance() {
-        if (instance == null) {
-            instance = new StateCommand();
-        }
-        return instance;
+    @Override
+    public String getName() {
+        return "state";
     }
 
     /**
@@ -39,16 +32,15 @@ public class StateCommand extends Command {
      * Checks if a current robot context exists and returns a basic success
      * or error JSON response. The detailed state is added later by the caller.
      *
-     * @param world The World object, used here mainly to check for the current robot.
+     * @param world The World object.
+     * @param currentRobot The robot whose state is requested.
      * @return A JsonObject indicating success or failure (if no robot is active).
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot currentRobot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
 
-        Robot currentRobot = world.getCurrentRobot();
-
         if (currentRobot == null) {
             response.addProperty("result", "ERROR");
             data.addProperty("message", "No active robot. Cannot get state.");
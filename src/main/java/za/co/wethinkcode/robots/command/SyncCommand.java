@@ -0,0 +1,68 @@
+package za.co.wethinkcode.robots.command;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldSnapshot;
+
+import java.util.Map;
+
+/**
+ * The SyncCommand catches a client up with the world.
+ * Its optional first argument is the world version the client holds, and its optional second argument the
+ * obstacle hash it holds. The response carries the robots added or changed since that version and the names of
+ * those removed, or every robot if the client has no version or one too old to work from. The obstacles are only
+ * sent when the client's hash is not the world's, so a resync costs in proportion to what changed, not to the
+ * size of the world.
+ *
+ * @param since the world version the client holds, or -1 for none
+ * @param obstacleHash the obstacle hash the client holds, or null for none
+ */
+public record SyncCommand(long since, Long obstacleHash) implements Command {
+
+    /**
+     * Reads a sync request's arguments into a command.
+     *
+     * @param arguments the version and obstacle hash the client holds, both optional
+     * @return the command
+     * @throws IllegalArgumentException if the version is not a number or the hash is not hexadecimal
+     */
+    public static SyncCommand from(JsonArray arguments) {
+        try {
+            long since = arguments.size() > 0 ? arguments.get(0).getAsLong() : -1;
+            Long obstacleHash = arguments.size() > 1 ? Long.parseUnsignedLong(arguments.get(1).getAsString(), 16) : null;
+            return new SyncCommand(since, obstacleHash);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync, send 'sync' with a version and an obstacle hash, or nothing", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sync";
+    }
+
+    /**
+     * Executes the sync command, answering with a full snapshot or the changes since the client's version.
+     *
+     * @param world the world to sync with
+     * @param robot the client's robot (not used)
+     * @return a JsonObject with the snapshot's fields in its data
+     */
+    @Override
+    public JsonObject execute(World world, Robot robot) {
+        JsonObject response = new JsonObject();
+        JsonObject data = new JsonObject();
+        long clientObstacleHash = obstacleHash == null ? ~world.getObstacleHash() : obstacleHash;
+        WorldSnapshot snapshot = since < 0 ? world.snapshot(clientObstacleHash) : world.changesSince(since, clientObstacleHash);
+        response.addProperty("result", "OK");
+        data.addProperty("message", snapshot.isFull()
+                ? "Snapshot at version " + snapshot.version()
+                : "Changes from version " + snapshot.since() + " to " + snapshot.version());
+        for (Map.Entry<String, JsonElement> member : snapshot.toJson().entrySet()) data.add(member.getKey(), member.getValue());
+        response.add("data", data);
+        return response;
+    }
+}
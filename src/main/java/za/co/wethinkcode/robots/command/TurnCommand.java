@@ -1,53 +1,40 @@
 package za.co.wethinkcode.robots.command;
 
 import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldEvent;
 
 /**
  * The Turn class represents a command to turn the robot in a specified direction.
- * It extends the Command class and implements the execute method to perform the turn action.
+ * It implements the Command interface and its execute method performs the turn action.
+ *
+ * @param direction the direction to turn ("left" or "right")
  */
-public class TurnCommand extends Command {
+public record TurnCommand(String direction) implements Command {
 
-    private static TurnCommand instance;
-
-    /**
-     * Private constructor to create a Turn command with a direction argument.
-     *
-     * @param argument the direction to turn ("left" or "right")
-     */
-    private TurnCommand(String argument) {
-        super("turn", argument);
-    }
-
-    /**
-     * Gets a TurnCommand instance with the given direction.
-     * 
-     * @param direction the direction to turn ("left" or "right")
-     * @return A TurnCommand instance configured for the specified direction
-     */
-    public static synchronized TurnCommand getInstance(String direction) {
-        if (instance == null) instance = new TurnCommand(direction);
-        instance.setArgument(direction);
-        return instance;
+    @Override
+    public String getName() {
+        return "turn";
     }
 
     /**
      * Executes the turn command, which changes the direction of the robot.
-     * The direction is determined by the argument passed to the command.
+     * The direction is the one the command was created with.
      *
      * @param world the world in which the robot is located
+     * @param robot the robot to turn
      * @return a JsonObject containing the result of the command execution
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
         boolean turn;
 
-        if (getArgument().equals("\"right\"")){
+        if ("right".equals(direction)){
             turn = true;
-        } else if (getArgument().equals("\"left\"")) {
+        } else if ("left".equals(direction)) {
             turn = false;
         }
         else {
@@ -56,7 +43,8 @@ public class TurnCommand extends Command {
             response.add("data", data);
             return response;
         }
-        world.getCurrentRobot().updateDirection(turn);
+        robot.updateDirection(turn);
+        world.record(WorldEvent.Type.TURNED, robot);
 
         response.addProperty("result", "OK");
         data.addProperty("message", "Done");
@@ -0,0 +1,97 @@
+package za.co.wethinkcode.robots.command.look;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.command.Command;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+
+import java.util.Locale;
+
+/**
+ * Handles the "look radius" and "look cone" commands.
+ * Instead of the four lines a plain look follows, these report every robot and obstacle within the visibility
+ * range in an area: the whole square around the robot, or a cone opening out from the way it faces.
+ *
+ * @param shape the area to look over
+ * @param fieldOfView the angle of a cone in degrees, or 0 for the configured FIELD_OF_VIEW
+ */
+public record AreaLookCommand(Shape shape, int fieldOfView) implements Command {
+
+    /**
+     * The areas a robot can look over.
+     */
+    public enum Shape {
+        /** Every cell within range */
+        RADIUS,
+        /** The cells within range inside the field of view */
+        CONE
+    }
+
+    /**
+     * Validates the shape and angle.
+     *
+     * @throws IllegalArgumentException if there is no shape or the angle is not between 0 and 360 degrees
+     */
+    public AreaLookCommand {
+        if (shape == null) throw new IllegalArgumentException("Invalid look, expected radius or cone");
+        if (fieldOfView < 0 || fieldOfView > 360) {
+            throw new IllegalArgumentException("Invalid look, a field of view is 1 to 360 degrees");
+        }
+    }
+
+    /**
+     * Reads an area look from a request's arguments: the shape, and for a cone an optional angle.
+     *
+     * @param arguments the request's arguments, such as ["cone", 120]
+     * @return the command
+     * @throws IllegalArgumentException if the arguments do not name a shape and angle
+     */
+    public static AreaLookCommand from(JsonArray arguments) {
+        Shape shape;
+        try {
+            shape = Shape.valueOf(arguments.get(0).getAsString().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid look, expected radius or cone");
+        }
+        int fieldOfView = arguments.size() > 1 ? arguments.get(1).getAsInt() : 0;
+        return new AreaLookCommand(shape, fieldOfView);
+    }
+
+    @Override
+    public String getName() {
+        return "look";
+    }
+
+    /**
+     * Executes the look over the robot's area.
+     *
+     * @param world The game world providing state information.
+     * @param currentRobot The robot that looks around.
+     * @return A JsonObject with the shape looked over and every object seen, closest first.
+     */
+    @Override
+    public JsonObject execute(World world, Robot currentRobot) {
+        JsonObject response = new JsonObject();
+        JsonObject data = new JsonObject();
+
+        if (currentRobot == null || currentRobot.getPosition() == null) {
+            response.addProperty("result", "ERROR");
+            data.addProperty("message", currentRobot == null
+                    ? "Cannot perform 'look': No robot context active."
+                    : "Cannot perform 'look': Robot has not been positioned.");
+            response.add("data", data);
+            return response;
+        }
+        int angle = shape == Shape.RADIUS ? 360 : fieldOfView > 0 ? fieldOfView : Config.FIELD_OF_VIEW;
+        AreaScan scan = new AreaScan(currentRobot, world, Config.VISIBILITY, angle);
+
+        response.addProperty("result", "OK");
+        data.addProperty("shape", shape.name().toLowerCase(Locale.ROOT));
+        if (shape == Shape.CONE) data.addProperty("fieldOfView", angle);
+        data.add("objects", scan.getSeenObjectDetails());
+        response.add("data", data);
+        return response;
+    }
+}
@@ -0,0 +1,138 @@
+package za.co.wethinkcode.robots.command.look;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class finds everything in an area around a robot: the square of cells within range of it, or only
+ * the part of that square inside a cone opening out from the way it faces. The robots and obstacles come from
+ * the world's area indexes, which only look in the buckets the square overlaps.
+ * <p>
+ * Each object is reported once with its offset from the robot, its Chebyshev distance (the most steps along
+ * either axis, which is what the range limits) and its Manhattan distance. An obstacle is reported at its
+ * nearest cell inside the area. Nothing is hidden behind a mountain in an area scan.
+ */
+public class AreaScan {
+    private static final Comparator<Seen> CLOSEST_FIRST =
+            Comparator.comparingInt(Seen::distance).thenComparingInt(Seen::manhattan);
+
+    private final int originX;
+    private final int originY;
+    private final int range;
+    private final Direction facing;
+    private final double halfAngle;
+    private final List<Seen> seen = new ArrayList<>();
+
+    /**
+     * Scans the area around a robot.
+     *
+     * @param robot the robot looking
+     * @param world the world it is in
+     * @param range how many cells away it can see, along either axis
+     * @param fieldOfView the angle of the cone in degrees, centred on the way the robot faces, or 360 for the full square
+     */
+    public AreaScan(Robot robot, World world, int range, int fieldOfView) {
+        this.originX = robot.getPosition().getX();
+        this.originY = robot.getPosition().getY();
+        this.range = range;
+        this.facing = robot.getCurrentDirection();
+        this.halfAngle = Math.toRadians(Math.min(fieldOfView, 360)) / 2;
+
+        int left = originX - range;
+        int top = originY - range;
+        int right = originX + range;
+        int bottom = originY + range;
+        for (Robot other : world.robotsInArea(left, top, right, bottom)) {
+            int dx = other.getPosition().getX() - originX;
+            int dy = other.getPosition().getY() - originY;
+            if (other != robot && (dx != 0 || dy != 0) && inView(dx, dy)) seen.add(new Seen("ROBOT", dx, dy));
+        }
+        for (Obstacle obstacle : world.obstaclesInArea(left, top, right, bottom)) {
+            Seen nearest = nearestCell(obstacle);
+            if (nearest != null) seen.add(nearest);
+        }
+        seen.sort(CLOSEST_FIRST);
+    }
+
+    /**
+     * Finds the obstacle's closest cell inside the area, or null if none of its cells are.
+     * For the full square that is the cell of the obstacle nearest the robot; for a cone the obstacle's cells
+     * inside the square are checked one by one.
+     */
+    private Seen nearestCell(Obstacle obstacle) {
+        int fromX = Math.max(obstacle.getTopLeftX(), originX - range) - originX;
+        int toX = Math.min(obstacle.getBottomRightX(), originX + range) - originX;
+        int fromY = Math.max(obstacle.getTopLeftY(), originY - range) - originY;
+        int toY = Math.min(obstacle.getBottomRightY(), originY + range) - originY;
+        String type = obstacle.getType().name();
+        if (halfAngle >= Math.PI) {
+            int dx = Math.max(fromX, Math.min(0, toX));
+            int dy = Math.max(fromY, Math.min(0, toY));
+            return new Seen(type, dx, dy);
+        }
+        Seen nearest = null;
+        for (int dy = fromY; dy <= toY; dy++) {
+            for (int dx = fromX; dx <= toX; dx++) {
+                if (!inView(dx, dy)) continue;
+                Seen cell = new Seen(type, dx, dy);
+                if (nearest == null || CLOSEST_FIRST.compare(cell, nearest) < 0) nearest = cell;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Checks if an offset is inside the cone, by the angle between it and the way the robot faces.
+     */
+    private boolean inView(int dx, int dy) {
+        if (halfAngle >= Math.PI) return true;
+        if (dx == 0 && dy == 0) return false;
+        int forward = switch (facing) {
+            case NORTH -> -dy;
+            case SOUTH -> dy;
+            case WEST -> -dx;
+            case EAST -> dx;
+        };
+        int sideways = facing == Direction.NORTH || facing == Direction.SOUTH ? dx : dy;
+        return Math.atan2(Math.abs(sideways), forward) <= halfAngle + 1e-9;
+    }
+
+    /**
+     * Gets everything found, closest first, in JSON format.
+     *
+     * @return A JsonArray with the type, offset and distances of each object
+     */
+    public JsonArray getSeenObjectDetails() {
+        JsonArray objects = new JsonArray();
+        for (Seen object : seen) {
+            JsonObject json = new JsonObject();
+            json.addProperty("type", object.type());
+            JsonArray offset = new JsonArray();
+            offset.add(object.dx());
+            offset.add(object.dy());
+            json.add("offset", offset);
+            json.addProperty("distance", object.distance());
+            json.addProperty("manhattan", object.manhattan());
+            objects.add(json);
+        }
+        return objects;
+    }
+
+    private record Seen(String type, int dx, int dy) {
+        int distance() {
+            return Math.max(Math.abs(dx), Math.abs(dy));
+        }
+
+        int manhattan() {
+            return Math.abs(dx) + Math.abs(dy);
+        }
+    }
+}
@@ -1,57 +1,69 @@
 package za.co.wethinkcode.robots.command.look;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import za.co.wethinkcode.robots.Position;
 import za.co.wethinkcode.robots.command.Command;
 import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.LookCache;
 import za.co.wethinkcode.robots.world.World;
 
+import java.util.HashSet;
+import java.util.Set;
+
 
 /**
  * Handles the "look" command.
  * Determines visible objects around the current robot up to the configured visibility range,
  * considering obstacle types for line of sight. Reports all seen objects.
+ * Each robot's last look is kept in the world's {@link LookCache}, and handed back as it is when nothing the
+ * robot could see has changed. "look changes" reports only the objects added and removed since the robot's
+ * last look.
+ *
+ * @param changesOnly whether to report the changes since the last look instead of every object
  */
-public class LookCommand extends Command {
-
-    private static LookCommand instance;
+public record LookCommand(boolean changesOnly) implements Command {
+    private static final LookCommand INSTANCE = new LookCommand(false);
+    private static final LookCommand CHANGES = new LookCommand(true);
 
     /**
-     * Constructs a LookCommand, setting the command name to "look".
+     * Gets the shared instance of LookCommand.
+     *
+     * @return The shared instance of LookCommand
      */
-    public LookCommand() {
-        super("look");
+    public static LookCommand getInstance() {
+        return INSTANCE;
     }
 
-
     /**
-     * Gets the singleton instance of LookCommand.
+     * Gets the shared instance of LookCommand that reports the changes since the last look.
      *
-     * @return The singleton instance of LookCommand
+     * @return The shared instance of "look changes"
      */
-    public static synchronized LookCommand getInstance() {
-        if (instance == null) {
-            instance = new LookCommand();
-        }
-        return instance;
+    public static LookCommand getChangesInstance() {
+        return CHANGES;
+    }
+
+    @Override
+    public String getName() {
+        return "look";
     }
 
     /**
      * Executes the look command for the current robot.
      * Scans surroundings, respecting visibility limits and obstacle types,
-     * and returns a JSON response with all seen objects.
+     * and returns a JSON response with all seen objects, or with what has changed since the last look.
      *
      * @param world The game world providing state information.
+     * @param currentRobot The robot that looks around.
      * @return A JsonObject detailing seen objects or an error if the look cannot be performed.
      */
     @Override
-    public JsonObject execute(World world) {
+    public JsonObject execute(World world, Robot currentRobot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
-        JsonArray objectsJsonArray;
 
-        Robot currentRobot = world.getCurrentRobot();
         if (currentRobot == null) {
             response.addProperty("result", "ERROR");
             data.addProperty("message", "Cannot perform 'look': No robot context active.");
@@ -65,13 +77,57 @@ public class LookCommand extends Command {
             response.add("data", data);
             return response;
         }
-        DetectedObjectDetails details = new DetectedObjectDetails(currentPos, world);
-        objectsJsonArray = details.getSeenObjectDetails();
+
+        LookCache cache = world.getLookCache();
+        JsonArray previous = null;
+        JsonArray objects = null;
+        if (cache != null) {
+            LookCache.Key key = world.lookKey(currentPos.pack());
+            previous = cache.last(currentRobot.getName());
+            objects = cache.get(currentRobot.getName(), key);
+            if (objects == null) {
+                objects = new DetectedObjectDetails(currentPos, world).getSeenObjectDetails();
+                cache.put(currentRobot.getName(), key, objects);
+            }
+        } else {
+            objects = new DetectedObjectDetails(currentPos, world).getSeenObjectDetails();
+        }
 
         response.addProperty("result", "OK");
-        data.add("objects", objectsJsonArray);
+        if (changesOnly) {
+            addChanges(data, previous, objects);
+            if (cache != null) cache.countDiff();
+        } else {
+            data.add("objects", objects);
+        }
         response.add("data", data);
 
         return response;
     }
+
+    /**
+     * Adds the objects seen now that were not seen last time, and those seen last time that are not seen now.
+     * A look from a new cell sees everything at new distances, so it mostly comes out as a full look.
+     */
+    private static void addChanges(JsonObject data, JsonArray previous, JsonArray objects) {
+        JsonArray added = new JsonArray();
+        JsonArray removed = new JsonArray();
+        if (previous != objects) {
+            Set<JsonElement> before = new HashSet<>();
+            if (previous != null) previous.forEach(before::add);
+            Set<JsonElement> now = new HashSet<>();
+            for (JsonElement object : objects) {
+                now.add(object);
+                if (!before.contains(object)) added.add(object);
+            }
+            if (previous != null) {
+                for (JsonElement object : previous) {
+                    if (!now.contains(object)) removed.add(object);
+                }
+            }
+        }
+        data.addProperty("unchanged", added.isEmpty() && removed.isEmpty());
+        data.add("added", added);
+        data.add("removed", removed);
+    }
 }
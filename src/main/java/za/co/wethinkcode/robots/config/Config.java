@@ -17,11 +17,23 @@ public class Config {
     public static String HOST;
     public static int PORT;
     public static int VISIBILITY;
+    public static int FIELD_OF_VIEW; // degrees a cone look covers, centred on the way the robot faces
     public static int REPAIR_DURATION ; // seconds
     public static int RELOAD_DURATION; // seconds
     public static int MAX_SHIELD;
     public static int MAX_SHOTS;
     public static String OBSTACLE_MODE;
+    public static String SERVER_ENGINE; // THREADED or NIO
+    public static String HANDLER_THREADS; // PLATFORM or VIRTUAL
+    public static String WORLD_MODE; // DIRECT, ACTOR or TICK
+    public static int TICK_RATE; // ticks per second
+    public static String PROTOCOL; // JSON or BINARY, used by the client
+    public static int MAX_IN_FLIGHT; // requests with an id one connection may have queued at once
+    public static int PIPELINE_DEPTH; // commands the client sends without waiting, 0 to not pipeline
+    public static int OUTBOUND_BUFFER_BYTES; // most bytes waiting to be written to one client
+    public static int SLOW_CLIENT_TIMEOUT; // milliseconds a full outbound buffer may go unread before the client is dropped
+    public static int EVENT_BUFFER_SIZE; // world events kept for spectators that fall behind
+    public static int SPECTATOR_INTERVAL; // milliseconds between batches of events sent to spectators
 
     /**
      * Loads configuration settings from a properties file.
@@ -44,11 +56,23 @@ public class Config {
             HOST = properties.getProperty("HOST");
             PORT = Integer.parseInt(properties.getProperty("PORT"));
             VISIBILITY = Integer.parseInt(properties.getProperty("VISIBILITY"));
+            FIELD_OF_VIEW = Integer.parseInt(properties.getProperty("FIELD_OF_VIEW", "90").trim());
             REPAIR_DURATION = Integer.parseInt(properties.getProperty("REPAIR_DURATION"));
             RELOAD_DURATION = Integer.parseInt(properties.getProperty("RELOAD_DURATION"));
             MAX_SHIELD = Integer.parseInt(properties.getProperty("MAX_SHIELD"));
             MAX_SHOTS = Integer.parseInt(properties.getProperty("MAX_SHOTS"));
             OBSTACLE_MODE = properties.getProperty("OBSTACLE_MODE");
+            SERVER_ENGINE = properties.getProperty("SERVER_ENGINE", "THREADED").trim();
+            HANDLER_THREADS = properties.getProperty("HANDLER_THREADS", "PLATFORM").trim();
+            WORLD_MODE = properties.getProperty("WORLD_MODE", "DIRECT").trim();
+            TICK_RATE = Integer.parseInt(properties.getProperty("TICK_RATE", "20").trim());
+            PROTOCOL = properties.getProperty("PROTOCOL", "JSON").trim();
+            MAX_IN_FLIGHT = Integer.parseInt(properties.getProperty("MAX_IN_FLIGHT", "64").trim());
+            PIPELINE_DEPTH = Integer.parseInt(properties.getProperty("PIPELINE_DEPTH", "0").trim());
+            OUTBOUND_BUFFER_BYTES = Integer.parseInt(properties.getProperty("OUTBOUND_BUFFER_BYTES", "262144").trim());
+            SLOW_CLIENT_TIMEOUT = Integer.parseInt(properties.getProperty("SLOW_CLIENT_TIMEOUT", "5000").trim());
+            EVENT_BUFFER_SIZE = Integer.parseInt(properties.getProperty("EVENT_BUFFER_SIZE", "65536").trim());
+            SPECTATOR_INTERVAL = Integer.parseInt(properties.getProperty("SPECTATOR_INTERVAL", "50").trim());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
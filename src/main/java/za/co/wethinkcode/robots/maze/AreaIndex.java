@@ -0,0 +1,200 @@
+package za.co.wethinkcode.robots.maze;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The AreaIndex class files things by the square buckets of the world they cover, so everything in a rectangle
+ * is found by looking in the few buckets the rectangle overlaps instead of at everything in the world.
+ * Each entry is a rectangle of cells; a robot is a rectangle of one cell, and an obstacle is filed in every
+ * bucket it overlaps. A query reports each entry once, from the first bucket where it and the query overlap.
+ * <p>
+ * Each bucket keeps its entries in primitive arrays guarded by its own lock, and is created the first time
+ * something is filed in it, so a big, mostly empty world only pays for the buckets in use.
+ * Parts of an entry outside the world are not indexed.
+ *
+ * @param <T> the type of thing indexed
+ */
+public final class AreaIndex<T> {
+    private final int width;
+    private final int height;
+    private final int bucketSize;
+    private final int columns;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * Constructs an empty index for a world of the given size.
+     *
+     * @param width the number of columns of cells
+     * @param height the number of rows of cells
+     * @param bucketSize the width and height of a bucket, in cells
+     */
+    public AreaIndex(int width, int height, int bucketSize) {
+        this.width = width;
+        this.height = height;
+        this.bucketSize = bucketSize;
+        this.columns = (width + bucketSize - 1) / bucketSize;
+        int rows = (height + bucketSize - 1) / bucketSize;
+        this.buckets = new AtomicReferenceArray<>(columns * rows);
+    }
+
+    /**
+     * Files a thing covering a rectangle of cells.
+     *
+     * @param item the thing
+     * @param left the smallest x it covers
+     * @param top the smallest y it covers
+     * @param right the largest x it covers
+     * @param bottom the largest y it covers
+     */
+    public void add(T item, int left, int top, int right, int bottom) {
+        if (!overlapsWorld(left, top, right, bottom)) return;
+        for (int row = bucketOf(top, height); row <= bucketOf(bottom, height); row++) {
+            for (int column = bucketOf(left, width); column <= bucketOf(right, width); column++) {
+                bucket(row * columns + column).add(item, left, top, right, bottom);
+            }
+        }
+    }
+
+    /**
+     * Takes a thing out of the index. It must be given the same rectangle it was filed with.
+     *
+     * @param item the thing
+     * @param left the smallest x it covers
+     * @param top the smallest y it covers
+     * @param right the largest x it covers
+     * @param bottom the largest y it covers
+     */
+    public void remove(T item, int left, int top, int right, int bottom) {
+        if (!overlapsWorld(left, top, right, bottom)) return;
+        for (int row = bucketOf(top, height); row <= bucketOf(bottom, height); row++) {
+            for (int column = bucketOf(left, width); column <= bucketOf(right, width); column++) {
+                Bucket bucket = buckets.get(row * columns + column);
+                if (bucket != null) bucket.remove(item);
+            }
+        }
+    }
+
+    /**
+     * Finds everything that covers at least one cell of a rectangle.
+     *
+     * @param left the smallest x of the rectangle
+     * @param top the smallest y of the rectangle
+     * @param right the largest x of the rectangle
+     * @param bottom the largest y of the rectangle
+     * @param found where to add what is found, each thing once
+     */
+    public void query(int left, int top, int right, int bottom, List<T> found) {
+        if (!overlapsWorld(left, top, right, bottom)) return;
+        int fromColumn = bucketOf(left, width);
+        int toColumn = bucketOf(right, width);
+        for (int row = bucketOf(top, height); row <= bucketOf(bottom, height); row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                Bucket bucket = buckets.get(row * columns + column);
+                if (bucket != null) bucket.collect(row, column, left, top, right, bottom, found);
+            }
+        }
+    }
+
+    /**
+     * Checks if anything covers at least one cell of a rectangle.
+     *
+     * @param left the smallest x of the rectangle
+     * @param top the smallest y of the rectangle
+     * @param right the largest x of the rectangle
+     * @param bottom the largest y of the rectangle
+     * @return true if some entry shares a cell with the rectangle
+     */
+    public boolean overlaps(int left, int top, int right, int bottom) {
+        if (!overlapsWorld(left, top, right, bottom)) return false;
+        int fromColumn = bucketOf(left, width);
+        int toColumn = bucketOf(right, width);
+        for (int row = bucketOf(top, height); row <= bucketOf(bottom, height); row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                Bucket bucket = buckets.get(row * columns + column);
+                if (bucket != null && bucket.overlaps(left, top, right, bottom)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean overlapsWorld(int left, int top, int right, int bottom) {
+        return right >= 0 && bottom >= 0 && left < width && top < height && left <= right && top <= bottom;
+    }
+
+    /**
+     * Gets the bucket column or row of a cell column or row, keeping it inside the world.
+     */
+    private int bucketOf(int cell, int size) {
+        return Math.max(0, Math.min(cell, size - 1)) / bucketSize;
+    }
+
+    private Bucket bucket(int index) {
+        Bucket bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new Bucket());
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    /**
+     * One bucket: its entries and the rectangle each covers, four ints per entry.
+     */
+    private final class Bucket {
+        private Object[] items = new Object[4];
+        private int[] boxes = new int[16];
+        private int size;
+
+        synchronized void add(Object item, int left, int top, int right, int bottom) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                boxes = Arrays.copyOf(boxes, size * 8);
+            }
+            items[size] = item;
+            int box = size * 4;
+            boxes[box] = left;
+            boxes[box + 1] = top;
+            boxes[box + 2] = right;
+            boxes[box + 3] = bottom;
+            size++;
+        }
+
+        synchronized void remove(Object item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] != item) continue;
+                size--;
+                items[i] = items[size];
+                System.arraycopy(boxes, size * 4, boxes, i * 4, 4);
+                items[size] = null;
+                return;
+            }
+        }
+
+        synchronized boolean overlaps(int left, int top, int right, int bottom) {
+            for (int box = 0; box < size * 4; box += 4) {
+                if (left <= boxes[box + 2] && boxes[box] <= right && top <= boxes[box + 3] && boxes[box + 1] <= bottom) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds the entries that overlap a rectangle, skipping those already reported from an earlier bucket:
+         * an entry is reported from the bucket holding the top left cell of its overlap with the rectangle.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized void collect(int row, int column, int left, int top, int right, int bottom, List<T> found) {
+            for (int i = 0; i < size; i++) {
+                int box = i * 4;
+                int fromX = Math.max(boxes[box], left);
+                int fromY = Math.max(boxes[box + 1], top);
+                if (fromX > Math.min(boxes[box + 2], right) || fromY > Math.min(boxes[box + 3], bottom)) continue;
+                if (bucketOf(fromX, width) != column || bucketOf(fromY, height) != row) continue;
+                found.add((T) items[i]);
+            }
+        }
+    }
+}
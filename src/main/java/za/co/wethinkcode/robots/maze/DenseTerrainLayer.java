@@ -0,0 +1,83 @@
+package za.co.wethinkcode.robots.maze;
+
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+
+import java.util.List;
+
+/**
+ * A terrain layer holding one byte per cell, row by row.
+ */
+final class DenseTerrainLayer implements TerrainLayer {
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+
+    /**
+     * Rasterizes the obstacles onto a width by height array.
+     *
+     * @param obstacles the obstacles to rasterize
+     * @param width the number of columns
+     * @param height the number of rows
+     */
+    DenseTerrainLayer(List<Obstacle> obstacles, int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[Math.multiplyExact(width, height)];
+        for (Obstacle obstacle : obstacles) {
+            byte bit = TerrainLayer.bitOf(obstacle.getType());
+            int fromX = Math.max(0, obstacle.getTopLeft().getX());
+            int toX = Math.min(width - 1, obstacle.getBottomRight().getX());
+            int fromY = Math.max(0, obstacle.getTopLeft().getY());
+            int toY = Math.min(height - 1, obstacle.getBottomRight().getY());
+            for (int y = fromY; y <= toY; y++) {
+                for (int x = fromX; x <= toX; x++) {
+                    cells[y * width + x] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of columns in the layer.
+     *
+     * @return the width
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows in the layer.
+     *
+     * @return the height
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the obstacle types covering a cell.
+     *
+     * @param x the column
+     * @param y the row
+     * @return a bitmask of MOUNTAIN, LAKE and PIT, 0 for open ground or cells outside the layer
+     */
+    @Override
+    public byte terrainAt(int x, int y) {
+        return contains(x, y) ? cells[y * width + x] : 0;
+    }
+
+    /**
+     * Gets the heap used by the cell array.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long memoryBytes() {
+        return ARRAY_HEADER_BYTES + (long) cells.length;
+    }
+}
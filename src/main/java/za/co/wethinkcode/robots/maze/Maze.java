@@ -5,16 +5,20 @@ import za.co.wethinkcode.robots.obstacle.Obstacle;
 import za.co.wethinkcode.robots.obstacle.ObstacleType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 /**
  * The Maze class represents a maze with obstacles.
  * It contains a list of obstacles and provides methods to access them.
+ * Obstacles never move once the maze is built, so it also rasterizes them into a {@link TerrainLayer}
+ * that answers per-cell questions without going through the list.
  */
 public class Maze {
 
     private List<Obstacle> obstacleList = new ArrayList<>();
+    private final TerrainLayer terrain;
 
     /**
      * Constructor for the Maze class.
@@ -56,45 +60,69 @@ public class Maze {
                 obstacleList = new ArrayList<>();
             }
         }
+        terrain = rasterize(obstacleList);
+    }
+
+    /**
+     * Constructor for a maze with the given obstacles, sized from the current HEIGHT and WIDTH.
+     * Unlike the mode constructor it does not reload the configuration.
+     *
+     * @param obstacles the obstacles in the maze
+     */
+    public Maze(List<Obstacle> obstacles) {
+        obstacleList = new ArrayList<>(obstacles);
+        terrain = rasterize(obstacleList);
+    }
+
+    /**
+     * Constructor for a maze with the given obstacles and size.
+     *
+     * @param obstacles the obstacles in the maze
+     * @param width the number of columns in the terrain layer
+     * @param height the number of rows in the terrain layer
+     */
+    public Maze(List<Obstacle> obstacles, int width, int height) {
+        obstacleList = new ArrayList<>(obstacles);
+        terrain = TerrainLayer.rasterize(obstacleList, width, height);
+    }
+
+    /**
+     * Rasterizes the obstacles at the configured world size.
+     * The world's x coordinates run up to HEIGHT - 1 and its y coordinates up to WIDTH - 1.
+     */
+    private static TerrainLayer rasterize(List<Obstacle> obstacles) {
+        return TerrainLayer.rasterize(obstacles, Config.HEIGHT, Config.WIDTH);
     }
 
     /**
      * Gets the list of obstacles in the maze.
-     * @return The list of obstacles.
+     * @return The list of obstacles, which cannot be changed once the maze is built.
      */
     public List<Obstacle> getObstacles() {
-        return obstacleList;
+        return Collections.unmodifiableList(obstacleList);
+    }
+
+    /**
+     * Gets the rasterized obstacles.
+     * @return The terrain layer built from the obstacles.
+     */
+    public TerrainLayer getTerrain() {
+        return terrain;
     }
 
     /**
      * @param n The number of random obstacles to be generated.
-     * adds "n" random types of obstacles in the maze
+     * adds "n" random types of obstacles in the maze, or as many as fit if the map fills up first
      */
     private void randomize(int n){
         Config.loadConfig("config.properties");
-        Random r = new Random();
-        Obstacle newObstacle;
-        for (int i = 0;i<n;i++){
-
-            while(true){
-                int topLeftX = r.nextInt(1,Config.WIDTH-1);
-                int topLeftY = r.nextInt(1,Config.WIDTH-1);
-                ObstacleType type = ObstacleType.values()[r.nextInt(0,3)];
-                int size = r.nextInt(2,10);
-
-                newObstacle = new Obstacle(topLeftX,topLeftY,size,type);
-                boolean canAdd = true;
-                for(Obstacle o : obstacleList){
-                    if(o.isOverlapping(newObstacle)){
-                        canAdd = false;
-                    }
-                }
-                if(canAdd){
-                    break;
-                }
-            }
-            obstacleList.add(newObstacle);
+        // Obstacles are spread over a square of the configured WIDTH, as they always have been
+        ObstaclePlacer.Placement placement = new ObstaclePlacer(Config.WIDTH, Config.WIDTH, new Random()).place(n);
+        if (!placement.isComplete()) {
+            System.out.println("Could only place " + placement.obstacles().size() + " of " + n
+                    + " obstacles after " + placement.attempts() + " attempts");
         }
+        obstacleList.addAll(placement.obstacles());
     }
 
     /**
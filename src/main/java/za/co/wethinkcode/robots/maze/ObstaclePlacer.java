@@ -0,0 +1,106 @@
+package za.co.wethinkcode.robots.maze;
+
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ObstaclePlacer scatters random obstacles over a map without letting any two of them share a cell.
+ * The obstacles placed so far are filed in an {@link AreaIndex}, so a candidate is only checked against the
+ * few obstacles near it however many there are on the map.
+ * <p>
+ * Random placement gets harder as the map fills up, and a map can be too small to fit all the obstacles asked
+ * for. The placer gives up once {@link #ATTEMPTS_PER_OBSTACLE} candidates in a row have been rejected, and
+ * the {@link Placement} it returns says how many obstacles it managed to place.
+ */
+public final class ObstaclePlacer {
+    /** How many candidates in a row may be rejected before the placer gives up */
+    public static final int ATTEMPTS_PER_OBSTACLE = 100;
+    private static final int MIN_SIZE = 2;
+    private static final int MAX_SIZE = 10;
+    private static final int BUCKET_SIZE = 16;
+
+    private final int width;
+    private final int height;
+    private final Random random;
+    private final AreaIndex<Obstacle> areas;
+    private final List<Obstacle> placed = new ArrayList<>();
+
+    /**
+     * Constructs a placer for a map. Obstacles have their top left corner at least one cell in from the
+     * top and left of the map and before its last column and row, and may reach past its bottom and right.
+     *
+     * @param width the number of columns of the map
+     * @param height the number of rows of the map
+     * @param random where the obstacles' places, sizes and types come from
+     */
+    public ObstaclePlacer(int width, int height, Random random) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.areas = new AreaIndex<>(width, height, BUCKET_SIZE);
+    }
+
+    /**
+     * Places random obstacles until there are the number asked for, or until too many candidates in a row
+     * have been rejected.
+     *
+     * @param count the number of obstacles to place
+     * @return the obstacles placed, and how many candidates it took
+     */
+    public Placement place(int count) {
+        long attempts = 0;
+        int misses = 0;
+        int start = placed.size();
+        boolean room = width > 2 && height > 2;
+        while (room && placed.size() - start < count && misses < ATTEMPTS_PER_OBSTACLE) {
+            attempts++;
+            int topLeftX = random.nextInt(1, width - 1);
+            int topLeftY = random.nextInt(1, height - 1);
+            ObstacleType type = ObstacleType.values()[random.nextInt(0, 3)];
+            int size = random.nextInt(MIN_SIZE, MAX_SIZE);
+            misses = add(new Obstacle(topLeftX, topLeftY, size, type)) ? 0 : misses + 1;
+        }
+        return new Placement(Collections.unmodifiableList(new ArrayList<>(placed.subList(start, placed.size()))),
+                count, attempts);
+    }
+
+    /**
+     * Places an obstacle if it does not share a cell with any obstacle placed before it.
+     *
+     * @param obstacle the obstacle to place
+     * @return true if it was placed, false if it overlaps another
+     */
+    boolean add(Obstacle obstacle) {
+        int left = obstacle.getTopLeftX();
+        int top = obstacle.getTopLeftY();
+        int right = obstacle.getBottomRightX();
+        int bottom = obstacle.getBottomRightY();
+        if (areas.overlaps(left, top, right, bottom)) return false;
+        areas.add(obstacle, left, top, right, bottom);
+        placed.add(obstacle);
+        return true;
+    }
+
+    /**
+     * The result of placing obstacles.
+     *
+     * @param obstacles the obstacles placed
+     * @param requested the number of obstacles asked for
+     * @param attempts the number of candidates tried, placed or not
+     */
+    public record Placement(List<Obstacle> obstacles, int requested, long attempts) {
+        /**
+         * Checks if every obstacle asked for was placed.
+         *
+         * @return false if the placer gave up first
+         */
+        public boolean isComplete() {
+            return obstacles.size() == requested;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package za.co.wethinkcode.robots.maze;
+
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+
+import java.util.*;
+
+/**
+ * A terrain layer holding each row as runs of equal terrain.
+ * Rows crossed by the same obstacles share one set of runs, so a huge map with a few obstacles
+ * costs little more than one reference per row.
+ */
+final class RunLengthTerrainLayer implements TerrainLayer {
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final Row OPEN_ROW = new Row(new int[]{0}, new byte[]{0});
+
+    private final int width;
+    private final int height;
+    private final Row[] rows;
+
+    /**
+     * Rasterizes the obstacles, sweeping down the rows and tracking which obstacles cross each one.
+     *
+     * @param obstacles the obstacles to rasterize
+     * @param width the number of columns
+     * @param height the number of rows
+     */
+    RunLengthTerrainLayer(List<Obstacle> obstacles, int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.rows = new Row[height];
+
+        List<Obstacle> byTop = new ArrayList<>();
+        for (Obstacle obstacle : obstacles) {
+            if (obstacle.getBottomRight().getX() >= 0 && obstacle.getTopLeft().getX() < width
+                    && obstacle.getBottomRight().getY() >= 0 && obstacle.getTopLeft().getY() < height) {
+                byTop.add(obstacle);
+            }
+        }
+        byTop.sort(Comparator.comparingInt(obstacle -> obstacle.getTopLeft().getY()));
+
+        List<Obstacle> crossing = new ArrayList<>();
+        int next = 0;
+        Row row = OPEN_ROW;
+        for (int y = 0; y < height; y++) {
+            final int currentRow = y;
+            boolean changed = crossing.removeIf(obstacle -> obstacle.getBottomRight().getY() < currentRow);
+            while (next < byTop.size() && byTop.get(next).getTopLeft().getY() <= y) {
+                Obstacle obstacle = byTop.get(next++);
+                if (obstacle.getBottomRight().getY() >= y) {
+                    crossing.add(obstacle);
+                    changed = true;
+                }
+            }
+            if (changed) row = crossing.isEmpty() ? OPEN_ROW : buildRow(crossing);
+            rows[y] = row;
+        }
+    }
+
+    private Row buildRow(List<Obstacle> crossing) {
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add(0);
+        for (Obstacle obstacle : crossing) {
+            boundaries.add(Math.max(0, obstacle.getTopLeft().getX()));
+            int end = obstacle.getBottomRight().getX() + 1;
+            if (end < width) boundaries.add(end);
+        }
+
+        int[] starts = new int[boundaries.size()];
+        byte[] values = new byte[boundaries.size()];
+        int runs = 0;
+        for (int start : boundaries) {
+            byte value = 0;
+            for (Obstacle obstacle : crossing) {
+                if (start >= obstacle.getTopLeft().getX() && start <= obstacle.getBottomRight().getX()) {
+                    value |= TerrainLayer.bitOf(obstacle.getType());
+                }
+            }
+            if (runs > 0 && values[runs - 1] == value) continue;
+            starts[runs] = start;
+            values[runs] = value;
+            runs++;
+        }
+        return new Row(Arrays.copyOf(starts, runs), Arrays.copyOf(values, runs));
+    }
+
+    /**
+     * Gets the number of columns in the layer.
+     *
+     * @return the width
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows in the layer.
+     *
+     * @return the height
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the obstacle types covering a cell, with a binary search over the runs in its row.
+     *
+     * @param x the column
+     * @param y the row
+     * @return a bitmask of MOUNTAIN, LAKE and PIT, 0 for open ground or cells outside the layer
+     */
+    @Override
+    public byte terrainAt(int x, int y) {
+        if (!contains(x, y)) return 0;
+        Row row = rows[y];
+        int run = Arrays.binarySearch(row.starts, x);
+        if (run < 0) run = -run - 2;
+        return row.values[run];
+    }
+
+    /**
+     * Estimates the heap used by the row table and the distinct rows it points to.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long memoryBytes() {
+        long bytes = ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * rows.length;
+        Set<Row> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Row row : rows) {
+            if (distinct.add(row)) {
+                bytes += OBJECT_HEADER_BYTES + 2L * REFERENCE_BYTES
+                        + ARRAY_HEADER_BYTES + 4L * row.starts.length
+                        + ARRAY_HEADER_BYTES + row.values.length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * The runs of one row: run i covers the columns from starts[i] up to the next start.
+     */
+    private record Row(int[] starts, byte[] values) {
+    }
+}
@@ -0,0 +1,144 @@
+package za.co.wethinkcode.robots.maze;
+
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+
+import java.util.List;
+
+/**
+ * The TerrainLayer interface is a rasterized, read-only view of a maze's obstacles.
+ * Every cell of the world maps to a bitmask of the obstacle types covering it, so questions like
+ * "is there a mountain here?" are answered by looking at one cell instead of every obstacle.
+ * Overlapping obstacles set both of their bits on the cells they share.
+ * <p>
+ * Small and medium maps store one byte per cell. Maps above {@link #DENSE_CELL_LIMIT} cells store
+ * each row as runs of equal terrain, which costs a binary search per lookup but keeps memory
+ * proportional to the obstacles rather than the area.
+ */
+public interface TerrainLayer {
+    byte MOUNTAIN = 1;
+    byte LAKE = 2;
+    byte PIT = 4;
+    /** The obstacle types a robot cannot move onto or through. */
+    byte BLOCKING = MOUNTAIN | LAKE;
+
+    /** The largest map, in cells, that is stored one byte per cell by {@link #rasterize}. */
+    long DENSE_CELL_LIMIT = 1L << 24;
+
+    /**
+     * Rasterizes obstacles onto a map of the given size, picking the storage that suits the size.
+     * Parts of obstacles outside the map are left out.
+     *
+     * @param obstacles the obstacles to rasterize
+     * @param width the number of columns
+     * @param height the number of rows
+     * @return the terrain layer
+     */
+    static TerrainLayer rasterize(List<Obstacle> obstacles, int width, int height) {
+        return (long) width * height <= DENSE_CELL_LIMIT
+                ? dense(obstacles, width, height)
+                : runLength(obstacles, width, height);
+    }
+
+    /**
+     * Rasterizes obstacles into a layer holding one byte per cell.
+     *
+     * @param obstacles the obstacles to rasterize
+     * @param width the number of columns
+     * @param height the number of rows
+     * @return the terrain layer
+     */
+    static TerrainLayer dense(List<Obstacle> obstacles, int width, int height) {
+        return new DenseTerrainLayer(obstacles, width, height);
+    }
+
+    /**
+     * Rasterizes obstacles into a layer holding run-length encoded rows.
+     *
+     * @param obstacles the obstacles to rasterize
+     * @param width the number of columns
+     * @param height the number of rows
+     * @return the terrain layer
+     */
+    static TerrainLayer runLength(List<Obstacle> obstacles, int width, int height) {
+        return new RunLengthTerrainLayer(obstacles, width, height);
+    }
+
+    /**
+     * Gets the terrain bit for an obstacle type.
+     *
+     * @param type the obstacle type
+     * @return MOUNTAIN, LAKE or PIT
+     */
+    static byte bitOf(ObstacleType type) {
+        return switch (type) {
+            case MOUNTAIN -> MOUNTAIN;
+            case LAKE -> LAKE;
+            case BOTTOMLESS_PIT -> PIT;
+        };
+    }
+
+    /**
+     * Gets the number of columns in the layer.
+     *
+     * @return the width
+     */
+    int getWidth();
+
+    /**
+     * Gets the number of rows in the layer.
+     *
+     * @return the height
+     */
+    int getHeight();
+
+    /**
+     * Gets the obstacle types covering a cell.
+     *
+     * @param x the column
+     * @param y the row
+     * @return a bitmask of MOUNTAIN, LAKE and PIT, 0 for open ground or cells outside the layer
+     */
+    byte terrainAt(int x, int y);
+
+    /**
+     * Estimates the heap used by the layer's cell data.
+     *
+     * @return the size in bytes
+     */
+    long memoryBytes();
+
+    /**
+     * Checks if a cell lies inside the layer.
+     *
+     * @param x the column
+     * @param y the row
+     * @return true if the cell is in the layer
+     */
+    default boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < getWidth() && y < getHeight();
+    }
+
+    /**
+     * Checks if a cell is covered by any of the given obstacle types.
+     *
+     * @param x the column
+     * @param y the row
+     * @param types a bitmask of obstacle types
+     * @return true if one of the types covers the cell
+     */
+    default boolean has(int x, int y, byte types) {
+        return (terrainAt(x, y) & types) != 0;
+    }
+
+    /**
+     * Formats the layer's size and memory use for the server console.
+     *
+     * @return a one line summary of the layer
+     */
+    default String describe() {
+        return String.format("Terrain layer: %s %dx%d, %.1f KB",
+                this instanceof DenseTerrainLayer ? "dense" : "run-length",
+                getWidth(), getHeight(), memoryBytes() / 1024.0);
+    }
+}
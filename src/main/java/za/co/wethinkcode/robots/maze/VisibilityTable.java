@@ -0,0 +1,263 @@
+package za.co.wethinkcode.robots.maze;
+
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The VisibilityTable holds what a robot sees of the terrain from each cell: in every direction, the obstacles
+ * it looks into and the edge of the world, closest first, up to the visibility range and stopping at the first
+ * mountain. Obstacles never move, so a cell's sightlines are worked out the first time a robot looks from it
+ * and kept, and every later look from that cell only has to add the robots.
+ * <p>
+ * Sightlines are worked out from the obstacles themselves rather than the rasterized terrain, because two
+ * obstacles of the same type that touch look like one on the terrain but are each reported by a look.
+ * The table files every obstacle under each row and column it covers, sorted by the face a robot looking
+ * along that line sees first, so a cell's sightlines come from four short runs of those lists.
+ * <p>
+ * A cell's sightlines are one int array: four end offsets, one per {@link Direction} in declaration order,
+ * followed by the entries of each direction in turn. An entry packs a distance and a kind, which is the
+ * {@link ObstacleType} ordinal or {@link #EDGE}. Cells that see nothing share one array. Maps above
+ * {@link #CACHED_CELL_LIMIT} cells keep nothing and work the sightlines out on every look.
+ */
+public final class VisibilityTable {
+    /** The kind of an entry for the edge of the world. */
+    public static final int EDGE = 3;
+    /** The largest map, in cells, whose sightlines are kept once they have been worked out. */
+    public static final long CACHED_CELL_LIMIT = 1L << 22;
+
+    private static final int KIND_BITS = 2;
+    private static final int HEADER = Direction.values().length;
+    private static final int[] NOTHING_IN_SIGHT = {HEADER, HEADER, HEADER, HEADER};
+    private static final int[] NO_FACES = {};
+    private static final ObstacleType[] TYPES = ObstacleType.values();
+
+    private final int width;
+    private final int height;
+    private final int range;
+    private final int[][][] faces = new int[HEADER][][];
+    private final AtomicReferenceArray<int[]> cells;
+
+    /**
+     * Constructs a table of what can be seen of a map's obstacles.
+     *
+     * @param obstacles the obstacles on the map
+     * @param width the number of columns of the map
+     * @param height the number of rows of the map
+     * @param range how many cells away a robot can see
+     */
+    public VisibilityTable(List<Obstacle> obstacles, int width, int height, int range) {
+        this.width = width;
+        this.height = height;
+        this.range = range;
+        for (Direction direction : Direction.values()) {
+            faces[direction.ordinal()] = faces(obstacles, direction);
+        }
+        long size = (long) width * height;
+        this.cells = size <= CACHED_CELL_LIMIT ? new AtomicReferenceArray<>((int) size) : null;
+    }
+
+    /**
+     * Gets how many cells away a robot can see.
+     *
+     * @return the visibility range the table was built for
+     */
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * Gets what can be seen of the terrain from a cell. The array is shared and must not be changed.
+     *
+     * @param x the column
+     * @param y the row
+     * @return the cell's sightlines, read with {@link #start}, {@link #end}, {@link #distance} and {@link #kind}
+     */
+    public int[] sightlines(int x, int y) {
+        if (cells == null || x < 0 || y < 0 || x >= width || y >= height) return compute(x, y);
+        int index = y * width + x;
+        int[] sightlines = cells.get(index);
+        if (sightlines == null) {
+            sightlines = compute(x, y);
+            cells.set(index, sightlines);
+        }
+        return sightlines;
+    }
+
+    /**
+     * Gets where a direction's entries start.
+     *
+     * @param sightlines a cell's sightlines
+     * @param direction the direction
+     * @return the index of the direction's first entry
+     */
+    public static int start(int[] sightlines, Direction direction) {
+        return direction.ordinal() == 0 ? HEADER : sightlines[direction.ordinal() - 1];
+    }
+
+    /**
+     * Gets where a direction's entries end.
+     *
+     * @param sightlines a cell's sightlines
+     * @param direction the direction
+     * @return the index after the direction's last entry
+     */
+    public static int end(int[] sightlines, Direction direction) {
+        return sightlines[direction.ordinal()];
+    }
+
+    /**
+     * Gets how far away an entry is.
+     *
+     * @param entry an entry of a cell's sightlines
+     * @return the distance in cells
+     */
+    public static int distance(int entry) {
+        return entry >>> KIND_BITS;
+    }
+
+    /**
+     * Gets what an entry is.
+     *
+     * @param entry an entry of a cell's sightlines
+     * @return the obstacle type's ordinal, or EDGE
+     */
+    public static int kind(int entry) {
+        return entry & ((1 << KIND_BITS) - 1);
+    }
+
+    /**
+     * Gets the name a look reports for an entry.
+     *
+     * @param entry an entry of a cell's sightlines
+     * @return "EDGE" or the obstacle type's name
+     */
+    public static String typeOf(int entry) {
+        int kind = kind(entry);
+        return kind == EDGE ? "EDGE" : TYPES[kind].name();
+    }
+
+    /**
+     * Counts the cells whose sightlines have been worked out and kept.
+     *
+     * @return the number of cells in the table
+     */
+    public int getCachedCells() {
+        if (cells == null) return 0;
+        int cached = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.get(i) != null) cached++;
+        }
+        return cached;
+    }
+
+    /**
+     * Reads the faces ahead of a cell in each direction. An obstacle is seen at its face nearest the robot, so
+     * obstacles that touch or overlap are each reported, and one the robot stands in is not. A mountain hides
+     * everything behind it, including other obstacles whose faces are on the same cell.
+     */
+    private int[] compute(int x, int y) {
+        int[] sightlines = new int[HEADER + HEADER];
+        int size = HEADER;
+        for (Direction direction : Direction.values()) {
+            int line = isAlongRow(direction) ? y : x;
+            int[] ahead = line >= 0 && line < faces[direction.ordinal()].length
+                    ? faces[direction.ordinal()][line] : NO_FACES;
+            int origin = along(direction, x, y);
+            boolean blocked = false;
+            for (int i = firstAfter(ahead, origin); i < ahead.length && !blocked; i++) {
+                int distance = (ahead[i] >> KIND_BITS) - origin;
+                if (distance > range) break;
+                if (size == sightlines.length) sightlines = Arrays.copyOf(sightlines, size * 2);
+                int kind = kind(ahead[i]);
+                sightlines[size++] = distance << KIND_BITS | kind;
+                blocked = TYPES[kind] == ObstacleType.MOUNTAIN;
+            }
+            int edge = switch (direction) {
+                case NORTH -> y;
+                case SOUTH -> height - 1 - y;
+                case WEST -> x;
+                case EAST -> width - 1 - x;
+            };
+            if (size == sightlines.length) sightlines = Arrays.copyOf(sightlines, size * 2);
+            if (!blocked && edge >= 0 && edge < range) sightlines[size++] = edge << KIND_BITS | EDGE;
+            sightlines[direction.ordinal()] = size;
+        }
+        return size == HEADER ? NOTHING_IN_SIGHT : Arrays.copyOf(sightlines, size);
+    }
+
+    /**
+     * Files the face of each obstacle a robot looking in a direction sees first under every row or column the
+     * obstacle covers. A face is its position along the line, negated for north and west so that faces further
+     * ahead always sort higher, packed with the obstacle type and sorted.
+     */
+    private int[][] faces(List<Obstacle> obstacles, Direction direction) {
+        boolean alongRow = isAlongRow(direction);
+        int[][] lines = new int[alongRow ? height : width][];
+        int[] counts = new int[lines.length];
+        for (Obstacle obstacle : obstacles) {
+            for (int line = from(obstacle, alongRow); line <= to(obstacle, alongRow, lines.length); line++) {
+                counts[line]++;
+            }
+        }
+        for (int line = 0; line < lines.length; line++) {
+            lines[line] = counts[line] == 0 ? NO_FACES : new int[counts[line]];
+            counts[line] = 0;
+        }
+        for (Obstacle obstacle : obstacles) {
+            boolean nearSide = direction == Direction.EAST || direction == Direction.SOUTH;
+            Position corner = nearSide ? obstacle.getTopLeft() : obstacle.getBottomRight();
+            int face = along(direction, corner.getX(), corner.getY()) << KIND_BITS | obstacle.getType().ordinal();
+            for (int line = from(obstacle, alongRow); line <= to(obstacle, alongRow, lines.length); line++) {
+                lines[line][counts[line]++] = face;
+            }
+        }
+        for (int[] line : lines) Arrays.sort(line);
+        return lines;
+    }
+
+    private static boolean isAlongRow(Direction direction) {
+        return direction == Direction.EAST || direction == Direction.WEST;
+    }
+
+    private static int from(Obstacle obstacle, boolean alongRow) {
+        return Math.max(0, alongRow ? obstacle.getTopLeft().getY() : obstacle.getTopLeft().getX());
+    }
+
+    private static int to(Obstacle obstacle, boolean alongRow, int lines) {
+        return Math.min(lines - 1, alongRow ? obstacle.getBottomRight().getY() : obstacle.getBottomRight().getX());
+    }
+
+    /**
+     * Gets how far a cell is along a direction, from the top or left of the map for south and east and
+     * negated for north and west.
+     */
+    private static int along(Direction direction, int x, int y) {
+        return switch (direction) {
+            case NORTH -> -y;
+            case SOUTH -> y;
+            case WEST -> -x;
+            case EAST -> x;
+        };
+    }
+
+    /**
+     * Finds the first face strictly ahead of a position along a line.
+     */
+    private static int firstAfter(int[] faces, int origin) {
+        int low = 0;
+        int high = faces.length;
+        int key = (origin + 1) << KIND_BITS;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (faces[middle] < key) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+}
@@ -82,6 +82,38 @@ public class Obstacle {
     }
     public ObstacleType getType(){return type;}
 
+    /**
+     * Gets the x-coordinate of the top-left corner without creating a position.
+     * @return the smallest x covered by the obstacle
+     */
+    public int getTopLeftX() {
+        return topLeftX;
+    }
+
+    /**
+     * Gets the y-coordinate of the top-left corner without creating a position.
+     * @return the smallest y covered by the obstacle
+     */
+    public int getTopLeftY() {
+        return topLeftY;
+    }
+
+    /**
+     * Gets the x-coordinate of the bottom-right corner without creating a position.
+     * @return the largest x covered by the obstacle
+     */
+    public int getBottomRightX() {
+        return bottomRightX;
+    }
+
+    /**
+     * Gets the y-coordinate of the bottom-right corner without creating a position.
+     * @return the largest y covered by the obstacle
+     */
+    public int getBottomRightY() {
+        return bottomRightY;
+    }
+
 
 
     /**
@@ -91,7 +123,18 @@ public class Obstacle {
      * @return return `true` if the x,y coordinate falls within the obstacle's area
      */
     public boolean blocksPosition(Position position) {
-        return position.getX() >= this.topLeftX && position.getX() <= this.bottomRightX && position.getY() >= this.topLeftY && position.getY() <= this.bottomRightY;
+        return blocksPosition(position.getX(), position.getY());
+    }
+
+    /**
+     * Checks if this obstacle blocks access to the specified coordinates.
+     *
+     * @param x the x coordinate to check
+     * @param y the y coordinate to check
+     * @return return `true` if the x,y coordinate falls within the obstacle's area
+     */
+    public boolean blocksPosition(int x, int y) {
+        return x >= this.topLeftX && x <= this.bottomRightX && y >= this.topLeftY && y <= this.bottomRightY;
     }
 
 
@@ -104,10 +147,23 @@ public class Obstacle {
      * @return `true` if this obstacle is in the way
      */
     public boolean blocksPath(Position a, Position b) {
-        if (a.getX() == b.getX()) {
-            return a.getX() >= this.topLeftX && a.getX() <= this.bottomRightX && ((a.getY() >= this.topLeftY && b.getY() <= this.bottomRightY) || (b.getY() >= this.topLeftY && a.getY() <= this.bottomRightY));
-        } else if (a.getY() == b.getY()) {
-            return a.getY() >= this.topLeftY && a.getY() <= this.bottomRightY && ((a.getX() >= this.topLeftX && b.getX() <= this.bottomRightX) || (b.getX() >= this.topLeftX && a.getX() <= this.bottomRightX));
+        return blocksPath(a.getX(), a.getY(), b.getX(), b.getY());
+    }
+
+    /**
+     * Checks if this obstacle blocks the path that goes from coordinate (x1, y1) to (x2, y2), without creating positions.
+     *
+     * @param x1 the x coordinate of the first position
+     * @param y1 the y coordinate of the first position
+     * @param x2 the x coordinate of the second position
+     * @param y2 the y coordinate of the second position
+     * @return `true` if this obstacle is in the way
+     */
+    public boolean blocksPath(int x1, int y1, int x2, int y2) {
+        if (x1 == x2) {
+            return x1 >= this.topLeftX && x1 <= this.bottomRightX && ((y1 >= this.topLeftY && y2 <= this.bottomRightY) || (y2 >= this.topLeftY && y1 <= this.bottomRightY));
+        } else if (y1 == y2) {
+            return y1 >= this.topLeftY && y1 <= this.bottomRightY && ((x1 >= this.topLeftX && x2 <= this.bottomRightX) || (x2 >= this.topLeftX && x1 <= this.bottomRightX));
         }
         return false;
     }
@@ -119,9 +175,9 @@ public class Obstacle {
      */
     public boolean isOverlapping(Obstacle anotherObstacle){
 
-        for(int x=anotherObstacle.getTopLeft().getX(); x<anotherObstacle.getBottomRight().getX();x++){
-            for(int y=anotherObstacle.getTopLeft().getY(); y<anotherObstacle.getBottomRight().getY();y++){
-                if(blocksPosition(new Position(x,y))){
+        for(int x=anotherObstacle.topLeftX; x<anotherObstacle.bottomRightX;x++){
+            for(int y=anotherObstacle.topLeftY; y<anotherObstacle.bottomRightY;y++){
+                if(blocksPosition(x,y)){
                     return true;
                 }
             }
@@ -0,0 +1,18 @@
+package za.co.wethinkcode.robots.robot;
+
+/**
+ * Listener that is told whenever a robot's position changes.
+ * The world uses it to keep its spatial indexes up to date, however the robot was moved.
+ * Positions are passed as packed {@link za.co.wethinkcode.robots.Coordinates} so a move creates no objects.
+ */
+public interface PositionListener {
+
+    /**
+     * Called after a robot has moved.
+     *
+     * @param robot the robot that moved
+     * @param from the packed coordinates it moved from
+     * @param to the packed coordinates it moved to
+     */
+    void positionChanged(Robot robot, long from, long to);
+}
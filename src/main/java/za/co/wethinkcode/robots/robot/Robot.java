@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import za.co.wethinkcode.robots.*;
 import za.co.wethinkcode.robots.server.MultiServers;
 import za.co.wethinkcode.robots.server.Server;
+import za.co.wethinkcode.robots.world.TimerWheel;
 
 import java.util.Objects;
 
@@ -17,9 +18,10 @@ import static za.co.wethinkcode.robots.OperationalStatus.*;
  */
 public class Robot {
 
+    private long coordinates;
     private Position position;
     private Direction currentDirection;
-    private OperationalStatus status;
+    private volatile OperationalStatus status;
     private String name;
     private int shield;
     private int maxShots = MAX_SHOTS;
@@ -27,6 +29,10 @@ public class Robot {
     private int shots;
     private final String type;
     private final int bulletDistance;
+    private PositionListener positionListener;
+    private StatusListener statusListener;
+    private volatile long version;
+    private TimerWheel timers;
 
     /**
      * Constructor for the Robot class.
@@ -37,7 +43,7 @@ public class Robot {
      */
     public Robot(String name, String type) {
         super();
-        this.position = new Position(0,0);
+        this.coordinates = Coordinates.pack(0, 0);
         this.name = name;
         this.currentDirection = NORTH;
         this.status = NORMAL;
@@ -134,7 +140,7 @@ public class Robot {
      */
     @Override
     public String toString() {
-        return "{ 'position':[" + this.position.getX() + ", " + this.position.getY() + "]," +
+        return "{ 'position':[" + Coordinates.x(coordinates) + ", " + Coordinates.y(coordinates) + "]," +
                 "'direction': " + this.currentDirection + ", " + "'shields': " + this.shield
                 + ", 'shots': " + this.shots + ", 'status': " + this.status + " }";
     }
@@ -144,16 +150,66 @@ public class Robot {
      * @return The current position of the robot.
      */
     public Position getPosition() {
-        return this.position;
+        long current = coordinates;
+        Position cached = position;
+        if (cached == null || cached.pack() != current) {
+            cached = Position.of(current);
+            position = cached;
+        }
+        return cached;
     }
 
     /**
-     * Sets the robot's position.
+     * Gets the robot's current position packed into a long, without creating a position.
+     * @return The packed coordinates of the robot.
+     */
+    public long getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * Sets the robot's status, telling the status listener if it changed.
      * @param status The new operational status of the robot.
      */
     public void setStatus(OperationalStatus status) {
+        OperationalStatus old = this.status;
         this.status = status;
+        if (old != status && statusListener != null) statusListener.statusChanged(this, old, status);
+    }
+
+    /**
+     * Sets the listener told about every change of this robot's status.
+     * @param statusListener The listener, or null to stop telling anyone.
+     */
+    public void setStatusListener(StatusListener statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    /**
+     * Gets the world version at which this robot last changed.
+     *
+     * @return The version, or 0 if the robot is not in a world.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the world version at which this robot last changed. The world calls this on every change.
+     *
+     * @param version The world's new version.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
 
+    /**
+     * Gets the robot's current shields level.
+     *
+     * @return The shields level of the robot.
+     */
+    public int getShields() {
+        return shield;
     }
 
     /**
@@ -170,49 +226,53 @@ public class Robot {
      */
     public void setPosition(Position pos) {
         this.position = pos;
+        moveTo(pos.pack());
     }
 
     /**
-     * Checks if robot hits another robot and updates the state.
-     * @param targetRobot Another robot instance.
+     * Sets the robot's position from packed coordinates, without creating a position.
+     * @param to The packed coordinates of the new position.
+     */
+    public void moveTo(long to) {
+        long from = this.coordinates;
+        this.coordinates = to;
+        if (positionListener != null) positionListener.positionChanged(this, from, to);
+    }
+
+    /**
+     * Sets the listener told about every change of this robot's position.
+     * @param positionListener The listener, or null to stop telling anyone.
+     */
+    public void setPositionListener(PositionListener positionListener) {
+        this.positionListener = positionListener;
+    }
+
+    /**
+     * Fires at another robot and updates its state. The shot's path is traced by the world,
+     * which only hands over a robot the shot reaches.
+     * @param targetRobot The robot the shot reaches.
      * @return Boolean whether robot was hit.
      */
     public boolean hit(Robot targetRobot) {
-        boolean result ;
         if (shots <= 0) return false;
-        result = switch (currentDirection) {
-            case NORTH -> targetRobot.gotHit(NORTH, this);
-            case EAST -> targetRobot.gotHit(EAST, this);
-            case SOUTH -> targetRobot.gotHit(SOUTH, this);
-            case WEST -> targetRobot.gotHit(WEST, this);
-        };
-        return result;
+        targetRobot.gotHit();
+        return true;
     }
 
     /**
      * updates state robot was hit.
      */
-    private boolean gotHit(Direction direction, Robot bullet) {
-        System.out.println(bullet.bulletDistance);
-        boolean isHit = switch (direction) {
-            case NORTH -> (this.position.getY() < bullet.position.getY())&& (this.position.getY() >= bullet.position.getY() - bullet.bulletDistance) && this.position.getX() == bullet.position.getX();
-            case SOUTH -> (this.position.getY() > bullet.position.getY())&& (this.position.getY() <= bullet.position.getY() + bullet.bulletDistance) && this.position.getX() == bullet.position.getX();
-            case EAST -> (this.position.getX() > bullet.position.getX()) && (this.position.getX() <= bullet.position.getX() + bullet.bulletDistance) && this.position.getY() == bullet.position.getY();
-            case WEST -> (this.position.getX() < bullet.position.getX())&& (this.position.getX() >= bullet.position.getX() - bullet.bulletDistance) && this.position.getY() == bullet.position.getY();
-        };
-        if (isHit) {
-            if (this.shield <= 0) {
-                this.status = DEAD;
-
-                Server handler = MultiServers.clientHandlerMap.get(this.name);
-                if (handler != null) {
-                    handler.sendQuit();
-                }
+    private void gotHit() {
+        if (this.shield <= 0) {
+            setStatus(DEAD);
 
+            Server handler = MultiServers.clientHandlerMap.get(this.name);
+            if (handler != null) {
+                handler.sendQuit();
             }
-            else shield--;
+
         }
-        return isHit;
+        else shield--;
     }
 
     /**
@@ -222,8 +282,8 @@ public class Robot {
     public JsonObject state() {
         JsonObject state = new JsonObject();
         JsonArray position = new JsonArray();
-        position.add(this.position.getX());
-        position.add(this.position.getY());
+        position.add(Coordinates.x(coordinates));
+        position.add(Coordinates.y(coordinates));
         state.add("position", position);
         state.addProperty("make", type);
         state.addProperty("direction", currentDirection.toString());
@@ -236,50 +296,74 @@ public class Robot {
 
     /**
      * Reloads the robot's shots.
-     * It sets the status to RELOAD, sends a reload message to the server,
-     * waits for a specified duration, and then resets the status to NORMAL.
+     * It sets the status to RELOAD and returns straight away. After RELOAD_DURATION seconds the shots are refilled,
+     * the status goes back to NORMAL and the client is sent a reload message.
      *
-     * @return true if the reload was successful.
+     * @return true if the reload was started.
      */
     public boolean reload(){
-        try {
-            setStatus(RELOAD);
-            Server handler = MultiServers.clientHandlerMap.get(this.name);
-            if (handler != null) {
-                handler.sendReloadMessage();
-            }
-            shots = maxShots;
-            Thread.sleep(REPAIR_DURATION* 1000L);
-            setStatus(NORMAL);
-        }catch (InterruptedException e){
-            throw new RuntimeException(e);
-        }
-        return true;
+        return startTimedAction(RELOAD, RELOAD_DURATION, () -> shots = maxShots);
     }
 
     /**
      * Repairs the robot's shields.
-     * It sets the status to REPAIR, sends a repair message to the server,
-     * waits for a specified duration, and then resets the status to NORMAL.
+     * It sets the status to REPAIR and returns straight away. After REPAIR_DURATION seconds the shields are restored,
+     * the status goes back to NORMAL and the client is sent a repair message.
      *
-     * @return true if the repair was successful.
+     * @return true if the repair was started.
      */
     public boolean repair(){
-        try {
-            setStatus(REPAIR);
+        return startTimedAction(REPAIR, REPAIR_DURATION, () -> shield = maxShields);
+    }
+
+    /**
+     * Puts the robot into a busy status and schedules the end of it, instead of sleeping on the caller's thread.
+     * When the timer runs out the robot's handler finishes the action the way it applies requests, so the world
+     * is not changed from the timer wheel's thread. A robot with no client, as in tests, finishes on the wheel.
+     */
+    private boolean startTimedAction(OperationalStatus busy, int seconds, Runnable finish) {
+        setStatus(busy);
+        getTimers().schedule(seconds * 1000L, () -> {
             Server handler = MultiServers.clientHandlerMap.get(this.name);
-            if (handler != null) {
-                handler.sendRepairMessage();
-            }
-            shield = maxShields;
-            Thread.sleep(REPAIR_DURATION* 1000L);
-            setStatus(NORMAL);
-        }catch (InterruptedException e){
-            throw new RuntimeException(e);
-        }
+            if (handler != null) handler.finishTimedAction(this, busy, () -> finishTimedAction(busy, finish));
+            else finishTimedAction(busy, finish);
+        });
         return true;
     }
 
+    /**
+     * Ends a reload or repair. If the robot's status changed in the meantime (e.g. it is killed), the action is dropped.
+     *
+     * @return true if the action was finished
+     */
+    private boolean finishTimedAction(OperationalStatus busy, Runnable finish) {
+        if (status != busy) return false;
+        finish.run();
+        setStatus(NORMAL);
+        return true;
+    }
+
+    /**
+     * Checks if the robot is in the middle of a reload or repair.
+     * @return true if the status is RELOAD or REPAIR.
+     */
+    public boolean isBusy() {
+        OperationalStatus current = status;
+        return current == RELOAD || current == REPAIR;
+    }
+
+    /**
+     * Sets the timer wheel that finishes this robot's reloads and repairs.
+     * @param timers The wheel to use, or null for the shared one.
+     */
+    public void setTimers(TimerWheel timers) {
+        this.timers = timers;
+    }
+
+    private TimerWheel getTimers() {
+        return timers != null ? timers : TimerWheel.getInstance();
+    }
+
     /**
      * Sets the robot's name.
      * @param name The new name of the robot.
@@ -0,0 +1,20 @@
+package za.co.wethinkcode.robots.robot;
+
+import za.co.wethinkcode.robots.OperationalStatus;
+
+/**
+ * Listener that is told whenever a robot's operational status changes.
+ * The world uses it to record status changes for spectators, whatever changed the status:
+ * a command, a hit, or the timer wheel finishing a reload or repair.
+ */
+public interface StatusListener {
+
+    /**
+     * Called after a robot's status has changed.
+     *
+     * @param robot the robot whose status changed
+     * @param from the status it had
+     * @param to the status it has now
+     */
+    void statusChanged(Robot robot, OperationalStatus from, OperationalStatus to);
+}
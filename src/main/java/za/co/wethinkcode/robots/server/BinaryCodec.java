@@ -0,0 +1,467 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The BinaryCodec class reads and writes the binary protocol, an opt-in alternative to line based JSON
+ * for clients that send a lot of commands.
+ * <p>
+ * A client asks for it by sending {@link #HANDSHAKE} as the first bytes on the connection, and the server answers
+ * with the same bytes. JSON requests always start with '{', so the server can tell the two apart from the first byte.
+ * After that every message in either direction is a frame: the payload length as a varint, then the payload.
+ * <p>
+ * A request payload is a one byte opcode followed by its arguments. Steps are zigzag varints, turn is one byte,
+ * and strings are a varint length followed by UTF-8. The robot is named once, by the launch, and every other request
+ * is for the robot last named on the connection. A request with an id sets {@link #FLAG_ID} on its opcode, and the id
+ * follows the opcode as a tagged value. Commands without an opcode travel as a JSON request line after {@link #OP_JSON}.
+ * <p>
+ * A response payload is the response tree in a compact tagged form. Integers are zigzag varints, and the keys and values
+ * that almost every response uses, such as "result", "OK", "NORTH" or "MOUNTAIN", are a single byte.
+ * The client gets back the same tree the JSON protocol would have sent.
+ */
+public final class BinaryCodec {
+    /** Sent by the client to ask for the binary protocol, and echoed by the server to agree. The last byte is the version. */
+    public static final byte[] HANDSHAKE = {(byte) 0xB0, 'R', 'B', 1};
+    /** Longest frame accepted before the connection is dropped */
+    public static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+    public static final int OP_JSON = 0;
+    public static final int OP_FORWARD = 1;
+    public static final int OP_BACK = 2;
+    public static final int OP_TURN = 3;
+    public static final int OP_LOOK = 4;
+    public static final int OP_FIRE = 5;
+    public static final int OP_STATE = 6;
+    public static final int OP_RELOAD = 7;
+    public static final int OP_REPAIR = 8;
+    public static final int OP_LAUNCH = 9;
+    /** Set on an opcode when a request id follows it */
+    public static final int FLAG_ID = 0x80;
+
+    private static final String[] COMMANDS = {
+            null, "forward", "back", "turn", "look", "fire", "state", "reload", "repair", "launch"};
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_NUMBER = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_ARRAY = 6;
+    private static final int TAG_OBJECT = 7;
+    /** Tags from here up stand for the string at (tag - TAG_KNOWN) in KNOWN_STRINGS */
+    private static final int TAG_KNOWN = 16;
+
+    /** Strings sent as a single byte. Only ever append to this list: its order is part of protocol version 1. */
+    private static final String[] KNOWN_STRINGS = {
+            "result", "data", "state", "message", "position", "direction", "shields", "shots", "status", "make",
+            "objects", "type", "distance", "obstacle_type", "robot", "name",
+            "OK", "ERROR", "Done", "Miss", "Hit", "Obstructed", "Out of ammo.", "Robot state follows.",
+            "NORTH", "SOUTH", "EAST", "WEST", "NORMAL", "DEAD", "REPAIR", "RELOAD",
+            "EDGE", "ROBOT", "MOUNTAIN", "LAKE", "BOTTOMLESS_PIT", "sniper", "soldier", "hitbot", "id"};
+    private static final Map<String, Integer> KNOWN_INDEX = new HashMap<>();
+    /** Per thread buffer payloads are encoded into before they are copied to the caller's stream */
+    private static final ThreadLocal<Output> SCRATCH = ThreadLocal.withInitial(Output::new);
+
+    static {
+        for (int i = 0; i < KNOWN_STRINGS.length; i++) KNOWN_INDEX.put(KNOWN_STRINGS[i], i);
+    }
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Checks that the rest of the handshake follows its first byte.
+     *
+     * @param in the stream, positioned just after the first handshake byte
+     * @throws IOException if the bytes are not the handshake or the stream ends
+     */
+    public static void readHandshake(InputStream in) throws IOException {
+        for (int i = 1; i < HANDSHAKE.length; i++) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Connection closed during handshake");
+            if ((byte) b != HANDSHAKE[i]) throw new IOException("Unsupported binary protocol handshake");
+        }
+    }
+
+    /**
+     * Writes a request payload, using an opcode when the command has one and its arguments fit it.
+     *
+     * @param request the request, in the same shape as a JSON request
+     * @param payload where to write the payload
+     */
+    public static void writeRequest(JsonObject request, ByteArrayOutputStream payload) {
+        Output out = SCRATCH.get().reset();
+        String command = request.get("command").getAsString();
+        JsonArray args = request.has("arguments") ? request.getAsJsonArray("arguments") : new JsonArray();
+        if (!writeOpcodeRequest(request, command, args, out)) {
+            out.reset();
+            out.write(OP_JSON);
+            out.write(request.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeTo(payload);
+    }
+
+    /**
+     * Writes the opcode form of a request.
+     *
+     * @return false if the command has no opcode or its arguments do not fit it
+     */
+    private static boolean writeOpcodeRequest(JsonObject request, String command, JsonArray args, Output out) {
+        JsonElement id = request.has("id") && !request.get("id").isJsonNull() ? request.get("id") : null;
+        try {
+            switch (command) {
+                case "forward", "back" -> {
+                    if (args.size() != 1) return false;
+                    int steps = args.get(0).getAsInt();
+                    writeOpcode(command.equals("forward") ? OP_FORWARD : OP_BACK, id, out);
+                    out.writeVarLong(zigzag(steps));
+                    return true;
+                }
+                case "turn" -> {
+                    if (args.size() != 1) return false;
+                    String way = args.get(0).getAsString();
+                    if (!way.equals("left") && !way.equals("right")) return false;
+                    writeOpcode(OP_TURN, id, out);
+                    out.write(way.equals("right") ? 1 : 0);
+                    return true;
+                }
+                case "look", "fire", "state", "reload", "repair" -> {
+                    if (!args.isEmpty()) return false;
+                    writeOpcode(Arrays.asList(COMMANDS).indexOf(command), id, out);
+                    return true;
+                }
+                case "launch" -> {
+                    if (args.size() != 1) return false;
+                    writeOpcode(OP_LAUNCH, id, out);
+                    out.writeString(request.get("robot").getAsString());
+                    out.writeString(args.get(0).getAsString());
+                    return true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        } catch (NumberFormatException | UnsupportedOperationException | IllegalStateException e) {
+            // Arguments the opcode cannot carry go as JSON instead
+            return false;
+        }
+    }
+
+    private static void writeOpcode(int op, JsonElement id, Output out) {
+        if (id == null) {
+            out.write(op);
+        } else {
+            out.write(op | FLAG_ID);
+            writeValue(id, out);
+        }
+    }
+
+    /**
+     * Reads a request payload.
+     *
+     * @param payload the frame payload
+     * @param robot the robot last named on the connection, or null if none has been
+     * @return the request
+     * @throws IllegalArgumentException if the payload is malformed, or names no robot when none has been launched
+     * @throws JsonParseException if a JSON request carried in the frame is malformed
+     */
+    public static Request readRequest(byte[] payload, String robot) {
+        if (payload.length == 0) throw new IllegalArgumentException("Empty request frame");
+        int op = payload[0] & 0xFF;
+        if (op == OP_JSON) return JsonCodec.decodeRequest(new String(payload, 1, payload.length - 1, StandardCharsets.UTF_8));
+        boolean hasId = (op & FLAG_ID) != 0;
+        op &= ~FLAG_ID;
+        if (op == OP_JSON || op >= COMMANDS.length) throw new IllegalArgumentException("Unknown opcode " + op);
+
+        Cursor in = new Cursor(payload, 1);
+        JsonElement id = hasId ? in.readValue() : null;
+        JsonArray args = new JsonArray();
+        if (op == OP_LAUNCH) {
+            robot = in.readString();
+            args.add(in.readString());
+        } else if (op == OP_FORWARD || op == OP_BACK) {
+            args.add((int) unzigzag(in.readVarLong()));
+        } else if (op == OP_TURN) {
+            args.add(in.readByte() == 1 ? "right" : "left");
+        }
+        if (robot == null) throw new IllegalArgumentException("Launch a robot before sending " + COMMANDS[op]);
+        return new Request(robot, COMMANDS[op], args, id);
+    }
+
+    /**
+     * Writes a response payload.
+     *
+     * @param response the response tree
+     * @param payload where to write the payload
+     */
+    public static void writeResponse(JsonElement response, ByteArrayOutputStream payload) {
+        Output out = SCRATCH.get().reset();
+        writeValue(response, out);
+        out.writeTo(payload);
+    }
+
+    /**
+     * Reads a response payload back into the tree the server sent.
+     *
+     * @param payload the frame payload
+     * @return the response tree
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static JsonElement readResponse(byte[] payload) {
+        Cursor in = new Cursor(payload, 0);
+        JsonElement value = in.readValue();
+        if (in.position != payload.length) throw new IllegalArgumentException("Trailing bytes in response frame");
+        return value;
+    }
+
+    /**
+     * Writes a frame: the payload's length, then the payload.
+     *
+     * @param payload the payload
+     * @param out where to write the frame
+     * @throws IOException if the stream cannot be written to
+     */
+    public static void writeFrame(ByteArrayOutputStream payload, OutputStream out) throws IOException {
+        int length = payload.size();
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        payload.writeTo(out);
+    }
+
+    /**
+     * Reads a frame from a blocking stream.
+     *
+     * @param in the stream
+     * @return the payload, or null if the stream ended cleanly between frames
+     * @throws IOException if the stream ends inside a frame or the frame is longer than {@link #MAX_FRAME_LENGTH}
+     */
+    public static byte[] readFrame(InputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) return null;
+                throw new EOFException("Connection closed inside a frame");
+            }
+            if (shift > 28) throw new IOException("Frame length is too long");
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+        }
+        if (length > MAX_FRAME_LENGTH) throw new IOException("Frame of " + length + " bytes is too long");
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) throw new EOFException("Connection closed inside a frame");
+        return payload;
+    }
+
+    private static void writeValue(JsonElement element, Output out) {
+        if (element == null || element.isJsonNull()) {
+            out.write(TAG_NULL);
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.write(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+            } else if (primitive.isNumber()) {
+                writeNumber(primitive.getAsNumber(), out);
+            } else {
+                writeKnownOrString(primitive.getAsString(), out);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            out.write(TAG_ARRAY);
+            out.writeVarLong(array.size());
+            for (JsonElement item : array) writeValue(item, out);
+        } else {
+            JsonObject object = element.getAsJsonObject();
+            out.write(TAG_OBJECT);
+            out.writeVarLong(object.size());
+            for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+                writeKnownOrString(member.getKey(), out);
+                writeValue(member.getValue(), out);
+            }
+        }
+    }
+
+    /**
+     * Writes whole numbers as zigzag varints, and anything else as its text.
+     */
+    private static void writeNumber(Number number, Output out) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            out.write(TAG_INT);
+            out.writeVarLong(zigzag(number.longValue()));
+            return;
+        }
+        String text = number.toString();
+        if (number instanceof LazilyParsedNumber && isWholeNumber(text)) {
+            out.write(TAG_INT);
+            out.writeVarLong(zigzag(Long.parseLong(text)));
+            return;
+        }
+        out.write(TAG_NUMBER);
+        out.writeString(text);
+    }
+
+    private static boolean isWholeNumber(String text) {
+        int start = text.startsWith("-") ? 1 : 0;
+        if (text.length() == start || text.length() - start > 18) return false;
+        for (int i = start; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static void writeKnownOrString(String text, Output out) {
+        Integer known = KNOWN_INDEX.get(text);
+        if (known != null) {
+            out.write(TAG_KNOWN + known);
+        } else {
+            out.write(TAG_STRING);
+            out.writeString(text);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * A growable byte array to encode into. ByteArrayOutputStream locks on every byte,
+     * which costs more than the encoding itself, so payloads are built here and copied out once.
+     */
+    private static final class Output {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        Output reset() {
+            size = 0;
+            return this;
+        }
+
+        void write(int b) {
+            if (size == bytes.length) bytes = Arrays.copyOf(bytes, size * 2);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            if (size + b.length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(size * 2, size + b.length));
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String text) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            write(utf8);
+        }
+
+        void writeTo(ByteArrayOutputStream payload) {
+            payload.write(bytes, 0, size);
+        }
+    }
+
+    /**
+     * Reads values from a payload, checking every read stays inside it.
+     */
+    private static final class Cursor {
+        private final byte[] bytes;
+        private int position;
+
+        Cursor(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) throw new IllegalArgumentException("Frame ended early");
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Varint is too long");
+        }
+
+        int readLength() {
+            long length = readVarLong();
+            if (length > bytes.length - position) throw new IllegalArgumentException("Frame ended early");
+            return (int) length;
+        }
+
+        String readString() {
+            int length = readLength();
+            String text = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        JsonElement readValue() {
+            int tag = readByte();
+            if (tag >= TAG_KNOWN) {
+                if (tag - TAG_KNOWN >= KNOWN_STRINGS.length) throw new IllegalArgumentException("Unknown string " + tag);
+                return new JsonPrimitive(KNOWN_STRINGS[tag - TAG_KNOWN]);
+            }
+            switch (tag) {
+                case TAG_NULL:
+                    return JsonNull.INSTANCE;
+                case TAG_FALSE:
+                    return new JsonPrimitive(false);
+                case TAG_TRUE:
+                    return new JsonPrimitive(true);
+                case TAG_INT:
+                    long value = unzigzag(readVarLong());
+                    return new JsonPrimitive(value == (int) value ? (Number) (int) value : (Number) value);
+                case TAG_NUMBER:
+                    return new JsonPrimitive(new LazilyParsedNumber(readString()));
+                case TAG_STRING:
+                    return new JsonPrimitive(readString());
+                case TAG_ARRAY:
+                    int items = readLength();
+                    JsonArray array = new JsonArray(items);
+                    for (int i = 0; i < items; i++) array.add(readValue());
+                    return array;
+                case TAG_OBJECT:
+                    int members = readLength();
+                    JsonObject object = new JsonObject();
+                    for (int i = 0; i < members; i++) {
+                        JsonElement key = readValue();
+                        if (!key.isJsonPrimitive()) throw new IllegalArgumentException("Object key is not a string");
+                        object.add(key.getAsString(), readValue());
+                    }
+                    return object;
+                default:
+                    throw new IllegalArgumentException("Unknown value tag " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package za.co.wethinkcode.robots.server;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Broadcaster sends messages to every subscribed connection from a thread of its own,
+ * so whoever broadcasts does not wait while thousands of clients are reached.
+ * Each message is encoded once as a {@link SharedMessage} and the same bytes are queued on every connection
+ * without waiting for any of them to be written. A connection that has closed, or was dropped for not reading,
+ * is unsubscribed the next time a message reaches it.
+ * It also keeps fan-out latency figures: how long it took to queue a message on every subscriber.
+ */
+public class Broadcaster {
+    private final Set<ClientConnection> subscribers = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder fanOutNanos = new LongAdder();
+    private final AtomicLong maxFanOutNanos = new AtomicLong();
+    private volatile long lastFanOutNanos;
+    private volatile int lastFanOutSize;
+
+    /**
+     * Starts the broadcaster thread. Messages broadcast before this are held until it starts.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "broadcaster");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the broadcaster thread once the messages already queued have been sent.
+     * Messages broadcast after this call fail with an IllegalStateException.
+     */
+    public synchronized void shutdown() {
+        if (!running) return;
+        running = false;
+        queue.add(Pending.STOP);
+    }
+
+    /**
+     * Waits for the broadcaster thread to finish after a shutdown.
+     *
+     * @param timeoutMillis the longest to wait
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination(long timeoutMillis) throws InterruptedException {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+        }
+        if (stopping != null) stopping.join(timeoutMillis);
+    }
+
+    /**
+     * Adds a connection to receive broadcasts.
+     *
+     * @param connection the connection
+     */
+    public void subscribe(ClientConnection connection) {
+        subscribers.add(connection);
+    }
+
+    /**
+     * Stops a connection receiving broadcasts.
+     *
+     * @param connection the connection
+     */
+    public void unsubscribe(ClientConnection connection) {
+        subscribers.remove(connection);
+    }
+
+    /**
+     * Gets the connections currently subscribed, including any that have closed since the last broadcast.
+     *
+     * @return a snapshot of the subscribers
+     */
+    public Set<ClientConnection> getSubscribers() {
+        return Set.copyOf(subscribers);
+    }
+
+    /**
+     * Queues a message to be sent to every subscriber.
+     *
+     * @param message the message to broadcast
+     * @return a future completed with the number of connections reached once the message is queued on each of them
+     */
+    public CompletableFuture<Integer> broadcast(String message) {
+        Pending pending = new Pending(new SharedMessage(message));
+        if (!running && thread != null) {
+            pending.reached.completeExceptionally(new IllegalStateException("Broadcaster is not running"));
+            return pending.reached;
+        }
+        queue.add(pending);
+        return pending.reached;
+    }
+
+    /**
+     * Queues a message on every subscriber and unsubscribes those that have gone.
+     *
+     * @param message the encoded message
+     * @return the number of connections reached
+     */
+    int fanOut(SharedMessage message) {
+        long start = System.nanoTime();
+        int reached = 0;
+        int gone = 0;
+        for (ClientConnection connection : subscribers) {
+            boolean sent;
+            try {
+                sent = connection.isOpen() && connection.send(message);
+            } catch (RuntimeException e) {
+                System.out.println("Unable to broadcast to " + connection.getRemoteHost() + ": " + e.getMessage());
+                sent = false;
+            }
+            if (sent) {
+                reached++;
+            } else {
+                subscribers.remove(connection);
+                gone++;
+            }
+        }
+        long took = System.nanoTime() - start;
+        broadcasts.increment();
+        deliveries.add(reached);
+        pruned.add(gone);
+        fanOutNanos.add(took);
+        maxFanOutNanos.accumulateAndGet(took, Math::max);
+        lastFanOutNanos = took;
+        lastFanOutSize = reached;
+        return reached;
+    }
+
+    private void run() {
+        while (true) {
+            Pending pending;
+            try {
+                pending = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (pending == Pending.STOP) break;
+            queueNanos.add(System.nanoTime() - pending.queuedAt);
+            try {
+                pending.reached.complete(fanOut(pending.message));
+            } catch (RuntimeException e) {
+                pending.reached.completeExceptionally(e);
+            }
+        }
+        Pending left;
+        while ((left = queue.poll()) != null) {
+            if (left != Pending.STOP) left.reached.completeExceptionally(new IllegalStateException("Broadcaster is not running"));
+        }
+    }
+
+    /**
+     * Gets the number of messages sent to the subscribers.
+     *
+     * @return the broadcast count
+     */
+    public long getBroadcasts() {
+        return broadcasts.sum();
+    }
+
+    /**
+     * Gets the number of times a message was queued on a connection.
+     *
+     * @return the delivery count
+     */
+    public long getDeliveries() {
+        return deliveries.sum();
+    }
+
+    /**
+     * Gets the number of connections unsubscribed because they had closed.
+     *
+     * @return the pruned count
+     */
+    public long getPruned() {
+        return pruned.sum();
+    }
+
+    /**
+     * Gets the number of connections currently subscribed.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Gets the average time a message waited for the broadcaster thread.
+     *
+     * @return the average queue latency in microseconds
+     */
+    public double getAverageQueueLatencyMicros() {
+        long count = broadcasts.sum();
+        return count == 0 ? 0 : queueNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Gets the average time taken to queue a message on every subscriber.
+     *
+     * @return the average fan-out latency in microseconds
+     */
+    public double getAverageFanOutMicros() {
+        long count = broadcasts.sum();
+        return count == 0 ? 0 : fanOutNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Gets the longest time taken to queue a message on every subscriber.
+     *
+     * @return the maximum fan-out latency in microseconds
+     */
+    public double getMaxFanOutMicros() {
+        return maxFanOutNanos.get() / 1000.0;
+    }
+
+    /**
+     * Gets a one line summary of the broadcaster's figures for the server console.
+     *
+     * @return the stats line
+     */
+    public String getStats() {
+        return String.format("Broadcaster: %d subscribers, %d broadcasts, %d deliveries, %d pruned, "
+                        + "queue latency avg %.1f us, fan-out avg %.1f us max %.1f us, last %.1f us to %d",
+                getSubscriberCount(), getBroadcasts(), getDeliveries(), getPruned(),
+                getAverageQueueLatencyMicros(), getAverageFanOutMicros(), getMaxFanOutMicros(),
+                lastFanOutNanos / 1000.0, lastFanOutSize);
+    }
+
+    /**
+     * One broadcast waiting for the broadcaster thread, together with the future its reach goes to.
+     */
+    private static final class Pending {
+        private static final Pending STOP = new Pending(null);
+
+        private final SharedMessage message;
+        private final CompletableFuture<Integer> reached = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+
+        private Pending(SharedMessage message) {
+            this.message = message;
+        }
+    }
+}
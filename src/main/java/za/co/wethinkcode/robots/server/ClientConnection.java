@@ -0,0 +1,77 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonElement;
+
+/**
+ * ClientConnection is the outbound side of a single client connection.
+ * It hides whether the client is served by a blocking socket thread or by the
+ * non-blocking selector engine, so that {@link Server} can reply to the client
+ * without knowing which engine accepted it.
+ */
+public interface ClientConnection {
+
+    /**
+     * Sends a single line to the client. The line terminator is added by the connection.
+     *
+     * @param line the line to send
+     */
+    void send(String line);
+
+    /**
+     * Sends a JSON response as a single line. Connections override this to write the response
+     * straight to their output with {@link JsonCodec}, rather than through a String.
+     *
+     * @param response the response to send
+     */
+    default void send(JsonElement response) {
+        send(response.toString());
+    }
+
+    /**
+     * Queues a message that was encoded once for many connections, without waiting for room in the connection's output.
+     * Used for broadcasts, so that one slow client cannot hold up the others.
+     *
+     * @param message the message
+     * @return false if the connection is closed, or was closed because the client stopped reading
+     */
+    default boolean send(SharedMessage message) {
+        if (!isOpen()) return false;
+        send(message.line());
+        return isOpen();
+    }
+
+    /**
+     * Gets the number of bytes sent on the connection that have not been written to the client yet.
+     * Used to hold back optional traffic, such as spectator updates, from a client that is not keeping up.
+     *
+     * @return the queued byte count, or 0 if the connection does not queue output
+     */
+    default long queuedBytes() {
+        return 0;
+    }
+
+    /**
+     * Switches the connection to the binary protocol, after the client asked for it at connect time.
+     * The handshake is echoed to the client, and from then on responses and lines are sent as {@link BinaryCodec} frames.
+     */
+    void useBinaryFrames();
+
+    /**
+     * Closes the connection to the client.
+     */
+    void close();
+
+    /**
+     * Checks whether the connection is still open.
+     *
+     * @return true if the connection has not been closed
+     */
+    boolean isOpen();
+
+    /**
+     * Gets a human-readable description of the remote end of the connection.
+     *
+     * @return the remote host name or address
+     */
+    String getRemoteHost();
+}
@@ -0,0 +1,22 @@
+package za.co.wethinkcode.robots.server;
+
+/**
+ * The EngineMode enum selects how {@link MultiServerEngine} serves client connections.
+ * THREADED runs one blocking handler thread per client, NIO multiplexes every client
+ * over a single selector thread.
+ */
+public enum EngineMode {
+    THREADED, NIO;
+
+    /**
+     * Parses an engine mode from a configuration value, ignoring case.
+     *
+     * @param value the configured value, may be null
+     * @return the matching mode, or THREADED if the value is empty
+     * @throws IllegalArgumentException if the value does not name a mode
+     */
+    public static EngineMode fromConfig(String value) {
+        if (value == null || value.isBlank()) return THREADED;
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,45 @@
+package za.co.wethinkcode.robots.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The HandlerThreads enum selects which kind of thread runs the {@link Server} connection handlers.
+ * PLATFORM gives every handler an ordinary thread, VIRTUAL gives every handler a virtual thread,
+ * which keeps thousands of idle handlers cheap.
+ */
+public enum HandlerThreads {
+    PLATFORM, VIRTUAL;
+
+    /**
+     * Parses a handler thread kind from a configuration value, ignoring case.
+     *
+     * @param value the configured value, may be null
+     * @return the matching kind, or PLATFORM if the value is empty
+     * @throws IllegalArgumentException if the value does not name a kind
+     */
+    public static HandlerThreads fromConfig(String value) {
+        if (value == null || value.isBlank()) return PLATFORM;
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    /**
+     * Creates an executor that starts a new thread of this kind for every submitted handler.
+     * Virtual threads need Java 21 or later; on an older runtime the executor falls back to
+     * platform threads and says so on the console.
+     *
+     * @return a thread-per-task executor
+     */
+    public ExecutorService newExecutor() {
+        if (this == VIRTUAL) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads need Java 21+, using platform threads instead.");
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+}
@@ -0,0 +1,167 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * The JsonCodec class reads requests and writes responses for the line based JSON protocol,
+ * using Jackson's streaming parser and generator, which recycle their buffers between calls.
+ * Requests always have the same shape, so they are read token by token straight into a {@link Request}
+ * instead of being parsed into a tree first. Responses are written as UTF-8 bytes straight to the
+ * connection's output, instead of being turned into a String and then encoded.
+ * The text written is the same as {@link JsonElement#toString()} gives.
+ */
+public final class JsonCodec {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Reads a request line. Fields other than robot, command, arguments and id are skipped.
+     * A null id is the same as no id.
+     *
+     * @param line the request line
+     * @return the request
+     * @throws JsonParseException if the line is not a JSON object or is missing the robot or command
+     */
+    public static Request decodeRequest(String line) {
+        String robot = null;
+        String command = null;
+        JsonArray arguments = null;
+        JsonElement id = null;
+        try (JsonParser parser = FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) throw new JsonParseException("Request is not a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "robot" -> robot = scalarText(parser);
+                    case "command" -> command = scalarText(parser);
+                    case "arguments" -> arguments = readElement(parser).getAsJsonArray();
+                    case "id" -> id = readElement(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) throw new JsonParseException("Request is not a JSON object");
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Malformed request: " + e.getMessage(), e);
+        }
+        if (robot == null) throw new JsonParseException("Request has no robot");
+        if (command == null) throw new JsonParseException("Request has no command");
+        if (id != null && id.isJsonNull()) id = null;
+        return new Request(robot, command, arguments == null ? new JsonArray() : arguments, id);
+    }
+
+    /**
+     * Reads a string, or a number or boolean as its text, the way JsonElement.getAsString() would.
+     */
+    private static String scalarText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || !token.isScalarValue() || token == JsonToken.VALUE_NULL) {
+            throw new JsonParseException("Expected a string but was " + token);
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Reads the value at the parser's current token as a Gson element, so commands get the arguments they always have.
+     * Numbers keep their text, like the tree parser's LazilyParsedNumber.
+     */
+    private static JsonElement readElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) throw new JsonParseException("Unexpected end of request");
+        switch (token) {
+            case VALUE_STRING:
+                return new JsonPrimitive(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return new JsonPrimitive(new LazilyParsedNumber(parser.getText()));
+            case VALUE_TRUE:
+                return new JsonPrimitive(true);
+            case VALUE_FALSE:
+                return new JsonPrimitive(false);
+            case VALUE_NULL:
+                return JsonNull.INSTANCE;
+            case START_ARRAY:
+                JsonArray array = new JsonArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) array.add(readElement(parser));
+                return array;
+            case START_OBJECT:
+                JsonObject object = new JsonObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.add(name, readElement(parser));
+                }
+                return object;
+            default:
+                throw new JsonParseException("Unexpected " + token + " in request");
+        }
+    }
+
+    /**
+     * Opens a generator that writes one response after another onto the same output, with nothing between them.
+     *
+     * @param out where the responses go
+     * @return the generator
+     * @throws IOException if the generator cannot be opened
+     */
+    public static JsonGenerator responseGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    /**
+     * Writes a response as one line of JSON, followed by a newline. The generator is not flushed.
+     *
+     * @param response the response to write
+     * @param generator where to write it
+     * @throws IOException if the generator cannot be written to
+     */
+    public static void writeLine(JsonElement response, JsonGenerator generator) throws IOException {
+        write(response, generator);
+        generator.writeRaw('\n');
+    }
+
+    private static void write(JsonElement element, JsonGenerator generator) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            generator.writeNull();
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isNumber()) writeNumber(primitive.getAsNumber(), generator);
+            else if (primitive.isBoolean()) generator.writeBoolean(primitive.getAsBoolean());
+            else generator.writeString(primitive.getAsString());
+        } else if (element.isJsonArray()) {
+            generator.writeStartArray();
+            for (JsonElement item : element.getAsJsonArray()) write(item, generator);
+            generator.writeEndArray();
+        } else {
+            generator.writeStartObject();
+            for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                generator.writeFieldName(member.getKey());
+                write(member.getValue(), generator);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes ints and longs directly, and any other number as the text Gson would give it.
+     */
+    private static void writeNumber(Number number, JsonGenerator generator) throws IOException {
+        if (number instanceof Integer) generator.writeNumber(number.intValue());
+        else if (number instanceof Long) generator.writeNumber(number.longValue());
+        else generator.writeNumber(number.toString());
+    }
+}
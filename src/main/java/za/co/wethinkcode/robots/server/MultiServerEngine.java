@@ -1,32 +1,148 @@
 package za.co.wethinkcode.robots.server;
 
 import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.world.TickEngine;
+import za.co.wethinkcode.robots.world.WorldActor;
+import za.co.wethinkcode.robots.world.WorldExecutor;
 
 import java.io.IOException;
-import java.io.PrintStream;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * MultiServerEngine is a server engine that handles multiple client connections.
- * It accepts client connections, creates a new thread for each client, and allows
- * broadcasting messages to all connected clients.
+ * It accepts client connections, either creating a new thread for each client or
+ * multiplexing them over a selector depending on its {@link EngineMode}, and broadcasts
+ * messages to all connected clients through a {@link Broadcaster}. Connection handlers run on platform
+ * or virtual threads depending on its {@link HandlerThreads}, and change the world themselves
+ * or through a world thread depending on its {@link WorldMode}.
  */
 public class MultiServerEngine {
-    private final List<PrintStream> clientOutputs = new ArrayList<>();
+    /** How long shutdown waits for broadcasts already queued to reach the clients */
+    private static final long BROADCAST_DRAIN_MILLIS = 1000;
+
+    private final Broadcaster broadcaster = new Broadcaster();
     private ServerSocket serverSocket;
     private Thread clientAcceptThread;
+    private NioServerEngine nioEngine;
     private final World world;
+    private final EngineMode mode;
+    private final HandlerThreads handlerThreads;
+    private final WorldMode worldMode;
+    private ExecutorService handlers;
+    private WorldExecutor worldExecutor;
+    private SpectatorHub spectators;
+    private int port;
 
     /**
-     * Constructs a MultiServerEngine with the specified world.
+     * Constructs a MultiServerEngine with the specified world, using one thread per client.
      *
      * @param world the world instance that the server will operate in
      */
     public MultiServerEngine(World world) {
+        this(world, EngineMode.THREADED);
+    }
+
+    /**
+     * Constructs a MultiServerEngine with the specified world and engine mode.
+     *
+     * @param world the world instance that the server will operate in
+     * @param mode how client connections are served
+     */
+    public MultiServerEngine(World world, EngineMode mode) {
+        this(world, mode, HandlerThreads.PLATFORM);
+    }
+
+    /**
+     * Constructs a MultiServerEngine with the specified world, engine mode and handler threads.
+     *
+     * @param world the world instance that the server will operate in
+     * @param mode how client connections are served
+     * @param handlerThreads which kind of thread runs the connection handlers
+     */
+    public MultiServerEngine(World world, EngineMode mode, HandlerThreads handlerThreads) {
+        this(world, mode, handlerThreads, WorldMode.DIRECT);
+    }
+
+    /**
+     * Constructs a MultiServerEngine with the specified world, engine mode, handler threads and world mode.
+     *
+     * @param world the world instance that the server will operate in
+     * @param mode how client connections are served
+     * @param handlerThreads which kind of thread runs the connection handlers
+     * @param worldMode how requests are applied to the world
+     */
+    public MultiServerEngine(World world, EngineMode mode, HandlerThreads handlerThreads, WorldMode worldMode) {
         this.world = world;
+        this.mode = mode;
+        this.handlerThreads = handlerThreads;
+        this.worldMode = worldMode;
+    }
+
+    /**
+     * Gets the engine mode this server was created with.
+     *
+     * @return the engine mode
+     */
+    public EngineMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the kind of thread that runs the connection handlers.
+     *
+     * @return the handler thread kind
+     */
+    public HandlerThreads getHandlerThreads() {
+        return handlerThreads;
+    }
+
+    /**
+     * Gets the world mode this server was created with.
+     *
+     * @return the world mode
+     */
+    public WorldMode getWorldMode() {
+        return worldMode;
+    }
+
+    /**
+     * Gets the world actor or tick engine that applies requests in ACTOR and TICK mode.
+     *
+     * @return the world executor, or null in DIRECT mode or before the server is started
+     */
+    public WorldExecutor getWorldExecutor() {
+        return worldExecutor;
+    }
+
+    /**
+     * Gets the broadcaster that sends messages to every connected client.
+     *
+     * @return the broadcaster
+     */
+    public Broadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
+    /**
+     * Gets the hub that streams the world's changes to spectators.
+     *
+     * @return the spectator hub, or null before the server is started
+     */
+    public SpectatorHub getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the bound port, useful when started on port 0
+     */
+    public int getPort() {
+        return port;
     }
 
     /**
@@ -35,9 +151,35 @@ public class MultiServerEngine {
      * @throws IOException if an I/O error occurs when opening the socket
      */
     public void start(int port) throws IOException {
+        handlers = handlerThreads.newExecutor();
+        if (worldMode == WorldMode.ACTOR) {
+            worldExecutor = new WorldActor(world);
+        } else if (worldMode == WorldMode.TICK) {
+            worldExecutor = new TickEngine(world, Config.TICK_RATE);
+        }
+        if (worldExecutor != null) {
+            worldExecutor.start();
+        }
+        broadcaster.start();
+        int outbound = Config.OUTBOUND_BUFFER_BYTES > 0 ? Config.OUTBOUND_BUFFER_BYTES : 256 * 1024;
+        spectators = new SpectatorHub(world, worldExecutor, Config.SPECTATOR_INTERVAL, outbound / 2);
+        spectators.start();
+        if (mode == EngineMode.NIO) {
+            nioEngine = new NioServerEngine(handlers, connection -> {
+                addClient(connection);
+                Server handler = new Server(connection, world, worldExecutor);
+                handler.setSpectators(spectators);
+                return handler;
+            });
+            this.port = nioEngine.start(port);
+            System.out.println("Server running on port " + this.port + " (NIO) & waiting for client connections...");
+            return;
+        }
+
         serverSocket = new ServerSocket(port);
+        this.port = serverSocket.getLocalPort();
 
-        System.out.println("Server running on port " + port + " & waiting for client connections...");
+        System.out.println("Server running on port " + this.port + " & waiting for client connections...");
 
 
         clientAcceptThread = new Thread(() -> {
@@ -46,12 +188,11 @@ public class MultiServerEngine {
                     Socket socket = serverSocket.accept();
                     System.out.println("New client connected: " + socket);
 
-                    PrintStream clientOut = new PrintStream(socket.getOutputStream());
-                    synchronized (clientOutputs) {
-                        clientOutputs.add(clientOut);
-                    }
+                    Server handler = new Server(socket, world, worldExecutor);
+                    handler.setSpectators(spectators);
+                    addClient(handler.getConnection());
 
-                    new Thread(new Server(socket, world)).start();
+                    handlers.execute(handler);
                 } catch (IOException e) {
                     if (!serverSocket.isClosed()) {
                         System.err.println("Client accept error: " + e.getMessage());
@@ -63,18 +204,18 @@ public class MultiServerEngine {
         clientAcceptThread.start();
     }
 
+    private void addClient(ClientConnection connection) {
+        broadcaster.subscribe(connection);
+    }
+
     /**
-     * Broadcasts a message to all connected clients.
+     * Broadcasts a message to all connected clients without waiting for it to reach them.
      *
      * @param message the message to broadcast
+     * @return a future completed with the number of clients reached once the message is queued on each of them
      */
-    public void broadcastMessage(String message) {
-        synchronized (clientOutputs) {
-            for (PrintStream out : clientOutputs) {
-                out.println(message);
-                out.flush();
-            }
-        }
+    public CompletableFuture<Integer> broadcastMessage(String message) {
+        return broadcaster.broadcast(message);
     }
 
 
@@ -84,6 +225,18 @@ public class MultiServerEngine {
      * @throws IOException if an I/O error occurs when closing the socket
      */
     public void shutdown() throws IOException {
+        broadcaster.shutdown();
+        try {
+            broadcaster.awaitTermination(BROADCAST_DRAIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (spectators != null) {
+            spectators.shutdown();
+        }
+        if (nioEngine != null) {
+            nioEngine.shutdown();
+        }
         if (serverSocket != null && !serverSocket.isClosed()) {
             serverSocket.close();
             System.out.println("Server socket closed.");
@@ -91,6 +244,12 @@ public class MultiServerEngine {
         if (clientAcceptThread != null && clientAcceptThread.isAlive()) {
             clientAcceptThread.interrupt();
         }
+        if (handlers != null) {
+            handlers.shutdownNow();
+        }
+        if (worldExecutor != null) {
+            worldExecutor.shutdown();
+        }
     }
 
-}
\ No newline at end of file
+}
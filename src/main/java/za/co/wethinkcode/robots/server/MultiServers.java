@@ -40,7 +40,10 @@ public class MultiServers {
         else {
             worldInstance = new World(true);
         }
-        server = new MultiServerEngine(worldInstance);
+        server = new MultiServerEngine(worldInstance,
+                EngineMode.fromConfig(Config.SERVER_ENGINE),
+                HandlerThreads.fromConfig(Config.HANDLER_THREADS),
+                WorldMode.fromConfig(Config.WORLD_MODE));
 
 
             try {
@@ -59,7 +62,7 @@ public class MultiServers {
                     case "quit":
                     case "shutdown":
                         System.out.println("Shutting down server...");
-                        server.broadcastMessage("quit");
+                        server.broadcastMessage("quit").join();
                         try {
                             server.shutdown();
                         } catch (IOException e) {
@@ -73,6 +76,17 @@ public class MultiServers {
                     case "robots":
                         RobotsCommand.getInstance().printRobots(worldInstance);  
                         break;
+                    case "stats":
+                        System.out.println(worldInstance.getTerrain().describe());
+                        System.out.println(worldInstance.getLookCache().getStats());
+                        if (server.getWorldExecutor() == null) {
+                            System.out.println("No stats, requests are applied directly to the world.");
+                        } else {
+                            System.out.println(server.getWorldExecutor().getStats());
+                        }
+                        System.out.println(server.getBroadcaster().getStats());
+                        System.out.println(server.getSpectators().getStats());
+                        break;
                     default:
                         System.out.println("Unknown command: " + command);
                         break;
@@ -0,0 +1,387 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import za.co.wethinkcode.robots.config.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NioConnection is a {@link ClientConnection} over a non-blocking socket channel.
+ * Incoming bytes are split into newline framed requests, or into {@link BinaryCodec} frames if the client
+ * opened with the binary handshake. Requests are handed to the {@link Server} one at a time on a worker thread
+ * so that requests from the same client keep their order. Replies are queued as byte buffers and written by the selector thread,
+ * as many as are waiting in one gathering write.
+ * <p>
+ * Once {@link Config#OUTBOUND_BUFFER_BYTES} are queued the selector stops reading the client's requests until half of them
+ * have been written. If the queue has been full for {@link Config#SLOW_CLIENT_TIMEOUT} milliseconds
+ * with nothing written when more is sent, the client is dropped.
+ */
+class NioConnection implements ClientConnection {
+    /** Longest request line accepted before the client is disconnected */
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final NioServerEngine engine;
+    private final Executor workers;
+    private final String remoteHost;
+    private Server server;
+    private SelectionKey key;
+
+    /** What the next incoming byte is part of. Only used on the selector thread. */
+    private enum Reading { FIRST_BYTE, LINE, HANDSHAKE, FRAME_LENGTH, FRAME_PAYLOAD }
+
+    private Reading reading = Reading.FIRST_BYTE;
+    private int handshakeRead;
+    private int frameLength;
+    private int frameLengthShift;
+    private volatile boolean binary;
+
+    /** Bytes of a request line that has not been terminated yet, or of a frame that has not been completed */
+    private byte[] partialLine = new byte[256];
+    private int partialLength;
+
+    private final Queue<byte[]> inbound = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final int capacity = Config.OUTBOUND_BUFFER_BYTES > 0 ? Config.OUTBOUND_BUFFER_BYTES : 256 * 1024;
+    private final long stallNanos = TimeUnit.MILLISECONDS.toNanos(Config.SLOW_CLIENT_TIMEOUT > 0 ? Config.SLOW_CLIENT_TIMEOUT : 5000);
+    /** When the queue last filled up with nothing written since, or 0 while it has room */
+    private volatile long fullSinceNanos;
+    private volatile boolean stalled;
+    /** Selector thread only: the buffers handed to one gathering write, and whether reading is paused */
+    private final ByteBuffer[] gather = new ByteBuffer[64];
+    private boolean readPaused;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    /** Reused to write each response before it is copied into its own buffer */
+    private final ByteArrayOutputStream responseBytes = new ByteArrayOutputStream(256);
+    private final JsonGenerator responseGenerator;
+    private final ByteArrayOutputStream framePayload = new ByteArrayOutputStream(256);
+
+    /**
+     * Constructs a connection for an accepted channel.
+     *
+     * @param channel the accepted, non-blocking channel
+     * @param engine the engine whose selector owns the channel
+     * @param workers the executor that runs request handling
+     */
+    NioConnection(SocketChannel channel, NioServerEngine engine, Executor workers) {
+        this.channel = channel;
+        this.engine = engine;
+        this.workers = workers;
+        String host;
+        try {
+            host = channel.getRemoteAddress().toString();
+        } catch (IOException e) {
+            host = "unknown";
+        }
+        this.remoteHost = host;
+        try {
+            this.responseGenerator = JsonCodec.responseGenerator(responseBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void attach(Server server, SelectionKey key) {
+        this.server = server;
+        this.key = key;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    /**
+     * Splits the bytes just read from the channel into request lines, or into frames once the client has asked for them.
+     * Called on the selector thread only.
+     *
+     * @param buffer a buffer in read mode holding the newly received bytes
+     * @return false if the client sent a line or frame longer than {@link #MAX_LINE_LENGTH}, or a broken handshake or frame
+     */
+    boolean decode(ByteBuffer buffer) {
+        boolean received = false;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (reading == Reading.FIRST_BYTE) {
+                reading = b == BinaryCodec.HANDSHAKE[0] ? Reading.HANDSHAKE : Reading.LINE;
+                if (reading == Reading.HANDSHAKE) {
+                    handshakeRead = 1;
+                    continue;
+                }
+            }
+            switch (reading) {
+                case HANDSHAKE -> {
+                    if (b != BinaryCodec.HANDSHAKE[handshakeRead++]) return false;
+                    if (handshakeRead == BinaryCodec.HANDSHAKE.length) {
+                        useBinaryFrames();
+                        startFrame();
+                    }
+                }
+                case FRAME_LENGTH -> {
+                    frameLength |= (b & 0x7F) << frameLengthShift;
+                    frameLengthShift += 7;
+                    if ((b & 0x80) != 0) {
+                        if (frameLengthShift > 28) return false;
+                    } else if (frameLength > BinaryCodec.MAX_FRAME_LENGTH) {
+                        return false;
+                    } else if (frameLength == 0) {
+                        inbound.add(new byte[0]);
+                        received = true;
+                        startFrame();
+                    } else {
+                        reading = Reading.FRAME_PAYLOAD;
+                    }
+                }
+                case FRAME_PAYLOAD -> {
+                    append(b);
+                    if (partialLength == frameLength) {
+                        inbound.add(Arrays.copyOf(partialLine, partialLength));
+                        received = true;
+                        startFrame();
+                    }
+                }
+                default -> {
+                    if (b == '\n') {
+                        int length = partialLength;
+                        if (length > 0 && partialLine[length - 1] == '\r') length--;
+                        if (length > 0) {
+                            inbound.add(Arrays.copyOf(partialLine, length));
+                            received = true;
+                        }
+                        partialLength = 0;
+                        continue;
+                    }
+                    if (partialLength == MAX_LINE_LENGTH) return false;
+                    append(b);
+                }
+            }
+        }
+        if (received) scheduleDrain();
+        return true;
+    }
+
+    private void startFrame() {
+        reading = Reading.FRAME_LENGTH;
+        frameLength = 0;
+        frameLengthShift = 0;
+        partialLength = 0;
+    }
+
+    private void append(byte b) {
+        if (partialLength == partialLine.length) {
+            partialLine = Arrays.copyOf(partialLine, Math.min(partialLine.length * 2, MAX_LINE_LENGTH));
+        }
+        partialLine[partialLength++] = b;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            workers.execute(this::drain);
+        }
+    }
+
+    /**
+     * Handles queued requests in arrival order. Only one drain runs per connection at a time.
+     */
+    private void drain() {
+        try {
+            byte[] request;
+            while (open.get() && (request = inbound.poll()) != null) {
+                try {
+                    if (binary) server.handleFrame(request);
+                    else server.handleMessage(new String(request, StandardCharsets.UTF_8));
+                } catch (RuntimeException e) {
+                    System.out.println("Error handling request from " + remoteHost + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            draining.set(false);
+            if (open.get() && !inbound.isEmpty()) scheduleDrain();
+        }
+    }
+
+    @Override
+    public void send(String line) {
+        if (!open.get()) return;
+        if (binary) {
+            send(new JsonPrimitive(line));
+            return;
+        }
+        enqueue(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes the response as UTF-8, or as a binary frame, into a reused buffer and queues a copy,
+     * skipping the String a tree's toString() would make.
+     *
+     * @param response the response to send
+     */
+    @Override
+    public void send(JsonElement response) {
+        if (!open.get()) return;
+        ByteBuffer encoded;
+        synchronized (responseBytes) {
+            responseBytes.reset();
+            try {
+                if (binary) {
+                    framePayload.reset();
+                    BinaryCodec.writeResponse(response, framePayload);
+                    BinaryCodec.writeFrame(framePayload, responseBytes);
+                } else {
+                    JsonCodec.writeLine(response, responseGenerator);
+                    responseGenerator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            encoded = ByteBuffer.wrap(responseBytes.toByteArray());
+        }
+        enqueue(encoded);
+    }
+
+    /**
+     * Queues a view of the message's shared bytes, so every connection a broadcast reaches writes from the same buffer.
+     *
+     * @param message the message
+     * @return false if the connection is closed or the client has stopped reading
+     */
+    @Override
+    public boolean send(SharedMessage message) {
+        if (!open.get()) return false;
+        return enqueue((binary ? message.binaryFrame() : message.jsonLine()).duplicate());
+    }
+
+    @Override
+    public long queuedBytes() {
+        return queuedBytes.get();
+    }
+
+    @Override
+    public void useBinaryFrames() {
+        binary = true;
+        enqueue(ByteBuffer.wrap(BinaryCodec.HANDSHAKE.clone()));
+    }
+
+    /**
+     * Queues bytes for the selector to write, or drops the client if its queue has been full for too long.
+     *
+     * @return false if the client was dropped
+     */
+    private boolean enqueue(ByteBuffer bytes) {
+        long fullSince = fullSinceNanos;
+        if (fullSince != 0 && System.nanoTime() - fullSince > stallNanos) {
+            System.out.println("Client " + remoteHost + " is not reading its replies, disconnecting");
+            stalled = true;
+            close();
+            return false;
+        }
+        if (queuedBytes.addAndGet(bytes.remaining()) >= capacity && fullSince == 0) fullSinceNanos = System.nanoTime();
+        outbound.add(bytes);
+        engine.requestWrite(this);
+        return true;
+    }
+
+    /**
+     * Writes as much queued output as the channel accepts without blocking,
+     * handing every queued buffer to the channel in one gathering write.
+     * Called on the selector thread only.
+     *
+     * @return true if every queued reply has been written
+     * @throws IOException if the channel cannot be written to
+     */
+    boolean flush() throws IOException {
+        while (true) {
+            int count = 0;
+            for (ByteBuffer buffer : outbound) {
+                gather[count++] = buffer;
+                if (count == gather.length) break;
+            }
+            if (count == 0) return true;
+
+            long written = channel.write(gather, 0, count);
+            if (written > 0) fullSinceNanos = queuedBytes.addAndGet(-written) < capacity ? 0 : System.nanoTime();
+            for (int i = 0; i < count && !gather[i].hasRemaining(); i++) outbound.poll();
+            boolean full = gather[count - 1].hasRemaining();
+            Arrays.fill(gather, 0, count, null);
+            if (full) return false;
+        }
+    }
+
+    /**
+     * Works out which events the selector should wait for: writable while output is queued,
+     * and readable unless the client has let too many replies pile up.
+     * Called on the selector thread only.
+     *
+     * @return the interest set for the connection's key
+     */
+    int interestOps() {
+        long queued = queuedBytes.get();
+        if (queued >= capacity) readPaused = true;
+        else if (queued <= capacity / 2) readPaused = false;
+        return (readPaused ? 0 : SelectionKey.OP_READ) | (outbound.isEmpty() ? 0 : SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Checks whether the client was dropped for not reading, so its queued output should be thrown away.
+     *
+     * @return true if the client stalled
+     */
+    boolean isStalled() {
+        return stalled;
+    }
+
+    boolean hasPendingOutput() {
+        return !outbound.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        if (open.compareAndSet(true, false)) {
+            engine.requestClose(this);
+        }
+    }
+
+    /**
+     * Releases the channel. Called on the selector thread only.
+     */
+    void closeChannel() {
+        open.set(false);
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Unable to close client channel " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteHost;
+    }
+}
@@ -0,0 +1,205 @@
+package za.co.wethinkcode.robots.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * NioServerEngine serves every client connection from a single selector thread.
+ * It reads newline framed JSON requests without blocking, hands complete requests to a
+ * {@link Server} on a worker executor, and writes the replies from per-connection buffers,
+ * pausing reads from a client whose replies are piling up.
+ * Thousands of idle clients therefore cost a buffer each rather than a thread each.
+ */
+public class NioServerEngine {
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final ExecutorService workers;
+    private final Function<ClientConnection, Server> onConnect;
+    private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Queue<NioConnection> pendingCloses = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+
+    /**
+     * Constructs a NioServerEngine.
+     *
+     * @param workers the executor that runs request handling, so slow commands never stall the selector
+     * @param onConnect called for every accepted connection to create the handler that serves it
+     */
+    public NioServerEngine(ExecutorService workers, Function<ClientConnection, Server> onConnect) {
+        this.workers = workers;
+        this.onConnect = onConnect;
+    }
+
+    /**
+     * Binds the server channel and starts the selector thread.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @return the port that was bound
+     * @throws IOException if the channel cannot be opened or bound
+     */
+    public int start(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        selectorThread = new Thread(this::selectLoop, "nio-selector");
+        selectorThread.start();
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Runs the selector until the server channel is closed.
+     */
+    private void selectLoop() {
+        while (serverChannel.isOpen()) {
+            try {
+                selector.select();
+                processPendingCloses();
+                processPendingWrites();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (key.isReadable()) read(connection);
+                    if (key.isValid() && key.isWritable()) write(connection);
+                }
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.err.println("Selector error: " + e.getMessage());
+                }
+            }
+        }
+        closeAll();
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) connection.closeChannel();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Unable to close selector " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        System.out.println("New client connected: " + channel);
+
+        NioConnection connection = new NioConnection(channel, this, workers);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connection.attach(onConnect.apply(connection), key);
+    }
+
+    private void read(NioConnection connection) {
+        readBuffer.clear();
+        int read;
+        try {
+            read = connection.getChannel().read(readBuffer);
+        } catch (IOException e) {
+            System.out.println("Client Socket has been closed " + e.getMessage());
+            connection.closeChannel();
+            return;
+        }
+        if (read < 0) {
+            connection.closeChannel();
+            return;
+        }
+        readBuffer.flip();
+        if (!connection.decode(readBuffer)) {
+            System.out.println("Request too long or malformed, disconnecting " + connection.getRemoteHost());
+            connection.closeChannel();
+        }
+    }
+
+    private void write(NioConnection connection) {
+        try {
+            if (connection.flush() && !connection.isOpen()) {
+                connection.closeChannel();
+            } else if (connection.isOpen()) {
+                connection.getKey().interestOps(connection.interestOps());
+            }
+        } catch (IOException e) {
+            System.out.println("Client Socket has been closed " + e.getMessage());
+            connection.closeChannel();
+        }
+    }
+
+    /**
+     * Asks the selector thread to write the queued replies of a connection.
+     * Safe to call from any thread.
+     */
+    void requestWrite(NioConnection connection) {
+        pendingWrites.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the selector thread to close a connection once its queued replies are written.
+     * Safe to call from any thread.
+     */
+    void requestClose(NioConnection connection) {
+        pendingCloses.add(connection);
+        selector.wakeup();
+    }
+
+    private void processPendingWrites() {
+        NioConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            SelectionKey key = connection.getKey();
+            if (key == null || !key.isValid() || !connection.hasPendingOutput()) continue;
+            // Try straight away; write() only waits for OP_WRITE when the socket buffer is full.
+            write(connection);
+        }
+    }
+
+    private void processPendingCloses() {
+        NioConnection connection;
+        while ((connection = pendingCloses.poll()) != null) {
+            SelectionKey key = connection.getKey();
+            if (key == null || !key.isValid()) continue;
+            if (connection.hasPendingOutput() && !connection.isStalled()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                connection.closeChannel();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients and closes every open connection.
+     * The worker executor belongs to the caller and is left running.
+     *
+     * @throws IOException if the server channel cannot be closed
+     */
+    public void shutdown() throws IOException {
+        if (serverChannel != null && serverChannel.isOpen()) {
+            serverChannel.close();
+            selector.wakeup();
+            System.out.println("Server channel closed.");
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package za.co.wethinkcode.robots.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboundBuffer holds everything a blocking connection sends, and a writer task moves it to the socket.
+ * Senders only copy their bytes in and return. While the writer is in a write, whatever is sent piles up
+ * and goes out together in its next write, so a burst of responses costs one syscall instead of one each.
+ * <p>
+ * At most capacity bytes wait to be written. A sender that finds the buffer full waits for the writer,
+ * which holds back a client that sends requests faster than it reads the replies. If the client reads
+ * nothing for the stall timeout, the buffer gives up: the send fails and the connection is closed.
+ * Broadcasts use {@link #offer(ByteBuffer)} instead, which never waits, so one slow client cannot hold up the rest.
+ * Closing never waits either: {@link #closeWhenDrained} leaves the socket to be closed by the writer once it is done.
+ */
+final class OutboundBuffer extends OutputStream {
+    /** Runs the writer tasks of every blocking connection; a thread is only busy while a connection has bytes to write */
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "connection-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final OutputStream out;
+    private final Executor writers;
+    private final int capacity;
+    private final long stallMillis;
+    private final Runnable onStall;
+
+    private byte[] pending = new byte[1024];
+    private int size;
+    private byte[] writing = new byte[1024];
+    private boolean writerScheduled;
+    private boolean closed;
+    /** Run once the writer has nothing left to write after {@link #closeWhenDrained}, or null */
+    private Runnable onDrained;
+    /** When the buffer last filled up with no write finishing since, or 0 while it has room */
+    private long fullSinceNanos;
+    private long writes;
+    private long bytesWritten;
+
+    /**
+     * Constructs a buffer in front of a socket's output stream, written by the shared writer threads.
+     *
+     * @param out the socket's output stream
+     * @param capacity the most bytes to hold before senders wait
+     * @param stallMillis how long a sender waits for a full buffer before the client is given up on
+     * @param onStall run when the client is given up on, to close the connection
+     */
+    OutboundBuffer(OutputStream out, int capacity, long stallMillis, Runnable onStall) {
+        this(out, WRITERS, capacity, stallMillis, onStall);
+    }
+
+    /**
+     * Constructs a buffer in front of an output stream, written by tasks on the given executor.
+     *
+     * @param out the stream to write to
+     * @param writers runs the writer task
+     * @param capacity the most bytes to hold before senders wait
+     * @param stallMillis how long a sender waits for a full buffer before the client is given up on
+     * @param onStall run when the client is given up on, to close the connection
+     */
+    OutboundBuffer(OutputStream out, Executor writers, int capacity, long stallMillis, Runnable onStall) {
+        this.out = out;
+        this.writers = writers;
+        this.capacity = capacity;
+        this.stallMillis = stallMillis;
+        this.onStall = onStall;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        awaitSpace();
+        if (size == pending.length) pending = Arrays.copyOf(pending, size * 2);
+        pending[size++] = (byte) b;
+        noteIfFull();
+        scheduleWriter();
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        awaitSpace();
+        if (size + length > pending.length) pending = Arrays.copyOf(pending, Math.max(pending.length * 2, size + length));
+        System.arraycopy(bytes, offset, pending, size, length);
+        size += length;
+        noteIfFull();
+        scheduleWriter();
+    }
+
+    /**
+     * Queues bytes without waiting for space, letting the buffer run past its capacity.
+     * The client is given up on instead if the buffer has been full for the stall timeout with no write finishing.
+     *
+     * @param bytes the bytes to send; the buffer's position is left unchanged
+     * @return false if the connection is closed or was just given up on
+     */
+    synchronized boolean offer(ByteBuffer bytes) {
+        if (closed) return false;
+        if (fullSinceNanos != 0 && System.nanoTime() - fullSinceNanos > TimeUnit.MILLISECONDS.toNanos(stallMillis)) {
+            giveUp();
+            return false;
+        }
+        int length = bytes.remaining();
+        if (size + length > pending.length) pending = Arrays.copyOf(pending, Math.max(pending.length * 2, size + length));
+        bytes.duplicate().get(pending, size, length);
+        size += length;
+        noteIfFull();
+        scheduleWriter();
+        return true;
+    }
+
+    /**
+     * Does nothing: everything written is already on its way to the writer.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Waits until everything sent so far has been written to the socket.
+     *
+     * @param timeoutMillis the longest to wait
+     * @return true if the buffer is empty and no write is in progress
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (size > 0 || writerScheduled) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) return false;
+            wait(left);
+        }
+        return true;
+    }
+
+    /**
+     * Stops taking bytes. Bytes already sent are still written unless the socket is closed under them.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Stops taking bytes and runs an action, such as closing the socket, once everything already sent has been
+     * written. The writer task runs it when it empties the buffer, or the caller straight away if nothing is
+     * waiting, so the caller never waits for the client. If the client is not reading, it runs after the timeout.
+     *
+     * @param timeoutMillis the longest to wait for the writer before running the action anyway
+     * @param then the action, run once
+     */
+    void closeWhenDrained(long timeoutMillis, Runnable then) {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+            if (size > 0 || writerScheduled) {
+                onDrained = then;
+                CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS, writers).execute(this::drained);
+                return;
+            }
+        }
+        then.run();
+    }
+
+    /**
+     * Checks whether the buffer has stopped taking bytes, because it was closed or the client was given up on.
+     *
+     * @return true if closed
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of bytes waiting for the writer.
+     *
+     * @return the pending byte count
+     */
+    synchronized int getPending() {
+        return size;
+    }
+
+    /**
+     * Gets the number of writes made to the socket.
+     *
+     * @return the write count
+     */
+    synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Gets the number of bytes written to the socket.
+     *
+     * @return the byte count
+     */
+    synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Waits while the buffer is full. Called holding the lock.
+     */
+    private void awaitSpace() throws IOException {
+        if (closed) throw new IOException("Connection is closed");
+        if (size < capacity) return;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        while (size >= capacity && !closed) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) {
+                giveUp();
+                throw new IOException("Client has not read its replies for " + stallMillis + " ms");
+            }
+            try {
+                wait(left);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting to send", e);
+            }
+        }
+        if (closed) throw new IOException("Connection is closed");
+    }
+
+    /**
+     * Notes when the buffer fills up, so offers can tell how long it has been full. Called holding the lock.
+     */
+    private void noteIfFull() {
+        if (size >= capacity && fullSinceNanos == 0) fullSinceNanos = System.nanoTime();
+    }
+
+    /**
+     * Stops taking bytes and closes the connection because the client is not reading. Called holding the lock.
+     */
+    private void giveUp() {
+        closed = true;
+        notifyAll();
+        onStall.run();
+    }
+
+    /**
+     * Starts a writer task unless one is already running. Called holding the lock.
+     */
+    private void scheduleWriter() {
+        if (writerScheduled) return;
+        writerScheduled = true;
+        writers.execute(this::drain);
+    }
+
+    /**
+     * Runs the action left by {@link #closeWhenDrained}, unless it has already run.
+     */
+    private void drained() {
+        Runnable then;
+        synchronized (this) {
+            then = onDrained;
+            onDrained = null;
+        }
+        if (then != null) then.run();
+    }
+
+    /**
+     * Writes whatever has been sent, taking all of it each time, until nothing is left.
+     */
+    private void drain() {
+        while (true) {
+            byte[] chunk;
+            int length;
+            synchronized (this) {
+                if (size == 0) {
+                    writerScheduled = false;
+                    notifyAll();
+                    break;
+                }
+                chunk = pending;
+                length = size;
+                pending = writing;
+                writing = chunk;
+                size = 0;
+                fullSinceNanos = 0;
+                notifyAll();
+            }
+            try {
+                out.write(chunk, 0, length);
+                out.flush();
+            } catch (IOException e) {
+                synchronized (this) {
+                    closed = true;
+                    size = 0;
+                    writerScheduled = false;
+                    notifyAll();
+                }
+                break;
+            }
+            synchronized (this) {
+                writes++;
+                bytesWritten += length;
+            }
+        }
+        drained();
+    }
+}
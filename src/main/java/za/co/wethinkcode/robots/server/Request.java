@@ -0,0 +1,27 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * A request from a client: the robot it is for, the command to run and the command's arguments.
+ * A client that wants to pipeline requests gives each one an id, which is echoed in its response.
+ *
+ * @param robot the name of the robot
+ * @param command the name of the command
+ * @param arguments the command's arguments, empty if the request had none
+ * @param id the client's id for the request, or null if it did not give one
+ */
+public record Request(String robot, String command, JsonArray arguments, JsonElement id) {
+
+    /**
+     * Constructs a request without an id.
+     *
+     * @param robot the name of the robot
+     * @param command the name of the command
+     * @param arguments the command's arguments
+     */
+    public Request(String robot, String command, JsonArray arguments) {
+        this(robot, command, arguments, null);
+    }
+}
@@ -3,22 +3,56 @@ package za.co.wethinkcode.robots.server;
 import com.google.gson.*;
 import java.io.*;
 import java.net.*;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import za.co.wethinkcode.robots.OperationalStatus;
-import za.co.wethinkcode.robots.command.*;
-import za.co.wethinkcode.robots.command.look.LookCommand;
+import za.co.wethinkcode.robots.command.Command;
+import za.co.wethinkcode.robots.command.CommandRegistry;
+import za.co.wethinkcode.robots.config.Config;
 import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldExecutor;
 import static za.co.wethinkcode.robots.client.Client.formatServerResponse;
 
 /**
  * Server class to handle client connections and process commands.
+ * Each request is run against the robot named in that request, looked up in the world,
+ * so handlers for different clients never share robot state.
+ * When a {@link WorldExecutor} is given, requests are applied on its world thread instead of the handler thread.
+ * Responses to requests that carried an id echo it. Messages the server sends on its own, such as a finished
+ * reload or repair, never carry one, so a pipelining client can tell them apart from replies.
  */
 public class Server implements Runnable {
 
     private static World world;
     private String robotName;
     private final Socket socket;
+    private final ClientConnection connection;
+    private final WorldExecutor worldExecutor;
+    private SpectatorHub spectators;
+    /** Most commands one batch request may hold */
+    static final int MAX_BATCH_SIZE = 256;
+    /** Commands that only read, and so are answered while the robot is reloading or repairing; others get an ERROR */
+    static final Set<String> ANSWERED_WHILE_BUSY = Set.of("state", "help", "sync", "orientation");
+    /** Parses each request into its own command, so requests handled at once never share arguments */
+    private static final CommandRegistry COMMANDS = CommandRegistry.getStandard();
+    /**
+     * Keeps a batch whole when there is no world executor: a batch holds the write lock while it runs, and every
+     * other request the read lock, so requests still run side by side but never in the middle of a batch
+     */
+    private static final ReadWriteLock DIRECT_BATCHES = new ReentrantReadWriteLock();
+    /** Limits how many requests with an id this connection can have queued to the world executor */
+    private final Semaphore inFlight = new Semaphore(Math.max(1, Config.MAX_IN_FLIGHT));
 
     /**
      * Constructor to initialize the server with a socket and world instance.
@@ -28,91 +62,353 @@ public class Server implements Runnable {
      * @throws IOException If an I/O error occurs when creating the input/output streams.
      */
     public Server(Socket socket, World worldInstance) throws IOException {
-        String clientMachine = socket.getInetAddress().getHostName();
+        this(socket, worldInstance, null);
+    }
+
+    /**
+     * Constructor to initialize the server with a socket, world instance and world executor.
+     *
+     * @param socket The socket for client connection.
+     * @param worldInstance The world instance to interact with.
+     * @param worldExecutor Applies requests to the world, or null to apply them directly.
+     * @throws IOException If an I/O error occurs when creating the input/output streams.
+     */
+    public Server(Socket socket, World worldInstance, WorldExecutor worldExecutor) throws IOException {
+        this(socket, new SocketConnection(socket), worldInstance, worldExecutor);
+    }
+
+    /**
+     * Constructor to initialize the server over an already established client connection.
+     * Used by engines that do their own reading, such as the NIO engine.
+     *
+     * @param connection The connection replies are written to.
+     * @param worldInstance The world instance to interact with.
+     */
+    public Server(ClientConnection connection, World worldInstance) {
+        this(connection, worldInstance, null);
+    }
+
+    /**
+     * Constructor to initialize the server over an already established client connection and a world executor.
+     *
+     * @param connection The connection replies are written to.
+     * @param worldInstance The world instance to interact with.
+     * @param worldExecutor Applies requests to the world, or null to apply them directly.
+     */
+    public Server(ClientConnection connection, World worldInstance, WorldExecutor worldExecutor) {
+        this(null, connection, worldInstance, worldExecutor);
+    }
+
+    private Server(Socket socket, ClientConnection connection, World worldInstance, WorldExecutor worldExecutor) {
+        String clientMachine = connection.getRemoteHost();
         System.out.println("Connection from " + clientMachine);
         MultiServers.printServerPrompt();
         world = worldInstance;
         this.socket = socket;
+        this.connection = connection;
+        this.worldExecutor = worldExecutor;
+    }
+
+    /**
+     * Gets the connection this handler replies on.
+     *
+     * @return the client connection
+     */
+    public ClientConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Sets the hub this connection joins if it asks to spectate.
+     *
+     * @param spectators the spectator hub, or null if spectating is not offered
+     */
+    void setSpectators(SpectatorHub spectators) {
+        this.spectators = spectators;
     }
 
     /**
      * The main method that runs the server and handles client requests.
+     * Only used by the threaded engine, which owns a blocking socket per client.
+     * The first byte from the client picks the protocol: the binary handshake, or the start of a JSON line.
      */
     public void run() {
-        try(PrintStream out = new PrintStream(socket.getOutputStream());
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+        try(InputStream stream = new BufferedInputStream(socket.getInputStream())) {
+            stream.mark(1);
+            int first = stream.read();
+            if (first == (BinaryCodec.HANDSHAKE[0] & 0xFF)) {
+                BinaryCodec.readHandshake(stream);
+                connection.useBinaryFrames();
+                byte[] frame;
+                while ((frame = BinaryCodec.readFrame(stream)) != null) {
+                    try {
+                        handleFrame(frame);
+                    } catch (RuntimeException e) {
+                        System.out.println("Error handling request from " + connection.getRemoteHost() + ": " + e.getMessage());
+                    }
+                }
+                return;
+            }
+            stream.reset();
+            BufferedReader in = new BufferedReader(new InputStreamReader(stream));
             String messageFromClient;
             while((messageFromClient = in.readLine()) != null) {
-                JsonObject request = JsonParser.parseString(messageFromClient).getAsJsonObject();
-                robotName = request.get("robot").getAsString();
-                if (!MultiServers.clientHandlerMap.containsKey(robotName)) {
-                    MultiServers.clientHandlerMap.put(robotName, this);
+                try {
+                    handleMessage(messageFromClient);
+                } catch (RuntimeException e) {
+                    System.out.println("Error handling request from " + connection.getRemoteHost() + ": " + e.getMessage());
                 }
-                String commandName = request.get("command").getAsString();
-                JsonArray args = request.get("arguments").getAsJsonArray();
-
-                world.setCurrentRobotByName(robotName);
-                JsonObject response = handleCommand(commandName, args);
-                MultiServers.printServerPrompt();
-                world.deleteDeadBots();
-                System.out.println(formatServerResponse(response));
-                out.println(response);
             }
         } catch (SocketException e){
             System.out.println("Client Socket has been closed " + e.getMessage());
         } catch(IOException ex) {
             System.out.println("Error with taking input " + ex.getMessage());
             throw new RuntimeException(ex);
+        } finally {
+            connection.close();
         }
     }
 
     /**
-     * Sends a reload message to the client indicating that the reload command was successful.
-     * It includes the current state of the robot in the response.
+     * Handles a single request line from the client and sends the response back.
+     * A line that cannot be read or handled is answered with an ERROR response, and the connection carries on.
+     *
+     * @param messageFromClient The raw JSON request line.
      */
-    public void sendRepairMessage() {
+    public void handleMessage(String messageFromClient) {
+        try {
+            handleRequest(JsonCodec.decodeRequest(messageFromClient));
+        } catch (RuntimeException e) {
+            rejectRequest(e);
+        }
+    }
+
+    /**
+     * Handles a single binary request frame from the client and sends the response back.
+     * Requests other than launch are for the robot this connection last named.
+     * A frame that cannot be read or handled is answered with an ERROR response, and the connection carries on.
+     *
+     * @param payload The frame payload.
+     */
+    public void handleFrame(byte[] payload) {
+        try {
+            handleRequest(BinaryCodec.readRequest(payload, robotName));
+        } catch (RuntimeException e) {
+            rejectRequest(e);
+        }
+    }
+
+    private void rejectRequest(RuntimeException e) {
+        System.out.println("Error handling request from " + connection.getRemoteHost() + ": " + e.getMessage());
+        respond(failedResponse(e), null);
+    }
+
+    /**
+     * Handles a single decoded request from the client and sends the response back.
+     * A request with an id is not waited on when a world executor is applying requests: it is queued,
+     * and its response, carrying the same id, is sent once it has been applied. So a client can have many
+     * requests in flight, and its responses may come back in a different order to the requests.
+     * Requests without an id are answered before the next request is read, as they always have been.
+     *
+     * @param request The request.
+     */
+    public void handleRequest(Request request) {
+        if (request.command().equals("spectate")) {
+            spectate(request.id());
+            return;
+        }
+        String name = request.robot();
+        robotName = name;
+        if (!MultiServers.clientHandlerMap.containsKey(name)) {
+            MultiServers.clientHandlerMap.put(name, this);
+        }
+        String commandName = request.command();
+        JsonArray args = request.arguments();
+
+        if (worldExecutor == null) {
+            respond(applyDirect(name, commandName, args), request.id());
+        } else if (request.id() == null) {
+            respond(submitCommand(name, commandName, args).join(), null);
+        } else {
+            inFlight.acquireUninterruptibly();
+            submitCommand(name, commandName, args).whenCompleteAsync((response, error) -> {
+                try {
+                    queueResponse(error == null ? response : failedResponse(error), request.id());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Answers a request to spectate and, if spectating is offered, adds the connection to the spectator hub.
+     * It needs no robot and never touches the world, so it is answered straight away.
+     *
+     * @param id The request's id, or null if it had none.
+     */
+    private void spectate(JsonElement id) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
+        if (spectators == null) {
+            response.addProperty("result", "ERROR");
+            data.addProperty("message", "Spectating is not available on this server");
+            response.add("data", data);
+            respond(response, id);
+            return;
+        }
         response.addProperty("result", "OK");
-        data.addProperty("message", "Done");
-        response.add("data", data );
-        response.add("state", world.getCurrentRobot().state() );
+        data.addProperty("message", "Spectating: a snapshot follows, then the world's changes");
+        response.add("data", data);
+        respond(response, id);
+        spectators.add(connection);
+    }
+
+    /**
+     * Logs a response on the server console and sends it to the client, echoing the request's id.
+     *
+     * @param response The response to send.
+     * @param id The request's id, or null if it had none.
+     */
+    private void respond(JsonObject response, JsonElement id) {
+        if (id != null) response.add("id", id);
+        MultiServers.printServerPrompt();
+        System.out.println(formatServerResponse(response));
+        connection.send(response);
+    }
+
+    /**
+     * Logs a response to a pipelined request and queues it without waiting for room in the connection's output,
+     * so a client that has stopped reading cannot hold the pool thread that completes its requests, and with it
+     * the replies to every other client. How far the queue can grow is bounded by the requests in flight.
+     *
+     * @param response The response to send.
+     * @param id The request's id.
+     */
+    private void queueResponse(JsonObject response, JsonElement id) {
+        response.add("id", id);
+        MultiServers.printServerPrompt();
+        System.out.println(formatServerResponse(response));
+        connection.send(new SharedMessage(response));
+    }
 
+    /**
+     * Builds the response for a pipelined request the world executor could not apply, so its id is still answered.
+     *
+     * @param error Why the request failed.
+     * @return An ERROR response.
+     */
+    private JsonObject failedResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        JsonObject response = new JsonObject();
+        JsonObject data = new JsonObject();
+        response.addProperty("result", "ERROR");
+        data.addProperty("message", "Request failed: " + cause.getMessage());
+        response.add("data", data);
+        return response;
+    }
+
+    /**
+     * Applies a command to the world on the calling thread and clears out robots that died.
+     *
+     * @param name The name of the robot the command is for.
+     * @param commandName The name of the command to execute.
+     * @param args The arguments for the command.
+     * @return The response to send back to the client.
+     */
+    private JsonObject applyCommand(String name, String commandName, JsonArray args) {
+        JsonObject response = handleCommand(name, commandName, args, world.getRobotByName(name));
+        world.deleteDeadBots();
+        return response;
+    }
+
+    /**
+     * Applies a command to the world on the handler thread, when there is no world executor.
+     * A batch waits for the requests being applied on other handlers and keeps new ones out until it is done.
+     *
+     * @param name The name of the robot the command is for.
+     * @param commandName The name of the command to execute.
+     * @param args The arguments for the command.
+     * @return The response to send back to the client.
+     */
+    private JsonObject applyDirect(String name, String commandName, JsonArray args) {
+        Lock lock = commandName.equals("batch") ? DIRECT_BATCHES.writeLock() : DIRECT_BATCHES.readLock();
+        lock.lock();
         try {
-            PrintStream out = new PrintStream(socket.getOutputStream());
-            out.println(response);
+            return applyCommand(name, commandName, args);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a command to the world executor.
+     *
+     * @param name The name of the robot the command is for.
+     * @param commandName The name of the command to execute.
+     * @param args The arguments for the command.
+     * @return A future completed with the response to send back to the client.
+     */
+    private CompletableFuture<JsonObject> submitCommand(String name, String commandName, JsonArray args) {
+        return worldExecutor.submit(name, commandName, w -> applyCommand(name, commandName, args));
+    }
 
-        } catch (IOException e) {
-            System.out.println("Repair message unable to send" + e);
-            throw new RuntimeException(e);
+    /**
+     * Finishes a robot's reload or repair once its timer has run out, then tells the client.
+     * The work is applied to the world the same way this handler applies requests: on the world executor
+     * when there is one, otherwise straight away. The "Done" message, with the refilled state, is only sent
+     * once that work is done, and it is queued without waiting for the client to read, so a client that
+     * has stopped reading cannot hold up the timer wheel.
+     *
+     * @param robot The robot whose reload or repair is over.
+     * @param busy The status the robot was busy with, RELOAD or REPAIR.
+     * @param finish Refills the robot; returns false if the action was dropped because the robot's status changed.
+     */
+    public void finishTimedAction(Robot robot, OperationalStatus busy, BooleanSupplier finish) {
+        Function<World, JsonObject> action = w -> finish.getAsBoolean() ? doneMessage(robot) : null;
+        if (worldExecutor == null) {
+            JsonObject message;
+            Lock lock = DIRECT_BATCHES.readLock();
+            lock.lock();
+            try {
+                message = action.apply(world);
+            } finally {
+                lock.unlock();
+            }
+            push(message);
+            return;
         }
+        worldExecutor.submit(robot.getName(), busy.name().toLowerCase(Locale.ROOT), action).whenCompleteAsync((message, error) -> {
+            if (error != null) System.out.println("Unable to finish " + busy + " for " + robot.getName() + ": " + error);
+            else push(message);
+        });
     }
 
     /**
-     * Sends a reload message to the client indicating that the robot has been reloaded.
-     * It includes the current state of the robot in the response.
+     * Builds the message sent when a reload or repair is over, with the robot's state after it.
      */
-    public void sendReloadMessage() {
+    private static JsonObject doneMessage(Robot robot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
         response.addProperty("result", "OK");
         data.addProperty("message", "Done");
         response.add("data", data );
-        response.add("state", world.getCurrentRobot().state() );
-
-        try {
-            PrintStream out = new PrintStream(socket.getOutputStream());
-            out.println(response);
+        response.add("state", robot.state() );
+        return response;
+    }
 
-        } catch (IOException e) {
-            System.out.println("Reload message unable to send" + e);
-            throw new RuntimeException(e);
-        }
+    /**
+     * Queues a message the client did not ask for, without waiting for room in the connection's output.
+     */
+    private void push(JsonObject message) {
+        if (message != null) connection.send(new SharedMessage(message));
     }
 
     /**
      * Sends a quit message to the client and closes the socket connection.
      * It also removes the robot from the client handler map.
+     * It is called from the shot that killed the robot, on whichever thread applies it, so neither the message
+     * nor the close waits for the client to read.
      */
     public void sendQuit() {
         JsonObject response = new JsonObject();
@@ -121,85 +417,179 @@ public class Server implements Runnable {
         data.addProperty("message", "QUIT");
         response.add("data", data );
 
+        push(response);
+        connection.close();  // Close the connection to terminate client
+        MultiServers.clientHandlerMap.remove(robotName); // Clean up map
+    }
+
+
+
+    /**
+     * Runs a batch of commands for one robot, in order, and answers with one response for all of them.
+     * The first argument is the array of commands, each either an object with a command and its arguments,
+     * or a line such as "forward 3". The optional second argument says whether to stop at the first command
+     * that fails or is obstructed, and defaults to true. A batch always stops when the robot dies.
+     * With a world executor the whole batch is one piece of work, so no other request lands in the middle of it;
+     * without one, the batch holds {@link #DIRECT_BATCHES} for the same effect.
+     *
+     * @param name The name of the robot the batch is for.
+     * @param args The batch's arguments.
+     * @param robot The robot, or null if it has not been launched.
+     * @return The response: a result for each command that ran, and the robot's state after the last one.
+     */
+    private JsonObject runBatch(String name, JsonArray args, Robot robot) {
+        JsonObject response = new JsonObject();
+        JsonObject data = new JsonObject();
+        if (robot == null) {
+            response.addProperty("result", "ERROR");
+            data.addProperty("message", "Launch a robot before sending a batch");
+            response.add("data", data);
+            return response;
+        }
+
+        JsonArray commands;
+        boolean stopOnFailure;
         try {
-            PrintStream out = new PrintStream(socket.getOutputStream());
-            out.println(response);
-            socket.close();  // Close the socket to terminate client
-            MultiServers.clientHandlerMap.remove(robotName); // Clean up map
-        } catch (IOException e) {
-            System.out.println("Quit message unable to send" + e);
-            throw new RuntimeException(e);
+            commands = args.get(0).getAsJsonArray();
+            stopOnFailure = args.size() < 2 || args.get(1).getAsBoolean();
+        } catch (RuntimeException e) {
+            commands = null;
+            stopOnFailure = true;
         }
-    }
+        if (commands == null || commands.isEmpty() || commands.size() > MAX_BATCH_SIZE) {
+            response.addProperty("result", "ERROR");
+            data.addProperty("message", "Invalid batch, send 'batch' with an array of 1 to " + MAX_BATCH_SIZE + " commands");
+            response.add("data", data);
+            return response;
+        }
+
+        JsonArray results = new JsonArray();
+        String stoppedBy = null;
+        for (JsonElement element : commands) {
+            String commandName;
+            JsonArray commandArgs;
+            JsonObject step;
+            try {
+                if (element.isJsonObject()) {
+                    commandName = element.getAsJsonObject().get("command").getAsString();
+                    commandArgs = element.getAsJsonObject().has("arguments")
+                            ? element.getAsJsonObject().getAsJsonArray("arguments") : new JsonArray();
+                } else {
+                    String[] parts = element.getAsString().trim().split("\\s+");
+                    commandName = parts[0];
+                    commandArgs = new JsonArray();
+                    for (int i = 1; i < parts.length; i++) commandArgs.add(parts[i]);
+                }
+                commandName = commandName.toLowerCase();
+                step = commandName.equals("batch") || commandName.equals("launch")
+                        ? failedStep("Not allowed in a batch")
+                        : handleCommand(name, commandName, commandArgs, robot);
+            } catch (RuntimeException e) {
+                commandName = String.valueOf(element);
+                step = failedStep("Invalid command in batch");
+            }
 
+            JsonObject result = new JsonObject();
+            result.addProperty("command", commandName);
+            result.add("result", step.get("result"));
+            if (step.has("data")) {
+                for (Map.Entry<String, JsonElement> member : step.getAsJsonObject("data").entrySet()) result.add(member.getKey(), member.getValue());
+            }
+            results.add(result);
+
+            String message = result.has("message") ? result.get("message").getAsString() : "";
+            boolean failed = !"OK".equals(step.get("result").getAsString()) || message.equals("Obstructed");
+            if (robot.getStatus() == OperationalStatus.DEAD || (failed && stopOnFailure)) {
+                stoppedBy = message;
+                break;
+            }
+        }
+
+        boolean finished = stoppedBy == null;
+        response.addProperty("result", finished ? "OK" : "ERROR");
+        data.addProperty("message", finished
+                ? "Done " + results.size() + " commands"
+                : "Stopped at command " + results.size() + " of " + commands.size() + ": " + stoppedBy);
+        data.add("results", results);
+        response.add("data", data);
+        response.add("state", robot.state());
+        return response;
+    }
 
+    private static JsonObject failedStep(String message) {
+        JsonObject response = new JsonObject();
+        JsonObject data = new JsonObject();
+        response.addProperty("result", "ERROR");
+        data.addProperty("message", message);
+        response.add("data", data);
+        return response;
+    }
 
     /**
      * Handles the command received from the client.
      *
+     * @param name The name of the robot the command is for.
      * @param commandName The name of the command to execute.
      * @param args       The arguments for the command.
+     * @param currentRobot The robot named in the request, or null if it has not been launched.
      * @return A JsonObject containing the response to be sent back to the client.
      */
-    private JsonObject handleCommand(String commandName, JsonArray args) {
+    private JsonObject handleCommand(String name, String commandName, JsonArray args, Robot currentRobot) {
         JsonObject response = new JsonObject();
         JsonObject data = new JsonObject();
-        System.out.println("\nName: " + robotName +" , Command: " + commandName +" , Arguments: " + args );
+        System.out.println("\nName: " + name +" , Command: " + commandName +" , Arguments: " + args );
         Command command;
 
+        if (currentRobot != null && currentRobot.isBusy() && !ANSWERED_WHILE_BUSY.contains(commandName)) {
+            response.addProperty("result", "ERROR");
+            data.addProperty("message", "Robot is busy: " + currentRobot.getStatus());
+            response.add("data", data);
+            response.add("state", currentRobot.state());
+            return response;
+        }
+
         try {
             switch (commandName) {
                 case "launch" -> {
-                    for (Robot robot: world.getRobots()){
-                        if (robot.getName().equals(robotName)){
-                            response.addProperty("result", "ERROR");
-                            data.addProperty("message", "Too many of you in this world");
-                            response.add("data", data);
-                            return response;
-                        }
+                    if (world.getRobotByName(name) != null) {
+                        response.addProperty("result", "ERROR");
+                        data.addProperty("message", "Too many of you in this world");
+                        response.add("data", data);
+                        return response;
                     }
-                    command = LaunchCommand.getInstance(robotName, args);
                 }
-                case "forward" -> command = MoveCommand.getInstance("forward", String.valueOf(args.get(0).getAsInt()));
-                case "back" -> command = MoveCommand.getInstance("back", String.valueOf(args.get(0).getAsInt()));
-                case "turn" -> command = TurnCommand.getInstance(String.valueOf(args.get(0)));
-                case "state" -> command = StateCommand.getInstance();
-                case "look" -> command = LookCommand.getInstance();
-                case "help" -> command = HelpCommand.getInstance();
-                case "fire" -> command = FireCommand.getInstance();
-                case "reload" -> command = ReloadCommand.getInstance();
-                case "repair" -> command = RepairCommand.getInstance();
+                case "batch" -> {
+                    return runBatch(name, args, currentRobot);
+                }
                 case "orientation" -> {
                     response.addProperty("result", "OK");
                     data.addProperty("message", "Done");
-                    data.addProperty("orientation", world.getCurrentRobot().getCurrentDirection().toString());
+                    data.addProperty("orientation", currentRobot.getCurrentDirection().toString());
                     response.add("data", data);
                     return response;
                 }
-                default -> throw new IllegalArgumentException("Unsupported command");
+                default -> { }
             }
-
+            command = COMMANDS.parse(commandName, name, args);
         } catch (Exception e) {
             response.addProperty("result", "ERROR");
             data.addProperty("message", "Invalid command arguments");
             response.add("data", data);
             return response;
         }
-        response = command.execute(world);
+        response = command.execute(world, currentRobot);
 
-        Robot currentRobot = world.getCurrentRobot();
+        if (currentRobot == null) currentRobot = world.getRobotByName(name);
+        if (currentRobot == null) return response;
 
 
         if (response.has("result") && "OK".equals(response.get("result").getAsString())) {
             response.add("state", currentRobot.state());
-            if (world.getCurrentRobot().getStatus() != OperationalStatus.DEAD) {
-                currentRobot.setStatus(OperationalStatus.NORMAL);
-            }
         }
 
-        if (!commandName.equals("reload") && !commandName.equals("repair") && world.getCurrentRobot().getStatus()!= OperationalStatus.DEAD) {
-            assert currentRobot != null;
-            if(currentRobot.getStatus()!= OperationalStatus.DEAD) currentRobot.setStatus(OperationalStatus.NORMAL);
+        // A reload or repair stays in progress until the timer wheel finishes it
+        if (currentRobot.getStatus() != OperationalStatus.DEAD && !currentRobot.isBusy()) {
+            currentRobot.setStatus(OperationalStatus.NORMAL);
         }
 
         return response;
@@ -0,0 +1,88 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A text message encoded once for every connection it is sent to, such as a broadcast.
+ * Each wire form is made the first time a connection asks for it and shared as a read-only buffer after that,
+ * so fanning a message out to thousands of clients encodes it at most twice: once as a JSON line
+ * and once as a {@link BinaryCodec} frame.
+ */
+public final class SharedMessage {
+    private final String line;
+    private final JsonElement element;
+    private volatile ByteBuffer jsonLine;
+    private volatile ByteBuffer binaryFrame;
+
+    /**
+     * Constructs a shared message.
+     *
+     * @param line the text to send, without a line ending
+     */
+    public SharedMessage(String line) {
+        this.line = line;
+        this.element = new JsonPrimitive(line);
+    }
+
+    /**
+     * Constructs a shared message from a JSON value, such as a batch of world events.
+     *
+     * @param message the value to send
+     */
+    public SharedMessage(JsonElement message) {
+        this.line = message.toString();
+        this.element = message;
+    }
+
+    /**
+     * Gets the text of the message.
+     *
+     * @return the text
+     */
+    public String line() {
+        return line;
+    }
+
+    /**
+     * Gets the message as a UTF-8 line for JSON connections.
+     *
+     * @return a read-only buffer; callers take a duplicate to read it
+     */
+    public ByteBuffer jsonLine() {
+        ByteBuffer encoded = jsonLine;
+        if (encoded == null) {
+            encoded = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+            jsonLine = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Gets the message as a frame for binary connections, carrying the JSON value, or the text as a string value.
+     *
+     * @return a read-only buffer; callers take a duplicate to read it
+     */
+    public ByteBuffer binaryFrame() {
+        ByteBuffer encoded = binaryFrame;
+        if (encoded == null) {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            BinaryCodec.writeResponse(element, payload);
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.size() + 4);
+            try {
+                BinaryCodec.writeFrame(payload, frame);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            encoded = ByteBuffer.wrap(frame.toByteArray()).asReadOnlyBuffer();
+            binaryFrame = encoded;
+        }
+        return encoded;
+    }
+}
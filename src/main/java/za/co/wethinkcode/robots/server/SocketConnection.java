@@ -0,0 +1,153 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import za.co.wethinkcode.robots.config.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * SocketConnection is a {@link ClientConnection} over a blocking socket.
+ * It is used by the threaded engine, where every client has its own handler thread.
+ * Responses are written with {@link JsonCodec} into an {@link OutboundBuffer}, whose writer task moves them to the socket,
+ * so the handler thread and anything broadcasting to the client never wait on the network unless the client stops reading.
+ * Each response is encoded in full before it is copied into the buffer in one write, so a message queued without waiting,
+ * such as a broadcast, never has to wait for a handler that is blocked on a full buffer, and never lands inside its response.
+ */
+public class SocketConnection implements ClientConnection {
+    private final Socket socket;
+    /** How long close waits for queued output, such as a quit message, to reach the client */
+    private static final long CLOSE_DRAIN_MILLIS = 1000;
+
+    private final OutboundBuffer stream;
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(1024);
+    private final JsonGenerator out;
+    private final ByteArrayOutputStream framePayload = new ByteArrayOutputStream(256);
+    private volatile boolean binary;
+
+    /**
+     * Constructs a SocketConnection for an accepted socket.
+     *
+     * @param socket the accepted client socket
+     * @throws IOException if the socket output stream cannot be opened
+     */
+    public SocketConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        int capacity = Config.OUTBOUND_BUFFER_BYTES > 0 ? Config.OUTBOUND_BUFFER_BYTES : 256 * 1024;
+        long stallMillis = Config.SLOW_CLIENT_TIMEOUT > 0 ? Config.SLOW_CLIENT_TIMEOUT : 5000;
+        this.stream = new OutboundBuffer(socket.getOutputStream(), capacity, stallMillis, this::closeSocket);
+        this.out = JsonCodec.responseGenerator(encoded);
+    }
+
+    /**
+     * Gets the underlying socket.
+     *
+     * @return the client socket
+     */
+    public Socket getSocket() {
+        return socket;
+    }
+
+    @Override
+    public void send(String line) {
+        if (binary) {
+            send(new JsonPrimitive(line));
+            return;
+        }
+        synchronized (out) {
+            try {
+                encoded.reset();
+                out.writeRaw(line);
+                out.writeRaw('\n');
+                out.flush();
+                encoded.writeTo(stream);
+            } catch (IOException e) {
+                System.out.println("Unable to send to client " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void send(JsonElement response) {
+        synchronized (out) {
+            try {
+                encoded.reset();
+                if (binary) {
+                    framePayload.reset();
+                    BinaryCodec.writeResponse(response, framePayload);
+                    BinaryCodec.writeFrame(framePayload, encoded);
+                } else {
+                    JsonCodec.writeLine(response, out);
+                    out.flush();
+                }
+                encoded.writeTo(stream);
+            } catch (IOException e) {
+                System.out.println("Unable to send to client " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Copies the message's shared bytes into the outbound buffer without waiting for the client to read,
+     * or for a handler that is waiting for room for its own response.
+     *
+     * @param message the message
+     * @return false if the connection is closed or the client has stopped reading
+     */
+    @Override
+    public boolean send(SharedMessage message) {
+        synchronized (stream) {
+            return stream.offer(binary ? message.binaryFrame() : message.jsonLine());
+        }
+    }
+
+    @Override
+    public long queuedBytes() {
+        return stream.getPending();
+    }
+
+    @Override
+    public void useBinaryFrames() {
+        synchronized (out) {
+            // Holding the buffer's lock as well, so no message is offered in the wrong form around the switch
+            synchronized (stream) {
+                try {
+                    stream.write(BinaryCodec.HANDSHAKE);
+                } catch (IOException e) {
+                    System.out.println("Unable to send to client " + e.getMessage());
+                }
+                binary = true;
+            }
+        }
+    }
+
+    /**
+     * Closes the connection once the output already sent has been written, or after a second if the client is not reading.
+     * The socket is closed by the connection's writer, so the caller never waits for the client.
+     */
+    @Override
+    public void close() {
+        stream.closeWhenDrained(CLOSE_DRAIN_MILLIS, this::closeSocket);
+    }
+
+    private void closeSocket() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.out.println("Unable to close client socket " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !socket.isClosed() && !stream.isClosed();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return socket.getInetAddress().getHostName();
+    }
+}
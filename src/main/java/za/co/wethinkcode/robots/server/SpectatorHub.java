@@ -0,0 +1,272 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldEvent;
+import za.co.wethinkcode.robots.world.WorldEventLog;
+import za.co.wethinkcode.robots.world.WorldExecutor;
+import za.co.wethinkcode.robots.world.WorldSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SpectatorHub streams the world's changes to connections that asked to spectate.
+ * A spectator is first sent a snapshot of every robot, then every interval a delta: the events recorded in the
+ * world's {@link WorldEventLog} since the last one it was sent. Spectators that are up to date are all at the same
+ * place in the log, so each delta is built and encoded once and the same bytes are queued on each of them.
+ * <p>
+ * The hub runs on its own thread and only reads the log, so the command path never waits for a spectator.
+ * A spectator whose connection has a backlog is skipped until it catches up; if it falls so far behind that
+ * its events have been overwritten, it is sent a fresh snapshot instead of the events it missed.
+ */
+public class SpectatorHub {
+    /** Most events sent in one delta; a spectator further behind gets the rest in the next round */
+    static final int MAX_DELTA_EVENTS = 4096;
+    /** The cursor of a spectator that has to be sent a snapshot before any more deltas */
+    private static final long NEEDS_SNAPSHOT = -1;
+
+    private final World world;
+    private final WorldExecutor worldExecutor;
+    private final WorldEventLog log;
+    private final long intervalMillis;
+    private final long backlogBytes;
+    private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService thread;
+
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder deltas = new LongAdder();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder lapped = new LongAdder();
+
+    /**
+     * Constructs a hub for a world.
+     *
+     * @param world the world to stream
+     * @param worldExecutor the executor applying requests, used to take snapshots on the world thread, or null
+     * @param intervalMillis how often to send deltas
+     * @param backlogBytes how many bytes may be waiting on a spectator's connection before it is skipped
+     */
+    public SpectatorHub(World world, WorldExecutor worldExecutor, long intervalMillis, long backlogBytes) {
+        this.world = world;
+        this.worldExecutor = worldExecutor;
+        this.log = world.getEvents();
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.backlogBytes = backlogBytes;
+    }
+
+    /**
+     * Starts the hub thread, which sends a round of updates every interval.
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread spectatorThread = new Thread(runnable, "spectators");
+            spectatorThread.setDaemon(true);
+            return spectatorThread;
+        });
+        thread.scheduleWithFixedDelay(() -> {
+            try {
+                deliver();
+            } catch (RuntimeException e) {
+                System.out.println("Error sending to spectators: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the hub thread and stops recording events.
+     */
+    public synchronized void shutdown() {
+        if (thread != null) thread.shutdownNow();
+        thread = null;
+        spectators.clear();
+        log.setRecording(false);
+    }
+
+    /**
+     * Adds a connection as a spectator. It is sent a snapshot in the next round and deltas after that.
+     *
+     * @param connection the spectator's connection
+     */
+    public synchronized void add(ClientConnection connection) {
+        spectators.add(new Spectator(connection));
+        log.setRecording(true);
+    }
+
+    /**
+     * Sends one round of updates: a snapshot to spectators that need one and a delta to the rest.
+     * Called on the hub thread; tests call it directly.
+     */
+    void deliver() {
+        synchronized (this) {
+            spectators.removeIf(spectator -> !spectator.connection.isOpen());
+            if (spectators.isEmpty()) {
+                log.setRecording(false);
+                return;
+            }
+        }
+        rounds.increment();
+        long head = log.getHead();
+        Map<Long, Delta> deltasFrom = new HashMap<>();
+        Snapshot snapshot = null;
+
+        for (Spectator spectator : spectators) {
+            boolean needsSnapshot = spectator.cursor == NEEDS_SNAPSHOT;
+            if (!needsSnapshot && spectator.cursor >= head) continue;
+            if (spectator.connection.queuedBytes() > backlogBytes) {
+                skipped.increment();
+                continue;
+            }
+
+            if (!needsSnapshot) {
+                Delta delta = deltasFrom.computeIfAbsent(spectator.cursor, from -> readDelta(from, head));
+                if (delta != null) {
+                    if (delta.count > 0 && send(spectator, delta.message)) {
+                        spectator.cursor = delta.to;
+                        deltas.increment();
+                        eventsSent.add(delta.count);
+                    }
+                    continue;
+                }
+                lapped.increment();
+                spectator.cursor = NEEDS_SNAPSHOT;
+            }
+
+            if (snapshot == null) snapshot = takeSnapshot();
+            if (send(spectator, snapshot.message)) {
+                spectator.cursor = snapshot.sequence;
+                snapshots.increment();
+            }
+        }
+    }
+
+    private boolean send(Spectator spectator, SharedMessage message) {
+        if (spectator.connection.send(message)) return true;
+        spectators.remove(spectator);
+        return false;
+    }
+
+    /**
+     * Reads the events from a place in the log and encodes them as one delta.
+     *
+     * @return the delta, or null if the events have been overwritten
+     */
+    private Delta readDelta(long from, long head) {
+        List<WorldEvent> events = new ArrayList<>();
+        int count = log.read(from, Math.min(head, from + MAX_DELTA_EVENTS), events);
+        if (count == WorldEventLog.LAPPED) return null;
+        JsonArray changes = new JsonArray();
+        for (WorldEvent event : events) changes.add(event.toJson());
+        JsonObject message = new JsonObject();
+        message.addProperty("event", "delta");
+        message.addProperty("from", from);
+        message.addProperty("to", from + count);
+        message.add("events", changes);
+        return new Delta(new SharedMessage(message), from + count, count);
+    }
+
+    /**
+     * Takes a snapshot of every robot, on the world thread if there is one.
+     * Events recorded while it is taken may already show in it; they are sent again afterwards,
+     * which does no harm because each one sets absolute values. The obstacles are left out:
+     * a spectator that does not have them asks for them with a sync request.
+     */
+    private Snapshot takeSnapshot() {
+        long sequence = log.getHead();
+        WorldSnapshot snapshot = worldExecutor == null
+                ? world.snapshot(world.getObstacleHash())
+                : worldExecutor.submit("", "spectate", w -> w.snapshot(w.getObstacleHash())).join();
+        JsonObject message = new JsonObject();
+        message.addProperty("event", "snapshot");
+        message.addProperty("sequence", sequence);
+        for (Map.Entry<String, JsonElement> member : snapshot.toJson().entrySet()) message.add(member.getKey(), member.getValue());
+        return new Snapshot(new SharedMessage(message), sequence);
+    }
+
+    /**
+     * Gets the number of connections spectating.
+     *
+     * @return the spectator count
+     */
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Gets the number of snapshots sent.
+     *
+     * @return the snapshot count
+     */
+    public long getSnapshots() {
+        return snapshots.sum();
+    }
+
+    /**
+     * Gets the number of deltas sent.
+     *
+     * @return the delta count
+     */
+    public long getDeltas() {
+        return deltas.sum();
+    }
+
+    /**
+     * Gets the number of times a spectator with a backlog was skipped for a round.
+     *
+     * @return the skipped count
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * Gets the number of times a spectator fell so far behind that it needed a new snapshot.
+     *
+     * @return the lapped count
+     */
+    public long getLapped() {
+        return lapped.sum();
+    }
+
+    /**
+     * Gets a one line summary of the hub's figures for the server console.
+     *
+     * @return the stats line
+     */
+    public String getStats() {
+        return String.format("Spectators: %d watching, %d rounds, %d deltas holding %d events, %d snapshots, "
+                        + "%d skipped for a backlog, %d lapped, log head %d",
+                getSpectatorCount(), rounds.sum(), getDeltas(), eventsSent.sum(), getSnapshots(),
+                getSkipped(), getLapped(), log.getHead());
+    }
+
+    /**
+     * A spectating connection and the sequence number of the next event it is due.
+     */
+    private static final class Spectator {
+        private final ClientConnection connection;
+        private long cursor = NEEDS_SNAPSHOT;
+
+        private Spectator(ClientConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private record Delta(SharedMessage message, long to, int count) {
+    }
+
+    private record Snapshot(SharedMessage message, long sequence) {
+    }
+}
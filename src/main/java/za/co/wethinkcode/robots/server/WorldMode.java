@@ -0,0 +1,24 @@
+package za.co.wethinkcode.robots.server;
+
+/**
+ * The WorldMode enum selects how client requests reach the {@link za.co.wethinkcode.robots.world.World}.
+ * DIRECT lets every connection handler change the world itself, ACTOR queues every request
+ * to a single {@link za.co.wethinkcode.robots.world.WorldActor} thread that applies them in order,
+ * TICK collects requests and applies them in fixed-rate batches on a
+ * {@link za.co.wethinkcode.robots.world.TickEngine}.
+ */
+public enum WorldMode {
+    DIRECT, ACTOR, TICK;
+
+    /**
+     * Parses a world mode from a configuration value, ignoring case.
+     *
+     * @param value the configured value, may be null
+     * @return the matching mode, or DIRECT if the value is empty
+     * @throws IllegalArgumentException if the value does not name a mode
+     */
+    public static WorldMode fromConfig(String value) {
+        if (value == null || value.isBlank()) return DIRECT;
+        return valueOf(value.trim().toUpperCase());
+    }
+}
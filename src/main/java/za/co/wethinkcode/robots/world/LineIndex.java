@@ -0,0 +1,246 @@
+package za.co.wethinkcode.robots.world;
+
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static za.co.wethinkcode.robots.Coordinates.x;
+import static za.co.wethinkcode.robots.Coordinates.y;
+
+/**
+ * The LineIndex class keeps the robots of each row sorted by x, and the robots of each column sorted by y.
+ * Robots can only shoot and see along rows and columns, so the robots in view of a position are found
+ * with a floor or ceiling lookup on one sorted line instead of a scan over every robot.
+ * {@link World} keeps the index up to date as robots are added, move and are removed.
+ * <p>
+ * Each line is a pair of sorted primitive arrays guarded by its own lock, so once the arrays have grown
+ * to fit, moving a robot or finding the nearest one creates no objects. Robots outside the world are not indexed.
+ * Every row and column also counts the robots that have arrived on or left it, so a cached look can tell
+ * whether anything it could see has changed.
+ */
+final class LineIndex {
+    private final int width;
+    private final int height;
+    private final AtomicReferenceArray<Line> rows;
+    private final AtomicReferenceArray<Line> columns;
+    private final AtomicLongArray rowChanges;
+    private final AtomicLongArray columnChanges;
+
+    /**
+     * Constructs an empty index for a world of the given size.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     */
+    LineIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.rows = new AtomicReferenceArray<>(height);
+        this.columns = new AtomicReferenceArray<>(width);
+        this.rowChanges = new AtomicLongArray(height);
+        this.columnChanges = new AtomicLongArray(width);
+    }
+
+    /**
+     * Records a robot standing on a cell.
+     *
+     * @param robot the robot
+     * @param coordinates the packed coordinates where it stands
+     */
+    void add(Robot robot, long coordinates) {
+        int x = x(coordinates);
+        int y = y(coordinates);
+        if (!contains(x, y)) return;
+        line(rows, y).add(x, robot);
+        line(columns, x).add(y, robot);
+        rowChanges.incrementAndGet(y);
+        columnChanges.incrementAndGet(x);
+    }
+
+    /**
+     * Records a robot leaving a cell.
+     *
+     * @param robot the robot
+     * @param coordinates the packed coordinates where it stood
+     */
+    void remove(Robot robot, long coordinates) {
+        int x = x(coordinates);
+        int y = y(coordinates);
+        if (!contains(x, y)) return;
+        line(rows, y).remove(x, robot);
+        line(columns, x).remove(y, robot);
+        rowChanges.incrementAndGet(y);
+        columnChanges.incrementAndGet(x);
+    }
+
+    /**
+     * Counts the robots that have arrived on or left the row and the column through a cell.
+     * The count only grows, so if it is the same as before nothing has moved on either line.
+     *
+     * @param coordinates the packed coordinates of the cell
+     * @return the number of changes to the cell's row and column, 0 for cells outside the world
+     */
+    long changes(long coordinates) {
+        int x = x(coordinates);
+        int y = y(coordinates);
+        if (!contains(x, y)) return 0;
+        return rowChanges.get(y) + columnChanges.get(x);
+    }
+
+    /**
+     * Finds the closest robot in a direction, not counting robots on the starting cell.
+     *
+     * @param from the packed coordinates to look from
+     * @param direction which way to look
+     * @param maxDistance how many cells away to look
+     * @return the closest robot, or null if there is none in range
+     */
+    Robot nearest(long from, Direction direction, int maxDistance) {
+        int x = x(from);
+        int y = y(from);
+        if (!contains(x, y) || maxDistance <= 0) return null;
+        Line line = lineThrough(x, y, direction);
+        if (line == null) return null;
+        return switch (direction) {
+            case NORTH -> line.nearestBefore(y, maxDistance);
+            case SOUTH -> line.nearestAfter(y, maxDistance);
+            case WEST -> line.nearestBefore(x, maxDistance);
+            case EAST -> line.nearestAfter(x, maxDistance);
+        };
+    }
+
+    /**
+     * Finds every robot in a direction, not counting robots on the starting cell.
+     *
+     * @param from the packed coordinates to look from
+     * @param direction which way to look
+     * @param maxDistance how many cells away to look
+     * @return the robots in range, closest first
+     */
+    List<Robot> inLine(long from, Direction direction, int maxDistance) {
+        List<Robot> found = new ArrayList<>();
+        int x = x(from);
+        int y = y(from);
+        if (!contains(x, y) || maxDistance <= 0) return found;
+        Line line = lineThrough(x, y, direction);
+        if (line == null) return found;
+        switch (direction) {
+            case NORTH -> line.collectBefore(y, maxDistance, found);
+            case SOUTH -> line.collectAfter(y, maxDistance, found);
+            case WEST -> line.collectBefore(x, maxDistance, found);
+            case EAST -> line.collectAfter(x, maxDistance, found);
+        }
+        return found;
+    }
+
+    /**
+     * Gets the column through a cell when looking north or south, or the row when looking east or west.
+     * Returns null if no robot has ever stood on that line.
+     */
+    private Line lineThrough(int x, int y, Direction direction) {
+        return switch (direction) {
+            case NORTH, SOUTH -> columns.get(x);
+            case EAST, WEST -> rows.get(y);
+        };
+    }
+
+    private boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Gets a row or column, creating it the first time it is used.
+     */
+    private static Line line(AtomicReferenceArray<Line> lines, int index) {
+        Line line = lines.get(index);
+        if (line == null) {
+            lines.compareAndSet(index, null, new Line());
+            line = lines.get(index);
+        }
+        return line;
+    }
+
+    /**
+     * One row or column: the robots on it, sorted by their position along it.
+     */
+    private static final class Line {
+        private int[] keys = new int[4];
+        private Robot[] robots = new Robot[4];
+        private int size;
+
+        synchronized void add(int key, Robot robot) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                robots = Arrays.copyOf(robots, size * 2);
+            }
+            int at = firstAfter(key);
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            System.arraycopy(robots, at, robots, at + 1, size - at);
+            keys[at] = key;
+            robots[at] = robot;
+            size++;
+        }
+
+        synchronized void remove(int key, Robot robot) {
+            for (int i = firstAtOrAfter(key); i < size && keys[i] == key; i++) {
+                if (robots[i] == robot) {
+                    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                    System.arraycopy(robots, i + 1, robots, i, size - i - 1);
+                    robots[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        synchronized Robot nearestAfter(int key, int maxDistance) {
+            int i = firstAfter(key);
+            return i < size && keys[i] <= key + maxDistance ? robots[i] : null;
+        }
+
+        synchronized Robot nearestBefore(int key, int maxDistance) {
+            int i = firstAtOrAfter(key) - 1;
+            return i >= 0 && keys[i] >= key - maxDistance ? robots[i] : null;
+        }
+
+        synchronized void collectAfter(int key, int maxDistance, List<Robot> found) {
+            for (int i = firstAfter(key); i < size && keys[i] <= key + maxDistance; i++) found.add(robots[i]);
+        }
+
+        synchronized void collectBefore(int key, int maxDistance, List<Robot> found) {
+            for (int i = firstAtOrAfter(key) - 1; i >= 0 && keys[i] >= key - maxDistance; i--) found.add(robots[i]);
+        }
+
+        /**
+         * Binary search for the first slot whose key is greater than the given key.
+         */
+        private int firstAfter(int key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        /**
+         * Binary search for the first slot whose key is at least the given key.
+         */
+        private int firstAtOrAfter(int key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonArray;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LookCache keeps the last look each robot made, so a robot that looks again without anything in view
+ * having changed gets the same objects back without the look being worked out again.
+ * <p>
+ * A plain look sees the obstacles, which never move, and the robots on its row and column. So a cached look
+ * stays good as long as the robot is on the same cell, the visibility range is the same and no robot has
+ * arrived on or left that row or column, which the world's {@link LineIndex} counts. Moves anywhere else
+ * leave it alone. The way the robot faces is not part of the key, because a look reports all four directions.
+ * <p>
+ * The objects of a cached look are shared between responses and must not be changed.
+ */
+public final class LookCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder diffs = new LongAdder();
+
+    /**
+     * Gets a robot's last look if it is still good.
+     *
+     * @param robot the robot's name
+     * @param key what the look depends on, from {@link World#lookKey}
+     * @return the objects the look saw, or null if the robot has to look again
+     */
+    public JsonArray get(String robot, Key key) {
+        Entry entry = entries.get(robot);
+        if (entry != null && entry.key.equals(key)) {
+            hits.increment();
+            return entry.objects;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Gets a robot's last look, good or not, to work out what has changed since.
+     *
+     * @param robot the robot's name
+     * @return the objects the robot saw last time, or null if it has not looked
+     */
+    public JsonArray last(String robot) {
+        Entry entry = entries.get(robot);
+        return entry == null ? null : entry.objects;
+    }
+
+    /**
+     * Keeps a robot's look.
+     *
+     * @param robot the robot's name
+     * @param key what the look depends on, taken before the look was worked out
+     * @param objects the objects the look saw
+     */
+    public void put(String robot, Key key, JsonArray objects) {
+        entries.put(robot, new Entry(key, objects));
+    }
+
+    /**
+     * Forgets a robot's look, when the robot leaves the world.
+     *
+     * @param robot the robot's name
+     */
+    public void remove(String robot) {
+        entries.remove(robot);
+    }
+
+    /**
+     * Counts a look that was sent as the changes since the robot's last look.
+     */
+    public void countDiff() {
+        diffs.increment();
+    }
+
+    /**
+     * Gets the number of looks answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of looks that had to be worked out.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of looks answered from the cache.
+     *
+     * @return the hit rate from 0 to 1, or 0 before any look
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * Gets a one line summary of the cache's figures for the server console.
+     *
+     * @return the stats line
+     */
+    public String getStats() {
+        return String.format("Look cache: %d robots, %d hits, %d misses, %.1f%% hit rate, %d sent as changes",
+                entries.size(), getHits(), getMisses(), getHitRate() * 100, diffs.sum());
+    }
+
+    /**
+     * What a look depends on.
+     *
+     * @param coordinates the packed coordinates of the cell looked from
+     * @param range the visibility range
+     * @param lineChanges the changes to the cell's row and column so far
+     */
+    public record Key(long coordinates, int range, long lineChanges) {
+    }
+
+    private record Entry(Key key, JsonArray objects) {
+    }
+}
@@ -0,0 +1,138 @@
+package za.co.wethinkcode.robots.world;
+
+import za.co.wethinkcode.robots.maze.TerrainLayer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static za.co.wethinkcode.robots.Coordinates.x;
+import static za.co.wethinkcode.robots.Coordinates.y;
+
+/**
+ * The OccupancyGrid class records what is in every cell of the world, so collision checks
+ * only look at the cells a robot passes through instead of every robot and obstacle.
+ * Obstacles come from the maze's {@link TerrainLayer}; the grid adds a count of the robots standing on each cell,
+ * which {@link World} keeps up to date. Maps too big for a dense layer keep the counts for occupied cells only.
+ */
+final class OccupancyGrid {
+    private final TerrainLayer terrain;
+    private final int width;
+    private final int height;
+    private final AtomicIntegerArray robots;
+    private final Map<Long, Integer> sparseRobots;
+
+    /**
+     * Constructs a grid over a terrain layer, with one robot count per cell of the layer.
+     *
+     * @param terrain the rasterized obstacles of the world
+     */
+    OccupancyGrid(TerrainLayer terrain) {
+        this.terrain = terrain;
+        this.width = terrain.getWidth();
+        this.height = terrain.getHeight();
+        if ((long) width * height <= TerrainLayer.DENSE_CELL_LIMIT) {
+            this.robots = new AtomicIntegerArray(width * height);
+            this.sparseRobots = null;
+        } else {
+            this.robots = null;
+            this.sparseRobots = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return the grid's width
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the grid's height
+     */
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if a cell lies inside the grid.
+     *
+     * @param x the column
+     * @param y the row
+     * @return true if the cell is in the grid
+     */
+    boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Checks if packed coordinates lie inside the grid.
+     *
+     * @param coordinates the packed coordinates
+     * @return true if the coordinates are in the grid
+     */
+    boolean contains(long coordinates) {
+        return contains(x(coordinates), y(coordinates));
+    }
+
+    /**
+     * Gets the obstacle types covering a cell.
+     *
+     * @param x the column
+     * @param y the row
+     * @return a bitmask of TerrainLayer.MOUNTAIN, LAKE and PIT, 0 for open ground or cells outside the grid
+     */
+    byte terrainAt(int x, int y) {
+        return terrain.terrainAt(x, y);
+    }
+
+    /**
+     * Gets the number of robots standing on a cell.
+     *
+     * @param x the column
+     * @param y the row
+     * @return the robot count, 0 for cells outside the grid
+     */
+    int robotsAt(int x, int y) {
+        return contains(x, y) ? count(x, y) : 0;
+    }
+
+    private int count(int x, int y) {
+        if (robots != null) return robots.get(y * width + x);
+        return sparseRobots.getOrDefault((long) y * width + x, 0);
+    }
+
+    private void adjust(long coordinates, int delta) {
+        if (!contains(coordinates)) return;
+        int x = x(coordinates);
+        int y = y(coordinates);
+        if (robots != null) {
+            robots.addAndGet(y * width + x, delta);
+        } else {
+            sparseRobots.merge((long) y * width + x, delta,
+                    (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    /**
+     * Records a robot standing on a cell. Cells outside the grid are ignored.
+     *
+     * @param coordinates the packed coordinates where the robot stands
+     */
+    void addRobot(long coordinates) {
+        adjust(coordinates, 1);
+    }
+
+    /**
+     * Records a robot leaving a cell. Cells outside the grid are ignored.
+     *
+     * @param coordinates the packed coordinates where the robot stood
+     */
+    void removeRobot(long coordinates) {
+        adjust(coordinates, -1);
+    }
+}
@@ -0,0 +1,183 @@
+package za.co.wethinkcode.robots.world;
+
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.maze.TerrainLayer;
+import za.co.wethinkcode.robots.maze.VisibilityTable;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static za.co.wethinkcode.robots.Coordinates.x;
+import static za.co.wethinkcode.robots.Coordinates.y;
+
+/**
+ * The RayCaster answers every straight line query in the world: what a shot hits, which robots a look sees,
+ * and whether a move gets through. A ray starts at a cell, runs in a direction for a number of cells and is
+ * stopped by the first cell covered by one of the blocking obstacle types it is cast with; the cell it starts
+ * on is never counted. Terrain comes from the {@link OccupancyGrid} and robots from the {@link LineIndex},
+ * so a ray reads at most one byte per cell it crosses and finds the robots on it with a lookup on one line.
+ * A ray stopped only by mountains is a line of sight, and within the visibility range the world's
+ * {@link VisibilityTable} already holds where the first mountain is in each direction from each cell,
+ * so those rays read it from there instead of walking the terrain again.
+ * <p>
+ * Cells outside the world hold no obstacles or robots, and a ray that leaves the world stops walking there.
+ */
+public final class RayCaster {
+    /** The distance at which a ray is blocked when nothing in range blocks it */
+    public static final int CLEAR = Integer.MAX_VALUE;
+    private static final int MOUNTAIN = ObstacleType.MOUNTAIN.ordinal();
+
+    private final OccupancyGrid grid;
+    private final LineIndex lines;
+    private final Supplier<VisibilityTable> sightlines;
+
+    /**
+     * Constructs a ray caster over a world's grid and robot index.
+     *
+     * @param grid the terrain and robot counts of every cell
+     * @param lines the robots of every row and column
+     * @param sightlines gets the world's current visibility table
+     */
+    RayCaster(OccupancyGrid grid, LineIndex lines, Supplier<VisibilityTable> sightlines) {
+        this.grid = grid;
+        this.lines = lines;
+        this.sightlines = sightlines;
+    }
+
+    /**
+     * Finds the first cell on a ray covered by one of the given obstacle types.
+     *
+     * @param origin the packed coordinates the ray starts from
+     * @param direction which way the ray goes
+     * @param range how many cells the ray goes
+     * @param blocking a bitmask of TerrainLayer types that stop the ray
+     * @return the distance of the first such cell, or CLEAR if there is none in range
+     */
+    public int blockedAt(long origin, Direction direction, int range, byte blocking) {
+        if (blocking == 0) return CLEAR;
+        int x = x(origin);
+        int y = y(origin);
+        if (blocking == TerrainLayer.MOUNTAIN && grid.contains(x, y)) {
+            VisibilityTable table = sightlines.get();
+            if (range <= table.getRange()) return mountainInSight(table.sightlines(x, y), direction, range);
+        }
+        int limit = Math.min(range, cellsInside(origin, direction));
+        int stepX = Coordinates.dx(direction);
+        int stepY = Coordinates.dy(direction);
+        for (int distance = 1; distance <= limit; distance++) {
+            if ((grid.terrainAt(x + stepX * distance, y + stepY * distance) & blocking) != 0) return distance;
+        }
+        return CLEAR;
+    }
+
+    /**
+     * Finds the robot a ray reaches first. A robot on or behind the first blocking cell is not reached.
+     * Only the cells up to the robot are walked, so a shot with nobody in front of it reads no terrain.
+     *
+     * @param origin the packed coordinates the ray starts from
+     * @param direction which way the ray goes
+     * @param range how many cells the ray goes
+     * @param blocking a bitmask of TerrainLayer types that stop the ray
+     * @return the closest robot the ray reaches, or null if there is none
+     */
+    public Robot firstRobot(long origin, Direction direction, int range, byte blocking) {
+        Robot robot = lines.nearest(origin, direction, range);
+        if (robot == null) return null;
+        int distance = Coordinates.distance(origin, robot.getCoordinates(), direction);
+        return blockedAt(origin, direction, distance, blocking) == CLEAR ? robot : null;
+    }
+
+    /**
+     * Checks that a ray crosses no blocking cell and no robot. This is the check a move makes,
+     * so it counts the robots on each cell from the grid rather than looking them up.
+     *
+     * @param origin the packed coordinates the ray starts from
+     * @param direction which way the ray goes
+     * @param range how many cells the ray goes
+     * @param blocking a bitmask of TerrainLayer types that stop the ray
+     * @return true if every cell in range is free
+     */
+    public boolean isClear(long origin, Direction direction, int range, byte blocking) {
+        int limit = Math.min(range, cellsInside(origin, direction));
+        int stepX = Coordinates.dx(direction);
+        int stepY = Coordinates.dy(direction);
+        for (int distance = 1; distance <= limit; distance++) {
+            int x = x(origin) + stepX * distance;
+            int y = y(origin) + stepY * distance;
+            if (!grid.contains(x, y)) continue;
+            if ((grid.terrainAt(x, y) & blocking) != 0 || grid.robotsAt(x, y) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Casts a ray and gathers everything on it: where it is blocked and the robots in front of that.
+     *
+     * @param origin the packed coordinates the ray starts from
+     * @param direction which way the ray goes
+     * @param range how many cells the ray goes
+     * @param blocking a bitmask of TerrainLayer types that stop the ray
+     * @return what the ray found
+     */
+    public Ray cast(long origin, Direction direction, int range, byte blocking) {
+        int blockedAt = blockedAt(origin, direction, range, blocking);
+        byte blockedBy = 0;
+        if (blockedAt != CLEAR) {
+            long cell = Coordinates.step(origin, direction, blockedAt);
+            blockedBy = (byte) (grid.terrainAt(x(cell), y(cell)) & blocking);
+        }
+        List<Robot> robots = lines.inLine(origin, direction, blockedAt == CLEAR ? range : blockedAt - 1);
+        return new Ray(blockedAt, blockedBy, robots);
+    }
+
+    /**
+     * Reads the first mountain in a direction from a cell's sightlines, which end at it if there is one.
+     */
+    private static int mountainInSight(int[] cell, Direction direction, int range) {
+        int end = VisibilityTable.end(cell, direction);
+        if (end == VisibilityTable.start(cell, direction)) return CLEAR;
+        int last = cell[end - 1];
+        if (VisibilityTable.kind(last) != MOUNTAIN) return CLEAR;
+        int distance = VisibilityTable.distance(last);
+        return distance <= range ? distance : CLEAR;
+    }
+
+    /**
+     * Counts the cells from a start, not counting it, to the edge of the world in a direction.
+     * A start outside the world that is heading into it counts the cells up to the far edge.
+     */
+    private int cellsInside(long origin, Direction direction) {
+        int x = x(origin);
+        int y = y(origin);
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        return Math.max(0, switch (direction) {
+            case NORTH -> y;
+            case SOUTH -> height - 1 - y;
+            case WEST -> x;
+            case EAST -> width - 1 - x;
+        });
+    }
+
+    /**
+     * What a ray found.
+     *
+     * @param blockedAt the distance of the first blocking cell, or CLEAR
+     * @param blockedBy the TerrainLayer types that blocked the ray there, or 0
+     * @param robots the robots in front of the blocking cell, closest first
+     */
+    public record Ray(int blockedAt, byte blockedBy, List<Robot> robots) {
+
+        /**
+         * Checks whether something stopped the ray before its range ran out.
+         *
+         * @return true if the ray was blocked
+         */
+        public boolean isBlocked() {
+            return blockedAt != CLEAR;
+        }
+    }
+}
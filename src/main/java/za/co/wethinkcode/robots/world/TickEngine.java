@@ -0,0 +1,272 @@
+package za.co.wethinkcode.robots.world;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The TickEngine class applies client requests to a World at a fixed rate.
+ * Requests that arrive during a tick are collected and applied together at the start of the next one,
+ * in one batched pass over the world. Clients get their responses once the whole tick has been applied.
+ * <p>
+ * Within a tick, requests are applied in a fixed order: launches, then turns, then moves, then fires,
+ * then everything else (look, state, ...), and within each of those by robot name.
+ * So when two robots move into the same cell, the robot whose name sorts first gets it and the other
+ * is obstructed, whichever request reached the server first. Looks see where everyone ended up.
+ * <p>
+ * A robot's own requests are always applied in the order they arrived. A pipelining client can have several
+ * in one tick, so a request is moved up to the phase of the same robot's request before it when that phase
+ * is later: "forward, turn, forward" stays a move, a turn and a move instead of a turn and two moves.
+ */
+public class TickEngine implements WorldExecutor {
+    private static final Comparator<Request<?>> APPLY_ORDER = Comparator
+            .comparingInt((Request<?> request) -> request.phase)
+            .thenComparing(request -> request.robotName)
+            .thenComparingInt(request -> request.arrival);
+
+    private final World world;
+    private final long tickNanos;
+    private final Queue<Request<?>> inbox = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService ticker;
+    private volatile boolean running = true;
+
+    private final LongAdder completed = new LongAdder();
+    private long ticks;
+    private long overruns;
+    private long tickNanosTotal;
+    private long maxTickNanos;
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    /**
+     * Constructs a TickEngine for the given world.
+     *
+     * @param world the world this engine applies requests to
+     * @param ticksPerSecond how many ticks to run each second
+     */
+    public TickEngine(World world, int ticksPerSecond) {
+        if (ticksPerSecond <= 0) throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        this.world = world;
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+    }
+
+    /**
+     * Starts the tick thread.
+     */
+    @Override
+    public synchronized void start() {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "world-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the tick thread. Requests still waiting for a tick fail with an IllegalStateException.
+     */
+    @Override
+    public synchronized void shutdown() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdown();
+            try {
+                ticker.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Request<?> request;
+        while ((request = inbox.poll()) != null) {
+            request.future.completeExceptionally(new IllegalStateException("Tick engine is not running"));
+        }
+    }
+
+    /**
+     * Queues a client request for the next tick.
+     *
+     * @param robotName the robot the request is for, used to order requests within the tick
+     * @param commandName the command being requested, used to order requests within the tick
+     * @param action the work to run, given the world
+     * @param <T> the type of the result
+     * @return a future completed at the end of the tick the request was applied in
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(String robotName, String commandName, Function<World, T> action) {
+        Request<T> request = new Request<>(robotName, commandName, action);
+        if (!running) {
+            request.future.completeExceptionally(new IllegalStateException("Tick engine is not running"));
+            return request.future;
+        }
+        inbox.offer(request);
+        if (!running && inbox.remove(request)) {
+            request.future.completeExceptionally(new IllegalStateException("Tick engine is not running"));
+        }
+        return request.future;
+    }
+
+    /**
+     * Runs one tick: applies every queued request in a single batch and then completes their futures.
+     * Called by the tick thread; tests call it directly to step the world without waiting for the clock.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        List<Request<?>> batch = new ArrayList<>();
+        Request<?> request;
+        while ((request = inbox.poll()) != null) batch.add(request);
+
+        if (!batch.isEmpty()) {
+            keepEachRobotInOrder(batch);
+            batch.sort(APPLY_ORDER);
+            try {
+                applyBatch(batch);
+            } catch (Throwable e) {
+                // Never let a tick throw, or the scheduler would quietly cancel every tick after it
+                System.out.println("Tick failed: " + e);
+            }
+            // Count the batch before waking anyone, so a woken client sees its own request in the metrics
+            completed.add(batch.size());
+            maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+            for (Request<?> next : batch) next.complete();
+        }
+
+        long took = System.nanoTime() - start;
+        synchronized (this) {
+            ticks++;
+            tickNanosTotal += took;
+            maxTickNanos = Math.max(maxTickNanos, took);
+            if (took > tickNanos) overruns++;
+        }
+    }
+
+    /**
+     * Numbers the batch in arrival order and moves each request up to the phase of its robot's previous one,
+     * so sorting by phase never puts a robot's later request before an earlier one.
+     */
+    private static void keepEachRobotInOrder(List<Request<?>> batch) {
+        Map<String, Integer> lastPhase = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Request<?> request = batch.get(i);
+            request.arrival = i;
+            if (request.robotName.isEmpty()) continue;
+            request.phase = Math.max(request.phase, lastPhase.getOrDefault(request.robotName, 0));
+            lastPhase.put(request.robotName, request.phase);
+        }
+    }
+
+    private void applyBatch(List<Request<?>> batch) {
+        world.beginBatch();
+        try {
+            for (Request<?> next : batch) next.apply(world);
+        } finally {
+            world.endBatch();
+        }
+    }
+
+    /**
+     * Gets the number of requests that have been applied to the world.
+     *
+     * @return the completed count
+     */
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of ticks run so far.
+     *
+     * @return the tick count
+     */
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the number of ticks that took longer than the tick period.
+     *
+     * @return the overrun count
+     */
+    public synchronized long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Gets the largest number of requests applied in one tick.
+     *
+     * @return the maximum batch size
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * Formats the tick metrics for the server console.
+     *
+     * @return a one line summary of the metrics
+     */
+    @Override
+    public synchronized String getStats() {
+        double averageMillis = ticks == 0 ? 0 : tickNanosTotal / 1e6 / ticks;
+        return String.format("Tick engine: %d ticks at %.1f ms, %d requests applied, batch max %d, "
+                        + "tick avg %.2f ms max %.2f ms, %d overruns",
+                ticks, tickNanos / 1e6, getCompleted(), getMaxBatchSize(),
+                averageMillis, maxTickNanos / 1e6, overruns);
+    }
+
+    /**
+     * Orders commands within a tick, lower phases are applied first.
+     *
+     * @param commandName the command being requested
+     * @return the phase the command is applied in
+     */
+    static int phaseOf(String commandName) {
+        return switch (commandName) {
+            case "launch" -> 0;
+            case "turn" -> 1;
+            case "forward", "back" -> 2;
+            case "fire" -> 3;
+            default -> 4;
+        };
+    }
+
+    /**
+     * One queued request, holding its result until the end of the tick.
+     */
+    private static final class Request<T> {
+        private final String robotName;
+        private int phase;
+        private int arrival;
+        private final Function<World, T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable failure;
+
+        private Request(String robotName, String commandName, Function<World, T> action) {
+            this.robotName = robotName == null ? "" : robotName;
+            this.phase = phaseOf(commandName);
+            this.action = action;
+        }
+
+        private void apply(World world) {
+            try {
+                result = action.apply(world);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        private void complete() {
+            if (failure != null) future.completeExceptionally(failure);
+            else future.complete(result);
+        }
+    }
+}
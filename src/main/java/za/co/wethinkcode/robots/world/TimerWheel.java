@@ -0,0 +1,230 @@
+package za.co.wethinkcode.robots.world;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TimerWheel class runs delayed tasks, such as finishing a robot's reload or repair, without parking a thread per task.
+ * Timers are hashed into a ring of buckets by the tick they are due on. Each tick only looks at one bucket,
+ * so scheduling is constant time and a hundred thousand pending timers cost one small object each.
+ * <p>
+ * The wheel keeps its own clock in milliseconds, starting at 0. {@link #start()} drives it from the real clock
+ * on one daemon thread; tests leave it stopped and move the clock themselves with {@link #advanceTo(long)}.
+ * Tasks run on whichever thread advances the clock, while it holds the wheel's lock, so they must be short
+ * and must never block, on a client's output least of all: a task hands anything longer to another executor.
+ */
+public class TimerWheel {
+    private static TimerWheel instance;
+
+    private final long tickMillis;
+    private final Timer[] buckets;
+    private final int mask;
+    private final Queue<Timer> added = new ConcurrentLinkedQueue<>();
+    private volatile long now;
+    private long tick;
+    private int pending;
+    private ScheduledExecutorService clock;
+
+    /**
+     * Constructs a stopped wheel.
+     *
+     * @param tickMillis how many milliseconds each tick covers
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     */
+    public TimerWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        if (wheelSize <= 0) throw new IllegalArgumentException("Wheel size must be positive: " + wheelSize);
+        this.tickMillis = tickMillis;
+        int size = 1;
+        while (size < wheelSize) size <<= 1;
+        this.buckets = new Timer[size];
+        this.mask = buckets.length - 1;
+    }
+
+    /**
+     * Gets the wheel shared by every robot, started on the real clock the first time it is asked for.
+     *
+     * @return the shared wheel
+     */
+    public static synchronized TimerWheel getInstance() {
+        if (instance == null) {
+            instance = new TimerWheel(10, 512);
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts moving the clock forward in real time on a daemon thread.
+     */
+    public synchronized void start() {
+        if (clock != null) return;
+        long startNanos = System.nanoTime();
+        long offset = now;
+        clock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "timer-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        clock.scheduleAtFixedRate(() -> {
+            // Never let a run throw, or the scheduler would quietly stop the clock and no timer would fire again
+            try {
+                advanceTo(offset + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            } catch (Throwable e) {
+                System.out.println("Timer wheel tick failed: " + e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the real clock. Timers that are still pending stay pending.
+     */
+    public synchronized void shutdown() {
+        if (clock != null) {
+            clock.shutdownNow();
+            clock = null;
+        }
+    }
+
+    /**
+     * Schedules a task to run once, after a delay.
+     * The task runs on the first tick at or after the delay has passed, so it may be up to one tick late.
+     *
+     * @param delayMillis how long to wait, in milliseconds
+     * @param task the task to run
+     * @return a handle that can cancel the timer
+     */
+    public Timer schedule(long delayMillis, Runnable task) {
+        long due = now + Math.max(0, delayMillis);
+        Timer timer = new Timer((due + tickMillis - 1) / tickMillis, task);
+        added.add(timer);
+        return timer;
+    }
+
+    /**
+     * Moves the clock forward, running every timer that falls due on the way, in the order they are due.
+     *
+     * @param nowMillis the new time in milliseconds; times earlier than the current one are ignored
+     */
+    public synchronized void advanceTo(long nowMillis) {
+        if (nowMillis < now) return;
+        long lastTick = nowMillis / tickMillis;
+        while (tick <= lastTick) {
+            now = Math.max(now, tick * tickMillis);
+            drainAdded();
+            expire(tick);
+            tick++;
+        }
+        now = nowMillis;
+        drainAdded();
+    }
+
+    /**
+     * Gets the wheel's current time.
+     *
+     * @return the time in milliseconds
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Gets the number of timers waiting to run.
+     *
+     * @return the number of pending timers, including ones scheduled since the last tick
+     */
+    public synchronized int pending() {
+        drainAdded();
+        return pending;
+    }
+
+    /**
+     * Moves newly scheduled timers into their buckets. A timer already due goes into the current tick's bucket.
+     */
+    private void drainAdded() {
+        Timer timer;
+        while ((timer = added.poll()) != null) {
+            if (timer.cancelled) continue;
+            if (timer.dueTick < tick) timer.dueTick = tick;
+            int bucket = (int) (timer.dueTick & mask);
+            timer.next = buckets[bucket];
+            buckets[bucket] = timer;
+            pending++;
+        }
+    }
+
+    /**
+     * Runs the timers in one bucket that are due on this tick, leaving the ones due on a later turn of the wheel.
+     * Tasks that schedule new timers are fine: the new timers are picked up on the next drain.
+     */
+    private void expire(long currentTick) {
+        int bucket = (int) (currentTick & mask);
+        Timer timer = buckets[bucket];
+        Timer kept = null;
+        Timer due = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.cancelled) {
+                pending--;
+            } else if (timer.dueTick <= currentTick) {
+                timer.next = due;
+                due = timer;
+                pending--;
+            } else {
+                timer.next = kept;
+                kept = timer;
+            }
+            timer = next;
+        }
+        buckets[bucket] = kept;
+        while (due != null) {
+            Timer next = due.next;
+            due.next = null;
+            due.run();
+            due = next;
+        }
+    }
+
+    /**
+     * A task waiting on the wheel.
+     */
+    public static final class Timer {
+        private long dueTick;
+        private final Runnable task;
+        private volatile boolean cancelled;
+        private Timer next;
+
+        private Timer(long dueTick, Runnable task) {
+            this.dueTick = dueTick;
+            this.task = task;
+        }
+
+        /**
+         * Stops the task from running, if it has not run yet.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Checks if the timer was cancelled.
+         *
+         * @return true if cancel was called
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void run() {
+            if (cancelled) return;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                System.out.println("Timer task failed: " + e);
+            }
+        }
+    }
+}
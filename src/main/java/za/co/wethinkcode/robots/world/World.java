@@ -1,16 +1,28 @@
 package za.co.wethinkcode.robots.world;
 
 
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
 import za.co.wethinkcode.robots.OperationalStatus;
 import za.co.wethinkcode.robots.Position;
 import za.co.wethinkcode.robots.UpdateResponse;
+import za.co.wethinkcode.robots.maze.AreaIndex;
 import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.maze.TerrainLayer;
+import za.co.wethinkcode.robots.maze.VisibilityTable;
 import za.co.wethinkcode.robots.obstacle.*;
 import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.WorldEvent.Type;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static za.co.wethinkcode.robots.Direction.*;
 import static za.co.wethinkcode.robots.config.Config.*;
 import static za.co.wethinkcode.robots.UpdateResponse.*;
 
@@ -18,6 +30,15 @@ import static za.co.wethinkcode.robots.UpdateResponse.*;
 /**
  * The World class represents the game world where robots and obstacles exist.
  * It contains methods to manage robots, check positions, and update their states.
+ * The world holds no per-client state: every method that acts on a robot is given that robot,
+ * so requests from different clients can be handled in parallel.
+ * Collision checks go through an {@link OccupancyGrid}, and line of sight queries through a {@link LineIndex},
+ * both of which the world keeps in step with every robot's position. Moves, shots and looks are all traced
+ * along a row or column by the same {@link RayCaster} over the two. Robots and obstacles are also filed in
+ * {@link AreaIndex} buckets, for the looks that cover an area rather than four lines.
+ * Changes to robots are recorded in a {@link WorldEventLog} while anyone is spectating.
+ * Every change also moves the world on to a new version and stamps the robot with it, so that
+ * {@link #changesSince(long, long)} can give a client only the robots that changed since the version it holds.
  */
 public class World {
 
@@ -25,10 +46,30 @@ public class World {
     private final Position BOTTOM_RIGHT;
     private final Maze maze;
     private final List<Robot> robots;
-    private Robot currentRobot;
+    private final Map<String, Robot> robotsByName = new ConcurrentHashMap<>();
     private final List<Obstacle> obstacleList;
+    private final TerrainLayer terrain;
+    private final OccupancyGrid grid;
+    private final LineIndex lines;
+    private final RayCaster rays;
+    /** Width and height, in cells, of the buckets robots and obstacles are filed in for area queries */
+    static final int AREA_BUCKET_SIZE = 32;
+    private final AreaIndex<Robot> robotAreas;
+    private final AreaIndex<Obstacle> obstacleAreas;
+    private final LookCache looks = new LookCache();
+    private volatile VisibilityTable visibility;
+    private final WorldEventLog events = new WorldEventLog(EVENT_BUFFER_SIZE);
+    /** Most removed robots remembered for deltas; a client further behind than that gets a full snapshot */
+    static final int MAX_REMOVALS = 4096;
+    private final AtomicLong version = new AtomicLong();
+    private final Deque<Removal> removals = new ConcurrentLinkedDeque<>();
+    private int removalCount;
+    private volatile long removalHorizon;
+    private final long obstacleHash;
     private WorldGUI gui;
     private final boolean GUI;
+    private boolean batching;
+    private boolean guiOutOfDate;
 
     public Position getTOP_LEFT() {
         return TOP_LEFT;
@@ -43,50 +84,206 @@ public class World {
      * Initializes the maze and sets the boundaries of the world.
      */
     public World(boolean GUI) {
-        this.maze = new Maze("");
+        this(GUI, new Maze(""));
+    }
+
+    /**
+     * Constructor for a world around an existing maze.
+     * The boundaries come from the configured HEIGHT and WIDTH; the maze's obstacles are fixed from here on.
+     *
+     * @param GUI whether to show the world in a window
+     * @param maze the maze holding the world's obstacles
+     */
+    public World(boolean GUI, Maze maze) {
+        this.maze = maze;
         this.TOP_LEFT = new Position(0, 0);
         this.BOTTOM_RIGHT = new Position(HEIGHT - 1, WIDTH - 1);
         obstacleList = maze.getObstacles();
+        TerrainLayer terrain = maze.getTerrain();
+        if (terrain.getWidth() != BOTTOM_RIGHT.getX() + 1 || terrain.getHeight() != BOTTOM_RIGHT.getY() + 1) {
+            // The maze was sized for a different configuration
+            terrain = TerrainLayer.rasterize(obstacleList, BOTTOM_RIGHT.getX() + 1, BOTTOM_RIGHT.getY() + 1);
+        }
+        this.terrain = terrain;
+        obstacleHash = hashObstacles(obstacleList, terrain.getWidth(), terrain.getHeight());
+        grid = new OccupancyGrid(terrain);
+        lines = new LineIndex(terrain.getWidth(), terrain.getHeight());
+        rays = new RayCaster(grid, lines, this::getVisibility);
+        robotAreas = new AreaIndex<>(terrain.getWidth(), terrain.getHeight(), AREA_BUCKET_SIZE);
+        obstacleAreas = new AreaIndex<>(terrain.getWidth(), terrain.getHeight(), AREA_BUCKET_SIZE);
+        for (Obstacle obstacle : obstacleList) {
+            obstacleAreas.add(obstacle, obstacle.getTopLeftX(), obstacle.getTopLeftY(),
+                    obstacle.getBottomRightX(), obstacle.getBottomRightY());
+        }
         this.GUI = GUI;
-        robots = new ArrayList<>();
+        robots = new CopyOnWriteArrayList<>();
         if (GUI) gui = new WorldGUI(this);
     }
 
     /**
-     * Sets the current robot by its name.
-     * @param name The name of the robot to set as current.
+     * Finds a robot in the world by its name, without scanning the robot list.
+     * @param name The name of the robot to find.
+     * @return The robot with that name, or null if there is none.
      */
-    public void setCurrentRobotByName(String name) {
-        for (Robot robot : robots) {
-            if (robot.getName().equals(name)) {
-                currentRobot = robot;
-                break;
-            }
+    public Robot getRobotByName(String name) {
+        return robotsByName.get(name);
+    }
+
+    /**
+     * Returns the list of obstacles in the maze.
+     * @return A list of obstacles.
+     */
+    public List<Obstacle> getObstacles() {
+        return maze.getObstacles();
+    }
+
+    /**
+     * Returns the obstacles rasterized onto the world's cells.
+     * @return The terrain layer.
+     */
+    public TerrainLayer getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Returns what robots can see of the terrain from each cell, within the configured visibility.
+     * The table is built once and kept; it is only built again if the visibility setting changes.
+     * @return The visibility table.
+     */
+    public VisibilityTable getVisibility() {
+        VisibilityTable table = visibility;
+        if (table == null || table.getRange() != VISIBILITY) {
+            table = new VisibilityTable(obstacleList, terrain.getWidth(), terrain.getHeight(), VISIBILITY);
+            visibility = table;
         }
+        return table;
     }
 
     /**
-     * Sets the current robot directly.
-     * @param robot The robot to set as current.
+     * Returns the cache of each robot's last look.
+     * @return The look cache.
      */
-    public void setCurrentRobot(Robot robot) {
-        currentRobot = robot;
+    public LookCache getLookCache() {
+        return looks;
     }
 
     /**
-     * Returns the list of obstacles in the maze.
-     * @return A list of obstacles.
+     * Gets what a look from a cell depends on, to check a cached look against.
+     * Take it before working the look out, so a robot moving during the look makes the cached one stale.
+     * @param coordinates The packed coordinates of the cell looked from.
+     * @return The look's cache key.
      */
-    public List<Obstacle> getObstacles() {
-        return maze.getObstacles();
+    public LookCache.Key lookKey(long coordinates) {
+        return new LookCache.Key(coordinates, VISIBILITY, lines.changes(coordinates));
+    }
+
+    /**
+     * Returns the log that changes to the world's robots are recorded in.
+     * @return The event log.
+     */
+    public WorldEventLog getEvents() {
+        return events;
+    }
+
+    /**
+     * Records a change to a robot: stamps it with a new version and logs it for spectators.
+     * @param type What happened.
+     * @param robot The robot it happened to.
+     */
+    public void record(WorldEvent.Type type, Robot robot) {
+        record(type, robot, null);
     }
 
     /**
-     * Returns the current robot.
-     * @return The current robot.
+     * Records a change involving two robots in the event log, for spectators.
+     * @param type What happened.
+     * @param robot The robot it happened to.
+     * @param other The other robot involved, or null.
      */
-    public Robot getCurrentRobot() {
-        return currentRobot;
+    public void record(WorldEvent.Type type, Robot robot, Robot other) {
+        robot.setVersion(version.incrementAndGet());
+        events.record(type, robot, other);
+    }
+
+    /**
+     * Returns the world's version, which every change to a robot moves on by at least one.
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the hash of the obstacles and the world's size, worked out once when the world is made.
+     * @return The obstacle hash.
+     */
+    public long getObstacleHash() {
+        return obstacleHash;
+    }
+
+    /**
+     * Takes a snapshot of every robot at the current version.
+     * @param clientObstacleHash The obstacle hash the client holds; the obstacles are included if it is different.
+     * @return The full snapshot.
+     */
+    public WorldSnapshot snapshot(long clientObstacleHash) {
+        long current = version.get();
+        List<WorldSnapshot.RobotState> states = new ArrayList<>(robots.size());
+        for (Robot robot : robots) states.add(new WorldSnapshot.RobotState(robot));
+        return new WorldSnapshot(current, -1, obstacleHash, states, List.of(), obstaclesUnless(clientObstacleHash));
+    }
+
+    /**
+     * Takes the changes since a version: the robots added or changed after it and the names of those removed.
+     * Falls back to a full snapshot if the version is not one this world has had, or is older than the
+     * removals it remembers.
+     * @param since The version the client holds.
+     * @param clientObstacleHash The obstacle hash the client holds; the obstacles are included if it is different.
+     * @return The changes, or a full snapshot.
+     */
+    public WorldSnapshot changesSince(long since, long clientObstacleHash) {
+        long current = version.get();
+        if (since < 0 || since > current || since < removalHorizon) return snapshot(clientObstacleHash);
+        List<WorldSnapshot.RobotState> changed = new ArrayList<>();
+        for (Robot robot : robots) {
+            if (robot.getVersion() > since) changed.add(new WorldSnapshot.RobotState(robot));
+        }
+        List<String> removed = new ArrayList<>();
+        for (Iterator<Removal> it = removals.descendingIterator(); it.hasNext(); ) {
+            Removal removal = it.next();
+            if (removal.version() <= since) break;
+            removed.add(removal.name());
+        }
+        return new WorldSnapshot(current, since, obstacleHash, changed, removed, obstaclesUnless(clientObstacleHash));
+    }
+
+    private List<Obstacle> obstaclesUnless(long clientObstacleHash) {
+        return clientObstacleHash == obstacleHash ? null : List.copyOf(obstacleList);
+    }
+
+    private static long hashObstacles(List<Obstacle> obstacles, int width, int height) {
+        // FNV-1a over the size and every obstacle's corners and type
+        long hash = 0xcbf29ce484222325L;
+        long[] fields = new long[5];
+        hash = mix(hash, width);
+        hash = mix(hash, height);
+        for (Obstacle obstacle : obstacles) {
+            fields[0] = obstacle.getTopLeftX();
+            fields[1] = obstacle.getTopLeftY();
+            fields[2] = obstacle.getBottomRightX();
+            fields[3] = obstacle.getBottomRightY();
+            fields[4] = obstacle.getType().ordinal();
+            for (long field : fields) hash = mix(hash, field);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     /**
@@ -98,123 +295,323 @@ public class World {
     }
 
     /**
-     * Adds a robot to the world.
+     * Adds a robot to the world, unless a robot with the same name is already in it.
      * @param robot The robot to add.
+     * @return true if the robot was added, false if its name is taken.
      */
-    public void addRobot(Robot robot) {
+    public boolean addRobot(Robot robot) {
+        if (robotsByName.putIfAbsent(robot.getName(), robot) != null) return false;
+        robot.setPositionListener(this::robotMoved);
+        robot.setStatusListener((changed, from, to) -> record(Type.STATUS, changed));
+        robot.setVersion(version.incrementAndGet());
+        grid.addRobot(robot.getCoordinates());
+        lines.add(robot, robot.getCoordinates());
+        addToArea(robot, robot.getCoordinates());
         robots.add(robot);
+        return true;
+    }
+
+    private void robotMoved(Robot robot, long from, long to) {
+        robot.setVersion(version.incrementAndGet());
+        grid.removeRobot(from);
+        grid.addRobot(to);
+        lines.remove(robot, from);
+        lines.add(robot, to);
+        removeFromArea(robot, from);
+        addToArea(robot, to);
+    }
+
+    private void addToArea(Robot robot, long coordinates) {
+        int x = Coordinates.x(coordinates);
+        int y = Coordinates.y(coordinates);
+        robotAreas.add(robot, x, y, x, y);
+    }
+
+    private void removeFromArea(Robot robot, long coordinates) {
+        int x = Coordinates.x(coordinates);
+        int y = Coordinates.y(coordinates);
+        robotAreas.remove(robot, x, y, x, y);
+    }
+
+    /**
+     * Finds the closest robot in a direction along the row or column of a position.
+     * @param from The position to look from; robots standing on it are not counted.
+     * @param direction The direction to look in.
+     * @param maxDistance How many cells away to look.
+     * @return The closest robot in range, or null if there is none.
+     */
+    public Robot nearestRobot(Position from, Direction direction, int maxDistance) {
+        return nearestRobot(from.pack(), direction, maxDistance);
+    }
+
+    /**
+     * Finds the closest robot in a direction along the row or column of packed coordinates.
+     * @param from The packed coordinates to look from; robots standing on them are not counted.
+     * @param direction The direction to look in.
+     * @param maxDistance How many cells away to look.
+     * @return The closest robot in range, or null if there is none.
+     */
+    public Robot nearestRobot(long from, Direction direction, int maxDistance) {
+        return lines.nearest(from, direction, maxDistance);
     }
 
     /**
-     * Checks if a new position is allowed based on the current robot's position and obstacles.
+     * Finds every robot in a direction along the row or column of a position.
+     * @param from The position to look from; robots standing on it are not counted.
+     * @param direction The direction to look in.
+     * @param maxDistance How many cells away to look.
+     * @return The robots in range, closest first.
+     */
+    public List<Robot> robotsInLine(Position from, Direction direction, int maxDistance) {
+        return lines.inLine(from.pack(), direction, maxDistance);
+    }
+
+    /**
+     * Finds the closest robot in sight in a direction. Mountains block the view, so a robot behind one is not found.
+     * This is what a shot hits.
+     * @param from The packed coordinates to look from; robots standing on them are not counted.
+     * @param direction The direction to look in.
+     * @param maxDistance How many cells away to look.
+     * @return The closest robot in sight, or null if there is none.
+     */
+    public Robot firstRobotInSight(long from, Direction direction, int maxDistance) {
+        return rays.firstRobot(from, direction, maxDistance, TerrainLayer.MOUNTAIN);
+    }
+
+    /**
+     * Traces a line of sight in a direction: where the first mountain stops it and the robots in front of that.
+     * @param from The packed coordinates to look from; robots standing on them are not counted.
+     * @param direction The direction to look in.
+     * @param maxDistance How many cells away to look.
+     * @return What can be seen along the line.
+     */
+    public RayCaster.Ray lineOfSight(long from, Direction direction, int maxDistance) {
+        return rays.cast(from, direction, maxDistance, TerrainLayer.MOUNTAIN);
+    }
+
+    /**
+     * Finds every robot standing in a rectangle of cells, from the buckets the rectangle overlaps.
+     * @param left The smallest x of the rectangle.
+     * @param top The smallest y of the rectangle.
+     * @param right The largest x of the rectangle.
+     * @param bottom The largest y of the rectangle.
+     * @return The robots in the rectangle, in no particular order.
+     */
+    public List<Robot> robotsInArea(int left, int top, int right, int bottom) {
+        List<Robot> found = new ArrayList<>();
+        robotAreas.query(left, top, right, bottom, found);
+        return found;
+    }
+
+    /**
+     * Finds every obstacle covering at least one cell of a rectangle, from the buckets the rectangle overlaps.
+     * @param left The smallest x of the rectangle.
+     * @param top The smallest y of the rectangle.
+     * @param right The largest x of the rectangle.
+     * @param bottom The largest y of the rectangle.
+     * @return The obstacles in the rectangle, in no particular order.
+     */
+    public List<Obstacle> obstaclesInArea(int left, int top, int right, int bottom) {
+        List<Obstacle> found = new ArrayList<>();
+        obstacleAreas.query(left, top, right, bottom, found);
+        return found;
+    }
+
+    /**
+     * Checks if a new position is allowed based on the moving robot's position and obstacles.
+     * Only the cells between the robot and the new position are looked at: the move is blocked by
+     * a robot on any of them, or by a mountain or lake on any of them or on the robot's own cell.
+     * @param currentRobot The robot that is moving.
      * @param newPosition The new position to check.
      * @return true if the new position is allowed, false otherwise.
      */
-    public boolean isNewPositionAllowed(Position newPosition) {
-        for (Robot robot : robots) {
-            if (robot.getName().equals(currentRobot.getName())) continue;
-
-            boolean robotDoesNotBlock = true;
-            if (robot.getPosition().equals(newPosition)) robotDoesNotBlock= false;
-
-            if (robot.getPosition().getY() == currentRobot.getPosition().getY()) {
-                if (currentRobot.getPosition().getX() > robot.getPosition().getX()) {
-                    if (currentRobot.getCurrentDirection() == WEST)
-                        robotDoesNotBlock= newPosition.getX() > robot.getPosition().getX();
-                }
-                else if (currentRobot.getCurrentDirection() == EAST)
-                    robotDoesNotBlock= newPosition.getX() < robot.getPosition().getX();
-            } else if (robot.getPosition().getX() == currentRobot.getPosition().getX()) {
-                if (currentRobot.getPosition().getY() > robot.getPosition().getY()) {
-                    if (currentRobot.getCurrentDirection() == NORTH)
-                        robotDoesNotBlock= newPosition.getY() > robot.getPosition().getY();
-                } else {
-                    if (currentRobot.getCurrentDirection() == NORTH)
-                        robotDoesNotBlock = newPosition.getY() < robot.getPosition().getY();
-                    else {
-                        robotDoesNotBlock = newPosition.getY() < robot.getPosition().getY();
-                    }
-                }
-            }
-            if(robotDoesNotBlock==false) return false;
-        }
+    public boolean isNewPositionAllowed(Robot currentRobot, Position newPosition) {
+        return isNewPositionAllowed(currentRobot, newPosition.pack());
+    }
+
+    /**
+     * Checks if a move to packed coordinates is allowed, without creating any positions.
+     * @param currentRobot The robot that is moving.
+     * @param to The packed coordinates to check.
+     * @return true if the new position is allowed, false otherwise.
+     */
+    public boolean isNewPositionAllowed(Robot currentRobot, long to) {
+        long from = currentRobot.getCoordinates();
+        if (!isPathClear(from, to)) return false;
+        if (grid.contains(to)) return true;
 
+        // Obstacles can reach past the edge of the world, where the grid does not cover them
+        int fromX = Coordinates.x(from);
+        int fromY = Coordinates.y(from);
+        int toX = Coordinates.x(to);
+        int toY = Coordinates.y(to);
         for (Obstacle obstacle : obstacleList) {
-            if ((newPosition.isIn(obstacle.getTopLeft(), obstacle.getBottomRight())
-                    || obstacle.blocksPath(currentRobot.getPosition(), newPosition))
+            if ((obstacle.blocksPosition(toX, toY) || obstacle.blocksPath(fromX, fromY, toX, toY))
                     && obstacle.getType()!= ObstacleType.BOTTOMLESS_PIT) return false;
         }
         return true;
     }
 
     /**
-     * Checks if a new position is allowed for launching based on the current robot's positions and obstacles.
+     * Checks the cells from one position to another for mountains, lakes and robots. The path is traced by the
+     * ray caster; when the two positions are not on the same row or column only the end cell is checked.
+     */
+    private boolean isPathClear(long from, long to) {
+        int x = Coordinates.x(from);
+        int y = Coordinates.y(from);
+        int toX = Coordinates.x(to);
+        int toY = Coordinates.y(to);
+        if (x != toX && y != toY) {
+            return (grid.terrainAt(toX, toY) & TerrainLayer.BLOCKING) == 0 && grid.robotsAt(toX, toY) == 0;
+        }
+        if ((grid.terrainAt(x, y) & TerrainLayer.BLOCKING) != 0) return false;
+        Direction heading = heading(from, to);
+        return rays.isClear(from, heading, Coordinates.distance(from, to, heading), TerrainLayer.BLOCKING);
+    }
+
+    /**
+     * Gets the direction from one position to another on the same row or column, NORTH if they are the same.
+     */
+    private static Direction heading(long from, long to) {
+        int dx = Coordinates.x(to) - Coordinates.x(from);
+        int dy = Coordinates.y(to) - Coordinates.y(from);
+        if (dx != 0) return dx > 0 ? Direction.EAST : Direction.WEST;
+        return dy > 0 ? Direction.SOUTH : Direction.NORTH;
+    }
+
+    /**
+     * Checks if a new position is allowed for launching based on the other robots' positions and obstacles.
+     * @param currentRobot The robot being launched.
      * @param newPosition The new position to check.
      * @return true if the new position is allowed, false otherwise.
      */
-    public boolean isLaunchAllowed(Position newPosition) {
-        for (Robot robot : robots) {
-            if (robot.getName().equals(currentRobot.getName())) continue;
-            if (robot.getPosition().equals(newPosition)) return false;
+    public boolean isLaunchAllowed(Robot currentRobot, Position newPosition) {
+        int x = newPosition.getX();
+        int y = newPosition.getY();
+        if (!grid.contains(x, y)) {
+            for (Obstacle obstacle : obstacleList) {
+                if (obstacle.blocksPosition(x, y)) return false;
+            }
+            return true;
         }
-        for (Obstacle obstacle : obstacleList) {
-            if (newPosition.isIn(obstacle.getTopLeft(), obstacle.getBottomRight())) return false;
+        int others = grid.robotsAt(x, y);
+        if (currentRobot == robotsByName.get(currentRobot.getName()) && currentRobot.getCoordinates() == newPosition.pack()) {
+            others--;
         }
-        return true;
+        return others == 0 && grid.terrainAt(x, y) == 0;
     }
 
 
     /**
-     *checks if robot can move from current position to the new without being obstructed
-     * @param newPos - new position that the bot is attempting to move to
-     * @return boolean that states if bot can move or not.
+     *checks if a mountain stands on a position, blocking anything passing through it
+     * @param newPos - position to check
+     * @return boolean that states if a mountain covers the position.
      */
     public boolean isMovementObstructed(Position newPos){
-        for(Obstacle o : obstacleList){
-            if (o.getType() == ObstacleType.MOUNTAIN){
-                return newPos.isIn(o.getTopLeft(), o.getBottomRight());
-            }
-        }
-        return true;
+        return terrain.has(newPos.getX(), newPos.getY(), TerrainLayer.MOUNTAIN);
     }
 
     /**
-     * Updates the position of the current robot based on the number of steps.
+     *checks if a mountain stands on packed coordinates, without creating a position
+     * @param coordinates - packed coordinates to check
+     * @return boolean that states if a mountain covers the coordinates.
+     */
+    public boolean isMovementObstructed(long coordinates){
+        return terrain.has(Coordinates.x(coordinates), Coordinates.y(coordinates), TerrainLayer.MOUNTAIN);
+    }
+
+    /**
+     * Updates the position of the given robot based on the number of steps.
+     * @param currentRobot The robot to move.
      * @param nrSteps The number of steps to move.
      * @return An UpdateResponse indicating the result of the update.
      */
-    public UpdateResponse updatePosition(int nrSteps) {
+    public UpdateResponse updatePosition(Robot currentRobot, int nrSteps) {
 
-        Position oldPos = getCurrentRobot().getPosition();
-        Position pos = oldPos.newPos(currentRobot.getCurrentDirection(), nrSteps);
+        // Packed coordinates keep the move from creating any objects
+        long oldPos = currentRobot.getCoordinates();
+        long pos = Coordinates.step(oldPos, currentRobot.getCurrentDirection(), nrSteps);
+        boolean inWorld = Coordinates.isIn(pos, TOP_LEFT.getX(), TOP_LEFT.getY(), BOTTOM_RIGHT.getX(), BOTTOM_RIGHT.getY());
 
-        if(pos.isIn(TOP_LEFT, BOTTOM_RIGHT) && isNewPositionAllowed(pos)){
-            getCurrentRobot().setPosition(pos);
-            if (GUI) gui.update();
-            for (Obstacle o : getObstacles()){
-                if (o.getType() == ObstacleType.BOTTOMLESS_PIT && (o.blocksPosition(pos) || o.blocksPath(oldPos, pos))){
-                    getCurrentRobot().setStatus(OperationalStatus.DEAD);
+        if(inWorld && isNewPositionAllowed(currentRobot, pos)){
+            currentRobot.moveTo(pos);
+            record(Type.MOVED, currentRobot);
+            refreshGui();
+            Direction heading = heading(oldPos, pos);
+            int steps = Coordinates.distance(oldPos, pos, heading);
+            if (rays.blockedAt(oldPos, heading, steps, TerrainLayer.PIT) != RayCaster.CLEAR) {
+                currentRobot.setStatus(OperationalStatus.DEAD);
 
-                    return DIED_FELL_IN_PIT;
-                }
+                return DIED_FELL_IN_PIT;
             }
             return SUCCESS;
-        } else if (!pos.isIn(TOP_LEFT, BOTTOM_RIGHT) && isNewPositionAllowed(pos)) {
-            getCurrentRobot().setStatus(OperationalStatus.DEAD);
-            if (GUI)gui.update();
+        } else if (!inWorld && isNewPositionAllowed(currentRobot, pos)) {
+            currentRobot.setStatus(OperationalStatus.DEAD);
+            refreshGui();
             return FAILURE_OUT_OF_BOUNDS;
         }
-        if (GUI) gui.update();
+        refreshGui();
         return FAILURE_OBSTRUCTED;
 
     }
 
+    /**
+     * Starts a batch of updates. GUI refreshes are held back until the batch ends,
+     * so a tick that moves hundreds of robots repaints the world once.
+     */
+    public void beginBatch() {
+        batching = true;
+    }
+
+    /**
+     * Ends a batch of updates and refreshes the GUI if anything in the batch changed it.
+     */
+    public void endBatch() {
+        batching = false;
+        if (guiOutOfDate) {
+            guiOutOfDate = false;
+            refreshGui();
+        }
+    }
+
+    private void refreshGui() {
+        if (!GUI) return;
+        if (batching) guiOutOfDate = true;
+        else gui.update();
+    }
+
     /**
      * deletes robots with a DEAD status
      */
     public void deleteDeadBots(){
-        robots.removeIf(r -> r.getStatus() == OperationalStatus.DEAD);
-        if (GUI) gui.update();
+        for (Robot robot : robots) {
+            if (robot.getStatus() == OperationalStatus.DEAD && robots.remove(robot)) {
+                robotsByName.remove(robot.getName(), robot);
+                robot.setPositionListener(null);
+                robot.setStatusListener(null);
+                events.record(Type.DIED, robot);
+                removed(robot.getName());
+                grid.removeRobot(robot.getCoordinates());
+                lines.remove(robot, robot.getCoordinates());
+                removeFromArea(robot, robot.getCoordinates());
+                looks.remove(robot.getName());
+            }
+        }
+        refreshGui();
+    }
+
+    private synchronized void removed(String name) {
+        removals.add(new Removal(version.incrementAndGet(), name));
+        if (++removalCount > MAX_REMOVALS) {
+            removalHorizon = removals.pollFirst().version();
+            removalCount--;
+        }
+    }
+
+    /**
+     * A robot taken out of the world, and the version it went at.
+     */
+    private record Removal(long version, String name) {
     }
 
     /**
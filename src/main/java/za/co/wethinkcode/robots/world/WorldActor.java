@@ -0,0 +1,261 @@
+package za.co.wethinkcode.robots.world;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * The WorldActor class owns a World and is the only thread that changes it.
+ * Client handlers submit work to a lock-free inbox and get a future back. The world thread
+ * drains the inbox in batches, runs each piece of work in arrival order and completes its future.
+ * It also keeps latency and throughput figures for the inbox.
+ */
+public class WorldActor implements WorldExecutor {
+    private final World world;
+    private final Queue<Task<?>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    private volatile boolean running;
+    private Thread worldThread;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private long startedAt;
+
+    /**
+     * Constructs a WorldActor for the given world.
+     *
+     * @param world the world this actor applies work to
+     */
+    public WorldActor(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Starts the world thread.
+     */
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        startedAt = System.nanoTime();
+        worldThread = new Thread(this::run, "world-actor");
+        worldThread.setDaemon(true);
+        worldThread.start();
+    }
+
+    /**
+     * Stops the world thread once the work already in the inbox is done.
+     * Work submitted after this call fails with an IllegalStateException.
+     */
+    @Override
+    public synchronized void shutdown() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(worldThread);
+    }
+
+    /**
+     * Queues work to be run on the world thread.
+     *
+     * @param action the work to run, given the world
+     * @param <T> the type of the result
+     * @return a future completed with the result of the work, or exceptionally if it threw
+     */
+    public <T> CompletableFuture<T> submit(Function<World, T> action) {
+        Task<T> task = new Task<>(action);
+        if (!running) {
+            task.future.completeExceptionally(new IllegalStateException("World actor is not running"));
+            return task.future;
+        }
+        submitted.increment();
+        inbox.offer(task);
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(worldThread);
+        }
+        if (!running && inbox.remove(task)) {
+            task.future.completeExceptionally(new IllegalStateException("World actor is not running"));
+        }
+        return task.future;
+    }
+
+    /**
+     * Queues a client request to be run on the world thread, in arrival order.
+     *
+     * @param robotName the robot the request is for, not used for ordering
+     * @param commandName the command being requested, not used for ordering
+     * @param action the work to run, given the world
+     * @param <T> the type of the result
+     * @return a future completed with the result of the work, or exceptionally if it threw
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(String robotName, String commandName, Function<World, T> action) {
+        return submit(action);
+    }
+
+    private void run() {
+        while (running || !inbox.isEmpty()) {
+            Task<?> task = inbox.poll();
+            if (task == null) {
+                sleeping.set(true);
+                if (inbox.isEmpty() && running) LockSupport.park(this);
+                sleeping.set(false);
+                continue;
+            }
+            // Batch figures are recorded before each task runs, so they are up to date when its future completes
+            batches.increment();
+            long batchSize = 0;
+            do {
+                maxBatchSize.accumulateAndGet(++batchSize, Math::max);
+                task.run(System.nanoTime());
+            } while ((task = inbox.poll()) != null);
+        }
+        Task<?> task;
+        while ((task = inbox.poll()) != null) {
+            task.future.completeExceptionally(new IllegalStateException("World actor is not running"));
+        }
+    }
+
+    /**
+     * Gets the number of pieces of work submitted so far.
+     *
+     * @return the submitted count
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Gets the number of pieces of work that have finished running.
+     *
+     * @return the completed count
+     */
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of pieces of work waiting in the inbox.
+     *
+     * @return the queue depth
+     */
+    public long getQueueDepth() {
+        return Math.max(0, getSubmitted() - getCompleted());
+    }
+
+    /**
+     * Gets the average time work waited in the inbox before the world thread picked it up.
+     *
+     * @return the average queue latency in microseconds
+     */
+    public double getAverageQueueLatencyMicros() {
+        long done = getCompleted();
+        return done == 0 ? 0 : queueNanos.sum() / 1000.0 / done;
+    }
+
+    /**
+     * Gets the longest time any work waited in the inbox.
+     *
+     * @return the maximum queue latency in microseconds
+     */
+    public double getMaxQueueLatencyMicros() {
+        return maxQueueNanos.get() / 1000.0;
+    }
+
+    /**
+     * Gets the average time the world thread spent running one piece of work.
+     *
+     * @return the average service time in microseconds
+     */
+    public double getAverageServiceMicros() {
+        long done = getCompleted();
+        return done == 0 ? 0 : serviceNanos.sum() / 1000.0 / done;
+    }
+
+    /**
+     * Gets the average number of pieces of work drained from the inbox in one go.
+     *
+     * @return the average batch size
+     */
+    public double getAverageBatchSize() {
+        long drained = batches.sum();
+        return drained == 0 ? 0 : (double) getCompleted() / drained;
+    }
+
+    /**
+     * Gets the largest number of pieces of work drained from the inbox in one go.
+     *
+     * @return the maximum batch size
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * Gets the average number of pieces of work completed per second since the actor started.
+     *
+     * @return the throughput in operations per second
+     */
+    public double getThroughputPerSecond() {
+        long elapsed = System.nanoTime() - startedAt;
+        return elapsed <= 0 ? 0 : getCompleted() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Formats the inbox metrics for the server console.
+     *
+     * @return a one line summary of the metrics
+     */
+    @Override
+    public String getStats() {
+        return String.format("World actor: %d submitted, %d completed, %d queued, %.0f ops/s, "
+                        + "queue latency avg %.1f us max %.1f us, service avg %.1f us, batch avg %.1f max %d",
+                getSubmitted(), getCompleted(), getQueueDepth(), getThroughputPerSecond(),
+                getAverageQueueLatencyMicros(), getMaxQueueLatencyMicros(), getAverageServiceMicros(),
+                getAverageBatchSize(), getMaxBatchSize());
+    }
+
+    /**
+     * One piece of submitted work together with the future its result goes to.
+     */
+    private final class Task<T> {
+        private final Function<World, T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Task(Function<World, T> action) {
+            this.action = action;
+        }
+
+        private void run(long startedAt) {
+            long waited = startedAt - enqueuedAt;
+            queueNanos.add(waited);
+            maxQueueNanos.accumulateAndGet(waited, Math::max);
+            try {
+                T result = action.apply(world);
+                recordService(startedAt);
+                future.complete(result);
+            } catch (Throwable e) {
+                // Errors are caught too, so a bad command fails only its own request and the actor thread lives on
+                recordService(startedAt);
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void recordService(long startedAt) {
+            serviceNanos.add(System.nanoTime() - startedAt);
+            completed.increment();
+        }
+    }
+}
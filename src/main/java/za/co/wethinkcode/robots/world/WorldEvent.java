@@ -0,0 +1,105 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.OperationalStatus;
+import za.co.wethinkcode.robots.robot.Robot;
+
+/**
+ * One change to the world, as recorded in the {@link WorldEventLog} for spectators.
+ * Every event carries the robot's state when it happened, and its JSON form only the parts the change touched.
+ * The values are absolute, a position rather than a step, so applying an event twice leaves a spectator's view the same.
+ *
+ * @param sequence the event's place in the log
+ * @param type what happened
+ * @param robot the name of the robot it happened to
+ * @param coordinates the robot's packed coordinates
+ * @param direction the way the robot faces
+ * @param status the robot's status
+ * @param shields the robot's shields
+ * @param shots the robot's shots
+ * @param other the robot fired at or that fired, or null
+ */
+public record WorldEvent(long sequence, Type type, String robot, long coordinates, Direction direction,
+                         OperationalStatus status, int shields, int shots, String other) {
+
+    /**
+     * The kinds of change recorded.
+     */
+    public enum Type {
+        /** A robot joined the world */
+        LAUNCHED,
+        /** A robot moved */
+        MOVED,
+        /** A robot turned */
+        TURNED,
+        /** A robot fired; other is the robot it hit, if any */
+        FIRED,
+        /** A robot was hit; other is the robot that fired */
+        HIT,
+        /** A robot's status changed, as when a reload or repair starts or ends */
+        STATUS,
+        /** A dead robot was taken out of the world */
+        DIED
+    }
+
+    /**
+     * Records a change to a robot, taking its state as it is now.
+     *
+     * @param sequence the event's place in the log
+     * @param type what happened
+     * @param robot the robot it happened to
+     * @param other the other robot involved, or null
+     */
+    WorldEvent(long sequence, Type type, Robot robot, Robot other) {
+        this(sequence, type, robot.getName(), robot.getCoordinates(), robot.getCurrentDirection(),
+                robot.getStatus(), robot.getShields(), robot.getShots(), other == null ? null : other.getName());
+    }
+
+    /**
+     * Builds the event's JSON form, holding the robot's name and only what the change touched.
+     *
+     * @return the event as a JSON object
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", type.name().toLowerCase());
+        json.addProperty("robot", robot);
+        switch (type) {
+            case LAUNCHED -> {
+                json.add("position", position());
+                json.addProperty("direction", direction.name());
+                json.addProperty("status", status.name());
+                json.addProperty("shields", shields);
+                json.addProperty("shots", shots);
+            }
+            case MOVED -> json.add("position", position());
+            case TURNED -> json.addProperty("direction", direction.name());
+            case FIRED -> {
+                json.addProperty("shots", shots);
+                if (other != null) json.addProperty("hit", other);
+            }
+            case HIT -> {
+                json.addProperty("shields", shields);
+                json.addProperty("status", status.name());
+                json.addProperty("by", other);
+            }
+            case STATUS -> {
+                json.addProperty("status", status.name());
+                json.addProperty("shields", shields);
+                json.addProperty("shots", shots);
+            }
+            case DIED -> { }
+        }
+        return json;
+    }
+
+    private JsonArray position() {
+        JsonArray position = new JsonArray();
+        position.add(Coordinates.x(coordinates));
+        position.add(Coordinates.y(coordinates));
+        return position;
+    }
+}
@@ -0,0 +1,126 @@
+package za.co.wethinkcode.robots.world;
+
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The WorldEventLog is a ring buffer of the most recent {@link WorldEvent}s.
+ * Whatever thread changes the world records the change by claiming the next sequence number and
+ * filling that slot, without taking a lock, so recording costs the command path one small object.
+ * Readers keep their own cursor and copy events out; a reader that falls more than the capacity behind finds
+ * its events overwritten and has to start again from a snapshot of the world.
+ * Nothing is recorded until someone is reading, so a server without spectators pays nothing.
+ */
+public class WorldEventLog {
+    /** Returned by {@link #read} when the events asked for have been overwritten */
+    public static final int LAPPED = -1;
+
+    private final AtomicReferenceArray<WorldEvent> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private volatile boolean recording;
+
+    /**
+     * Constructs a log holding at least the given number of events.
+     *
+     * @param capacity the number of events kept, rounded up to a power of two
+     */
+    public WorldEventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Turns recording on or off. Readers turn it on while they need events.
+     *
+     * @param recording whether to record events
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Checks whether events are being recorded.
+     *
+     * @return true if recording
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records a change to a robot.
+     *
+     * @param type what happened
+     * @param robot the robot it happened to
+     */
+    public void record(WorldEvent.Type type, Robot robot) {
+        record(type, robot, null);
+    }
+
+    /**
+     * Records a change involving two robots, such as a shot.
+     *
+     * @param type what happened
+     * @param robot the robot it happened to
+     * @param other the other robot involved, or null
+     */
+    public void record(WorldEvent.Type type, Robot robot, Robot other) {
+        if (!recording) return;
+        long sequence = next.getAndIncrement();
+        WorldEvent event = new WorldEvent(sequence, type, robot, other);
+        int slot = (int) (sequence & mask);
+        WorldEvent current = slots.get(slot);
+        // A writer that has been lapped while filling its slot must not overwrite the newer event
+        while ((current == null || current.sequence() < sequence) && !slots.compareAndSet(slot, current, event)) {
+            current = slots.get(slot);
+        }
+    }
+
+    /**
+     * Gets the sequence number the next event will have.
+     *
+     * @return the head of the log
+     */
+    public long getHead() {
+        return next.get();
+    }
+
+    /**
+     * Gets the number of events the log keeps.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Copies events out of the log, from a sequence number up to but not including another.
+     * Stops early at an event whose writer has not finished filling its slot, or that has just been overwritten.
+     * Events are immutable and checked against their sequence number, so those copied are always the right ones.
+     *
+     * @param from the first sequence number wanted
+     * @param to the sequence number to stop before
+     * @param into the list the events are added to
+     * @return the number of events added, or {@link #LAPPED} if the first of them has been overwritten
+     */
+    public int read(long from, long to, List<WorldEvent> into) {
+        int count = 0;
+        for (long sequence = from; sequence < to; sequence++) {
+            WorldEvent event = slots.get((int) (sequence & mask));
+            if (event == null || event.sequence() < sequence) break;
+            if (event.sequence() > sequence) {
+                if (count == 0) return LAPPED;
+                break;
+            }
+            into.add(event);
+            count++;
+        }
+        return count;
+    }
+}
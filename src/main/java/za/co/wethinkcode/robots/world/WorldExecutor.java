@@ -0,0 +1,46 @@
+package za.co.wethinkcode.robots.world;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A WorldExecutor owns the thread that applies client requests to a World.
+ * Handlers hand it each request as a piece of work and wait on the returned future for the response.
+ */
+public interface WorldExecutor {
+
+    /**
+     * Starts the thread that applies work to the world.
+     */
+    void start();
+
+    /**
+     * Stops applying work. Work submitted after this call fails with an IllegalStateException.
+     */
+    void shutdown();
+
+    /**
+     * Queues a client request to be applied to the world.
+     *
+     * @param robotName the robot the request is for
+     * @param commandName the command being requested
+     * @param action the work to run, given the world
+     * @param <T> the type of the result
+     * @return a future completed with the result of the work, or exceptionally if it threw
+     */
+    <T> CompletableFuture<T> submit(String robotName, String commandName, Function<World, T> action);
+
+    /**
+     * Gets the number of requests that have been applied to the world.
+     *
+     * @return the completed count
+     */
+    long getCompleted();
+
+    /**
+     * Formats this executor's metrics for the server console.
+     *
+     * @return a one line summary of the metrics
+     */
+    String getStats();
+}
@@ -149,18 +149,12 @@ public class WorldGUI {
         }
 
         // Clear icons of dead robots
-        for (String name : botPreviousPos.keySet()) {
-            boolean isDeadBot = true;
-            for (Robot r : world.getRobots()) {
-                if (r.getName().equals(name)) {
-                    isDeadBot = false;
-                    break;
-                }
-            }
-            if (isDeadBot) {
-                int y = botPreviousPos.get(name).getY();
-                int x = botPreviousPos.get(name).getX();
-                cellLabels[y][x].setIcon(null);
+        Iterator<Map.Entry<String, Position>> previous = botPreviousPos.entrySet().iterator();
+        while (previous.hasNext()) {
+            Map.Entry<String, Position> entry = previous.next();
+            if (world.getRobotByName(entry.getKey()) == null) {
+                cellLabels[entry.getValue().getY()][entry.getValue().getX()].setIcon(null);
+                previous.remove();
             }
         }
 
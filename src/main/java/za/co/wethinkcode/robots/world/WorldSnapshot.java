@@ -0,0 +1,119 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.OperationalStatus;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.List;
+
+/**
+ * A versioned copy of the world's robots, either all of them or only those that changed since an earlier version.
+ * Every change to a robot moves the world on to a new version, so a client that holds version N can ask for
+ * the changes since N and apply them to what it has: first drop the removed robots, then replace or add the rest.
+ * The obstacles never change, so they are only named by a hash, and sent when the client's hash is different.
+ *
+ * @param version the world version the snapshot was taken at
+ * @param since the version the changes are since, or -1 for a full snapshot
+ * @param obstacleHash the hash of the world's obstacle layer
+ * @param robots the robots, or only the robots added or changed since the earlier version
+ * @param removed the names of robots removed since the earlier version; empty in a full snapshot
+ * @param obstacles the obstacles, or null if the client already has them
+ */
+public record WorldSnapshot(long version, long since, long obstacleHash, List<RobotState> robots,
+                            List<String> removed, List<Obstacle> obstacles) {
+
+    /**
+     * Checks whether this snapshot holds every robot rather than changes.
+     *
+     * @return true for a full snapshot
+     */
+    public boolean isFull() {
+        return since < 0;
+    }
+
+    /**
+     * Builds the snapshot's JSON form.
+     *
+     * @return the snapshot as a JSON object
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("version", version);
+        if (!isFull()) json.addProperty("since", since);
+        json.addProperty("full", isFull());
+        json.addProperty("obstacleHash", Long.toHexString(obstacleHash));
+        JsonArray robotsJson = new JsonArray();
+        for (RobotState robot : robots) robotsJson.add(robot.toJson());
+        json.add("robots", robotsJson);
+        if (!isFull()) {
+            JsonArray removedJson = new JsonArray();
+            for (String name : removed) removedJson.add(name);
+            json.add("removed", removedJson);
+        }
+        if (obstacles != null) {
+            JsonArray obstaclesJson = new JsonArray();
+            for (Obstacle obstacle : obstacles) {
+                JsonObject obstacleJson = new JsonObject();
+                obstacleJson.addProperty("type", obstacle.getType().name());
+                obstacleJson.add("from", position(obstacle.getTopLeftX(), obstacle.getTopLeftY()));
+                obstacleJson.add("to", position(obstacle.getBottomRightX(), obstacle.getBottomRightY()));
+                obstaclesJson.add(obstacleJson);
+            }
+            json.add("obstacles", obstaclesJson);
+        }
+        return json;
+    }
+
+    private static JsonArray position(int x, int y) {
+        JsonArray position = new JsonArray();
+        position.add(x);
+        position.add(y);
+        return position;
+    }
+
+    /**
+     * A robot as it was when the snapshot was taken.
+     *
+     * @param name the robot's name
+     * @param make the robot's type
+     * @param coordinates the robot's packed coordinates
+     * @param direction the way the robot faces
+     * @param status the robot's status
+     * @param shields the robot's shields
+     * @param shots the robot's shots
+     */
+    public record RobotState(String name, String make, long coordinates, Direction direction,
+                             OperationalStatus status, int shields, int shots) {
+
+        /**
+         * Copies the state of a robot.
+         *
+         * @param robot the robot
+         */
+        RobotState(Robot robot) {
+            this(robot.getName(), robot.getType(), robot.getCoordinates(), robot.getCurrentDirection(),
+                    robot.getStatus(), robot.getShields(), robot.getShots());
+        }
+
+        /**
+         * Builds the robot's JSON form: its name and the same fields as a robot's state.
+         *
+         * @return the robot as a JSON object
+         */
+        public JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("name", name);
+            json.add("position", position(Coordinates.x(coordinates), Coordinates.y(coordinates)));
+            json.addProperty("make", make);
+            json.addProperty("direction", direction.name());
+            json.addProperty("shields", shields);
+            json.addProperty("shots", shots);
+            json.addProperty("status", status.name());
+            return json;
+        }
+    }
+}
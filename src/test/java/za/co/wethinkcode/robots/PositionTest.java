@@ -93,5 +93,31 @@ class PositionTest {
         assertEquals(5, position1.distanceFrom(position2, Direction.WEST));
     }
 
+    /**
+     * Tests packing a position into a long and back, including negative coordinates outside the world.
+     * Verifies that the coordinates survive the round trip and that stepping matches newPos.
+     */
+    @Test
+    @DisplayName("Test Position Packed Coordinates")
+    void testPackedCoordinates() {
+        Position position = new Position(-3, 7);
+        long packed = position.pack();
+
+        assertEquals(-3, Coordinates.x(packed));
+        assertEquals(7, Coordinates.y(packed));
+        assertEquals(position, Position.of(packed));
+        assertEquals(Coordinates.pack(3, -2), Position.of(Coordinates.pack(3, -2)).pack());
+        for (Direction direction : Direction.values()) {
+            assertEquals(position.newPos(direction, 4), Position.of(Coordinates.step(packed, direction, 4)));
+        }
+    }
 
+    /**
+     * Tests that equal positions have equal hash codes.
+     */
+    @Test
+    @DisplayName("Test Position Hash Code")
+    void testHashCode() {
+        assertEquals(new Position(4, 9).hashCode(), new Position(4, 9).hashCode());
+    }
 }
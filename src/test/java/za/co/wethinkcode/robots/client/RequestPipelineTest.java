@@ -0,0 +1,125 @@
+package za.co.wethinkcode.robots.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RequestPipelineTest.java
+ * This class contains unit tests for the RequestPipeline class.
+ * It checks that replies are matched to requests by id, in any order, and that other messages go to the push handler.
+ */
+class RequestPipelineTest {
+
+    @Test
+    @DisplayName("Replies complete their own requests whatever order they arrive in")
+    void testRepliesMatchedById() throws IOException {
+        RecordingLink link = new RecordingLink();
+        RequestPipeline pipeline = new RequestPipeline(link, 4, message -> fail("unexpected push " + message));
+
+        CompletableFuture<JsonObject> first = pipeline.submit(request("state"));
+        CompletableFuture<JsonObject> second = pipeline.submit(request("look"));
+        assertEquals(2, pipeline.inFlight());
+
+        pipeline.dispatch(reply(link.sent.get(1), "looked"));
+        pipeline.dispatch(reply(link.sent.get(0), "stated"));
+
+        assertEquals("stated", first.join().get("message").getAsString());
+        assertEquals("looked", second.join().get("message").getAsString());
+        assertEquals(0, pipeline.inFlight());
+        assertNotEquals(link.sent.get(0).get("id"), link.sent.get(1).get("id"));
+    }
+
+    @Test
+    @DisplayName("Messages without an id go to the push handler")
+    void testPushesGoToHandler() throws IOException {
+        List<JsonElement> pushes = new ArrayList<>();
+        RequestPipeline pipeline = new RequestPipeline(new RecordingLink(), 1, pushes::add);
+        CompletableFuture<JsonObject> pending = pipeline.submit(request("reload"));
+
+        JsonObject reloaded = new JsonObject();
+        reloaded.addProperty("result", "OK");
+        pipeline.dispatch(reloaded);
+        pipeline.dispatch(new JsonPrimitive("quit"));
+
+        assertEquals(List.of(reloaded, new JsonPrimitive("quit")), pushes);
+        assertFalse(pending.isDone());
+    }
+
+    @Test
+    @DisplayName("Sending waits while the pipeline is full")
+    void testDepthLimitsInFlight() throws Exception {
+        RecordingLink link = new RecordingLink();
+        RequestPipeline pipeline = new RequestPipeline(link, 1, message -> { });
+        pipeline.submit(request("state"));
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+            try {
+                pipeline.submit(request("look"));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+
+        pipeline.dispatch(reply(link.sent.get(0), "stated"));
+        blocked.get(1, TimeUnit.SECONDS);
+        assertEquals(2, link.sent.size());
+    }
+
+    @Test
+    @DisplayName("Requests still waiting fail when the connection closes")
+    void testPendingFailOnClose() throws IOException {
+        RequestPipeline pipeline = new RequestPipeline(new RecordingLink(), 2, message -> { });
+        CompletableFuture<JsonObject> pending = pipeline.submit(request("state"));
+
+        pipeline.listen();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, pending::get);
+        assertInstanceOf(IOException.class, failure.getCause());
+        assertEquals(0, pipeline.inFlight());
+    }
+
+    private static JsonObject request(String command) {
+        JsonObject request = new JsonObject();
+        request.addProperty("robot", "PipeBot");
+        request.addProperty("command", command);
+        return request;
+    }
+
+    private static JsonObject reply(JsonObject request, String message) {
+        JsonObject reply = new JsonObject();
+        reply.addProperty("message", message);
+        reply.add("id", request.get("id"));
+        return reply;
+    }
+
+    /**
+     * A link that keeps what is sent and has nothing to receive.
+     */
+    private static class RecordingLink implements ServerLink {
+        private final List<JsonObject> sent = new ArrayList<>();
+
+        @Override
+        public synchronized void send(JsonObject request) {
+            sent.add(request.deepCopy());
+        }
+
+        @Override
+        public JsonElement receive() {
+            return null;
+        }
+    }
+}
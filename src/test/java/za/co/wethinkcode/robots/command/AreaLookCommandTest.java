@@ -0,0 +1,108 @@
+package za.co.wethinkcode.robots.command;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.look.AreaLookCommand;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.command.look.AreaLookCommand.Shape.*;
+
+/**
+ * Tests for the radius and cone looks, in a 40x40 world with a robot at (20, 20) facing north.
+ */
+class AreaLookCommandTest {
+    private World world;
+    private Robot looker;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = 40;
+        Config.HEIGHT = 40;
+        Config.VISIBILITY = 5;
+        Config.FIELD_OF_VIEW = 90;
+        world = new World(false, new Maze(List.of(
+                new Obstacle(22, 12, 30, 13, ObstacleType.MOUNTAIN),
+                new Obstacle(14, 19, 15, 21, ObstacleType.LAKE),
+                new Obstacle(1, 1, 2, 2, ObstacleType.BOTTOMLESS_PIT)), 40, 40));
+        looker = place("Looker", 20, 20);
+        place("Ahead", 20, 17);
+        place("Diagonal", 24, 17);
+        place("Behind", 20, 24);
+        place("Far", 20, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    private Robot place(String name, int x, int y) {
+        Robot robot = new Robot(name, "sniper");
+        world.addRobot(robot);
+        robot.setPosition(new Position(x, y));
+        return robot;
+    }
+
+    private static List<String> seen(JsonObject response) {
+        List<String> seen = new ArrayList<>();
+        JsonArray objects = response.getAsJsonObject("data").getAsJsonArray("objects");
+        for (int i = 0; i < objects.size(); i++) {
+            JsonObject object = objects.get(i).getAsJsonObject();
+            JsonArray offset = object.getAsJsonArray("offset");
+            seen.add(object.get("type").getAsString() + "@" + offset.get(0).getAsInt() + "," + offset.get(1).getAsInt()
+                    + "/" + object.get("distance").getAsInt() + "/" + object.get("manhattan").getAsInt());
+        }
+        return seen;
+    }
+
+    @Test
+    @DisplayName("A radius look reports everything within range on both axes, closest first, at its nearest cell")
+    void radiusLook() {
+        JsonObject response = new AreaLookCommand(RADIUS, 0).execute(world, looker);
+
+        assertEquals("OK", response.get("result").getAsString());
+        assertEquals("radius", response.getAsJsonObject("data").get("shape").getAsString());
+        assertEquals(List.of("ROBOT@0,-3/3/3", "ROBOT@0,4/4/4", "ROBOT@4,-3/4/7", "LAKE@-5,0/5/5"), seen(response));
+    }
+
+    @Test
+    @DisplayName("A cone look only reports what is inside the field of view in front of the robot")
+    void coneLook() {
+        JsonObject narrow = new AreaLookCommand(CONE, 0).execute(world, looker);
+        assertEquals(90, narrow.getAsJsonObject("data").get("fieldOfView").getAsInt());
+        assertEquals(List.of("ROBOT@0,-3/3/3"), seen(narrow));
+
+        JsonObject wide = new AreaLookCommand(CONE, 180).execute(world, looker);
+        assertEquals(List.of("ROBOT@0,-3/3/3", "ROBOT@4,-3/4/7", "LAKE@-5,0/5/5"), seen(wide));
+    }
+
+    @Test
+    @DisplayName("An obstacle at the edge of a cone is reported at its nearest cell inside the cone")
+    void coneLookClipsObstacles() {
+        Config.VISIBILITY = 8;
+        JsonObject response = new AreaLookCommand(CONE, 90).execute(world, looker);
+
+        assertTrue(seen(response).contains("MOUNTAIN@2,-7/7/9"), seen(response).toString());
+    }
+
+    @Test
+    @DisplayName("A look with no robot is an error")
+    void noRobot() {
+        assertEquals("ERROR", new AreaLookCommand(RADIUS, 0).execute(world, null).get("result").getAsString());
+    }
+}
@@ -0,0 +1,99 @@
+package za.co.wethinkcode.robots.command;
+
+import com.google.gson.JsonArray;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.command.look.AreaLookCommand;
+import za.co.wethinkcode.robots.command.look.LookCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link CommandRegistry} that parses requests into commands.
+ */
+class CommandRegistryTest {
+    private final CommandRegistry registry = CommandRegistry.getStandard();
+
+    /**
+     * Verifies requests with arguments are parsed into commands holding those arguments.
+     */
+    @Test
+    @DisplayName("Requests are parsed into commands holding their arguments")
+    void parsesArguments() {
+        assertEquals(new MoveCommand("forward", 3), registry.parse("forward", "HAL", arguments("3")));
+        assertEquals(new MoveCommand("back", 2), registry.parse("back", "HAL", arguments("2")));
+        assertEquals(new TurnCommand("left"), registry.parse("turn", "HAL", arguments("left")));
+        assertEquals(new LaunchCommand("HAL", "sniper"), registry.parse("launch", "HAL", arguments("sniper")));
+        assertEquals(new SyncCommand(-1, null), registry.parse("sync", "HAL", null));
+        assertEquals(new AreaLookCommand(AreaLookCommand.Shape.RADIUS, 0), registry.parse("look", "HAL", arguments("radius")));
+        assertEquals(new AreaLookCommand(AreaLookCommand.Shape.CONE, 120), registry.parse("look", "HAL", arguments("cone", "120")));
+    }
+
+    /**
+     * Verifies commands without arguments are not created again for every request.
+     */
+    @Test
+    @DisplayName("Commands without arguments are shared between requests")
+    void sharesCommandsWithoutArguments() {
+        assertSame(FireCommand.getInstance(), registry.parse("fire", "HAL", new JsonArray()));
+        assertSame(LookCommand.getInstance(), registry.parse("look", "R2", new JsonArray()));
+        assertSame(LookCommand.getChangesInstance(), registry.parse("look", "R2", arguments("changes")));
+        assertSame(registry.parse("state", "HAL", null), registry.parse("state", "R2", null));
+    }
+
+    /**
+     * Verifies unknown commands and missing or malformed arguments are rejected.
+     */
+    @Test
+    @DisplayName("Unknown commands and bad arguments are rejected")
+    void rejectsBadRequests() {
+        assertFalse(registry.contains("dance"));
+        assertThrows(IllegalArgumentException.class, () -> registry.parse("dance", "HAL", new JsonArray()));
+        assertThrows(RuntimeException.class, () -> registry.parse("forward", "HAL", new JsonArray()));
+        assertThrows(RuntimeException.class, () -> registry.parse("forward", "HAL", arguments("far")));
+        assertThrows(IllegalArgumentException.class, () -> registry.parse("sync", "HAL", arguments("yesterday")));
+        assertThrows(IllegalArgumentException.class, () -> registry.parse("look", "HAL", arguments("around")));
+        assertThrows(IllegalArgumentException.class, () -> registry.parse("look", "HAL", arguments("cone", "400")));
+    }
+
+    /**
+     * Verifies requests parsed on many threads at once each keep their own arguments,
+     * which a single shared command with settable arguments could not promise.
+     */
+    @Test
+    @DisplayName("Requests parsed at once on many threads keep their own arguments")
+    void parsesConcurrently() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> mismatches = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                mismatches.add(threads.submit(() -> {
+                    int wrong = 0;
+                    for (int i = 1; i <= 5_000; i++) {
+                        MoveCommand command = (MoveCommand) registry.parse("forward", "Bot", arguments(String.valueOf(offset + i)));
+                        Thread.yield();
+                        if (command.steps() != offset + i) wrong++;
+                    }
+                    return wrong;
+                }));
+            }
+            for (Future<Integer> result : mismatches) assertEquals(0, (int) result.get(10, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static JsonArray arguments(String... values) {
+        JsonArray arguments = new JsonArray();
+        for (String value : values) arguments.add(value);
+        return arguments;
+    }
+}
@@ -213,7 +213,7 @@ public class DumpCommandTest {
     @Test
     @DisplayName("execute method should return an empty JsonObject")
     void testExecute_ReturnsEmptyJsonObject() {
-        JsonObject result = dumpCommand.execute(mockWorld);
+        JsonObject result = dumpCommand.execute(mockWorld, null);
 
         assertNotNull(result);
         assertEquals(0, result.size());
@@ -37,7 +37,6 @@ public class FireCommandTest {
         mountainObstacle = mock(Obstacle.class);
         fireCommand = FireCommand.getInstance();
 
-        when(mockWorld.getCurrentRobot()).thenReturn(shooter);
         when(mountainObstacle.getType()).thenReturn(ObstacleType.MOUNTAIN);
     }
 
@@ -56,8 +55,9 @@ public class FireCommandTest {
         when(shooter.getPosition()).thenReturn(new Position(0, 0));
         when(shooter.getCurrentDirection()).thenReturn(SOUTH);
         when(target.getPosition()).thenReturn(new Position(0, 1));
+        when(mockWorld.firstRobotInSight(anyLong(), eq(SOUTH), anyInt())).thenReturn(target);
 
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, shooter);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -80,7 +80,7 @@ public class FireCommandTest {
         when(shooter.getPosition()).thenReturn(new Position(0, 0));
         when(shooter.getCurrentDirection()).thenReturn(SOUTH);
         when(target.getPosition()).thenReturn(new Position(0, 28));
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, shooter);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -102,7 +102,7 @@ public class FireCommandTest {
         when(shooter.getCurrentDirection()).thenReturn(SOUTH);
         when(target.getPosition()).thenReturn(new Position(0, 5));
 
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, shooter);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -127,9 +127,9 @@ public class FireCommandTest {
 
         List<Obstacle> obstacles = Collections.singletonList(mountainObstacle);
         when(mockWorld.getObstacles()).thenReturn(obstacles);
-        when(mockWorld.isMovementObstructed(any(Position.class))).thenReturn(true);
+        when(mockWorld.firstRobotInSight(anyLong(), eq(SOUTH), anyInt())).thenReturn(null);
 
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, shooter);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -152,7 +152,7 @@ public class FireCommandTest {
         when(shooter.getCurrentDirection()).thenReturn(SOUTH);
         when(target.getPosition()).thenReturn(new Position(0, 20));
 
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, shooter);
 
         assertEquals("OK", response.get("result").getAsString());
 
@@ -166,8 +166,7 @@ public class FireCommandTest {
     @Test
     @DisplayName("When no current robot exists, execute returns ERROR and no active robot message")
     public void testFireNoCurrentRobot() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-        JsonObject response = fireCommand.execute(mockWorld);
+        JsonObject response = fireCommand.execute(mockWorld, null);
 
         assertEquals("ERROR", response.get("result").getAsString());
 
@@ -8,17 +8,20 @@ import org.junit.jupiter.api.Test;
 import za.co.wethinkcode.robots.Position;
 import za.co.wethinkcode.robots.command.look.LookCommand;
 import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.TerrainLayer;
+import za.co.wethinkcode.robots.maze.VisibilityTable;
 import za.co.wethinkcode.robots.obstacle.Obstacle;
 import za.co.wethinkcode.robots.obstacle.ObstacleType;
 import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.RayCaster;
 import za.co.wethinkcode.robots.world.World;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static za.co.wethinkcode.robots.Direction.*;
 
 public class LookCommandTest {
 
@@ -44,7 +47,6 @@ public class LookCommandTest {
         Config.WIDTH = 20;
         Config.HEIGHT = 20;
 
-        when(mockWorld.getCurrentRobot()).thenReturn(currentRobot);
         when(currentRobot.getPosition()).thenReturn(new Position(5, 5));
         when(currentRobot.getName()).thenReturn("CurrentBot");
         when(otherRobot.getName()).thenReturn("OtherBot");
@@ -57,10 +59,9 @@ public class LookCommandTest {
     @Test
     @DisplayName("When no obstacles or other robots, execute returns OK with edge objects")
     void testLookWithNoObjects() {
-        when(mockWorld.getObstacles()).thenReturn(new ArrayList<>());
-        when(mockWorld.getBots()).thenReturn(List.of(currentRobot));
+        givenObstacles(new ArrayList<>());
 
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -81,10 +82,10 @@ public class LookCommandTest {
     @DisplayName("When another robot is present, execute returns OK with robot data")
     void testLookWithRobot() {
         when(otherRobot.getPosition()).thenReturn(new Position(5, 8));
-        when(mockWorld.getObstacles()).thenReturn(new ArrayList<>());
-        when(mockWorld.getBots()).thenReturn(Arrays.asList(currentRobot, otherRobot));
+        givenObstacles(new ArrayList<>());
+        when(mockWorld.lineOfSight(anyLong(), eq(SOUTH), anyInt())).thenReturn(clearView(otherRobot));
 
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -112,11 +113,10 @@ public class LookCommandTest {
         when(currentRobot.getPosition()).thenReturn(new Position(3, 5));
         when(obstacle.getTopLeft()).thenReturn(new Position(6, 5));
         when(obstacle.getBottomRight()).thenReturn(new Position(10, 10));
-        when(mockWorld.getObstacles()).thenReturn(List.of(obstacle));
-        when(mockWorld.getBots()).thenReturn(List.of(currentRobot));
         when(obstacle.getType()).thenReturn(ObstacleType.MOUNTAIN);
+        givenObstacles(List.of(obstacle));
 
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -144,13 +144,13 @@ public class LookCommandTest {
         when(obstacle.blocksPosition(any())).thenReturn(false);
         when(currentRobot.getPosition()).thenReturn(new Position(3, 5));
         when(otherRobot.getPosition()).thenReturn(new Position(5, 5));
-        when(mockWorld.getBots()).thenReturn(List.of(currentRobot, otherRobot));
         when(obstacle.getBottomRight()).thenReturn(new Position(10, 10));
         when(obstacle.getType()).thenReturn(ObstacleType.MOUNTAIN);
         when(obstacle.getTopLeft()).thenReturn(new Position(7, 5));
-        when(mockWorld.getObstacles()).thenReturn(List.of(obstacle));
+        givenObstacles(List.of(obstacle));
+        when(mockWorld.lineOfSight(anyLong(), eq(EAST), anyInt())).thenReturn(clearView(otherRobot));
 
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -171,6 +171,57 @@ public class LookCommandTest {
         assertTrue(foundObstacle, "Should have found an obstacle");
     }
 
+    /**
+     * Tests the look command execution with a lake overlapping a mountain.
+     * Verifies that both obstacle types are seen where they start.
+     */
+    @Test
+    @DisplayName("When obstacles overlap, execute returns each type at the distance it starts")
+    void testLookWithOverlappingObstacles() {
+        when(currentRobot.getPosition()).thenReturn(new Position(3, 5));
+        givenObstacles(List.of(
+                new Obstacle(6, 4, 8, 6, ObstacleType.LAKE),
+                new Obstacle(7, 5, 9, 5, ObstacleType.MOUNTAIN)));
+
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
+
+        JsonArray objects = response.getAsJsonObject("data").getAsJsonArray("objects");
+        List<String> east = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            JsonObject obj = objects.get(i).getAsJsonObject();
+            if (obj.get("direction").getAsString().equals("EAST")) {
+                east.add(obj.get("type").getAsString() + "@" + obj.get("distance").getAsInt());
+            }
+        }
+        assertEquals(List.of("LAKE@3", "MOUNTAIN@4"), east);
+    }
+
+    /**
+     * Tests the look command execution with a robot in front of a mountain.
+     * Verifies that the robot the line of sight reaches is listed before the mountain that stops it.
+     */
+    @Test
+    @DisplayName("When a mountain is in the way, execute returns the robot before it and then the mountain")
+    void testLookListsRobotBeforeMountain() {
+        when(currentRobot.getPosition()).thenReturn(new Position(3, 5));
+        when(otherRobot.getPosition()).thenReturn(new Position(5, 5));
+        givenObstacles(List.of(new Obstacle(7, 5, 7, 5, ObstacleType.MOUNTAIN)));
+        when(mockWorld.lineOfSight(anyLong(), eq(EAST), anyInt()))
+                .thenReturn(new RayCaster.Ray(4, TerrainLayer.MOUNTAIN, List.of(otherRobot)));
+
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
+
+        JsonArray objects = response.getAsJsonObject("data").getAsJsonArray("objects");
+        List<String> east = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            JsonObject obj = objects.get(i).getAsJsonObject();
+            if (obj.get("direction").getAsString().equals("EAST")) {
+                east.add(obj.get("type").getAsString() + "@" + obj.get("distance").getAsInt());
+            }
+        }
+        assertEquals(List.of("ROBOT@2", "MOUNTAIN@4"), east);
+    }
+
     /**
      * Tests the look command execution with an obstacle that blocks the robot's view.
      * Verifies that the response does not include the blocked robot.
@@ -178,9 +229,7 @@ public class LookCommandTest {
     @Test
     @DisplayName("When an obstacle blocks the view, execute does not return the blocked robot")
     void testLookWithNoCurrentRobot() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, null);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -196,7 +245,7 @@ public class LookCommandTest {
     void testLookWithNoRobotPosition() {
         when(currentRobot.getPosition()).thenReturn(null);
 
-        JsonObject response = lookCommand.execute(mockWorld);
+        JsonObject response = lookCommand.execute(mockWorld, currentRobot);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -213,4 +262,14 @@ public class LookCommandTest {
         LookCommand instance2 = LookCommand.getInstance();
         assertSame(instance1, instance2);
     }
+
+    private void givenObstacles(List<Obstacle> obstacles) {
+        when(mockWorld.getTerrain()).thenReturn(TerrainLayer.rasterize(obstacles, 20, 20));
+        when(mockWorld.getVisibility()).thenReturn(new VisibilityTable(obstacles, 20, 20, Config.VISIBILITY));
+        when(mockWorld.lineOfSight(anyLong(), any(), anyInt())).thenReturn(clearView());
+    }
+
+    private static RayCaster.Ray clearView(Robot... robots) {
+        return new RayCaster.Ray(RayCaster.CLEAR, (byte) 0, List.of(robots));
+    }
 }
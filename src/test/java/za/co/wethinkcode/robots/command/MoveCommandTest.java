@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.robot.Robot;
 import za.co.wethinkcode.robots.world.World;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -13,6 +14,7 @@ import static za.co.wethinkcode.robots.UpdateResponse.*;
 public class MoveCommandTest {
 
     private World mockWorld;
+    private Robot mockRobot;
     private MoveCommand command;
 
     /**
@@ -22,7 +24,8 @@ public class MoveCommandTest {
     @BeforeEach
     void setUp() {
         mockWorld = mock(World.class);
-        command = MoveCommand.getInstance("forward", "5");
+        mockRobot = mock(Robot.class);
+        command = new MoveCommand("forward", 5);
     }
 
     /**
@@ -32,20 +35,15 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When moving forward, execute returns OK and Done message")
     void testForwardMoveSuccess() {
-        when(mockWorld.updatePosition(5)).thenReturn(SUCCESS);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(SUCCESS);
 
-        System.out.println("[DEBUG_LOG] Forward command argument: " + command.getArgument());
-        System.out.println("[DEBUG_LOG] Forward command name: " + command.getName());
-
-        JsonObject response = command.execute(mockWorld);
-
-        System.out.println("[DEBUG_LOG] Response: " + response.toString());
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
         assertEquals("Done", data.get("message").getAsString());
 
-        verify(mockWorld).updatePosition(5);
+        verify(mockWorld).updatePosition(mockRobot, 5);
     }
 
     /**
@@ -55,14 +53,14 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When moving backward, execute returns OK and Done message")
     void testBackwardMoveSuccess() {
-        when(mockWorld.updatePosition(-3)).thenReturn(SUCCESS);
-        command = MoveCommand.getInstance("backward", "3");
+        when(mockWorld.updatePosition(mockRobot, -3)).thenReturn(SUCCESS);
+        command = new MoveCommand("backward", 3);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
 
-        verify(mockWorld).updatePosition(-3);
+        verify(mockWorld).updatePosition(mockRobot, -3);
     }
 
     /**
@@ -72,9 +70,9 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When turning left, execute returns OK and Done message")
     void testMoveObstructed() {
-        when(mockWorld.updatePosition(5)).thenReturn(FAILURE_OBSTRUCTED);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(FAILURE_OBSTRUCTED);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -88,9 +86,9 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When moving out of bounds, execute returns OK and DIED message")
     void testMoveOutOfBounds() {
-        when(mockWorld.updatePosition(5)).thenReturn(FAILURE_OUT_OF_BOUNDS);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(FAILURE_OUT_OF_BOUNDS);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -104,9 +102,9 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When falling in a pit, execute returns OK and DIED message")
     void testMoveFellInPit() {
-        when(mockWorld.updatePosition(5)).thenReturn(DIED_FELL_IN_PIT);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(DIED_FELL_IN_PIT);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -120,15 +118,15 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When command name is invalid, execute throws IllegalArgumentException")
     void testInvalidSteps() {
-        command = MoveCommand.getInstance("forward", "");
+        command = new MoveCommand("forward", 0);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
         assertTrue(data.get("message").getAsString().contains("please enter"));
 
-        verify(mockWorld, never()).updatePosition(anyInt());
+        verify(mockWorld, never()).updatePosition(any(), anyInt());
     }
 
     /**
@@ -138,26 +136,43 @@ public class MoveCommandTest {
     @Test
     @DisplayName("When command name is invalid, execute throws IllegalArgumentException")
     void testNegativeSteps() {
-        MoveCommand negativeCommand = MoveCommand.getInstance("forward", "-5");
+        MoveCommand negativeCommand = new MoveCommand("forward", -5);
 
-        JsonObject response = negativeCommand.execute(mockWorld);
+        JsonObject response = negativeCommand.execute(mockWorld, mockRobot);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
         assertTrue(data.get("message").getAsString().contains("please enter"));
 
-        verify(mockWorld, never()).updatePosition(anyInt());
+        verify(mockWorld, never()).updatePosition(any(), anyInt());
+    }
+
+    /**
+     * Verifies each request's command keeps its own steps, so one client's move cannot change another's.
+     */
+    @Test
+    @DisplayName("Commands made for different requests keep their own steps")
+    void commandsKeepTheirOwnSteps() {
+        MoveCommand first = new MoveCommand("forward", 1);
+        MoveCommand second = new MoveCommand("back", 7);
+        when(mockWorld.updatePosition(mockRobot, 1)).thenReturn(SUCCESS);
+
+        first.execute(mockWorld, mockRobot);
+
+        assertEquals(1, first.steps());
+        assertEquals(7, second.steps());
+        assertEquals("forward", first.getName());
+        assertEquals("back", second.getName());
+        verify(mockWorld).updatePosition(mockRobot, 1);
     }
 
     /**
-     * Verifies singleton behavior of getInstance().
+     * Verifies a move can only be made forward or back.
      */
     @Test
-    @DisplayName("getInstance should return the same instance (Singleton check)")
-    void getInstance_returnsSingletonInstance() {
-        MoveCommand instance1 = MoveCommand.getInstance("forward", "1");
-        MoveCommand instance2 = MoveCommand.getInstance("forward", "1");
-        assertSame(instance1, instance2);
+    @DisplayName("A move in any other direction is rejected when it is made")
+    void invalidDirectionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MoveCommand("sideways", 1));
     }
 
     /**
@@ -168,9 +183,9 @@ public class MoveCommandTest {
     @DisplayName("When robot is obstructed by another robot, execute returns OK with Obstructed message")
     void testMoveObstructedByRobot() {
         // Mock the behavior where the robot is obstructed by another robot
-        when(mockWorld.updatePosition(5)).thenReturn(FAILURE_OBSTRUCTED);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(FAILURE_OBSTRUCTED);
 
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -185,26 +200,26 @@ public class MoveCommandTest {
     @DisplayName("Robot obstructed when moving forward but can retreat backward")
     void testRobotObstructedThenRetreats() {
         // Mock first movement (forward) to be obstructed
-        when(mockWorld.updatePosition(5)).thenReturn(FAILURE_OBSTRUCTED);
+        when(mockWorld.updatePosition(mockRobot, 5)).thenReturn(FAILURE_OBSTRUCTED);
 
-        JsonObject forwardResponse = command.execute(mockWorld);
+        JsonObject forwardResponse = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", forwardResponse.get("result").getAsString());
         JsonObject forwardData = forwardResponse.getAsJsonObject("data");
         assertEquals("Obstructed", forwardData.get("message").getAsString());
 
         // Mock retreat (backward) to be successful
-        when(mockWorld.updatePosition(-3)).thenReturn(SUCCESS);
-        command = MoveCommand.getInstance("backward", "3");
+        when(mockWorld.updatePosition(mockRobot, -3)).thenReturn(SUCCESS);
+        command = new MoveCommand("backward", 3);
 
-        JsonObject backwardResponse = command.execute(mockWorld);
+        JsonObject backwardResponse = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", backwardResponse.get("result").getAsString());
         JsonObject backwardData = backwardResponse.getAsJsonObject("data");
         assertEquals("Done", backwardData.get("message").getAsString());
 
         // Verify both movements were attempted
-        verify(mockWorld).updatePosition(5);
-        verify(mockWorld).updatePosition(-3);
+        verify(mockWorld).updatePosition(mockRobot, 5);
+        verify(mockWorld).updatePosition(mockRobot, -3);
     }
 }
@@ -38,10 +38,9 @@ public class ReloadCommandTest {
     @Test
     @DisplayName("When current robot exists and reload returns true, execute returns OK and Done message")
     void execute_currentRobotExistsAndReloadSucceeds_returnsOkResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
         when(mockRobot.reload()).thenReturn(true);
 
-        JsonObject response = reloadCommand.execute(mockWorld);
+        JsonObject response = reloadCommand.execute(mockWorld, mockRobot);
 
         assertNotNull(response);
         assertEquals("OK", response.get("result").getAsString());
@@ -60,10 +59,9 @@ public class ReloadCommandTest {
     @Test
     @DisplayName("When current robot exists and reload returns false, execute returns ERROR")
     void execute_currentRobotExistsAndReloadFails_returnsErrorResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
         when(mockRobot.reload()).thenReturn(false);
 
-        JsonObject response = reloadCommand.execute(mockWorld);
+        JsonObject response = reloadCommand.execute(mockWorld, mockRobot);
 
         assertNotNull(response);
         assertEquals("ERROR", response.get("result").getAsString());
@@ -83,10 +81,8 @@ public class ReloadCommandTest {
     @Test
     @DisplayName("When no current robot exists, execute should throw NullPointerException")
     void execute_noCurrentRobot_throwsNullPointerException() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-
         assertThrows(NullPointerException.class, () -> {
-            reloadCommand.execute(mockWorld);
+            reloadCommand.execute(mockWorld, null);
         });
         verify(mockRobot, never()).reload();
     }
@@ -101,24 +97,6 @@ public class ReloadCommandTest {
         assertEquals("reload", reloadCommand.getName());
     }
 
-    /**
-     * Verifies command has no single string argument.
-     */
-    @Test
-    @DisplayName("getArgument should be null for ReloadCommand")
-    void getArgument_returnsNull() {
-        assertNull(reloadCommand.getArgument());
-    }
-
-    /**
-     * Verifies command has no JsonArray arguments.
-     */
-    @Test
-    @DisplayName("getArguments (JsonArray) should be null for ReloadCommand")
-    void getArguments_JsonArray_returnsNull() {
-        assertNull(reloadCommand.getArguments());
-    }
-
     /**
      * Verifies singleton behavior of getInstance().
      */
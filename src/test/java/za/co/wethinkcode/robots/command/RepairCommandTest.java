@@ -48,10 +48,9 @@ public class RepairCommandTest {
     @Test
     @DisplayName("When current robot exists and repair() returns true, execute returns OK and Done message")
     void execute_currentRobotExistsAndRepairSucceeds_returnsOkResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
         when(mockRobot.repair()).thenReturn(true);
 
-        JsonObject response = repairCommand.execute(mockWorld);
+        JsonObject response = repairCommand.execute(mockWorld, mockRobot);
 
         assertNotNull(response);
         assertEquals("OK", response.get("result").getAsString());
@@ -70,10 +69,9 @@ public class RepairCommandTest {
     @Test
     @DisplayName("When current robot exists and repair() returns false, execute returns ERROR")
     void execute_currentRobotExistsAndRepairFails_returnsErrorResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
         when(mockRobot.repair()).thenReturn(false);
 
-        JsonObject response = repairCommand.execute(mockWorld);
+        JsonObject response = repairCommand.execute(mockWorld, mockRobot);
 
         assertNotNull(response);
         assertEquals("ERROR", response.get("result").getAsString());
@@ -92,10 +90,8 @@ public class RepairCommandTest {
     @Test
     @DisplayName("When no current robot exists, execute should throw NullPointerException")
     void execute_noCurrentRobot_throwsNullPointerException() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-
         assertThrows(NullPointerException.class, () -> {
-            repairCommand.execute(mockWorld);
+            repairCommand.execute(mockWorld, null);
         });
         verify(mockRobot, never()).repair();
     }
@@ -110,24 +106,6 @@ public class RepairCommandTest {
         assertEquals("repair", repairCommand.getName());
     }
 
-    /**
-     * Verifies command has no single string argument.
-     */
-    @Test
-    @DisplayName("getArgument should be null for RepairCommand")
-    void getArgument_returnsNull() {
-        assertNull(repairCommand.getArgument());
-    }
-
-    /**
-     * Verifies command has no JsonArray arguments.
-     */
-    @Test
-    @DisplayName("getArguments (JsonArray) should be null for RepairCommand")
-    void getArguments_JsonArray_returnsNull() {
-        assertNull(repairCommand.getArguments());
-    }
-
     /**
      * Verifies singleton behavior of getInstance().
      */
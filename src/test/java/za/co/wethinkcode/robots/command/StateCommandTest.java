@@ -35,9 +35,7 @@ public class StateCommandTest {
     @Test
     @DisplayName("When current robot exists, execute returns OK and state follows message")
     void execute_currentRobotExists_returnsOkResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
-
-        JsonObject response = stateCommand.execute(mockWorld);
+        JsonObject response = stateCommand.execute(mockWorld, mockRobot);
 
         assertNotNull(response);
         assertEquals("OK", response.get("result").getAsString());
@@ -54,9 +52,7 @@ public class StateCommandTest {
     @Test
     @DisplayName("When no current robot exists, execute returns ERROR and no active robot message")
     void execute_noCurrentRobot_returnsErrorResponse() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-
-        JsonObject response = stateCommand.execute(mockWorld);
+        JsonObject response = stateCommand.execute(mockWorld, null);
 
         assertNotNull(response);
         assertEquals("ERROR", response.get("result").getAsString());
@@ -76,26 +72,6 @@ public class StateCommandTest {
         assertEquals("state", stateCommand.getName());
     }
 
-    /**
-     * Tests the state command execution when the current robot is not initialized.
-     * Verifies that the response contains an error result and appropriate message.
-     */
-    @Test
-    @DisplayName("getArgument should be null for StateCommand")
-    void getArgument_returnsNull() {
-        assertNull(stateCommand.getArgument());
-    }
-
-    /**
-     * Tests the state command execution when the current robot is not initialized.
-     * Verifies that the response contains an error result and appropriate message.
-     */
-    @Test
-    @DisplayName("getArguments (JsonArray) should be null for StateCommand")
-    void getArguments_JsonArray_returnsNull() {
-        assertNull(stateCommand.getArguments());
-    }
-
     /**
      * Verifies singleton behavior of getInstance().
      */
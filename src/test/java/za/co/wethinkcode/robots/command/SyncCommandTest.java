@@ -0,0 +1,80 @@
+package za.co.wethinkcode.robots.command;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sync command, which catches a client up with the world.
+ */
+class SyncCommandTest {
+    private World world;
+    private Robot robot;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        world = new World(false, new Maze(new ArrayList<>(List.of(new Obstacle(2, 2, 3, 3, ObstacleType.LAKE))),
+                Config.WIDTH, Config.HEIGHT));
+        robot = new Robot("Syncer", "sniper");
+        world.addRobot(robot);
+        robot.setPosition(new Position(10, 10));
+    }
+
+    @Test
+    @DisplayName("Sync without a version answers with every robot and the obstacles")
+    void fullSync() {
+        JsonObject data = sync(new JsonArray()).getAsJsonObject("data");
+
+        assertTrue(data.get("full").getAsBoolean());
+        assertEquals(1, data.getAsJsonArray("robots").size());
+        assertEquals(1, data.getAsJsonArray("obstacles").size());
+        assertEquals(world.getVersion(), data.get("version").getAsLong());
+    }
+
+    @Test
+    @DisplayName("Sync from a version answers with only the changes, and no obstacles if the hash matches")
+    void deltaSync() {
+        JsonObject full = sync(new JsonArray()).getAsJsonObject("data");
+        Robot other = new Robot("Other", "soldier");
+        world.addRobot(other);
+        other.setPosition(new Position(12, 12));
+
+        JsonArray args = new JsonArray();
+        args.add(full.get("version").getAsLong());
+        args.add(full.get("obstacleHash").getAsString());
+        JsonObject data = sync(args).getAsJsonObject("data");
+
+        assertFalse(data.get("full").getAsBoolean());
+        assertEquals(1, data.getAsJsonArray("robots").size());
+        assertEquals("Other", data.getAsJsonArray("robots").get(0).getAsJsonObject().get("name").getAsString());
+        assertFalse(data.has("obstacles"));
+    }
+
+    @Test
+    @DisplayName("Sync with arguments that are not a version rejects the request")
+    void invalidSync() {
+        JsonArray args = new JsonArray();
+        args.add("yesterday");
+
+        assertThrows(IllegalArgumentException.class, () -> SyncCommand.from(args));
+    }
+
+    private JsonObject sync(JsonArray args) {
+        return SyncCommand.from(args).execute(world, robot);
+    }
+}
@@ -24,9 +24,8 @@ public class TurnCommandTest {
     void setUp() {
         mockWorld = mock(World.class);
         mockRobot = mock(Robot.class);
-        when(mockWorld.getCurrentRobot()).thenReturn(mockRobot);
 
-        command = TurnCommand.getInstance("\"right\"");
+        command = new TurnCommand("right");
     }
 
     /**
@@ -36,7 +35,7 @@ public class TurnCommandTest {
     @Test
     @DisplayName("When current robot exists and turns right, execute returns OK and Done message")
     void testTurnRight() {
-        JsonObject response = command.execute(mockWorld);
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -52,8 +51,8 @@ public class TurnCommandTest {
     @Test
     @DisplayName("When current robot exists and turns left, execute returns OK and Done message")
     void testTurnLeft() {
-        command = TurnCommand.getInstance("\"left\"");
-        JsonObject response = command.execute(mockWorld);
+        command = new TurnCommand("left");
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("OK", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -69,8 +68,8 @@ public class TurnCommandTest {
     @Test
     @DisplayName("When current robot exists and turns right with no argument, execute returns OK and Done message")
     void testInvalidDirection() {
-        command = TurnCommand.getInstance("invalid");
-        JsonObject response = command.execute(mockWorld);
+        command = new TurnCommand("invalid");
+        JsonObject response = command.execute(mockWorld, mockRobot);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -86,9 +85,9 @@ public class TurnCommandTest {
     @Test
     @DisplayName("When current robot does not exist, execute returns ERROR")
     void testEmptyArgument() {
-        TurnCommand emptyCommand = TurnCommand.getInstance("");
+        TurnCommand emptyCommand = new TurnCommand("");
 
-        JsonObject response = emptyCommand.execute(mockWorld);
+        JsonObject response = emptyCommand.execute(mockWorld, mockRobot);
 
         assertEquals("ERROR", response.get("result").getAsString());
         JsonObject data = response.getAsJsonObject("data");
@@ -104,20 +103,18 @@ public class TurnCommandTest {
     @Test
     @DisplayName("When current robot is null, execute throws NullPointerException")
     void testNullRobot() {
-        when(mockWorld.getCurrentRobot()).thenReturn(null);
-
-        assertThrows(NullPointerException.class, () -> command.execute(mockWorld));
+        assertThrows(NullPointerException.class, () -> command.execute(mockWorld, null));
     }
 
     /**
-     * Verifies singleton behavior of getInstance().
+     * Verifies turn commands are values: the same direction makes an equal command, and each keeps its own.
      */
     @Test
-    @DisplayName("getInstance should return the same instance (Singleton check)")
-    void getInstance_returnsSingletonInstance() {
-        TurnCommand instance1 = TurnCommand.getInstance("right");
-        TurnCommand instance2 = TurnCommand.getInstance("right");
-        assertSame(instance1, instance2);
+    @DisplayName("Turn commands are equal when they turn the same way")
+    void commandsAreValues() {
+        assertEquals(new TurnCommand("right"), new TurnCommand("right"));
+        assertNotEquals(new TurnCommand("right"), new TurnCommand("left"));
+        assertEquals("turn", command.getName());
     }
 
 }
@@ -0,0 +1,82 @@
+package za.co.wethinkcode.robots.maze;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AreaIndexTest {
+
+    private static List<String> query(AreaIndex<String> index, int left, int top, int right, int bottom) {
+        List<String> found = new ArrayList<>();
+        index.query(left, top, right, bottom, found);
+        found.sort(null);
+        return found;
+    }
+
+    @Test
+    @DisplayName("Points are found in the rectangles that cover them and follow removals")
+    void findsPoints() {
+        AreaIndex<String> index = new AreaIndex<>(100, 100, 8);
+        index.add("a", 3, 3, 3, 3);
+        index.add("b", 50, 60, 50, 60);
+        index.add("c", 99, 99, 99, 99);
+
+        assertEquals(List.of("a"), query(index, 0, 0, 10, 10));
+        assertEquals(List.of("a", "b", "c"), query(index, -5, -5, 200, 200));
+        assertEquals(List.of(), query(index, 4, 4, 49, 59));
+
+        index.remove("b", 50, 60, 50, 60);
+        assertEquals(List.of("a", "c"), query(index, 0, 0, 99, 99));
+    }
+
+    @Test
+    @DisplayName("A rectangle spread over several buckets is reported once, and parts outside the world are ignored")
+    void findsSpreadRectanglesOnce() {
+        AreaIndex<String> index = new AreaIndex<>(100, 100, 8);
+        index.add("wide", 5, 5, 40, 30);
+        index.add("edge", -10, 95, 3, 120);
+        index.add("outside", 120, 120, 130, 130);
+
+        assertEquals(List.of("wide"), query(index, 0, 0, 99, 50));
+        assertEquals(List.of("wide"), query(index, 39, 29, 45, 35));
+        assertEquals(List.of("edge"), query(index, 0, 90, 10, 99));
+        assertEquals(List.of("edge", "wide"), query(index, 0, 0, 99, 99));
+
+        index.remove("wide", 5, 5, 40, 30);
+        assertEquals(List.of("edge"), query(index, 0, 0, 99, 99));
+    }
+
+    @Test
+    @DisplayName("Queries and overlap checks find the same things as checking every rectangle")
+    void matchesScan() {
+        Random random = new Random(7);
+        AreaIndex<String> index = new AreaIndex<>(200, 150, 16);
+        List<int[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(210) - 5;
+            int y = random.nextInt(160) - 5;
+            int[] box = {x, y, x + random.nextInt(20), y + random.nextInt(20)};
+            boxes.add(box);
+            index.add("r" + i, box[0], box[1], box[2], box[3]);
+        }
+        for (int q = 0; q < 200; q++) {
+            int x = random.nextInt(200);
+            int y = random.nextInt(150);
+            int r = random.nextInt(30);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < boxes.size(); i++) {
+                int[] box = boxes.get(i);
+                boolean inWorld = box[2] >= 0 && box[3] >= 0 && box[0] < 200 && box[1] < 150;
+                if (inWorld && box[0] <= x + r && box[2] >= x - r && box[1] <= y + r && box[3] >= y - r) expected.add("r" + i);
+            }
+            expected.sort(null);
+            assertEquals(expected, query(index, x - r, y - r, x + r, y + r));
+            assertEquals(!expected.isEmpty(), index.overlaps(x - r, y - r, x + r, y + r));
+        }
+    }
+}
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import za.co.wethinkcode.robots.config.Config;
 import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 class MazeTest {
 
@@ -70,4 +73,78 @@ class MazeTest {
             }
         }
     }
+
+    /**
+     * Tests that cells shared by overlapping obstacles carry both obstacle types.
+     */
+    @Test
+    @DisplayName("Test Terrain Layer Keeps Both Types Where Obstacles Overlap")
+    void testTerrainLayerOverlappingObstacles() {
+        Maze maze = new Maze(List.of(
+                new Obstacle(2, 2, 5, 5, ObstacleType.MOUNTAIN),
+                new Obstacle(4, 4, 7, 7, ObstacleType.LAKE)), 10, 10);
+        TerrainLayer terrain = maze.getTerrain();
+
+        assertEquals(TerrainLayer.MOUNTAIN, terrain.terrainAt(2, 2));
+        assertEquals(TerrainLayer.MOUNTAIN | TerrainLayer.LAKE, terrain.terrainAt(4, 5));
+        assertEquals(TerrainLayer.LAKE, terrain.terrainAt(7, 7));
+        assertEquals(0, terrain.terrainAt(8, 8));
+        assertEquals(0, terrain.terrainAt(-1, 3));
+        assertEquals(0, terrain.terrainAt(3, 10));
+    }
+
+    /**
+     * Tests that the run-length layer answers every cell the same as the dense layer,
+     * including obstacles that overlap or reach past the edge of the map.
+     */
+    @Test
+    @DisplayName("Test Run-Length Terrain Layer Matches Dense Layer")
+    void testRunLengthMatchesDense() {
+        Random random = new Random(7);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int x = random.nextInt(-5, 50);
+            int y = random.nextInt(-5, 40);
+            obstacles.add(new Obstacle(x, y, x + random.nextInt(8), y + random.nextInt(8),
+                    ObstacleType.values()[i % 3]));
+        }
+        TerrainLayer dense = TerrainLayer.dense(obstacles, 50, 40);
+        TerrainLayer runLength = TerrainLayer.runLength(obstacles, 50, 40);
+
+        for (int y = -1; y <= 40; y++) {
+            for (int x = -1; x <= 50; x++) {
+                assertEquals(dense.terrainAt(x, y), runLength.terrainAt(x, y), "cell " + x + "," + y);
+            }
+        }
+    }
+
+    /**
+     * Tests that huge maps are stored as runs, with memory use that follows the obstacles rather than the area.
+     */
+    @Test
+    @DisplayName("Test Huge Maps Use Run-Length Terrain Layer")
+    void testHugeMapUsesRunLength() {
+        List<Obstacle> obstacles = List.of(
+                new Obstacle(100, 100, 200, 150, ObstacleType.MOUNTAIN),
+                new Obstacle(9000, 9000, 9500, 9999, ObstacleType.BOTTOMLESS_PIT));
+        TerrainLayer terrain = TerrainLayer.rasterize(obstacles, 10000, 10000);
+
+        assertTrue(terrain.describe().startsWith("Terrain layer: run-length 10000x10000"));
+        assertTrue(terrain.memoryBytes() < 64 * 1024, "memory was " + terrain.memoryBytes());
+        assertEquals(TerrainLayer.MOUNTAIN, terrain.terrainAt(150, 120));
+        assertEquals(TerrainLayer.PIT, terrain.terrainAt(9500, 9999));
+        assertEquals(0, terrain.terrainAt(9501, 9999));
+    }
+
+    /**
+     * Tests that the obstacle list cannot be changed behind the terrain layer's back.
+     */
+    @Test
+    @DisplayName("Test Obstacles Cannot Change After The Maze Is Built")
+    void testObstaclesAreReadOnly() {
+        Maze maze = new Maze(new ArrayList<>(), 10, 10);
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> maze.getObstacles().add(new Obstacle(1, 1, 2, 2, ObstacleType.LAKE)));
+    }
 }
@@ -0,0 +1,63 @@
+package za.co.wethinkcode.robots.maze;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObstaclePlacerTest {
+
+    private static boolean shareACell(Obstacle a, Obstacle b) {
+        return a.getTopLeftX() <= b.getBottomRightX() && b.getTopLeftX() <= a.getBottomRightX()
+                && a.getTopLeftY() <= b.getBottomRightY() && b.getTopLeftY() <= a.getBottomRightY();
+    }
+
+    @Test
+    @DisplayName("An obstacle is rejected if it shares any cell with one already placed, even a corner")
+    void rejectsOverlaps() {
+        ObstaclePlacer placer = new ObstaclePlacer(100, 100, new Random(1));
+        assertTrue(placer.add(new Obstacle(5, 5, 3, ObstacleType.MOUNTAIN)));
+        assertFalse(placer.add(new Obstacle(8, 8, 2, ObstacleType.LAKE)));
+        assertFalse(placer.add(new Obstacle(0, 0, 20, ObstacleType.LAKE)));
+        assertTrue(placer.add(new Obstacle(9, 5, 2, ObstacleType.LAKE)));
+        assertTrue(placer.add(new Obstacle(14, 14, 5, ObstacleType.BOTTOMLESS_PIT)), "Fits across a bucket corner");
+        assertFalse(placer.add(new Obstacle(17, 10, 4, ObstacleType.MOUNTAIN)));
+    }
+
+    @Test
+    @DisplayName("Thousands of random obstacles are placed without any two sharing a cell")
+    void placesWithoutOverlaps() {
+        ObstaclePlacer.Placement placement = new ObstaclePlacer(400, 300, new Random(7)).place(2000);
+        List<Obstacle> obstacles = placement.obstacles();
+
+        assertTrue(placement.isComplete());
+        assertEquals(2000, obstacles.size());
+        for (int i = 0; i < obstacles.size(); i++) {
+            Obstacle obstacle = obstacles.get(i);
+            assertTrue(obstacle.getTopLeftX() >= 1 && obstacle.getTopLeftX() < 399);
+            assertTrue(obstacle.getTopLeftY() >= 1 && obstacle.getTopLeftY() < 299);
+            for (int j = i + 1; j < obstacles.size(); j++) {
+                assertFalse(shareACell(obstacle, obstacles.get(j)), obstacle + " overlaps " + obstacles.get(j));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("On a map too small for every obstacle the placer gives up and says how many it placed")
+    void givesUpWhenTheMapIsFull() {
+        ObstaclePlacer.Placement placement = new ObstaclePlacer(12, 12, new Random(3)).place(1000);
+
+        assertFalse(placement.isComplete());
+        assertEquals(1000, placement.requested());
+        assertFalse(placement.obstacles().isEmpty());
+        assertTrue(placement.obstacles().size() < 10);
+        assertTrue(placement.attempts() <= (placement.obstacles().size() + 1L) * ObstaclePlacer.ATTEMPTS_PER_OBSTACLE);
+
+        assertEquals(0, new ObstaclePlacer(2, 2, new Random()).place(5).obstacles().size());
+    }
+}
@@ -0,0 +1,100 @@
+package za.co.wethinkcode.robots.maze;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.Direction.*;
+
+/**
+ * Tests for the {@link VisibilityTable} of what can be seen from each cell.
+ */
+class VisibilityTableTest {
+
+    /**
+     * Verifies obstacles are listed closest first and nothing past the first mountain is.
+     */
+    @Test
+    @DisplayName("Sightlines list obstacles in order and stop at the first mountain")
+    void stopsAtFirstMountain() {
+        VisibilityTable table = new VisibilityTable(List.of(
+                new Obstacle(3, 5, 3, 5, ObstacleType.BOTTOMLESS_PIT),
+                new Obstacle(5, 4, 6, 6, ObstacleType.LAKE),
+                new Obstacle(6, 5, 6, 5, ObstacleType.MOUNTAIN),
+                new Obstacle(8, 5, 8, 5, ObstacleType.LAKE)), 20, 20, 10);
+
+        assertEquals(List.of("BOTTOMLESS_PIT@2", "LAKE@4", "MOUNTAIN@5"), seen(table, 1, 5, EAST));
+        assertEquals(List.of("EDGE@1"), seen(table, 1, 5, WEST));
+    }
+
+    /**
+     * Verifies obstacles of the same type that touch are each seen at their own near face, as on the default map.
+     */
+    @Test
+    @DisplayName("Touching obstacles of the same type are each seen where they start")
+    void seesTouchingObstaclesSeparately() {
+        VisibilityTable table = new VisibilityTable(List.of(
+                new Obstacle(5, 2, 5, 4, ObstacleType.LAKE),
+                new Obstacle(6, 1, 8, 5, ObstacleType.LAKE),
+                new Obstacle(9, 2, 9, 4, ObstacleType.LAKE)), 20, 20, 10);
+
+        assertEquals(List.of("LAKE@4", "LAKE@5", "LAKE@8"), seen(table, 1, 3, EAST));
+        assertEquals(List.of("LAKE@1", "LAKE@2", "LAKE@5"), seen(table, 10, 3, WEST));
+        assertEquals(List.of("LAKE@1", "LAKE@4"), seen(table, 5, 3, EAST), "The lake the robot stands in is not seen");
+    }
+
+    /**
+     * Verifies the edge is seen only when it is within range and no mountain is in the way.
+     */
+    @Test
+    @DisplayName("The edge is seen within range unless a mountain hides it")
+    void seesEdgesInRange() {
+        VisibilityTable table = new VisibilityTable(List.of(new Obstacle(10, 0, 10, 2, ObstacleType.MOUNTAIN)), 20, 20, 5);
+
+        assertEquals(List.of("EDGE@2"), seen(table, 10, 17, SOUTH));
+        assertEquals(List.of(), seen(table, 10, 10, SOUTH));
+        assertEquals(List.of("MOUNTAIN@2"), seen(table, 10, 4, NORTH));
+        assertEquals(List.of("EDGE@0"), seen(table, 0, 10, WEST));
+    }
+
+    /**
+     * Verifies a cell's sightlines are worked out once and cells that see nothing share one array.
+     */
+    @Test
+    @DisplayName("Sightlines are kept after the first look, and empty ones are shared")
+    void keepsSightlines() {
+        VisibilityTable table = new VisibilityTable(List.of(new Obstacle(3, 3, 4, 4, ObstacleType.LAKE)), 40, 40, 5);
+
+        assertSame(table.sightlines(1, 3), table.sightlines(1, 3));
+        assertSame(table.sightlines(20, 20), table.sightlines(21, 21));
+        assertEquals(3, table.getCachedCells());
+    }
+
+    /**
+     * Verifies maps too large to keep every cell still answer, working the sightlines out each time.
+     */
+    @Test
+    @DisplayName("Sightlines on a map above the cache limit are worked out on every look")
+    void largeMapsAreNotCached() {
+        VisibilityTable table = new VisibilityTable(List.of(new Obstacle(100, 10, 100, 10, ObstacleType.MOUNTAIN)), 4096, 2048, 10);
+
+        assertEquals(List.of("MOUNTAIN@5"), seen(table, 95, 10, EAST));
+        assertNotSame(table.sightlines(95, 10), table.sightlines(95, 10));
+        assertEquals(0, table.getCachedCells());
+    }
+
+    private static List<String> seen(VisibilityTable table, int x, int y, Direction direction) {
+        int[] sightlines = table.sightlines(x, y);
+        List<String> seen = new ArrayList<>();
+        for (int i = VisibilityTable.start(sightlines, direction); i < VisibilityTable.end(sightlines, direction); i++) {
+            seen.add(VisibilityTable.typeOf(sightlines[i]) + "@" + VisibilityTable.distance(sightlines[i]));
+        }
+        return seen;
+    }
+}
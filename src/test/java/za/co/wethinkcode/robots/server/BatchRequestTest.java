@@ -0,0 +1,193 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchRequestTest.java
+ * This class contains tests for the batch command, which runs several commands for a robot in one request.
+ */
+class BatchRequestTest {
+    private World world;
+    private Server server;
+    private final List<JsonElement> sent = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Test
+    @DisplayName("A batch runs every command in order and answers once")
+    void testBatchRunsInOrder() {
+        launchAt(new ArrayList<>());
+
+        JsonObject response = batch(commands("forward 2", "turn right", "forward 3", "look"));
+
+        assertEquals("OK", response.get("result").getAsString());
+        JsonArray results = response.getAsJsonObject("data").getAsJsonArray("results");
+        assertEquals(4, results.size());
+        assertEquals("forward", results.get(0).getAsJsonObject().get("command").getAsString());
+        assertEquals("Done", results.get(2).getAsJsonObject().get("message").getAsString());
+        assertTrue(results.get(3).getAsJsonObject().has("objects"));
+        assertFalse(results.get(0).getAsJsonObject().has("state"));
+        assertEquals("[13,8]", response.getAsJsonObject("state").get("position").toString());
+        assertEquals("EAST", response.getAsJsonObject("state").get("direction").getAsString());
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    @DisplayName("A batch stops at the first obstructed command")
+    void testBatchStopsWhenObstructed() {
+        launchAt(List.of(new Obstacle(10, 6, 10, 6, ObstacleType.MOUNTAIN)));
+
+        JsonObject response = batch(commands("forward 2", "forward 3", "turn right"));
+
+        assertEquals("ERROR", response.get("result").getAsString());
+        assertEquals("Stopped at command 2 of 3: Obstructed", response.getAsJsonObject("data").get("message").getAsString());
+        assertEquals(2, response.getAsJsonObject("data").getAsJsonArray("results").size());
+        assertEquals("NORTH", response.getAsJsonObject("state").get("direction").getAsString());
+    }
+
+    @Test
+    @DisplayName("A batch told not to stop runs past a failed command")
+    void testBatchContinuesWhenAsked() {
+        launchAt(List.of(new Obstacle(10, 6, 10, 6, ObstacleType.MOUNTAIN)));
+
+        JsonArray args = new JsonArray();
+        args.add(commands("forward 2", "forward 3", "turn right"));
+        args.add(false);
+        JsonObject response = request("batch", args);
+
+        assertEquals("OK", response.get("result").getAsString());
+        assertEquals(3, response.getAsJsonObject("data").getAsJsonArray("results").size());
+        assertEquals("EAST", response.getAsJsonObject("state").get("direction").getAsString());
+    }
+
+    @Test
+    @DisplayName("A batch accepts command objects and refuses launch and nested batches")
+    void testBatchCommandObjects() {
+        launchAt(new ArrayList<>());
+
+        JsonObject turn = new JsonObject();
+        turn.addProperty("command", "turn");
+        JsonArray turnArgs = new JsonArray();
+        turnArgs.add("left");
+        turn.add("arguments", turnArgs);
+        JsonArray steps = new JsonArray();
+        steps.add(turn);
+        steps.add("launch sniper");
+        JsonObject response = batch(steps);
+
+        JsonArray results = response.getAsJsonObject("data").getAsJsonArray("results");
+        assertEquals("OK", results.get(0).getAsJsonObject().get("result").getAsString());
+        assertEquals("Not allowed in a batch", results.get(1).getAsJsonObject().get("message").getAsString());
+        assertEquals("WEST", response.getAsJsonObject("state").get("direction").getAsString());
+        assertEquals("ERROR", batch(new JsonArray()).get("result").getAsString());
+    }
+
+    @Test
+    @DisplayName("Without a world executor, no other request sees a batch half done")
+    void testDirectBatchIsWhole() throws InterruptedException {
+        launchAt(new ArrayList<>());
+        List<JsonElement> seen = new ArrayList<>();
+        Server watcher = new Server(new RecordingConnection(seen), world);
+
+        Thread turner = new Thread(() -> {
+            for (int i = 0; i < 200; i++) batch(commands("turn right", "turn right", "turn right", "turn right"));
+        });
+        turner.start();
+        while (turner.isAlive()) watcher.handleRequest(new Request("BatchBot", "orientation", new JsonArray()));
+        turner.join();
+
+        assertFalse(seen.isEmpty());
+        for (JsonElement response : seen) {
+            assertEquals("NORTH", response.getAsJsonObject().getAsJsonObject("data").get("orientation").getAsString());
+        }
+    }
+
+    /**
+     * Launches BatchBot into a world with the given obstacles and puts it at (10,10), facing north.
+     */
+    private void launchAt(List<Obstacle> obstacles) {
+        world = new World(false, new Maze(new ArrayList<>(obstacles), Config.WIDTH, Config.HEIGHT));
+        server = new Server(new RecordingConnection(sent), world);
+        JsonArray args = new JsonArray();
+        args.add("sniper");
+        assertEquals("OK", request("launch", args).get("result").getAsString());
+        world.getRobotByName("BatchBot").setPosition(new Position(10, 10));
+        sent.clear();
+    }
+
+    private JsonObject batch(JsonArray commands) {
+        JsonArray args = new JsonArray();
+        args.add(commands);
+        return request("batch", args);
+    }
+
+    private JsonObject request(String command, JsonArray args) {
+        server.handleRequest(new Request("BatchBot", command, args));
+        return sent.get(sent.size() - 1).getAsJsonObject();
+    }
+
+    private static JsonArray commands(String... lines) {
+        JsonArray commands = new JsonArray();
+        for (String line : lines) commands.add(line);
+        return commands;
+    }
+
+    /**
+     * A connection that keeps every response sent on it.
+     */
+    private static class RecordingConnection implements ClientConnection {
+        private final List<JsonElement> sent;
+
+        RecordingConnection(List<JsonElement> sent) {
+            this.sent = sent;
+        }
+
+        @Override
+        public void send(String line) {
+            sent.add(new JsonPrimitive(line));
+        }
+
+        @Override
+        public void send(JsonElement response) {
+            sent.add(response);
+        }
+
+        @Override
+        public void useBinaryFrames() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "test";
+        }
+    }
+}
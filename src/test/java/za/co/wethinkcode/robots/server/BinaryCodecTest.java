@@ -0,0 +1,230 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.client.BinaryServerLink;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.world.World;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link BinaryCodec} binary protocol.
+ */
+class BinaryCodecTest {
+
+    /**
+     * Verifies every opcode request reads back as the request that was written.
+     */
+    @Test
+    @DisplayName("Opcode requests read back as the same command and arguments")
+    void opcodeRequestsRoundTrip() {
+        assertRoundTrip(request("HAL", "forward", 10), 2);
+        assertRoundTrip(request("HAL", "back", -3), 2);
+        assertRoundTrip(request("HAL", "turn", "right"), 2);
+        assertRoundTrip(request("HAL", "turn", "left"), 2);
+        for (String command : new String[]{"look", "fire", "state", "reload", "repair"}) {
+            assertRoundTrip(request("HAL", command), 1);
+        }
+    }
+
+    /**
+     * Verifies a request id travels with an opcode request and with a JSON one.
+     */
+    @Test
+    @DisplayName("Request ids are carried by opcode and JSON requests")
+    void requestIdsRoundTrip() {
+        JsonObject forward = request("HAL", "forward", 10);
+        forward.addProperty("id", 300);
+        JsonObject orientation = request("HAL", "orientation");
+        orientation.addProperty("id", "o-1");
+
+        assertEquals(300, decode(forward, "HAL").id().getAsInt());
+        assertEquals(10, decode(forward, "HAL").arguments().get(0).getAsInt());
+        assertEquals("o-1", decode(orientation, "HAL").id().getAsString());
+        assertNull(decode(request("HAL", "forward", 10), "HAL").id());
+    }
+
+    /**
+     * Verifies a launch names the robot that later opcode requests are for.
+     */
+    @Test
+    @DisplayName("Launch carries the robot name and make")
+    void launchNamesTheRobot() {
+        Request launch = decode(request("HAL", "launch", "sniper"), null);
+
+        assertEquals("HAL", launch.robot());
+        assertEquals("launch", launch.command());
+        assertEquals("sniper", launch.arguments().get(0).getAsString());
+    }
+
+    /**
+     * Verifies opcode requests other than launch need a robot to have been launched.
+     */
+    @Test
+    @DisplayName("Opcode requests before a launch are rejected")
+    void requestWithoutRobotIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> decode(request("HAL", "look"), null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.readRequest(new byte[0], "HAL"));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.readRequest(new byte[]{99}, "HAL"));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.readRequest(new byte[]{BinaryCodec.OP_FORWARD}, "HAL"));
+    }
+
+    /**
+     * Verifies commands and arguments without an opcode fall back to a JSON request in the frame.
+     */
+    @Test
+    @DisplayName("Requests without an opcode travel as JSON")
+    void otherRequestsFallBackToJson() {
+        JsonObject orientation = request("HAL", "orientation");
+        JsonObject badTurn = request("HAL", "turn", "around");
+        JsonObject badSteps = request("HAL", "forward", "far");
+
+        for (JsonObject json : new JsonObject[]{orientation, badTurn, badSteps}) {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            BinaryCodec.writeRequest(json, payload);
+            assertEquals(BinaryCodec.OP_JSON, payload.toByteArray()[0]);
+
+            Request read = BinaryCodec.readRequest(payload.toByteArray(), null);
+            assertEquals("HAL", read.robot());
+            assertEquals(json.get("command").getAsString(), read.command());
+            assertEquals(json.get("arguments"), read.arguments());
+        }
+    }
+
+    /**
+     * Verifies a response reads back as the tree that was written, and is smaller than its JSON.
+     */
+    @Test
+    @DisplayName("Responses read back as the same tree in fewer bytes")
+    void responsesRoundTrip() {
+        JsonElement look = JsonParser.parseString("{\"result\":\"OK\",\"data\":{\"objects\":["
+                + "{\"direction\":\"NORTH\",\"type\":\"MOUNTAIN\",\"distance\":3},"
+                + "{\"direction\":\"EAST\",\"type\":\"ROBOT\",\"distance\":1,\"name\":\"Bob\"}]},"
+                + "\"state\":{\"position\":[-12,40],\"direction\":\"NORTH\",\"shields\":3,\"shots\":5,"
+                + "\"status\":\"NORMAL\",\"ratio\":0.5,\"alive\":true,\"note\":null}}");
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryCodec.writeResponse(look, payload);
+
+        assertEquals(look, BinaryCodec.readResponse(payload.toByteArray()));
+        assertTrue(payload.size() * 3 < look.toString().getBytes(StandardCharsets.UTF_8).length,
+                "binary response was " + payload.size() + " bytes");
+    }
+
+    /**
+     * Verifies truncated and padded response payloads are rejected.
+     */
+    @Test
+    @DisplayName("Malformed responses are rejected")
+    void malformedResponsesAreRejected() {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryCodec.writeResponse(JsonParser.parseString("{\"result\":\"OK\",\"data\":{\"message\":\"hello\"}}"), payload);
+        byte[] bytes = payload.toByteArray();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.readResponse(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.readResponse(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+
+    /**
+     * Verifies frames read back whole, end cleanly between frames, and fail inside one.
+     */
+    @Test
+    @DisplayName("Frames read back in order and stop at end of stream")
+    void framesRoundTrip() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.writeBytes(new byte[300]);
+        BinaryCodec.writeFrame(payload, stream);
+        payload.reset();
+        payload.write(7);
+        BinaryCodec.writeFrame(payload, stream);
+
+        ByteArrayInputStream in = new ByteArrayInputStream(stream.toByteArray());
+        assertEquals(300, BinaryCodec.readFrame(in).length);
+        assertArrayEquals(new byte[]{7}, BinaryCodec.readFrame(in));
+        assertNull(BinaryCodec.readFrame(in));
+
+        byte[] cut = Arrays.copyOf(stream.toByteArray(), 100);
+        assertThrows(EOFException.class, () -> BinaryCodec.readFrame(new ByteArrayInputStream(cut)));
+    }
+
+    @Test
+    @DisplayName("A binary client launches and commands a robot on the threaded engine")
+    void binaryClientOnThreadedEngine() throws IOException {
+        assertBinaryClientWorks(EngineMode.THREADED);
+    }
+
+    @Test
+    @DisplayName("A binary client launches and commands a robot on the NIO engine")
+    void binaryClientOnNioEngine() throws IOException {
+        assertBinaryClientWorks(EngineMode.NIO);
+    }
+
+    /**
+     * Launches a robot and asks for its state over the binary protocol.
+     */
+    private static void assertBinaryClientWorks(EngineMode mode) throws IOException {
+        Config.loadConfig("config.properties");
+        MultiServerEngine server = new MultiServerEngine(new World(false), mode);
+        server.start(0);
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            BinaryServerLink link = new BinaryServerLink(socket);
+
+            link.send(request("BinBot", "launch", "sniper"));
+            JsonObject launched = link.receive().getAsJsonObject();
+            assertEquals("OK", launched.get("result").getAsString());
+
+            link.send(request("BinBot", "state"));
+            JsonObject state = link.receive().getAsJsonObject();
+            assertEquals("Robot state follows.", state.getAsJsonObject("data").get("message").getAsString());
+            assertEquals(launched.get("state"), state.get("state"));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static void assertRoundTrip(JsonObject json, int expectedLength) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryCodec.writeRequest(json, payload);
+        assertEquals(expectedLength, payload.size(), json.toString());
+
+        Request read = BinaryCodec.readRequest(payload.toByteArray(), "HAL");
+        assertEquals("HAL", read.robot());
+        assertEquals(json.get("command").getAsString(), read.command());
+        assertEquals(json.get("arguments").toString(), read.arguments().toString());
+    }
+
+    private static Request decode(JsonObject json, String robot) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryCodec.writeRequest(json, payload);
+        return BinaryCodec.readRequest(payload.toByteArray(), robot);
+    }
+
+    private static JsonObject request(String robot, String command, Object... arguments) {
+        JsonObject request = new JsonObject();
+        request.addProperty("robot", robot);
+        request.addProperty("command", command);
+        JsonArray args = new JsonArray();
+        for (Object argument : arguments) {
+            if (argument instanceof Number number) args.add(number);
+            else args.add(String.valueOf(argument));
+        }
+        request.add("arguments", args);
+        return request;
+    }
+}
@@ -0,0 +1,166 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link Broadcaster} that fans messages out to every connected client.
+ */
+class BroadcasterTest {
+    private final Broadcaster broadcaster = new Broadcaster();
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    /**
+     * Verifies one broadcast reaches ten thousand connections, all queuing the bytes encoded once.
+     */
+    @Test
+    @DisplayName("A broadcast reaches every subscriber with the same encoded bytes")
+    void reachesEverySubscriber() throws Exception {
+        List<StubConnection> connections = subscribe(10_000);
+        broadcaster.start();
+
+        int reached = broadcaster.broadcast("quit").get(5, TimeUnit.SECONDS);
+
+        assertEquals(10_000, reached);
+        ByteBuffer shared = connections.get(0).received.get(0);
+        for (StubConnection connection : connections) {
+            assertEquals(1, connection.received.size());
+            assertEquals("quit\n", text(connection.received.get(0)));
+            assertSame(shared, connection.received.get(0));
+        }
+    }
+
+    /**
+     * Verifies closed connections and clients that stopped reading are unsubscribed by the next broadcast.
+     */
+    @Test
+    @DisplayName("Connections that have gone are pruned")
+    void prunesClosedConnections() throws Exception {
+        List<StubConnection> connections = subscribe(10);
+        connections.get(1).open = false;
+        connections.get(4).open = false;
+        connections.get(7).accepting = false;
+        broadcaster.start();
+
+        assertEquals(7, (int) broadcaster.broadcast("first").get(5, TimeUnit.SECONDS));
+        assertEquals(7, broadcaster.getSubscriberCount());
+        assertEquals(3, broadcaster.getPruned());
+        assertFalse(broadcaster.getSubscribers().contains(connections.get(4)));
+
+        assertEquals(7, (int) broadcaster.broadcast("second").get(5, TimeUnit.SECONDS));
+        assertTrue(connections.get(1).received.isEmpty());
+        assertEquals(2, connections.get(0).received.size());
+    }
+
+    /**
+     * Verifies the fan-out figures are kept and messages broadcast after a shutdown fail.
+     */
+    @Test
+    @DisplayName("Fan-out figures are recorded for each broadcast")
+    void recordsFanOutFigures() throws Exception {
+        subscribe(10_000);
+        broadcaster.start();
+        for (int i = 0; i < 5; i++) broadcaster.broadcast("tick " + i).get(5, TimeUnit.SECONDS);
+
+        assertEquals(5, broadcaster.getBroadcasts());
+        assertEquals(50_000, broadcaster.getDeliveries());
+        assertTrue(broadcaster.getAverageFanOutMicros() > 0);
+        assertTrue(broadcaster.getMaxFanOutMicros() >= broadcaster.getAverageFanOutMicros());
+        assertTrue(broadcaster.getStats().startsWith("Broadcaster: 10000 subscribers, 5 broadcasts, 50000 deliveries"),
+                broadcaster.getStats());
+
+        broadcaster.shutdown();
+        broadcaster.awaitTermination(1000);
+        assertTrue(broadcaster.broadcast("late").isCompletedExceptionally());
+    }
+
+    /**
+     * Verifies a shared message gives binary clients a frame carrying the text.
+     */
+    @Test
+    @DisplayName("Binary subscribers get the message as a frame")
+    void binarySubscribersGetFrames() throws Exception {
+        SharedMessage message = new SharedMessage("quit");
+        ByteBuffer frame = message.binaryFrame().duplicate();
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+
+        JsonElement decoded = BinaryCodec.readResponse(BinaryCodec.readFrame(new ByteArrayInputStream(bytes)));
+
+        assertEquals(new JsonPrimitive("quit"), decoded);
+        assertSame(message.binaryFrame(), message.binaryFrame());
+    }
+
+    private List<StubConnection> subscribe(int count) {
+        List<StubConnection> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StubConnection connection = new StubConnection();
+            connections.add(connection);
+            broadcaster.subscribe(connection);
+        }
+        return connections;
+    }
+
+    private static String text(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A connection that keeps the shared buffers queued on it.
+     */
+    private static class StubConnection implements ClientConnection {
+        private final List<ByteBuffer> received = new ArrayList<>();
+        private volatile boolean open = true;
+        private volatile boolean accepting = true;
+
+        @Override
+        public void send(String line) {
+            fail("broadcasts should be sent as shared messages");
+        }
+
+        @Override
+        public boolean send(SharedMessage message) {
+            if (!accepting) return false;
+            received.add(message.jsonLine());
+            return true;
+        }
+
+        @Override
+        public void useBinaryFrames() {
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "stub";
+        }
+    }
+}
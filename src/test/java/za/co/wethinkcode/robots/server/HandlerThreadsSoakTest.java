@@ -0,0 +1,76 @@
+package za.co.wethinkcode.robots.server;
+
+import org.junit.jupiter.api.*;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.world.World;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HandlerThreadsSoakTest.java
+ * Soak test that keeps 10k simulated clients connected at once and checks that every one of them
+ * is served, on platform threads and on virtual threads.
+ * Tagged "soak" so it only runs with ./gradlew soakTest. Client and server share one process,
+ * so the open file limit must allow two descriptors per client; use -Dsoak.clients to lower the count.
+ */
+@Tag("soak")
+class HandlerThreadsSoakTest {
+    private static final int CLIENTS = Integer.getInteger("soak.clients", 10_000);
+    private static final String PROBE = "{\"robot\":\"soak\",\"command\":\"ping\",\"arguments\":[]}";
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Test
+    @DisplayName("Every client is served with platform handler threads")
+    void testSoakPlatformThreads() throws IOException {
+        soak(HandlerThreads.PLATFORM);
+    }
+
+    @Test
+    @DisplayName("Every client is served with virtual handler threads")
+    void testSoakVirtualThreads() throws IOException {
+        soak(HandlerThreads.VIRTUAL);
+    }
+
+    /**
+     * Connects every client first, so all handlers are alive at the same time,
+     * then sends one request per client and waits for every reply.
+     */
+    private void soak(HandlerThreads handlerThreads) throws IOException {
+        MultiServerEngine server = new MultiServerEngine(new World(false), EngineMode.THREADED, handlerThreads);
+        server.start(0);
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                Socket socket = new Socket("localhost", server.getPort());
+                socket.setSoTimeout(60_000);
+                sockets.add(socket);
+            }
+            for (Socket socket : sockets) {
+                PrintStream out = new PrintStream(socket.getOutputStream());
+                out.println(PROBE);
+                out.flush();
+            }
+            int replies = 0;
+            for (Socket socket : sockets) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                String reply = in.readLine();
+                assertNotNull(reply);
+                assertTrue(reply.contains("\"result\":\"ERROR\""));
+                replies++;
+            }
+            assertEquals(CLIENTS, replies);
+        } finally {
+            for (Socket socket : sockets) socket.close();
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package za.co.wethinkcode.robots.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link JsonCodec} that reads requests and writes responses.
+ */
+class JsonCodecTest {
+
+    /**
+     * Verifies a request is read into the same values the tree parser gave.
+     */
+    @Test
+    @DisplayName("A request is read into its robot, command and arguments")
+    void decodeRequest() {
+        String line = "{\"robot\":\"HAL\",\"command\":\"launch\",\"arguments\":[\"sniper\",5,2.5,true]}";
+
+        Request request = JsonCodec.decodeRequest(line);
+
+        assertEquals("HAL", request.robot());
+        assertEquals("launch", request.command());
+        assertEquals(JsonParser.parseString(line).getAsJsonObject().get("arguments"), request.arguments());
+        assertEquals(5, request.arguments().get(1).getAsInt());
+        assertEquals("\"sniper\"", String.valueOf(request.arguments().get(0)));
+    }
+
+    /**
+     * Verifies unknown fields are skipped and missing arguments become an empty array.
+     */
+    @Test
+    @DisplayName("Unknown fields are skipped and missing arguments are empty")
+    void decodeRequestSkipsUnknownFields() {
+        Request request = JsonCodec.decodeRequest("{\"id\":{\"n\":[1,2]},\"command\":\"look\",\"robot\":\"HAL\"}");
+
+        assertEquals("HAL", request.robot());
+        assertEquals("look", request.command());
+        assertEquals(new JsonArray(), request.arguments());
+    }
+
+    /**
+     * Verifies a request's id is read as it was sent, and a missing or null id is no id.
+     */
+    @Test
+    @DisplayName("A request id is read as sent")
+    void decodeRequestId() {
+        Request numbered = JsonCodec.decodeRequest("{\"id\":7,\"robot\":\"HAL\",\"command\":\"look\"}");
+        Request named = JsonCodec.decodeRequest("{\"robot\":\"HAL\",\"command\":\"look\",\"id\":\"a-1\"}");
+
+        assertEquals(7, numbered.id().getAsInt());
+        assertEquals("\"a-1\"", named.id().toString());
+        assertNull(JsonCodec.decodeRequest("{\"robot\":\"HAL\",\"command\":\"look\"}").id());
+        assertNull(JsonCodec.decodeRequest("{\"robot\":\"HAL\",\"command\":\"look\",\"id\":null}").id());
+    }
+
+    /**
+     * Verifies broken requests are rejected with a JsonParseException.
+     */
+    @Test
+    @DisplayName("Malformed requests throw JsonParseException")
+    void decodeMalformedRequest() {
+        assertThrows(JsonParseException.class, () -> JsonCodec.decodeRequest("{\"robot\":\"HAL\""));
+        assertThrows(JsonParseException.class, () -> JsonCodec.decodeRequest("[1,2]"));
+        assertThrows(JsonParseException.class, () -> JsonCodec.decodeRequest("{\"robot\":\"HAL\",\"arguments\":[]}"));
+    }
+
+    /**
+     * Verifies responses are written the same as toString() and that one generator can write several lines.
+     */
+    @Test
+    @DisplayName("Responses are written the same as toString()")
+    void writeResponse() throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("result", "OK");
+        JsonObject data = new JsonObject();
+        data.addProperty("message", "Done <now> \"quoted\"");
+        data.add("nothing", JsonNull.INSTANCE);
+        response.add("data", data);
+        JsonArray position = new JsonArray();
+        position.add(3);
+        position.add(-4);
+        position.add(1.5);
+        response.add("position", position);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = JsonCodec.responseGenerator(out);
+        JsonCodec.writeLine(response, generator);
+        JsonCodec.writeLine(response, generator);
+        generator.flush();
+
+        assertEquals(response + "\n" + response + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,154 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.*;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.world.World;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NioServerEngineTest.java
+ * This class contains tests for the NIO engine mode of MultiServerEngine.
+ * It checks that the existing command handling answers requests over the selector based engine.
+ */
+class NioServerEngineTest {
+    private MultiServerEngine server;
+
+    /**
+     * Starts a NIO server on a free port before each test.
+     */
+    @BeforeEach
+    void setupServer() throws IOException {
+        Config.loadConfig("config.properties");
+        server = new MultiServerEngine(new World(false), EngineMode.NIO);
+        server.start(0);
+    }
+
+    /**
+     * Shuts the server down after each test.
+     */
+    @AfterEach
+    void tearDownServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("NIO engine answers a launch request")
+    void testLaunchOverNio() throws IOException {
+        try (Socket clientSocket = new Socket("localhost", server.getPort());
+             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()))) {
+
+            out.println(launchRequest("NioBot"));
+
+            JsonObject jsonResponse = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertEquals("OK", jsonResponse.get("result").getAsString());
+            assertTrue(jsonResponse.has("state"));
+        }
+    }
+
+    @Test
+    @DisplayName("NIO engine reassembles a request split over several writes")
+    void testRequestSplitAcrossWrites() throws Exception {
+        try (Socket clientSocket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()))) {
+            OutputStream out = clientSocket.getOutputStream();
+            byte[] request = (launchRequest("SplitBot") + "\r\n").getBytes(StandardCharsets.UTF_8);
+            int half = request.length / 2;
+
+            out.write(request, 0, half);
+            out.flush();
+            Thread.sleep(50);
+            out.write(request, half, request.length - half);
+            out.flush();
+
+            JsonObject jsonResponse = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertEquals("OK", jsonResponse.get("result").getAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("NIO engine answers pipelined requests in order")
+    void testPipelinedRequestsKeepOrder() throws IOException {
+        try (Socket clientSocket = new Socket("localhost", server.getPort());
+             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()))) {
+
+            JsonObject state = new JsonObject();
+            state.addProperty("robot", "OrderBot");
+            state.addProperty("command", "state");
+            state.add("arguments", new JsonArray());
+            out.print(launchRequest("OrderBot") + "\n" + state + "\n");
+            out.flush();
+
+            JsonObject launched = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            JsonObject stated = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertTrue(launched.getAsJsonObject("data").get("message").getAsString().contains("launched"));
+            assertEquals("Robot state follows.", stated.getAsJsonObject("data").get("message").getAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("NIO engine answers every request of a burst bigger than the outbound buffer")
+    void testBurstLargerThanOutboundBuffer() throws Exception {
+        int requests = 3000;
+        try (Socket clientSocket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()))) {
+            JsonObject state = new JsonObject();
+            state.addProperty("robot", "BurstBot");
+            state.addProperty("command", "state");
+            state.add("arguments", new JsonArray());
+            Thread sender = new Thread(() -> {
+                try {
+                    PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), false);
+                    out.println(launchRequest("BurstBot"));
+                    for (int i = 0; i < requests; i++) out.println(state);
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            sender.start();
+            // Read nothing until the replies have piled up past the outbound buffer
+            Thread.sleep(300);
+
+            long bytes = 0;
+            for (int i = 0; i <= requests; i++) {
+                String line = in.readLine();
+                assertNotNull(line, "reply " + i);
+                bytes += line.length() + 1;
+            }
+            sender.join();
+            assertTrue(bytes > Config.OUTBOUND_BUFFER_BYTES, "only " + bytes + " bytes of replies");
+        }
+    }
+
+    @Test
+    @DisplayName("Broadcasts reach clients connected to the NIO engine")
+    void testBroadcastOverNio() throws Exception {
+        try (Socket clientSocket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()))) {
+            // Give the selector a moment to register the connection
+            Thread.sleep(100);
+            server.broadcastMessage("quit");
+            assertEquals("quit", in.readLine());
+        }
+    }
+
+    private String launchRequest(String robotName) {
+        JsonObject launchRequest = new JsonObject();
+        launchRequest.addProperty("robot", robotName);
+        launchRequest.addProperty("command", "launch");
+        JsonArray args = new JsonArray();
+        args.add("sniper");
+        launchRequest.add("arguments", args);
+        return launchRequest.toString();
+    }
+}
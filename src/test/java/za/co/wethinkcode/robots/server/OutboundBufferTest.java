@@ -0,0 +1,178 @@
+package za.co.wethinkcode.robots.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link OutboundBuffer} that batches a blocking connection's writes.
+ */
+class OutboundBufferTest {
+    private static final Executor NEW_THREAD = task -> new Thread(task).start();
+
+    /**
+     * Verifies replies sent while a write is in progress go out together in the next write.
+     */
+    @Test
+    @DisplayName("Replies sent during a write are coalesced into one write")
+    void coalescesWrites() throws Exception {
+        GatedStream socket = new GatedStream();
+        OutboundBuffer buffer = new OutboundBuffer(socket, NEW_THREAD, 64 * 1024, 1000, () -> { });
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 100; i++) {
+            String line = "{\"result\":\"OK\",\"n\":" + i + "}\n";
+            expected.append(line);
+            buffer.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+        socket.open.countDown();
+
+        assertTrue(buffer.awaitDrained(1000));
+        assertEquals(expected.toString(), socket.written.toString(StandardCharsets.UTF_8));
+        assertTrue(buffer.getWrites() <= 2, "wrote " + buffer.getWrites() + " times");
+        assertEquals(expected.length(), buffer.getBytesWritten());
+    }
+
+    /**
+     * Verifies a sender waits while the buffer is full and carries on once the client reads.
+     */
+    @Test
+    @DisplayName("A full buffer makes senders wait for the client to read")
+    void fullBufferWaits() throws Exception {
+        GatedStream socket = new GatedStream();
+        OutboundBuffer buffer = new OutboundBuffer(socket, NEW_THREAD, 64, 5000, () -> { });
+        buffer.write(new byte[16]);
+        sleep(50); // the writer takes the first bytes and blocks on the socket
+        buffer.write(new byte[64]);
+
+        new Thread(() -> {
+            sleep(150);
+            socket.open.countDown();
+        }).start();
+        long start = System.nanoTime();
+        buffer.write(new byte[8]);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertTrue(buffer.awaitDrained(1000));
+        assertEquals(88, socket.written.size());
+    }
+
+    /**
+     * Verifies a client that never reads is given up on after the stall timeout.
+     */
+    @Test
+    @DisplayName("A client that stops reading is dropped after the stall timeout")
+    void stalledClientIsDropped() throws Exception {
+        GatedStream socket = new GatedStream();
+        AtomicBoolean dropped = new AtomicBoolean();
+        OutboundBuffer buffer = new OutboundBuffer(socket, NEW_THREAD, 64, 100, () -> dropped.set(true));
+        buffer.write(new byte[16]);
+        sleep(50); // the writer takes the first bytes and blocks on the socket
+        buffer.write(new byte[64]);
+
+        assertThrows(IOException.class, () -> buffer.write(new byte[8]));
+        assertTrue(dropped.get());
+        assertThrows(IOException.class, () -> buffer.write(1));
+        socket.open.countDown();
+    }
+
+    /**
+     * Verifies broadcasts never wait on a full buffer, but still give up on a client that stays full.
+     */
+    @Test
+    @DisplayName("Offers run past a full buffer and drop a client that stays full")
+    void offersDoNotWait() throws Exception {
+        GatedStream socket = new GatedStream();
+        AtomicBoolean dropped = new AtomicBoolean();
+        OutboundBuffer buffer = new OutboundBuffer(socket, NEW_THREAD, 64, 100, () -> dropped.set(true));
+        buffer.write(new byte[16]);
+        sleep(50); // the writer takes the first bytes and blocks on the socket
+
+        long start = System.nanoTime();
+        assertTrue(buffer.offer(ByteBuffer.wrap(new byte[64])));
+        assertTrue(buffer.offer(ByteBuffer.wrap(new byte[64])));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+        assertFalse(dropped.get());
+
+        sleep(150);
+        assertFalse(buffer.offer(ByteBuffer.wrap(new byte[8])));
+        assertTrue(dropped.get());
+        assertTrue(buffer.isClosed());
+        socket.open.countDown();
+    }
+
+    /**
+     * Verifies closing leaves the socket to the writer: the caller returns at once, and the socket is closed
+     * once the bytes already sent are written, or after the timeout if the client never reads them.
+     */
+    @Test
+    @DisplayName("Closing never waits for the client, and the writer closes the socket once it is done")
+    void closesWhenDrained() throws Exception {
+        GatedStream socket = new GatedStream();
+        CountDownLatch socketClosed = new CountDownLatch(1);
+        OutboundBuffer buffer = new OutboundBuffer(socket, NEW_THREAD, 64, 5000, () -> { });
+        buffer.write(new byte[16]);
+        sleep(50); // the writer takes the first bytes and blocks on the socket
+        assertTrue(buffer.offer(ByteBuffer.wrap(new byte[8])));
+
+        long start = System.nanoTime();
+        buffer.closeWhenDrained(5000, socketClosed::countDown);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+        assertTrue(buffer.isClosed());
+        assertEquals(1, socketClosed.getCount());
+
+        socket.open.countDown();
+        assertTrue(socketClosed.await(1, TimeUnit.SECONDS));
+        assertEquals(24, socket.written.size());
+
+        GatedStream stuck = new GatedStream();
+        CountDownLatch stuckClosed = new CountDownLatch(1);
+        OutboundBuffer stalled = new OutboundBuffer(stuck, NEW_THREAD, 64, 5000, () -> { });
+        stalled.write(new byte[16]);
+        stalled.closeWhenDrained(100, stuckClosed::countDown);
+        assertTrue(stuckClosed.await(1, TimeUnit.SECONDS), "A client that never reads is closed after the timeout");
+        stuck.open.countDown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A stream whose writes block until it is opened, like a socket whose client is not reading.
+     */
+    private static class GatedStream extends OutputStream {
+        private final CountDownLatch open = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            try {
+                open.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            written.write(bytes, offset, length);
+        }
+    }
+}
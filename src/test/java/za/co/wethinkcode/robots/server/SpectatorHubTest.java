@@ -0,0 +1,201 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link SpectatorHub} that streams the world's changes to spectating connections.
+ */
+class SpectatorHubTest {
+    private World world;
+    private SpectatorHub hub;
+    private MultiServerEngine server;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (hub != null) hub.shutdown();
+        if (server != null) server.shutdown();
+    }
+
+    @Test
+    @DisplayName("A spectator gets a snapshot, then the same delta as every other spectator")
+    void snapshotThenSharedDeltas() {
+        startHub(1024);
+        Robot robot = robotAt("Watched", 10, 10);
+        StubConnection first = new StubConnection();
+        StubConnection second = new StubConnection();
+        hub.add(first);
+        hub.add(second);
+
+        hub.deliver();
+        JsonObject snapshot = first.last();
+        assertEquals("snapshot", snapshot.get("event").getAsString());
+        assertEquals("Watched", snapshot.getAsJsonArray("robots").get(0).getAsJsonObject().get("name").getAsString());
+
+        world.updatePosition(robot, 3);
+        robot.updateDirection(true);
+        world.getEvents().record(WorldEvent.Type.TURNED, robot);
+        hub.deliver();
+
+        JsonObject delta = first.last();
+        assertEquals("delta", delta.get("event").getAsString());
+        JsonArray events = delta.getAsJsonArray("events");
+        assertEquals(2, events.size());
+        assertEquals("moved", events.get(0).getAsJsonObject().get("type").getAsString());
+        assertEquals("[10,7]", events.get(0).getAsJsonObject().get("position").toString());
+        assertSame(first.messages.get(1), second.messages.get(1));
+
+        hub.deliver();
+        assertEquals(2, first.messages.size());
+        assertEquals(2, hub.getSnapshots());
+        assertEquals(2, hub.getDeltas());
+    }
+
+    @Test
+    @DisplayName("A spectator with a backlog is skipped, then resynchronised with a snapshot")
+    void slowSpectatorSkipsToSnapshot() {
+        startHub(16);
+        Robot robot = robotAt("Spinner", 10, 10);
+        StubConnection slow = new StubConnection();
+        hub.add(slow);
+        hub.deliver();
+
+        slow.queued = 1_000_000;
+        for (int i = 0; i < 40; i++) world.updatePosition(robot, i % 2 == 0 ? 1 : -1);
+        hub.deliver();
+        assertEquals(1, slow.messages.size());
+        assertEquals(1, hub.getSkipped());
+
+        slow.queued = 0;
+        hub.deliver();
+        assertEquals("snapshot", slow.last().get("event").getAsString());
+        assertEquals(1, hub.getLapped());
+        assertEquals(world.getEvents().getHead(), slow.last().get("sequence").getAsLong());
+    }
+
+    @Test
+    @DisplayName("Closed spectators are dropped and recording stops when none are left")
+    void closedSpectatorsAreDropped() {
+        startHub(1024);
+        StubConnection spectator = new StubConnection();
+        hub.add(spectator);
+        assertTrue(world.getEvents().isRecording());
+
+        spectator.open = false;
+        hub.deliver();
+
+        assertEquals(0, hub.getSpectatorCount());
+        assertFalse(world.getEvents().isRecording());
+    }
+
+    @Test
+    @DisplayName("A client that asks to spectate is streamed another client's launch")
+    void spectateOverSocket() throws IOException {
+        server = new MultiServerEngine(new World(false));
+        server.start(0);
+        try (Socket spectator = new Socket("localhost", server.getPort());
+             Socket player = new Socket("localhost", server.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(spectator.getInputStream()));
+            PrintWriter out = new PrintWriter(spectator.getOutputStream(), true);
+            out.println("{\"robot\":\"\",\"command\":\"spectate\",\"arguments\":[]}");
+            assertEquals("OK", JsonParser.parseString(in.readLine()).getAsJsonObject().get("result").getAsString());
+            assertEquals("snapshot", JsonParser.parseString(in.readLine()).getAsJsonObject().get("event").getAsString());
+
+            PrintWriter playerOut = new PrintWriter(player.getOutputStream(), true);
+            playerOut.println("{\"robot\":\"Star\",\"command\":\"launch\",\"arguments\":[\"sniper\"]}");
+
+            JsonObject delta = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertEquals("delta", delta.get("event").getAsString());
+            JsonObject launched = delta.getAsJsonArray("events").get(0).getAsJsonObject();
+            assertEquals("launched", launched.get("type").getAsString());
+            assertEquals("Star", launched.get("robot").getAsString());
+        }
+    }
+
+    private void startHub(int eventBufferSize) {
+        Config.EVENT_BUFFER_SIZE = eventBufferSize;
+        world = new World(false, new Maze(new ArrayList<>(), Config.WIDTH, Config.HEIGHT));
+        hub = new SpectatorHub(world, null, 50, 64 * 1024);
+    }
+
+    private Robot robotAt(String name, int x, int y) {
+        Robot robot = new Robot(name, "soldier");
+        world.addRobot(robot);
+        robot.setPosition(new Position(x, y));
+        return robot;
+    }
+
+    /**
+     * A connection that keeps the shared messages queued on it.
+     */
+    private static class StubConnection implements ClientConnection {
+        private final List<SharedMessage> messages = new ArrayList<>();
+        private volatile boolean open = true;
+        private volatile long queued;
+
+        JsonObject last() {
+            return JsonParser.parseString(messages.get(messages.size() - 1).line()).getAsJsonObject();
+        }
+
+        @Override
+        public void send(String line) {
+            fail("spectator updates should be sent as shared messages");
+        }
+
+        @Override
+        public boolean send(SharedMessage message) {
+            messages.add(message);
+            return true;
+        }
+
+        @Override
+        public long queuedBytes() {
+            return queued;
+        }
+
+        @Override
+        public void useBinaryFrames() {
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "stub";
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.TimerWheel;
+import za.co.wethinkcode.robots.world.World;
+import za.co.wethinkcode.robots.world.WorldActor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimedActionTest.java
+ * This class contains tests for reloads and repairs through the server, with the world applied by a world actor.
+ * The robot's timers run on a wheel that is never started, so the tests move its clock themselves.
+ */
+class TimedActionTest {
+    private final List<JsonElement> replies = new CopyOnWriteArrayList<>();
+    private final List<JsonObject> pushed = new CopyOnWriteArrayList<>();
+    private final TimerWheel wheel = new TimerWheel(10, 64);
+    private WorldActor actor;
+    private Server server;
+    private Robot robot;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        World world = new World(false, new Maze(new ArrayList<>(), Config.WIDTH, Config.HEIGHT));
+        actor = new WorldActor(world);
+        actor.start();
+        server = new Server(new RecordingConnection(), world, actor);
+        JsonArray args = new JsonArray();
+        args.add("sniper");
+        assertEquals("OK", request("launch", args).get("result").getAsString());
+        robot = world.getRobotByName("TimedBot");
+        robot.setTimers(wheel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MultiServers.clientHandlerMap.remove("TimedBot");
+        actor.shutdown();
+    }
+
+    @Test
+    @DisplayName("A reloading robot gets an ERROR for commands that change the world but can still read its state")
+    void testBusyRobotIsRefused() {
+        assertEquals("OK", request("reload", new JsonArray()).get("result").getAsString());
+
+        JsonObject forward = request("forward", steps(1));
+        assertEquals("ERROR", forward.get("result").getAsString());
+        assertEquals("Robot is busy: RELOAD", forward.getAsJsonObject("data").get("message").getAsString());
+        assertEquals("ERROR", request("fire", new JsonArray()).get("result").getAsString());
+        assertEquals("OK", request("state", new JsonArray()).get("result").getAsString());
+        assertEquals("OK", request("orientation", new JsonArray()).get("result").getAsString());
+    }
+
+    @Test
+    @DisplayName("The reload message is pushed once the reload duration has passed, after the world actor refilled the shots")
+    void testReloadMessageArrivesAfterTheDuration() throws InterruptedException {
+        request("fire", new JsonArray());
+        int shotsLeft = robot.state().get("shots").getAsInt();
+        request("reload", new JsonArray());
+        long applied = actor.getCompleted();
+
+        wheel.advanceTo(Config.RELOAD_DURATION * 1000L - 10);
+        Thread.sleep(100);
+        assertTrue(pushed.isEmpty());
+        assertEquals(applied, actor.getCompleted());
+
+        wheel.advanceTo(Config.RELOAD_DURATION * 1000L);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pushed.isEmpty() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+        assertEquals(1, pushed.size());
+        JsonObject done = pushed.get(0);
+        assertEquals("Done", done.getAsJsonObject("data").get("message").getAsString());
+        assertEquals("NORMAL", done.getAsJsonObject("state").get("status").getAsString());
+        assertTrue(done.getAsJsonObject("state").get("shots").getAsInt() > shotsLeft);
+        assertFalse(done.has("id"));
+        assertEquals(applied + 1, actor.getCompleted(), "The reload was finished by the world actor");
+        assertEquals("OK", request("forward", steps(1)).get("result").getAsString());
+    }
+
+    private static JsonArray steps(int steps) {
+        JsonArray args = new JsonArray();
+        args.add(steps);
+        return args;
+    }
+
+    private JsonObject request(String command, JsonArray args) {
+        server.handleRequest(new Request("TimedBot", command, args));
+        return replies.get(replies.size() - 1).getAsJsonObject();
+    }
+
+    /**
+     * A connection that keeps replies apart from the messages pushed without being asked for.
+     */
+    private class RecordingConnection implements ClientConnection {
+        @Override
+        public void send(String line) {
+            replies.add(new JsonPrimitive(line));
+        }
+
+        @Override
+        public void send(JsonElement response) {
+            replies.add(response);
+        }
+
+        @Override
+        public boolean send(SharedMessage message) {
+            pushed.add(JsonParser.parseString(message.line()).getAsJsonObject());
+            return true;
+        }
+
+        @Override
+        public void useBinaryFrames() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "test";
+        }
+    }
+}
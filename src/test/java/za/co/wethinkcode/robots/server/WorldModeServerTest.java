@@ -0,0 +1,226 @@
+package za.co.wethinkcode.robots.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.*;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.world.World;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WorldModeServerTest.java
+ * This class contains tests for the ACTOR and TICK world modes of MultiServerEngine.
+ * It checks that requests from clients are answered after being applied on the world thread.
+ */
+class WorldModeServerTest {
+    private MultiServerEngine server;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+    }
+
+    /**
+     * Shuts the server down after each test.
+     */
+    @AfterEach
+    void tearDownServer() throws IOException {
+        if (server != null) server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Requests from several clients are applied by the world actor")
+    void testRequestsGoThroughActor() throws IOException {
+        startServer(WorldMode.ACTOR);
+        assertRequestsAreApplied();
+    }
+
+    @Test
+    @DisplayName("Requests from several clients are applied by the tick engine")
+    void testRequestsGoThroughTicks() throws IOException {
+        startServer(WorldMode.TICK);
+        assertRequestsAreApplied();
+    }
+
+    @Test
+    @DisplayName("Pipelined requests are all answered with their ids")
+    void testPipelinedRequestsEchoIds() throws IOException {
+        startServer(WorldMode.TICK);
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            assertEquals("OK", request(socket, "launch", "PipeBot", "sniper").get("result").getAsString());
+
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), false);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            String[] commands = {"turn", "state", "forward", "look", "state"};
+            for (int id = 0; id < commands.length; id++) {
+                JsonObject request = new JsonObject();
+                request.addProperty("robot", "PipeBot");
+                request.addProperty("command", commands[id]);
+                JsonArray args = new JsonArray();
+                if (commands[id].equals("turn")) args.add("right");
+                if (commands[id].equals("forward")) args.add(1);
+                request.add("arguments", args);
+                request.addProperty("id", id);
+                out.println(request);
+            }
+            out.flush();
+
+            Set<Integer> answered = new HashSet<>();
+            for (int i = 0; i < commands.length; i++) {
+                JsonObject response = JsonParser.parseString(in.readLine()).getAsJsonObject();
+                assertTrue(response.has("id"), response.toString());
+                answered.add(response.get("id").getAsInt());
+            }
+            assertEquals(Set.of(0, 1, 2, 3, 4), answered);
+        }
+    }
+
+    @Test
+    @DisplayName("A client that stops reading does not hold up the replies to another client's pipelined requests")
+    void testSlowClientDoesNotHoldUpOthers() throws Exception {
+        Config.OUTBOUND_BUFFER_BYTES = 1024;
+        Config.SLOW_CLIENT_TIMEOUT = 30000;
+        startServer(WorldMode.ACTOR);
+        try (Socket slow = new Socket(); Socket fast = new Socket("localhost", server.getPort())) {
+            slow.setReceiveBufferSize(4096);
+            slow.connect(new InetSocketAddress("localhost", server.getPort()));
+            assertEquals("OK", request(slow, "launch", "SlowBot", "sniper").get("result").getAsString());
+            assertEquals("OK", request(fast, "launch", "FastBot", "sniper").get("result").getAsString());
+
+            // The slow client never reads again, so its replies fill its buffer and socket
+            Thread flood = new Thread(() -> {
+                try {
+                    PrintWriter out = new PrintWriter(slow.getOutputStream(), false);
+                    for (int id = 0; id < 20000; id++) out.println(requestLine("SlowBot", "look", id));
+                    out.flush();
+                } catch (IOException e) {
+                    // The server may give up on the slow client first
+                }
+            });
+            flood.setDaemon(true);
+            flood.start();
+            Thread.sleep(2000);
+
+            fast.setSoTimeout(3000);
+            PrintWriter out = new PrintWriter(fast.getOutputStream(), false);
+            BufferedReader in = new BufferedReader(new InputStreamReader(fast.getInputStream()));
+            for (int id = 0; id < 100; id++) out.println(requestLine("FastBot", "state", id));
+            out.flush();
+            Set<Integer> answered = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                answered.add(JsonParser.parseString(in.readLine()).getAsJsonObject().get("id").getAsInt());
+            }
+            assertEquals(100, answered.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Killing a robot whose client has stopped reading does not hold up the world actor")
+    void testKillingASlowClientDoesNotBlock() throws Exception {
+        Config.OUTBOUND_BUFFER_BYTES = 1024;
+        Config.SLOW_CLIENT_TIMEOUT = 30000;
+        World world = new World(false, new Maze(new ArrayList<>(), Config.WIDTH, Config.HEIGHT));
+        startServer(WorldMode.ACTOR, world);
+        try (Socket victim = new Socket(); Socket shooter = new Socket("localhost", server.getPort())) {
+            victim.setReceiveBufferSize(4096);
+            victim.connect(new InetSocketAddress("localhost", server.getPort()));
+            assertEquals("OK", request(victim, "launch", "Victim", "sniper").get("result").getAsString());
+            assertEquals("OK", request(shooter, "launch", "Shooter", "soldier").get("result").getAsString());
+            world.getRobotByName("Victim").setPosition(new Position(10, 8));
+            world.getRobotByName("Shooter").setPosition(new Position(10, 10));
+
+            // The victim never reads again, so its handler ends up waiting for room for a reply
+            Thread flood = new Thread(() -> {
+                try {
+                    PrintWriter out = new PrintWriter(victim.getOutputStream(), false);
+                    for (int i = 0; i < 20000; i++) out.println(requestLine("Victim", "look", null));
+                    out.flush();
+                } catch (IOException e) {
+                    // The connection is closed when the victim dies
+                }
+            });
+            flood.setDaemon(true);
+            flood.start();
+            Thread.sleep(2000);
+
+            // The first shot takes the victim's shield, the second kills it
+            shooter.setSoTimeout(3000);
+            assertEquals("Hit", request(shooter, "fire", "Shooter").getAsJsonObject("data").get("message").getAsString());
+            assertEquals("Hit", request(shooter, "fire", "Shooter").getAsJsonObject("data").get("message").getAsString());
+            assertNull(world.getRobotByName("Victim"), "The victim was killed and cleared out");
+            assertEquals("OK", request(shooter, "state", "Shooter").get("result").getAsString());
+        }
+    }
+
+    private static JsonObject requestLine(String robot, String command, Integer id) {
+        JsonObject request = new JsonObject();
+        request.addProperty("robot", robot);
+        request.addProperty("command", command);
+        request.add("arguments", new JsonArray());
+        if (id != null) request.addProperty("id", id);
+        return request;
+    }
+
+    @Test
+    @DisplayName("A line that is not a request is answered with an ERROR and the connection stays open")
+    void testMalformedLineKeepsConnection() throws IOException {
+        startServer(WorldMode.DIRECT);
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out.println("{\"robot\": \"BadBot\", \"command\": ");
+
+            JsonObject error = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertEquals("ERROR", error.get("result").getAsString());
+            assertEquals("OK", request(socket, "launch", "BadBot", "sniper").get("result").getAsString());
+        }
+    }
+
+    private void startServer(WorldMode worldMode) throws IOException {
+        startServer(worldMode, new World(false));
+    }
+
+    private void startServer(WorldMode worldMode, World world) throws IOException {
+        server = new MultiServerEngine(world, EngineMode.THREADED, HandlerThreads.PLATFORM, worldMode);
+        server.start(0);
+    }
+
+    private void assertRequestsAreApplied() throws IOException {
+        try (Socket first = new Socket("localhost", server.getPort());
+             Socket second = new Socket("localhost", server.getPort())) {
+            JsonObject firstLaunch = request(first, "launch", "FirstBot", "sniper");
+            JsonObject secondLaunch = request(second, "launch", "SecondBot", "tank");
+            JsonObject firstState = request(first, "state", "FirstBot");
+
+            assertEquals("OK", firstLaunch.get("result").getAsString());
+            assertEquals("OK", secondLaunch.get("result").getAsString());
+            assertEquals("Robot state follows.", firstState.getAsJsonObject("data").get("message").getAsString());
+            assertEquals(3, server.getWorldExecutor().getCompleted());
+        }
+    }
+
+    private JsonObject request(Socket socket, String command, String robotName, String... arguments) throws IOException {
+        JsonObject request = new JsonObject();
+        request.addProperty("robot", robotName);
+        request.addProperty("command", command);
+        JsonArray args = new JsonArray();
+        for (String argument : arguments) args.add(argument);
+        request.add("arguments", args);
+
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        out.println(request);
+        return JsonParser.parseString(in.readLine()).getAsJsonObject();
+    }
+}
@@ -0,0 +1,118 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.OperationalStatus;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.look.LookCommand;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the look cache, in a 40x40 world with a mountain at (20, 15) and a robot looking from (20, 20).
+ */
+class LookCacheTest {
+    private World world;
+    private LookCache cache;
+    private Robot looker;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        Config.WIDTH = 40;
+        Config.HEIGHT = 40;
+        Config.VISIBILITY = 10;
+        world = new World(false, new Maze(List.of(
+                new Obstacle(20, 15, 20, 15, ObstacleType.MOUNTAIN)), 40, 40));
+        cache = world.getLookCache();
+        looker = place("Looker", 20, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    private Robot place(String name, int x, int y) {
+        Robot robot = new Robot(name, "sniper");
+        world.addRobot(robot);
+        robot.setPosition(new Position(x, y));
+        return robot;
+    }
+
+    private JsonObject look(LookCommand command) {
+        JsonObject response = command.execute(world, looker);
+        assertEquals("OK", response.get("result").getAsString());
+        return response.getAsJsonObject("data");
+    }
+
+    @Test
+    @DisplayName("A second look is answered from the cache while nothing moves in the robot's row or column")
+    void hitsUntilTheRowOrColumnChanges() {
+        Robot other = place("Other", 5, 5);
+        JsonArray first = look(LookCommand.getInstance()).getAsJsonArray("objects");
+        assertEquals(1, cache.getMisses());
+
+        // A move away from the robot's row and column leaves the cached look good
+        other.setPosition(new Position(30, 30));
+        assertSame(first, look(LookCommand.getInstance()).getAsJsonArray("objects"));
+        assertEquals(1, cache.getHits());
+
+        // A robot arriving in the same row makes it stale
+        other.setPosition(new Position(25, 20));
+        JsonArray third = look(LookCommand.getInstance()).getAsJsonArray("objects");
+        assertNotSame(first, third);
+        assertEquals(first.size() + 1, third.size());
+        assertEquals(2, cache.getMisses());
+
+        looker.setPosition(new Position(21, 20));
+        look(LookCommand.getInstance());
+        assertEquals(3, cache.getMisses(), "A look from another cell is never answered from the cache");
+    }
+
+    @Test
+    @DisplayName("A changes look reports the objects added and removed since the robot's last look")
+    void changesSinceTheLastLook() {
+        JsonObject first = look(LookCommand.getChangesInstance());
+        assertFalse(first.get("unchanged").getAsBoolean());
+        assertEquals(look(LookCommand.getInstance()).getAsJsonArray("objects"), first.getAsJsonArray("added"),
+                "The first look reports everything as added");
+        assertEquals(0, first.getAsJsonArray("removed").size());
+
+        JsonObject same = look(LookCommand.getChangesInstance());
+        assertTrue(same.get("unchanged").getAsBoolean());
+        assertEquals(0, same.getAsJsonArray("added").size());
+
+        Robot other = place("Other", 20, 25);
+        JsonArray added = look(LookCommand.getChangesInstance()).getAsJsonArray("added");
+        assertEquals(1, added.size());
+        assertEquals("ROBOT", added.get(0).getAsJsonObject().get("type").getAsString());
+
+        other.setPosition(new Position(5, 5));
+        JsonObject gone = look(LookCommand.getChangesInstance());
+        assertEquals(0, gone.getAsJsonArray("added").size());
+        assertEquals(added, gone.getAsJsonArray("removed"));
+        assertTrue(cache.getStats().contains("4 sent as changes"), cache.getStats());
+    }
+
+    @Test
+    @DisplayName("A robot's cached look is dropped when it leaves the world")
+    void forgetsDeadRobots() {
+        look(LookCommand.getInstance());
+        assertNotNull(cache.last("Looker"));
+        looker.setStatus(OperationalStatus.DEAD);
+        world.deleteDeadBots();
+        assertNull(cache.last("Looker"));
+    }
+}
@@ -0,0 +1,130 @@
+package za.co.wethinkcode.robots.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Coordinates;
+import za.co.wethinkcode.robots.Direction;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.maze.TerrainLayer;
+import za.co.wethinkcode.robots.maze.VisibilityTable;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.Direction.*;
+import static za.co.wethinkcode.robots.maze.TerrainLayer.*;
+import static za.co.wethinkcode.robots.world.RayCaster.CLEAR;
+
+class RayCasterTest {
+    private List<Obstacle> obstacles;
+    private TerrainLayer terrain;
+    private OccupancyGrid grid;
+    private LineIndex lines;
+    private RayCaster rays;
+
+    /**
+     * Builds a 20x20 world with a mountain at (10, 5), a lake at (5, 10) and a pit at (15, 10).
+     * Lines of sight within 15 cells are read from a visibility table.
+     */
+    @BeforeEach
+    void setUp() {
+        obstacles = List.of(
+                new Obstacle(10, 5, 10, 5, ObstacleType.MOUNTAIN),
+                new Obstacle(5, 10, 5, 10, ObstacleType.LAKE),
+                new Obstacle(15, 10, 15, 10, ObstacleType.BOTTOMLESS_PIT));
+        terrain = TerrainLayer.rasterize(obstacles, 20, 20);
+        grid = new OccupancyGrid(terrain);
+        lines = new LineIndex(20, 20);
+        VisibilityTable table = new VisibilityTable(obstacles, 20, 20, 15);
+        rays = new RayCaster(grid, lines, () -> table);
+    }
+
+    private Robot place(String name, int x, int y) {
+        Robot robot = new Robot(name, "sniper");
+        robot.setPosition(new Position(x, y));
+        grid.addRobot(robot.getCoordinates());
+        lines.add(robot, robot.getCoordinates());
+        return robot;
+    }
+
+    @Test
+    @DisplayName("A ray stops at the first cell with a blocking type and ignores the others")
+    void blockedAtFirstBlockingCell() {
+        long origin = Coordinates.pack(10, 10);
+        assertEquals(5, rays.blockedAt(origin, NORTH, 10, MOUNTAIN));
+        assertEquals(CLEAR, rays.blockedAt(origin, NORTH, 4, MOUNTAIN));
+        assertEquals(5, rays.blockedAt(origin, WEST, 10, BLOCKING));
+        assertEquals(CLEAR, rays.blockedAt(origin, WEST, 10, MOUNTAIN), "Lakes do not block sight");
+        assertEquals(5, rays.blockedAt(origin, EAST, 10, PIT));
+        assertEquals(CLEAR, rays.blockedAt(origin, SOUTH, 100, BLOCKING), "The ray stops at the edge of the world");
+    }
+
+    @Test
+    @DisplayName("A line of sight read from the visibility table ends where walking the terrain does")
+    void sightlinesMatchTheTerrainWalk() {
+        VisibilityTable shortTable = new VisibilityTable(obstacles, 20, 20, 1);
+        RayCaster walking = new RayCaster(grid, lines, () -> shortTable);
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                if (terrain.has(x, y, MOUNTAIN)) continue;
+                for (Direction direction : Direction.values()) {
+                    long origin = Coordinates.pack(x, y);
+                    assertEquals(walking.blockedAt(origin, direction, 15, MOUNTAIN),
+                            rays.blockedAt(origin, direction, 15, MOUNTAIN), x + "," + y + " " + direction);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The first robot on a ray is only found when no blocking cell is in front of it")
+    void firstRobotStopsAtMountain() {
+        long origin = Coordinates.pack(10, 10);
+        Robot near = place("Near", 10, 8);
+        Robot behind = place("Behind", 10, 3);
+        assertEquals(near, rays.firstRobot(origin, NORTH, 10, MOUNTAIN));
+
+        lines.remove(near, near.getCoordinates());
+        assertNull(rays.firstRobot(origin, NORTH, 10, MOUNTAIN), "The mountain at distance 5 hides the robot at 7");
+        assertEquals(behind, rays.firstRobot(origin, NORTH, 10, (byte) 0));
+    }
+
+    @Test
+    @DisplayName("A cast reports where it was blocked, by what, and the robots in front of that in order")
+    void castGathersRobotsInFrontOfTheBlock() {
+        long origin = Coordinates.pack(10, 10);
+        Robot far = place("Far", 10, 6);
+        Robot near = place("Near", 10, 9);
+        place("Hidden", 10, 2);
+
+        RayCaster.Ray ray = rays.cast(origin, NORTH, 15, MOUNTAIN);
+
+        assertTrue(ray.isBlocked());
+        assertEquals(5, ray.blockedAt());
+        assertEquals(MOUNTAIN, ray.blockedBy());
+        assertEquals(List.of(near, far), ray.robots());
+
+        RayCaster.Ray open = rays.cast(origin, SOUTH, 15, MOUNTAIN);
+        assertFalse(open.isBlocked());
+        assertTrue(open.robots().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A move is clear only if no blocking cell or robot is in range, and may leave the world")
+    void isClearForMoves() {
+        long origin = Coordinates.pack(10, 10);
+        assertTrue(rays.isClear(origin, NORTH, 4, BLOCKING));
+        assertFalse(rays.isClear(origin, NORTH, 5, BLOCKING));
+        assertFalse(rays.isClear(origin, WEST, 6, BLOCKING));
+        assertTrue(rays.isClear(origin, EAST, 6, BLOCKING), "Pits do not block a move");
+        assertTrue(rays.isClear(origin, SOUTH, 30, BLOCKING));
+
+        place("Blocker", 10, 13);
+        assertTrue(rays.isClear(origin, SOUTH, 2, BLOCKING));
+        assertFalse(rays.isClear(origin, SOUTH, 3, BLOCKING));
+    }
+}
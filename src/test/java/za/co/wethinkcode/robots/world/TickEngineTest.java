@@ -0,0 +1,162 @@
+package za.co.wethinkcode.robots.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.UpdateResponse;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.UpdateResponse.*;
+
+/**
+ * TickEngineTest.java
+ * This class contains tests for the TickEngine, which applies requests to the world in fixed-rate batches.
+ * The tests step the engine by calling tick() directly instead of starting the tick thread.
+ */
+class TickEngineTest {
+    private World world;
+    private TickEngine engine;
+    private Robot alpha;
+    private Robot bravo;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        world = new World(false);
+        engine = new TickEngine(world, 20);
+
+        alpha = new Robot("Alpha", "sniper");
+        alpha.setPosition(new Position(4, 10));
+        alpha.updateDirection(true); // EAST
+        bravo = new Robot("Bravo", "sniper");
+        bravo.setPosition(new Position(6, 10));
+        bravo.updateDirection(false); // WEST
+        world.addRobot(alpha);
+        world.addRobot(bravo);
+    }
+
+    @Test
+    @DisplayName("Responses are only completed at the end of the tick")
+    void testResponsesWaitForTick() {
+        CompletableFuture<UpdateResponse> move = engine.submit("Alpha", "forward", w -> w.updatePosition(alpha, 1));
+
+        assertFalse(move.isDone());
+        assertEquals(new Position(4, 10), alpha.getPosition());
+
+        engine.tick();
+
+        assertTrue(move.isDone());
+        assertEquals(SUCCESS, move.join());
+        assertEquals(new Position(5, 10), alpha.getPosition());
+    }
+
+    @Test
+    @DisplayName("Two robots moving into the same cell are resolved by robot name, not arrival order")
+    void testConflictingMovesAreDeterministic() {
+        CompletableFuture<UpdateResponse> bravoMove = engine.submit("Bravo", "forward", w -> w.updatePosition(bravo, 1));
+        CompletableFuture<UpdateResponse> alphaMove = engine.submit("Alpha", "forward", w -> w.updatePosition(alpha, 1));
+
+        engine.tick();
+
+        assertEquals(SUCCESS, alphaMove.join());
+        assertEquals(FAILURE_OBSTRUCTED, bravoMove.join());
+        assertEquals(new Position(5, 10), alpha.getPosition());
+        assertEquals(new Position(6, 10), bravo.getPosition());
+    }
+
+    @Test
+    @DisplayName("A robot's own requests in one tick are applied in the order they arrived")
+    void testPipelinedRequestsKeepTheirOrder() {
+        bravo.setPosition(new Position(20, 20));
+        CompletableFuture<UpdateResponse> first = engine.submit("Alpha", "forward", w -> w.updatePosition(alpha, 1));
+        engine.submit("Alpha", "turn", w -> {
+            alpha.updateDirection(true); // SOUTH
+            return null;
+        });
+        CompletableFuture<UpdateResponse> second = engine.submit("Alpha", "forward", w -> w.updatePosition(alpha, 1));
+
+        engine.tick();
+
+        assertEquals(SUCCESS, first.join());
+        assertEquals(SUCCESS, second.join());
+        assertEquals(new Position(5, 11), alpha.getPosition());
+    }
+
+    @Test
+    @DisplayName("Looks in a tick see the positions after that tick's moves")
+    void testLooksRunAfterMoves() {
+        CompletableFuture<Position> look = engine.submit("Bravo", "look", w -> alpha.getPosition());
+        engine.submit("Alpha", "forward", w -> w.updatePosition(alpha, 1));
+
+        engine.tick();
+
+        assertEquals(new Position(5, 10), look.join());
+    }
+
+    @Test
+    @DisplayName("A failing request fails only its own future")
+    void testFailureIsKeptToItsRequest() {
+        CompletableFuture<Object> failed = engine.submit("Alpha", "state", w -> {
+            throw new IllegalArgumentException("bad request");
+        });
+        CompletableFuture<UpdateResponse> move = engine.submit("Bravo", "forward", w -> w.updatePosition(bravo, 1));
+
+        engine.tick();
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(SUCCESS, move.join());
+    }
+
+    @Test
+    @DisplayName("A request that throws an Error fails its own future and later ticks still run")
+    void testErrorDoesNotStopTicking() throws Exception {
+        engine.start();
+        try {
+            CompletableFuture<Object> failed = engine.submit("Alpha", "state", w -> {
+                throw new AssertionError("broken command");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, e.getCause());
+
+            CompletableFuture<UpdateResponse> move = engine.submit("Bravo", "forward", w -> w.updatePosition(bravo, 1));
+            assertEquals(SUCCESS, move.get(5, TimeUnit.SECONDS));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Metrics count ticks and applied requests")
+    void testMetrics() {
+        engine.submit("Alpha", "state", w -> 1);
+        engine.submit("Bravo", "state", w -> 1);
+        engine.tick();
+        engine.tick();
+
+        assertEquals(2, engine.getTicks());
+        assertEquals(2, engine.getCompleted());
+        assertEquals(2, engine.getMaxBatchSize());
+        assertTrue(engine.getStats().startsWith("Tick engine: 2 ticks at 50.0 ms, 2 requests applied"));
+    }
+
+    @Test
+    @DisplayName("Requests waiting for a tick fail when the engine shuts down")
+    void testShutdownFailsWaitingRequests() {
+        CompletableFuture<Integer> waiting = engine.submit("Alpha", "state", w -> 1);
+
+        engine.shutdown();
+
+        CompletionException e = assertThrows(CompletionException.class, waiting::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(engine.submit("Alpha", "state", w -> 1).isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,159 @@
+package za.co.wethinkcode.robots.world;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.OperationalStatus;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimerWheelTest.java
+ * This class contains tests for the TimerWheel and the robot reloads and repairs it finishes.
+ * Apart from one test of the real clock, the wheel is never started, so the tests move its clock by calling
+ * advanceTo() themselves.
+ */
+class TimerWheelTest {
+    private TimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        wheel = new TimerWheel(10, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Config.loadConfig("config.properties");
+    }
+
+    @Test
+    @DisplayName("Timers run once their delay has passed, in the order they are due")
+    void testRunsInDueOrder() {
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(250, () -> ran.add("late"));
+        wheel.schedule(30, () -> ran.add("early"));
+        wheel.schedule(30, () -> ran.add("early too"));
+
+        wheel.advanceTo(29);
+        assertTrue(ran.isEmpty());
+
+        wheel.advanceTo(30);
+        assertEquals(List.of("early", "early too"), ran);
+
+        wheel.advanceTo(1000);
+        assertEquals(List.of("early", "early too", "late"), ran);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("Delays longer than one turn of the wheel wait for the right turn")
+    void testDelayLongerThanWheel() {
+        AtomicInteger ran = new AtomicInteger();
+        wheel.schedule(64 * 10 * 3 + 5, ran::incrementAndGet);
+
+        wheel.advanceTo(64 * 10 * 3);
+        assertEquals(0, ran.get());
+
+        wheel.advanceTo(64 * 10 * 3 + 10);
+        assertEquals(1, ran.get());
+    }
+
+    @Test
+    @DisplayName("Cancelled timers never run")
+    void testCancel() {
+        AtomicInteger ran = new AtomicInteger();
+        TimerWheel.Timer timer = wheel.schedule(50, ran::incrementAndGet);
+        wheel.advanceTo(20);
+        timer.cancel();
+
+        wheel.advanceTo(100);
+        assertEquals(0, ran.get());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("A task that throws an Error does not stop the running clock")
+    void testErrorDoesNotStopTheClock() throws InterruptedException {
+        CountDownLatch later = new CountDownLatch(1);
+        wheel.schedule(10, () -> {
+            throw new AssertionError("broken task");
+        });
+        wheel.schedule(50, later::countDown);
+
+        wheel.start();
+        try {
+            assertTrue(later.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A hundred thousand pending timers all run exactly once")
+    void testHundredThousandTimers() {
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(1 + i % 5000, ran::incrementAndGet);
+        }
+        assertEquals(100_000, wheel.pending());
+
+        wheel.advanceTo(2500);
+        assertEquals(50_000, ran.get());
+
+        wheel.advanceTo(5000);
+        assertEquals(100_000, ran.get());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("Reload takes RELOAD_DURATION and refills the shots when it finishes")
+    void testRobotReload() {
+        Config.RELOAD_DURATION = 2;
+        Config.REPAIR_DURATION = 7;
+        Robot robot = new Robot("Alpha", "soldier");
+        robot.setTimers(wheel);
+        robot.decrementShot();
+        int shots = robot.getShots();
+
+        assertTrue(robot.reload());
+        assertEquals(OperationalStatus.RELOAD, robot.getStatus());
+        assertTrue(robot.isBusy());
+
+        wheel.advanceTo(1990);
+        assertEquals(OperationalStatus.RELOAD, robot.getStatus());
+        assertEquals(shots, robot.getShots());
+
+        wheel.advanceTo(2000);
+        assertEquals(OperationalStatus.NORMAL, robot.getStatus());
+        assertEquals(shots + 1, robot.getShots());
+    }
+
+    @Test
+    @DisplayName("Repair takes REPAIR_DURATION and is dropped if the robot dies first")
+    void testRobotRepair() {
+        Config.REPAIR_DURATION = 3;
+        Robot robot = new Robot("Alpha", "soldier");
+        robot.setTimers(wheel);
+
+        robot.repair();
+        wheel.advanceTo(2000);
+        assertEquals(OperationalStatus.REPAIR, robot.getStatus());
+        wheel.advanceTo(3000);
+        assertEquals(OperationalStatus.NORMAL, robot.getStatus());
+
+        robot.repair();
+        robot.setStatus(OperationalStatus.DEAD);
+        wheel.advanceTo(10_000);
+        assertEquals(OperationalStatus.DEAD, robot.getStatus());
+    }
+}
@@ -0,0 +1,129 @@
+package za.co.wethinkcode.robots.world;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WorldActorTest.java
+ * This class contains tests for the WorldActor, which applies all submitted work on one world thread.
+ */
+class WorldActorTest {
+    private World world;
+    private WorldActor actor;
+
+    @BeforeEach
+    void setUp() {
+        world = new World(false);
+        actor = new WorldActor(world);
+        actor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        actor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Submitted work runs against the world and completes its future")
+    void testSubmitReturnsResult() {
+        Robot robot = new Robot("ActorBot", "sniper");
+        CompletableFuture<Integer> result = actor.submit(w -> {
+            w.addRobot(robot);
+            return w.getRobots().size();
+        });
+
+        assertEquals(1, (int) result.join());
+        assertEquals(robot, world.getRobotByName("ActorBot"));
+    }
+
+    @Test
+    @DisplayName("Work from many producers runs on one thread, in the order each producer submitted it")
+    void testWorkRunsInOrderOnOneThread() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 1000;
+        List<List<Integer>> seen = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        List<String> runners = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            seen.add(new ArrayList<>());
+            int producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int value = i;
+                    actor.submit(w -> {
+                        seen.get(producer).add(value);
+                        runners.add(Thread.currentThread().getName());
+                        return value;
+                    });
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        actor.submit(w -> null).join();
+
+        for (List<Integer> values : seen) {
+            assertEquals(perProducer, values.size());
+            for (int i = 0; i < perProducer; i++) assertEquals(i, (int) values.get(i));
+        }
+        assertTrue(runners.stream().allMatch("world-actor"::equals));
+    }
+
+    @Test
+    @DisplayName("Work that throws completes its future exceptionally and the actor keeps going")
+    void testFailedWorkDoesNotStopActor() {
+        CompletableFuture<Object> failed = actor.submit(w -> {
+            throw new IllegalArgumentException("bad request");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals("done", actor.submit(w -> "done").join());
+    }
+
+    @Test
+    @DisplayName("Work that throws an Error fails its own future without killing the actor thread")
+    void testErrorDoesNotStopActor() {
+        CompletableFuture<Object> failed = actor.submit(w -> {
+            throw new AssertionError("broken command");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(AssertionError.class, e.getCause());
+        assertEquals("done", actor.submit(w -> "done").join());
+    }
+
+    @Test
+    @DisplayName("Work submitted after shutdown is rejected")
+    void testSubmitAfterShutdown() {
+        actor.shutdown();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> actor.submit(w -> 1).join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Metrics count submitted and completed work")
+    void testMetrics() {
+        for (int i = 0; i < 100; i++) actor.submit(w -> 1);
+        actor.submit(w -> 1).join();
+
+        assertEquals(101, actor.getSubmitted());
+        assertEquals(101, actor.getCompleted());
+        assertEquals(0, actor.getQueueDepth());
+        assertTrue(actor.getAverageBatchSize() >= 1);
+        assertTrue(actor.getMaxBatchSize() >= 1);
+        assertTrue(actor.getThroughputPerSecond() > 0);
+        assertTrue(actor.getStats().startsWith("World actor: 101 submitted, 101 completed"));
+    }
+}
@@ -0,0 +1,114 @@
+package za.co.wethinkcode.robots.world;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.command.FireCommand;
+import za.co.wethinkcode.robots.command.TurnCommand;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.robot.Robot;
+import za.co.wethinkcode.robots.world.WorldEvent.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.OperationalStatus.*;
+
+/**
+ * Tests for the {@link WorldEventLog} that records the world's changes for spectators.
+ */
+class WorldEventLogTest {
+    private World world;
+    private WorldEventLog events;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        world = new World(false, new Maze(new ArrayList<>(), Config.WIDTH, Config.HEIGHT));
+        events = world.getEvents();
+    }
+
+    @Test
+    @DisplayName("Nothing is recorded until someone is reading")
+    void recordsNothingUntilRecording() {
+        Robot robot = robotAt("Quiet", 10, 10);
+        world.updatePosition(robot, 2);
+
+        assertEquals(0, events.getHead());
+    }
+
+    @Test
+    @DisplayName("Moves, turns, status changes and removals are recorded with what changed")
+    void recordsRobotChanges() {
+        Robot robot = robotAt("Mover", 10, 10);
+        events.setRecording(true);
+
+        world.updatePosition(robot, 2);
+        new TurnCommand("right").execute(world, robot);
+        robot.setStatus(RELOAD);
+        robot.setStatus(DEAD);
+        world.deleteDeadBots();
+
+        List<WorldEvent> recorded = readAll();
+        assertEquals(List.of(Type.MOVED, Type.TURNED, Type.STATUS, Type.STATUS, Type.DIED),
+                recorded.stream().map(WorldEvent::type).toList());
+        assertEquals("[10,8]", recorded.get(0).toJson().get("position").toString());
+        assertEquals("EAST", recorded.get(1).toJson().get("direction").getAsString());
+        assertFalse(recorded.get(1).toJson().has("position"));
+        assertEquals("RELOAD", recorded.get(2).toJson().get("status").getAsString());
+        assertEquals(4, recorded.get(4).sequence());
+    }
+
+    @Test
+    @DisplayName("A hit records the shot and the damage")
+    void recordsShots() {
+        Robot shooter = robotAt("Shooter", 10, 10);
+        Robot target = robotAt("Target", 10, 8);
+        events.setRecording(true);
+
+        FireCommand.getInstance().execute(world, shooter);
+
+        List<WorldEvent> recorded = readAll();
+        assertEquals(List.of(Type.FIRED, Type.HIT), recorded.stream().map(WorldEvent::type).toList());
+        JsonObject fired = recorded.get(0).toJson();
+        assertEquals("Target", fired.get("hit").getAsString());
+        assertEquals(shooter.getShots(), fired.get("shots").getAsInt());
+        JsonObject hit = recorded.get(1).toJson();
+        assertEquals("Target", hit.get("robot").getAsString());
+        assertEquals(target.getShields(), hit.get("shields").getAsInt());
+        assertEquals("Shooter", hit.get("by").getAsString());
+    }
+
+    @Test
+    @DisplayName("A reader that falls a whole buffer behind is told it was lapped")
+    void lappedReaderIsTold() {
+        WorldEventLog small = new WorldEventLog(16);
+        small.setRecording(true);
+        Robot robot = new Robot("Busy", "sniper");
+        for (int i = 0; i < 40; i++) small.record(Type.TURNED, robot);
+
+        assertEquals(16, small.getCapacity());
+        assertEquals(WorldEventLog.LAPPED, small.read(0, 40, new ArrayList<>()));
+        List<WorldEvent> latest = new ArrayList<>();
+        assertEquals(16, small.read(24, 40, latest));
+        assertEquals(24, latest.get(0).sequence());
+        assertEquals(0, small.read(40, 40, latest));
+    }
+
+    private Robot robotAt(String name, int x, int y) {
+        Robot robot = new Robot(name, "soldier");
+        world.addRobot(robot);
+        robot.setPosition(new Position(x, y));
+        return robot;
+    }
+
+    private List<WorldEvent> readAll() {
+        List<WorldEvent> recorded = new ArrayList<>();
+        assertNotEquals(WorldEventLog.LAPPED, events.read(0, events.getHead(), recorded));
+        return recorded;
+    }
+}
@@ -0,0 +1,109 @@
+package za.co.wethinkcode.robots.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.wethinkcode.robots.Position;
+import za.co.wethinkcode.robots.config.Config;
+import za.co.wethinkcode.robots.maze.Maze;
+import za.co.wethinkcode.robots.obstacle.Obstacle;
+import za.co.wethinkcode.robots.obstacle.ObstacleType;
+import za.co.wethinkcode.robots.robot.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static za.co.wethinkcode.robots.OperationalStatus.*;
+
+/**
+ * Tests for the versioned snapshots and deltas a {@link World} gives clients catching up.
+ */
+class WorldSnapshotTest {
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        Config.loadConfig("config.properties");
+        world = worldWith(List.of(new Obstacle(2, 2, 3, 3, ObstacleType.MOUNTAIN)));
+    }
+
+    @Test
+    @DisplayName("The changes since a version hold only the robots that moved, joined or left")
+    void deltaHoldsOnlyChanges() {
+        Robot still = robotAt("Still", 5, 5);
+        Robot mover = robotAt("Mover", 10, 10);
+        Robot doomed = robotAt("Doomed", 15, 15);
+        long version = world.getVersion();
+
+        world.updatePosition(mover, 2);
+        robotAt("Newcomer", 12, 12);
+        doomed.setStatus(DEAD);
+        world.deleteDeadBots();
+
+        WorldSnapshot delta = world.changesSince(version, world.getObstacleHash());
+        assertFalse(delta.isFull());
+        assertTrue(delta.version() > version);
+        assertEquals(List.of("Mover", "Newcomer"), delta.robots().stream().map(WorldSnapshot.RobotState::name).sorted().toList());
+        assertEquals(List.of("Doomed"), delta.removed());
+        assertNull(delta.obstacles());
+        assertEquals("[10,8]", delta.toJson().getAsJsonArray("robots").get(0).getAsJsonObject().get("position").toString());
+        assertNotEquals(still.getVersion(), mover.getVersion());
+
+        WorldSnapshot none = world.changesSince(delta.version(), world.getObstacleHash());
+        assertTrue(none.robots().isEmpty());
+        assertTrue(none.removed().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A version the world has not had gets a full snapshot")
+    void unknownVersionGetsFullSnapshot() {
+        robotAt("One", 5, 5);
+        robotAt("Two", 6, 6);
+
+        WorldSnapshot ahead = world.changesSince(world.getVersion() + 10, world.getObstacleHash());
+        assertTrue(ahead.isFull());
+        assertEquals(2, ahead.robots().size());
+        assertFalse(ahead.toJson().has("removed"));
+        assertTrue(world.changesSince(-1, world.getObstacleHash()).isFull());
+    }
+
+    @Test
+    @DisplayName("A version older than the removals remembered gets a full snapshot")
+    void tooOldVersionGetsFullSnapshot() {
+        long version = world.getVersion();
+        for (int i = 0; i <= World.MAX_REMOVALS; i++) {
+            Robot robot = robotAt("Short" + i, 1 + i % 40, 20 + i % 10);
+            robot.setStatus(DEAD);
+            world.deleteDeadBots();
+        }
+
+        assertTrue(world.changesSince(version, world.getObstacleHash()).isFull());
+        assertFalse(world.changesSince(world.getVersion() - 1, world.getObstacleHash()).isFull());
+    }
+
+    @Test
+    @DisplayName("Obstacles are only sent to a client whose hash is different")
+    void obstaclesSentOnHashMismatch() {
+        long hash = world.getObstacleHash();
+
+        assertEquals(hash, worldWith(List.of(new Obstacle(2, 2, 3, 3, ObstacleType.MOUNTAIN))).getObstacleHash());
+        assertNotEquals(hash, worldWith(List.of(new Obstacle(2, 2, 3, 3, ObstacleType.LAKE))).getObstacleHash());
+        assertNull(world.snapshot(hash).obstacles());
+        WorldSnapshot withObstacles = world.snapshot(0);
+        assertEquals(1, withObstacles.obstacles().size());
+        assertEquals("MOUNTAIN", withObstacles.toJson().getAsJsonArray("obstacles").get(0).getAsJsonObject().get("type").getAsString());
+        assertEquals(Long.toHexString(hash), withObstacles.toJson().get("obstacleHash").getAsString());
+    }
+
+    private static World worldWith(List<Obstacle> obstacles) {
+        return new World(false, new Maze(new ArrayList<>(obstacles), Config.WIDTH, Config.HEIGHT));
+    }
+
+    private Robot robotAt(String name, int x, int y) {
+        Robot robot = new Robot(name, "soldier");
+        world.addRobot(robot);
+        robot.setPosition(new Position(x, y));
+        return robot;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import za.co.wethinkcode.robots.Direction;
 import za.co.wethinkcode.robots.Position;
 import za.co.wethinkcode.robots.UpdateResponse;
+import za.co.wethinkcode.robots.maze.Maze;
 import za.co.wethinkcode.robots.obstacle.Obstacle;
 import za.co.wethinkcode.robots.obstacle.ObstacleType;
 import za.co.wethinkcode.robots.robot.Robot;
@@ -47,7 +48,6 @@ class WorldTest {
         world = new World(false);
         robot = new Robot("TestBot", "soldier");
         world.addRobot(robot);
-        world.setCurrentRobot(robot);
         System.out.println(world.getBOTTOM_RIGHT());
     }
 
@@ -58,18 +58,53 @@ class WorldTest {
     }
 
     @Test
-    void testSetCurrentRobotByName() {
+    void testGetRobotByName() {
         Robot anotherBot = new Robot("AnotherBot", "sniper");
         world.addRobot(anotherBot);
-        world.setCurrentRobotByName("AnotherBot");
-        assertEquals("AnotherBot", world.getCurrentRobot().getName());
+        assertEquals(anotherBot, world.getRobotByName("AnotherBot"));
+        assertNull(world.getRobotByName("NoSuchBot"));
+    }
+
+    @Test
+    void testAddRobotRejectsDuplicateName() {
+        Robot duplicate = new Robot("TestBot", "tank");
+        assertFalse(world.addRobot(duplicate));
+        assertEquals(1, world.getRobots().size());
+        assertSame(robot, world.getRobotByName("TestBot"));
+    }
+
+    @Test
+    void testDeleteDeadBotsRemovesThemFromNameLookup() {
+        robot.setStatus(DEAD);
+        world.deleteDeadBots();
+        assertNull(world.getRobotByName("TestBot"));
+
+        Robot relaunched = new Robot("TestBot", "tank");
+        assertTrue(world.addRobot(relaunched));
+        assertSame(relaunched, world.getRobotByName("TestBot"));
+    }
+
+    @Test
+    void testUpdatePositionMovesOnlyTheGivenRobot() {
+        Robot anotherBot = new Robot("AnotherBot", "sniper");
+        anotherBot.setPosition(new Position(2, 2));
+        world.addRobot(anotherBot);
+        robot.setPosition(new Position(10, 10));
+        setRobotDirection(robot, NORTH);
+        setRobotDirection(anotherBot, EAST);
+
+        assertEquals(SUCCESS, world.updatePosition(anotherBot, 1));
+        assertEquals(SUCCESS, world.updatePosition(robot, 2));
+
+        assertEquals(new Position(3, 2), anotherBot.getPosition());
+        assertEquals(new Position(10, 8), robot.getPosition());
     }
 
     @Test
     void testUpdatePositionWithinBounds() {
         robot.setPosition(new Position(18, 5));
         setRobotDirection(robot, NORTH);
-        UpdateResponse response = world.updatePosition(1);
+        UpdateResponse response = world.updatePosition(robot, 1);
         assertEquals(SUCCESS, response);
         assertEquals(new Position(18, 4), robot.getPosition());
     }
@@ -79,29 +114,25 @@ class WorldTest {
         // Position robot at the edge and try to move out of bounds
         robot.setPosition(new Position(0, 0));
         setRobotDirection(robot, NORTH); // Try to move north from (0,0) which should be out of bounds
-        UpdateResponse response = world.updatePosition(1);
+        UpdateResponse response = world.updatePosition(robot, 1);
         assertEquals(FAILURE_OUT_OF_BOUNDS, response);
         assertEquals(DEAD, robot.getStatus());
     }
 
     @Test
     void testBottomlessPitKillsRobot() {
-        // Create a mock world to control obstacles
-        World spyWorld = spy(new World(false));
-        Robot testRobot = new Robot("PitTestBot", "soldier");
-        spyWorld.addRobot(testRobot);
-        spyWorld.setCurrentRobot(testRobot);
-
-        // Create a bottomless pit obstacle
+        // Create a world whose only obstacle is a bottomless pit
         Obstacle pit = new Obstacle(1, 1, 2, 2, ObstacleType.BOTTOMLESS_PIT);
         List<Obstacle> obstacles = Collections.singletonList(pit);
-        when(spyWorld.getObstacles()).thenReturn(obstacles);
+        World pitWorld = new World(false, new Maze(obstacles));
+        Robot testRobot = new Robot("PitTestBot", "soldier");
+        pitWorld.addRobot(testRobot);
 
         // Position robot next to pit and move into it
         testRobot.setPosition(new Position(0, 1));
         setRobotDirection(testRobot, EAST);
 
-        UpdateResponse response = spyWorld.updatePosition(1);
+        UpdateResponse response = pitWorld.updatePosition(testRobot, 1);
 
         assertEquals(DIED_FELL_IN_PIT, response);
         assertEquals(DEAD, testRobot.getStatus());
@@ -125,7 +156,7 @@ class WorldTest {
     @Test
     void testIsNewPositionAllowed_NoObstructions() {
         Position newPosition = new Position(10, 10);
-        assertTrue(world.isNewPositionAllowed(newPosition));
+        assertTrue(world.isNewPositionAllowed(robot, newPosition));
     }
 
     @Test
@@ -136,7 +167,7 @@ class WorldTest {
         world.addRobot(anotherBot);
 
         Position newPosition = new Position(0, 2);
-        assertFalse(world.isNewPositionAllowed(newPosition));
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
     }
 
     @Test
@@ -149,7 +180,7 @@ class WorldTest {
         world.addRobot(anotherBot);
 
         Position newPosition = new Position(0, 3);
-        assertFalse(world.isNewPositionAllowed(newPosition));
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
     }
 
     @Test
@@ -162,7 +193,7 @@ class WorldTest {
         world.addRobot(anotherBot);
 
         Position newPosition = new Position(7, 0);
-        assertFalse(world.isNewPositionAllowed(newPosition));
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
     }
 
     @Test
@@ -175,7 +206,7 @@ class WorldTest {
         world.addRobot(anotherBot);
 
         Position newPosition = new Position(3, 0);
-        assertFalse(world.isNewPositionAllowed(newPosition));
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
     }
 
 
@@ -188,92 +219,124 @@ class WorldTest {
         anotherBot.setPosition(new Position(6, 0));
         world.addRobot(anotherBot);
 
-        Robot second = new Robot("AnotherBot", "sniper");
+        Robot second = new Robot("SecondBot", "sniper");
         second.setPosition(new Position(4, 0));
         world.addRobot(second);
 
 
         Position newPosition = new Position(3, 0);
-        assertFalse(world.isNewPositionAllowed(newPosition));
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
     }
 
     @Test
     void testIsNewPositionAllowed_ObstructedByObstacle() {
-        // Use reflection to directly modify the obstacleList field
-        try {
-            Field obstacleListField = World.class.getDeclaredField("obstacleList");
-            obstacleListField.setAccessible(true);
+        List<Obstacle> obstacles = new ArrayList<>();
+        obstacles.add(new Obstacle(9, 9, 11, 11, ObstacleType.MOUNTAIN));
+        world = new World(false, new Maze(obstacles));
+        world.addRobot(robot);
 
-            List<Obstacle> obstacles = new ArrayList<>();
-            obstacles.add(new Obstacle(9, 9, 11, 11, ObstacleType.MOUNTAIN));
-            obstacleListField.set(world, obstacles);
+        Position newPosition = new Position(10, 10);
+        assertFalse(world.isNewPositionAllowed(robot, newPosition));
+    }
 
-            Position newPosition = new Position(10, 10);
-            assertFalse(world.isNewPositionAllowed(newPosition));
-        } catch (Exception e) {
-            fail("Failed to set obstacle list: " + e.getMessage());
-        }
+    @Test
+    void testIsNewPositionAllowed_ObstructedByObstacleOnPath() {
+        List<Obstacle> obstacles = new ArrayList<>();
+        obstacles.add(new Obstacle(10, 7, 12, 8, ObstacleType.LAKE));
+        world = new World(false, new Maze(obstacles));
+        world.addRobot(robot);
+        robot.setPosition(new Position(10, 10));
+        setRobotDirection(robot, NORTH);
+
+        assertFalse(world.isNewPositionAllowed(robot, new Position(10, 5)));
+        assertTrue(world.isNewPositionAllowed(robot, new Position(10, 9)));
     }
 
     @Test
-    void testIsMovementObstructed_ByMountain() {
-        // Use reflection to directly modify the obstacleList field
-        try {
-            Field obstacleListField = World.class.getDeclaredField("obstacleList");
-            obstacleListField.setAccessible(true);
+    void testIsNewPositionAllowed_FollowsMovedRobots() {
+        Robot anotherBot = new Robot("AnotherBot", "sniper");
+        world.addRobot(anotherBot);
+        anotherBot.setPosition(new Position(10, 8));
+        robot.setPosition(new Position(10, 10));
+        setRobotDirection(robot, NORTH);
+        assertFalse(world.isNewPositionAllowed(robot, new Position(10, 7)));
 
-            List<Obstacle> obstacles = new ArrayList<>();
-            obstacles.add(new Obstacle(5, 5, 7, 7, ObstacleType.MOUNTAIN));
-            obstacleListField.set(world, obstacles);
+        anotherBot.setPosition(new Position(12, 8));
+        assertTrue(world.isNewPositionAllowed(robot, new Position(10, 7)));
 
-            Position obstructedPosition = new Position(6, 6);
-            assertTrue(world.isMovementObstructed(obstructedPosition));
+        anotherBot.setStatus(DEAD);
+        world.deleteDeadBots();
+        assertTrue(world.isLaunchAllowed(robot, new Position(12, 8)));
+    }
 
-            Position freePosition = new Position(10, 10);
-            // Based on your implementation logic, this should return false for non-mountain positions
-            assertFalse(world.isMovementObstructed(freePosition));
-        } catch (Exception e) {
-            fail("Failed to set obstacle list: " + e.getMessage());
-        }
+    @Test
+    void testRobotsInLine_FollowsMovesAndRemovals() {
+        Robot near = new Robot("NearBot", "sniper");
+        Robot far = new Robot("FarBot", "sniper");
+        world.addRobot(near);
+        world.addRobot(far);
+        robot.setPosition(new Position(10, 10));
+        near.setPosition(new Position(10, 6));
+        far.setPosition(new Position(10, 3));
+
+        assertEquals(near, world.nearestRobot(robot.getPosition(), NORTH, 10));
+        assertEquals(List.of(near, far), world.robotsInLine(robot.getPosition(), NORTH, 10));
+        assertNull(world.nearestRobot(robot.getPosition(), NORTH, 3));
+        assertTrue(world.robotsInLine(robot.getPosition(), SOUTH, 10).isEmpty());
+
+        near.setPosition(new Position(11, 6));
+        assertEquals(far, world.nearestRobot(robot.getPosition(), NORTH, 10));
+
+        far.setStatus(DEAD);
+        world.deleteDeadBots();
+        assertNull(world.nearestRobot(robot.getPosition(), NORTH, 10));
+        assertEquals(near, world.nearestRobot(new Position(5, 6), EAST, 10));
+    }
+
+    @Test
+    void testIsMovementObstructed_ByMountain() {
+        List<Obstacle> obstacles = new ArrayList<>();
+        obstacles.add(new Obstacle(5, 5, 7, 7, ObstacleType.MOUNTAIN));
+        obstacles.add(new Obstacle(12, 12, 14, 14, ObstacleType.LAKE));
+        world = new World(false, new Maze(obstacles));
+
+        Position obstructedPosition = new Position(6, 6);
+        assertTrue(world.isMovementObstructed(obstructedPosition));
+
+        Position freePosition = new Position(10, 10);
+        assertFalse(world.isMovementObstructed(freePosition));
+        assertFalse(world.isMovementObstructed(new Position(13, 13)), "Only mountains stop bullets");
     }
 
     @Test
     void testUpdatePosition_AllDirections() {
+        // Use a world without obstacles to ensure clean test
+        world = new World(false, new Maze(new ArrayList<>()));
         Robot testRobot = new Robot("DirectionsTestBot", "soldier");
         world.addRobot(testRobot);
-        world.setCurrentRobot(testRobot);
-
-        // Clear any existing obstacles to ensure clean test
-        try {
-            Field obstacleListField = World.class.getDeclaredField("obstacleList");
-            obstacleListField.setAccessible(true);
-            obstacleListField.set(world, new ArrayList<>());
-        } catch (Exception e) {
-            fail("Failed to clear obstacle list: " + e.getMessage());
-        }
 
         // Test NORTH movement (y decreases)
         testRobot.setPosition(new Position(5, 5));
         setRobotDirection(testRobot, NORTH);
-        assertEquals(SUCCESS, world.updatePosition(1));
+        assertEquals(SUCCESS, world.updatePosition(testRobot, 1));
         assertEquals(new Position(5, 4), testRobot.getPosition());
 
         // Test EAST movement (x increases)
         testRobot.setPosition(new Position(5, 5));
         setRobotDirection(testRobot, EAST);
-        assertEquals(SUCCESS, world.updatePosition(1));
+        assertEquals(SUCCESS, world.updatePosition(testRobot, 1));
         assertEquals(new Position(6, 5), testRobot.getPosition());
 
         // Test SOUTH movement (y increases)
         testRobot.setPosition(new Position(5, 5));
         setRobotDirection(testRobot, SOUTH);
-        assertEquals(SUCCESS, world.updatePosition(1));
+        assertEquals(SUCCESS, world.updatePosition(testRobot, 1));
         assertEquals(new Position(5, 6), testRobot.getPosition());
 
         // Test WEST movement (x decreases)
         testRobot.setPosition(new Position(5, 5));
         setRobotDirection(testRobot, WEST);
-        assertEquals(SUCCESS, world.updatePosition(1));
+        assertEquals(SUCCESS, world.updatePosition(testRobot, 1));
         assertEquals(new Position(4, 5), testRobot.getPosition());
     }
 
@@ -286,7 +349,7 @@ class WorldTest {
         robot.setPosition(new Position(5, 5));
         setRobotDirection(robot, NORTH);
 
-        UpdateResponse response = world.updatePosition(1);
+        UpdateResponse response = world.updatePosition(robot, 1);
         assertEquals(FAILURE_OBSTRUCTED, response);
         assertEquals(new Position(5, 5), robot.getPosition()); // Position should remain unchanged
     }
@@ -320,7 +383,7 @@ class WorldTest {
     @Test
     void testIsLaunchAllowed_NoObstructions() {
         Position newPosition = new Position(10, 10);
-        assertTrue(world.isLaunchAllowed(newPosition));
+        assertTrue(world.isLaunchAllowed(robot, newPosition));
     }
 
     @Test
@@ -330,7 +393,7 @@ class WorldTest {
         world.addRobot(anotherBot);
 
         Position newPosition = new Position(10, 10);
-        assertFalse(world.isLaunchAllowed(newPosition));
+        assertFalse(world.isLaunchAllowed(robot, newPosition));
     }
 
     @Test
@@ -350,7 +413,7 @@ class WorldTest {
         robot.setPosition(new Position(10, 10));
         setRobotDirection(robot, NORTH);
 
-        UpdateResponse response = world.updatePosition(3);
+        UpdateResponse response = world.updatePosition(robot, 3);
         assertEquals(SUCCESS, response);
         assertEquals(new Position(10, 7), robot.getPosition()); // Moved 3 steps north
     }